@@ -54,7 +54,7 @@ public class GBDaoGenerator {
 
 
     public static void main(String[] args) throws Exception {
-        final Schema schema = new Schema(92, MAIN_PACKAGE + ".entities");
+        final Schema schema = new Schema(96, MAIN_PACKAGE + ".entities");
 
         Entity userAttributes = addUserAttributes(schema);
         Entity user = addUserInfo(schema, userAttributes);
@@ -175,6 +175,7 @@ public class GBDaoGenerator {
 
         addActivitySummary(schema, user, device);
         addBatteryLevel(schema, device);
+        addActivityHourlyRollup(schema, device);
         new DaoGenerator().generateAll(schema, "app/src/main/java");
     }
 
@@ -1012,11 +1013,12 @@ public class GBDaoGenerator {
         Entity biometricSample = addEntity(schema, "LefunBiometricSample");
         biometricSample.implementsSerializable();
 
-        biometricSample.addIntProperty("timestamp").notNull().primaryKey();
+        Property timestamp = biometricSample.addIntProperty("timestamp").notNull().primaryKey().getProperty();
         Property deviceId = biometricSample.addLongProperty("deviceId").primaryKey().notNull().getProperty();
         biometricSample.addToOne(device, deviceId);
         Property userId = biometricSample.addLongProperty("userId").notNull().getProperty();
         biometricSample.addToOne(user, userId);
+        addDeviceTimestampIndex(biometricSample, deviceId, timestamp);
 
         biometricSample.addIntProperty("type").notNull();
         biometricSample.addIntProperty("value1").notNull();
@@ -1028,11 +1030,12 @@ public class GBDaoGenerator {
         Entity sleepSample = addEntity(schema, "LefunSleepSample");
         sleepSample.implementsSerializable();
 
-        sleepSample.addIntProperty("timestamp").notNull().primaryKey();
+        Property timestamp = sleepSample.addIntProperty("timestamp").notNull().primaryKey().getProperty();
         Property deviceId = sleepSample.addLongProperty("deviceId").primaryKey().notNull().getProperty();
         sleepSample.addToOne(device, deviceId);
         Property userId = sleepSample.addLongProperty("userId").notNull().getProperty();
         sleepSample.addToOne(user, userId);
+        addDeviceTimestampIndex(sleepSample, deviceId, timestamp);
 
         sleepSample.addIntProperty("type").notNull();
         return sleepSample;
@@ -1056,11 +1059,12 @@ public class GBDaoGenerator {
                 "This class represents a sample specific to the device. Values like activity kind or\n" +
                         "intensity, are device specific. Normalized values can be retrieved through the\n" +
                         "corresponding {@link SampleProvider}.");
-        activitySample.addIntProperty("timestamp").notNull().codeBeforeGetterAndSetter(OVERRIDE).primaryKey();
+        Property timestamp = activitySample.addIntProperty("timestamp").notNull().codeBeforeGetterAndSetter(OVERRIDE).primaryKey().getProperty();
         Property deviceId = activitySample.addLongProperty("deviceId").primaryKey().notNull().codeBeforeGetterAndSetter(OVERRIDE).getProperty();
         activitySample.addToOne(device, deviceId);
         Property userId = activitySample.addLongProperty("userId").notNull().codeBeforeGetterAndSetter(OVERRIDE).getProperty();
         activitySample.addToOne(user, userId);
+        addDeviceTimestampIndex(activitySample, deviceId, timestamp);
     }
 
     private static void addCommonTimeSampleProperties(String superClass, Entity timeSample, Entity user, Entity device) {
@@ -1069,11 +1073,25 @@ public class GBDaoGenerator {
         timeSample.setJavaDoc(
                 "This class represents a sample specific to the device. Values might be device specific, depending on the sample type.\n" +
                         "Normalized values can be retrieved through the corresponding {@link TimeSampleProvider}.");
-        timeSample.addLongProperty("timestamp").notNull().codeBeforeGetterAndSetter(OVERRIDE).primaryKey();
+        Property timestamp = timeSample.addLongProperty("timestamp").notNull().codeBeforeGetterAndSetter(OVERRIDE).primaryKey().getProperty();
         Property deviceId = timeSample.addLongProperty("deviceId").primaryKey().notNull().codeBeforeGetterAndSetter(OVERRIDE).getProperty();
         timeSample.addToOne(device, deviceId);
         Property userId = timeSample.addLongProperty("userId").notNull().codeBeforeGetterAndSetter(OVERRIDE).getProperty();
         timeSample.addToOne(user, userId);
+        addDeviceTimestampIndex(timeSample, deviceId, timestamp);
+    }
+
+    /**
+     * The primary key of the samples starts with the timestamp, but they are always queried for
+     * one device, by timestamp range or ordered by timestamp. With the device first, those
+     * queries only visit the rows of that device. The index also holds the whole primary key,
+     * so it covers queries that only need the keys.
+     */
+    private static void addDeviceTimestampIndex(Entity sample, Property deviceId, Property timestamp) {
+        final Index indexDeviceTimestamp = new Index();
+        indexDeviceTimestamp.addProperty(deviceId);
+        indexDeviceTimestamp.addProperty(timestamp);
+        sample.addIndex(indexDeviceTimestamp);
     }
 
     private static void addCalendarSyncState(Schema schema, Entity device) {
@@ -1226,6 +1244,19 @@ public class GBDaoGenerator {
         summary.addToOne(user, userId);
         summary.addStringProperty("summaryData");
         summary.addByteArrayProperty("rawSummaryData");
+
+        // Extracted from the summaryData, so that the activity list does not need to parse it
+        summary.addIntProperty("metricsVersion").javaDocGetterAndSetter("Version of the metrics extracted from the summaryData, null if not extracted yet.");
+        summary.addDoubleProperty("distanceMeters");
+        summary.addDoubleProperty("caloriesBurnt");
+        summary.addDoubleProperty("activeSeconds");
+        summary.addIntProperty("averageHR");
+        summary.addBooleanProperty("hasGps");
+
+        final Index indexDeviceStartTime = new Index();
+        indexDeviceStartTime.addProperty(deviceId);
+        indexDeviceStartTime.addProperty(findProperty(summary, "startTime"));
+        summary.addIndex(indexDeviceStartTime);
     }
 
     private static Property findProperty(Entity entity, String propertyName) {
@@ -1254,6 +1285,35 @@ public class GBDaoGenerator {
         return batteryLevel;
     }
 
+    private static Entity addActivityHourlyRollup(Schema schema, Entity device) {
+        Entity rollup = addEntity(schema, "ActivityHourlyRollup");
+        rollup.setJavaDoc(
+                "Pre-aggregated activity totals of one device for one local hour, derived from the samples\n" +
+                        "of its SampleProvider. Rows are a cache and can be dropped and recomputed at any time.");
+        Property timestamp = rollup.addIntProperty("timestamp").notNull().primaryKey().javaDocGetterAndSetter("Start of the local hour, in seconds.").getProperty();
+        Property deviceId = rollup.addLongProperty("deviceId").primaryKey().notNull().getProperty();
+        rollup.addToOne(device, deviceId);
+        addDeviceTimestampIndex(rollup, deviceId, timestamp);
+        rollup.addIntProperty(SAMPLE_STEPS).notNull();
+        rollup.addIntProperty("distanceCm").notNull();
+        rollup.addIntProperty("activeCalories").notNull();
+        rollup.addIntProperty("activitySeconds").notNull();
+        rollup.addIntProperty("lightSleepSeconds").notNull();
+        rollup.addIntProperty("deepSleepSeconds").notNull();
+        rollup.addIntProperty("remSleepSeconds").notNull();
+        rollup.addIntProperty("awakeSleepSeconds").notNull();
+        rollup.addIntProperty("notWornSeconds").notNull();
+        // Time between the first sample of the hour and its predecessor, only counted if the
+        // predecessor is part of the queried range
+        rollup.addIntProperty("leadInActivitySeconds").notNull();
+        rollup.addIntProperty("leadInLightSleepSeconds").notNull();
+        rollup.addIntProperty("leadInDeepSleepSeconds").notNull();
+        rollup.addIntProperty("leadInRemSleepSeconds").notNull();
+        rollup.addIntProperty("leadInAwakeSleepSeconds").notNull();
+        rollup.addIntProperty("leadInNotWornSeconds").notNull();
+        return rollup;
+    }
+
     private static Entity addFitProActivitySample(Schema schema, Entity user, Entity device) {
         Entity activitySample = addEntity(schema, "FitProActivitySample");
         activitySample.implementsSerializable();
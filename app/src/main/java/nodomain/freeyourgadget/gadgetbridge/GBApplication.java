@@ -61,7 +61,6 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import nodomain.freeyourgadget.gadgetbridge.activities.ControlCenterv2;
@@ -69,7 +68,9 @@ import nodomain.freeyourgadget.gadgetbridge.activities.devicesettings.DeviceSett
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
 import nodomain.freeyourgadget.gadgetbridge.database.DBOpenHelper;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReaderPool;
 import nodomain.freeyourgadget.gadgetbridge.database.PeriodicExporter;
+import nodomain.freeyourgadget.gadgetbridge.database.SampleIndexes;
 import nodomain.freeyourgadget.gadgetbridge.devices.DeviceManager;
 import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.entities.DaoMaster;
@@ -122,7 +123,7 @@ public class GBApplication extends Application {
     public static final String DATABASE_NAME = "Gadgetbridge";
 
     private static GBApplication context;
-    private static final Lock dbLock = new ReentrantLock();
+    private static final ReentrantLock dbLock = new ReentrantLock();
     private static DeviceService deviceService;
     private static SharedPreferences sharedPrefs;
     private static final String PREFS_VERSION = "shared_preferences_version";
@@ -132,6 +133,7 @@ public class GBApplication extends Application {
     private static final LimitedQueue<Integer, String> mIDSenderLookup = new LimitedQueue<>(16);
     private static GBPrefs prefs;
     private static LockHandler lockHandler;
+    private static final DBReaderPool dbReaderPool = new DBReaderPool();
     /**
      * Note: is null on Lollipop
      */
@@ -340,12 +342,32 @@ public class GBApplication extends Application {
         } else {
             helper = new DBOpenHelper(this, DATABASE_NAME, null);
         }
+        // In write-ahead-logging mode, readers do not block the writer and vice-versa
+        final boolean concurrentAccess = !env.isTest() && isDatabaseConcurrentAccessEnabled();
+        helper.setWriteAheadLoggingEnabled(concurrentAccess);
         SQLiteDatabase db = helper.getWritableDatabase();
         DaoMaster daoMaster = new DaoMaster(db);
         if (lockHandler == null) {
             lockHandler = new LockHandler();
         }
         lockHandler.init(daoMaster, helper);
+        if (concurrentAccess) {
+            dbReaderPool.init(db.getPath());
+        }
+        if (BuildConfig.DEBUG && !env.isTest()) {
+            // flag sample queries that are not served by an index
+            new Thread(() -> {
+                try {
+                    SampleIndexes.auditQueryPlans(db);
+                } catch (final Exception e) {
+                    Log.w(TAG, "Failed to audit sample query plans", e);
+                }
+            }, "SampleQueryPlanAudit").start();
+        }
+    }
+
+    private static boolean isDatabaseConcurrentAccessEnabled() {
+        return prefs != null && prefs.getBoolean("database_concurrent_access", false);
     }
 
     public static Context getContext() {
@@ -396,6 +418,42 @@ public class GBApplication extends Application {
         throw new GBException("Unable to access the database.");
     }
 
+    /**
+     * Returns a DBHandler for reading only. If concurrent database access is enabled, it comes
+     * from a small pool of read-only connections, which do not wait for the single writer returned
+     * by #acquireDB(). Otherwise, this is the same as #acquireDB().
+     * <p>
+     * As with #acquireDB(), callers must close the returned instance from the same thread,
+     * and must not hold a reference to it. Writes through it fail if concurrent access is enabled.
+     *
+     * @return the DBHandler
+     * @throws GBException
+     * @see #acquireDB()
+     */
+    public static DBHandler acquireDbReadOnly() throws GBException {
+        if (dbReaderPool.isValid()) {
+            return dbReaderPool.acquire(30, TimeUnit.SECONDS);
+        }
+        return acquireDB();
+    }
+
+    /**
+     * @return whether #acquireDbReadOnly() hands out readers that run concurrently, rather than the writer
+     */
+    public static boolean isDbReaderPoolEnabled() {
+        return dbReaderPool.isValid();
+    }
+
+    /**
+     * Stops handing out readers from #acquireDbReadOnly(), until the database is set up again, and
+     * waits until the readers in use were released. Must be called while holding the writer.
+     *
+     * @throws IllegalStateException if readers are still in use after 30 seconds
+     */
+    static void invalidateDbReaders() {
+        dbReaderPool.invalidate(30, TimeUnit.SECONDS);
+    }
+
     /**
      * Releases the database lock.
      *
@@ -406,6 +464,13 @@ public class GBApplication extends Application {
         dbLock.unlock();
     }
 
+    /**
+     * @return whether the current thread holds the database lock of #acquireDB()
+     */
+    public static boolean isDbLockedByCurrentThread() {
+        return dbLock.isHeldByCurrentThread();
+    }
+
     public static boolean isRunningMarshmallowOrLater() {
         return VERSION.SDK_INT >= Build.VERSION_CODES.M;
     }
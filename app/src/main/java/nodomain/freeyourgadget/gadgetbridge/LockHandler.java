@@ -16,9 +16,13 @@
     along with this program.  If not, see <https://www.gnu.org/licenses/>. */
 package nodomain.freeyourgadget.gadgetbridge;
 
+import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.entities.DaoMaster;
 import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
@@ -27,6 +31,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
  * Provides low-level access to the database.
  */
 public class LockHandler implements DBHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(LockHandler.class);
 
     private DaoMaster daoMaster = null;
     private DaoSession session = null;
@@ -89,6 +94,14 @@ public class LockHandler implements DBHandler {
         if (session == null) {
             throw new IllegalStateException("session must not be null");
         }
+        GBApplication.invalidateDbReaders();
+        // With all readers gone, the whole log can be written back, so that the database file is
+        // complete on its own, eg. when it is copied by DBHelper#exportDB
+        try (Cursor cursor = session.getDatabase().rawQuery("PRAGMA wal_checkpoint(TRUNCATE)", null)) {
+            if (cursor.moveToFirst() && cursor.getInt(0) != 0) {
+                LOG.warn("Database checkpoint was blocked");
+            }
+        }
         session.clear();
         session.getDatabase().close();
         session = null;
@@ -19,10 +19,13 @@ package nodomain.freeyourgadget.gadgetbridge;
 
 import android.util.Log;
 
+import androidx.annotation.NonNull;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
@@ -42,6 +45,7 @@ public abstract class Logging {
 
     private String logDirectory;
     private FileAppender<ILoggingEvent> fileLogger;
+    private RingBufferAppender bufferedLogger;
 
     public void setupLogging(boolean enable) {
         try {
@@ -54,6 +58,10 @@ public abstract class Logging {
                 stopFileLogger();
             }
             getLogger().info("Gadgetbridge version: {}-{}", BuildConfig.VERSION_NAME, BuildConfig.GIT_HASH_SHORT);
+            if (bufferedLogger != null) {
+                // create the log file right away
+                bufferedLogger.flush();
+            }
         } catch (Exception ex) {
             Log.e("GBApplication", "External files dir not available, cannot log to file", ex);
             stopFileLogger();
@@ -67,9 +75,15 @@ public abstract class Logging {
             return null;
     }
 
+    /**
+     * Makes events go straight to the log file, after writing the ones that are still buffered.
+     */
     public void setImmediateFlush(final boolean immediateFlush) {
         if (fileLogger != null) {
-            fileLogger.setImmediateFlush(true);
+            fileLogger.setImmediateFlush(immediateFlush);
+        }
+        if (bufferedLogger != null) {
+            bufferedLogger.setWriteThrough(immediateFlush);
         }
     }
 
@@ -112,8 +126,16 @@ public abstract class Logging {
 
         final FileAppender fileAppender = createFileAppender(logDirectory);
         fileAppender.start();
-        attachLogger(fileAppender);
+
+        // Format and write the events in the background, see RingBufferAppender
+        final RingBufferAppender ringBufferAppender = new RingBufferAppender(fileAppender, RingBufferAppender.DEFAULT_CAPACITY);
+        ringBufferAppender.setContext(fileAppender.getContext());
+        ringBufferAppender.setName("FILE_BUFFER");
+        ringBufferAppender.start();
+        attachLogger(ringBufferAppender);
+
         fileLogger = fileAppender;
+        bufferedLogger = ringBufferAppender;
     }
 
     private void stopFileLogger() {
@@ -121,12 +143,17 @@ public abstract class Logging {
             return;
         }
 
+        if (bufferedLogger != null) {
+            detachLogger(bufferedLogger);
+            // writes the remaining events and stops the file appender
+            bufferedLogger.stop();
+            bufferedLogger = null;
+        }
+
         if (fileLogger.isStarted()) {
             fileLogger.stop();
         }
 
-        detachLogger(fileLogger);
-
         fileLogger = null;
     }
 
@@ -170,7 +197,53 @@ public abstract class Logging {
 
     public static void logBytes(Logger logger, byte[] value) {
         if (value != null) {
-            logger.warn("DATA: " + GB.hexdump(value, 0, value.length));
+            logger.warn("DATA: {}", lazyHexdump(value));
+        }
+    }
+
+    /**
+     * A log argument that is formatted like {@link #formatBytes(byte[])}, but only when the log
+     * message is actually formatted.
+     */
+    public static LazyBytes lazyFormatBytes(final byte[] bytes) {
+        return new LazyBytes(bytes, 0, bytes != null ? bytes.length : 0, false);
+    }
+
+    /**
+     * A log argument that is formatted like {@link GB#hexdump(byte[])}, but only when the log
+     * message is actually formatted.
+     */
+    public static LazyBytes lazyHexdump(final byte[] bytes) {
+        return new LazyBytes(bytes, 0, bytes != null ? bytes.length : 0, true);
+    }
+
+    /**
+     * Same as {@link #lazyHexdump(byte[])}, for a part of the bytes.
+     */
+    public static LazyBytes lazyHexdump(final byte[] bytes, final int offset, final int length) {
+        return new LazyBytes(bytes, offset, length, true);
+    }
+
+    /**
+     * Bytes to be formatted when the log message is formatted, which may happen on another
+     * thread, much later. The bytes are copied, so that they can not change in the meantime.
+     */
+    public static final class LazyBytes {
+        private final byte[] bytes;
+        private final boolean hexdump;
+
+        private LazyBytes(final byte[] bytes, final int offset, final int length, final boolean hexdump) {
+            this.bytes = bytes != null ? Arrays.copyOfRange(bytes, offset, offset + length) : null;
+            this.hexdump = hexdump;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            if (bytes == null) {
+                return "(null)";
+            }
+            return hexdump ? GB.hexdump(bytes) : formatBytes(bytes);
         }
     }
 
@@ -0,0 +1,231 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.UUID;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * Keeps log events in a bounded in-memory ring, and hands them to the delegate appender from a
+ * background thread. The message of an event is only formatted there, so the thread that logs
+ * neither formats nor writes to the file.
+ * <p>
+ * Since the arguments are formatted later, their value may have changed by then. Events whose
+ * arguments are not known to be immutable are therefore formatted right away, see
+ * {@link Logging.LazyBytes} for logging byte arrays without formatting them.
+ * <p>
+ * The events are written once the ring is half full, after a warning or error, or after
+ * {@link #FLUSH_INTERVAL_MS} at the latest. If they are logged faster than they can be written,
+ * the oldest events are dropped, so that logging never blocks.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final long FLUSH_INTERVAL_MS = 5000;
+
+    private final Appender<ILoggingEvent> delegate;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private final ILoggingEvent[] events;
+    private int head = 0;
+    private int size = 0;
+    private int dropped = 0;
+    private boolean writeThrough = false;
+    private boolean stopping = false;
+
+    /// Only one thread writes to the delegate at a time, to keep the events in order
+    private final Object writeLock = new Object();
+    // guarded by writeLock
+    private final ILoggingEvent[] batch;
+
+    public RingBufferAppender(final Appender<ILoggingEvent> delegate, final int capacity) {
+        this.delegate = delegate;
+        this.events = new ILoggingEvent[capacity];
+        this.batch = new ILoggingEvent[capacity];
+    }
+
+    public Appender<ILoggingEvent> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            stopping = false;
+        }
+        final Thread writer = new Thread(this::writeLoop, "LogWriter");
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+    }
+
+    /**
+     * Writes the remaining events and stops the delegate.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        synchronized (lock) {
+            stopping = true;
+            lock.notifyAll();
+        }
+        flush();
+        delegate.stop();
+    }
+
+    /**
+     * @param writeThrough whether events are written right away, on the thread that logs them.
+     *                     Writes all buffered events when enabled.
+     */
+    public void setWriteThrough(final boolean writeThrough) {
+        synchronized (lock) {
+            this.writeThrough = writeThrough;
+        }
+        if (writeThrough) {
+            flush();
+        }
+    }
+
+    @Override
+    protected void append(final ILoggingEvent event) {
+        // These would otherwise be taken from the thread that writes the event
+        event.getThreadName();
+        event.getMDCPropertyMap();
+        if (!hasImmutableArguments(event)) {
+            event.getFormattedMessage();
+        }
+
+        synchronized (lock) {
+            if (!writeThrough) {
+                if (size == events.length) {
+                    events[head] = null;
+                    head = (head + 1) % events.length;
+                    size--;
+                    dropped++;
+                }
+                events[(head + size) % events.length] = event;
+                size++;
+
+                if (size >= events.length / 2 || event.getLevel().isGreaterOrEqual(Level.WARN)) {
+                    lock.notifyAll();
+                }
+                return;
+            }
+        }
+
+        synchronized (writeLock) {
+            writeBuffered();
+            delegate.doAppend(event);
+        }
+    }
+
+    /**
+     * Writes all buffered events, on the calling thread.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            writeBuffered();
+        }
+    }
+
+    private void writeLoop() {
+        while (true) {
+            synchronized (lock) {
+                if (stopping) {
+                    return;
+                }
+                if (size < events.length / 2) {
+                    try {
+                        lock.wait(FLUSH_INTERVAL_MS);
+                    } catch (final InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+            flush();
+        }
+    }
+
+    // must hold writeLock
+    private void writeBuffered() {
+        final int count;
+        final int numDropped;
+        synchronized (lock) {
+            count = size;
+            for (int i = 0; i < count; i++) {
+                final int index = (head + i) % events.length;
+                batch[i] = events[index];
+                events[index] = null;
+            }
+            head = 0;
+            size = 0;
+            numDropped = dropped;
+            dropped = 0;
+        }
+
+        if (numDropped > 0) {
+            final ch.qos.logback.classic.Logger logger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(RingBufferAppender.class);
+            delegate.doAppend(new LoggingEvent(
+                    RingBufferAppender.class.getName(),
+                    logger,
+                    Level.WARN,
+                    "Dropped " + numDropped + " log events, they were logged faster than they could be written",
+                    null,
+                    null
+            ));
+        }
+        for (int i = 0; i < count; i++) {
+            delegate.doAppend(batch[i]);
+            batch[i] = null;
+        }
+    }
+
+    private static boolean hasImmutableArguments(final ILoggingEvent event) {
+        final Object[] arguments = event.getArgumentArray();
+        if (arguments == null) {
+            return true;
+        }
+        for (final Object argument : arguments) {
+            if (argument != null && !isImmutable(argument)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isImmutable(final Object argument) {
+        return argument instanceof String
+                || argument instanceof Integer
+                || argument instanceof Long
+                || argument instanceof Short
+                || argument instanceof Byte
+                || argument instanceof Float
+                || argument instanceof Double
+                || argument instanceof Boolean
+                || argument instanceof Character
+                || argument instanceof Enum
+                || argument instanceof UUID
+                || argument instanceof Logging.LazyBytes;
+    }
+}
@@ -353,10 +353,10 @@ public class ActivitySummariesActivity extends AbstractListActivity<BaseActivity
         LinkedHashMap<String, ActivityKind> newMap = new LinkedHashMap<>(0); //reset
 
         newMap.put(getString(R.string.activity_summaries_all_activities), ActivityKind.UNKNOWN);
-        for (BaseActivitySummary item : getItemAdapter().getItems()) {
-            String activityName = ActivityKind.fromCode(item.getActivityKind()).getLabel(this);
-            if (!newMap.containsKey(activityName) && item.getActivityKind() != 0) {
-                newMap.put(activityName, ActivityKind.fromCode(item.getActivityKind()));
+        for (int activityKind : ((ActivitySummariesAdapter) getItemAdapter()).getActivityKinds()) {
+            String activityName = ActivityKind.fromCode(activityKind).getLabel(this);
+            if (!newMap.containsKey(activityName) && activityKind != 0) {
+                newMap.put(activityName, ActivityKind.fromCode(activityKind));
             }
         }
         return newMap;
@@ -52,11 +52,12 @@ import nodomain.freeyourgadget.gadgetbridge.activities.charts.ChartsHost;
 import nodomain.freeyourgadget.gadgetbridge.activities.charts.DefaultChartsData;
 import nodomain.freeyourgadget.gadgetbridge.activities.charts.SampleXLabelFormatter;
 import nodomain.freeyourgadget.gadgetbridge.activities.charts.TimestampTranslation;
-import nodomain.freeyourgadget.gadgetbridge.database.DBAccess;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReadAccess;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityPoint;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.util.ActivitySummaryUtils;
 
 
 public class ActivitySummariesChartFragment extends AbstractActivityChartFragment<ChartsData> {
@@ -196,7 +197,7 @@ public class ActivitySummariesChartFragment extends AbstractActivityChartFragmen
     protected void updateChartsnUIThread(ChartsData chartsData) {
     }
 
-    public class RefreshTask extends DBAccess {
+    public class RefreshTask extends DBReadAccess {
 
         public RefreshTask(String task, Context context) {
             super(task, context);
@@ -208,7 +209,7 @@ public class ActivitySummariesChartFragment extends AbstractActivityChartFragmen
             final DefaultChartsData<LineData> activitySamplesData = buildChartFromSamples(handler);
 
             if (trackFile != null) {
-                final List<ActivityPoint> activityPoints = ActivitySummariesGpsFragment.getActivityPoints(trackFile)
+                final List<ActivityPoint> activityPoints = ActivitySummaryUtils.getCompactTrack(trackFile).toActivityPoints()
                         .stream()
                         .filter(ap -> ap.getHeartRate() > 0)
                         .collect(Collectors.toList());
@@ -31,29 +31,20 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
-import nodomain.freeyourgadget.gadgetbridge.model.ActivityPoint;
-import nodomain.freeyourgadget.gadgetbridge.model.GPSCoordinate;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.FitFile;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecord;
-import nodomain.freeyourgadget.gadgetbridge.util.gpx.GpxParseException;
-import nodomain.freeyourgadget.gadgetbridge.util.gpx.GpxParser;
-
-import static android.graphics.Bitmap.createBitmap;
+import nodomain.freeyourgadget.gadgetbridge.model.CompactTrack;
+import nodomain.freeyourgadget.gadgetbridge.util.ActivitySummaryUtils;
+import nodomain.freeyourgadget.gadgetbridge.util.BitmapDiskCache;
+import nodomain.freeyourgadget.gadgetbridge.util.CheckSums;
 
 
 public class ActivitySummariesGpsFragment extends AbstractGBFragment {
     private static final Logger LOG = LoggerFactory.getLogger(ActivitySummariesGpsFragment.class);
+    private static final long THUMBNAIL_CACHE_SIZE = 8 * 1024 * 1024;
+    private static BitmapDiskCache thumbnailCache;
+
     private ImageView gpsView;
     private final int CANVAS_SIZE = 360;
     private File inputFile;
@@ -77,58 +68,66 @@ public class ActivitySummariesGpsFragment extends AbstractGBFragment {
     }
 
     private void processInBackgroundThread() {
-        final Canvas canvas = createCanvas(gpsView);
+        final File trackFile = inputFile;
+        final int backgroundColor = GBApplication.getWindowBackgroundColor(requireActivity());
+        final int trackColor = getResources().getColor(R.color.chart_activity_light);
+        final BitmapDiskCache cache = getThumbnailCache();
+        final ImageView imageView = gpsView;
+        imageView.setImageBitmap(createBitmap(backgroundColor));
+        imageView.setScaleY(-1f); //flip the canvas
+
         new Thread(() -> {
-            final List<GPSCoordinate> points = getActivityPoints(inputFile)
-                    .stream()
-                    .map(ActivityPoint::getLocation)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList());
-
-            if (!points.isEmpty()) {
-                drawTrack(canvas, points);
+            final String key = CheckSums.md5(
+                    trackFile.getAbsolutePath() + ":" + trackFile.length() + ":" + trackFile.lastModified()
+                            + ":" + backgroundColor + ":" + trackColor + ":" + CANVAS_SIZE
+            );
+            Bitmap bitmap = key != null ? cache.get(key) : null;
+            if (bitmap == null) {
+                final CompactTrack track = ActivitySummaryUtils.getCompactTrack(trackFile);
+                if (track.getPreviewIndexes().length == 0) {
+                    return;
+                }
+                bitmap = createBitmap(backgroundColor);
+                drawTrack(new Canvas(bitmap), track, trackColor);
+                if (key != null) {
+                    cache.put(key, bitmap);
+                }
             }
+
+            final Bitmap thumbnail = bitmap;
+            imageView.post(() -> {
+                // the track may have changed in the meantime
+                if (trackFile.equals(inputFile)) {
+                    imageView.setImageBitmap(thumbnail);
+                }
+            });
         }).start();
     }
 
-    public static List<ActivityPoint> getActivityPoints(final File trackFile) {
-        final List<ActivityPoint> points = new ArrayList<>();
-        if (trackFile.getName().endsWith(".gpx")) {
-            try (FileInputStream inputStream = new FileInputStream(trackFile)) {
-                final GpxParser gpxParser = new GpxParser(inputStream);
-                points.addAll(gpxParser.getGpxFile().getActivityPoints());
-            } catch (final IOException e) {
-                LOG.error("Failed to open {}", trackFile, e);
-            } catch (final GpxParseException e) {
-                LOG.error("Failed to parse gpx file", e);
-            }
-        } else if (trackFile.getName().endsWith(".fit")) {
-            try {
-                FitFile fitFile = FitFile.parseIncoming(trackFile);
-                for (final RecordData record : fitFile.getRecords()) {
-                    if (record instanceof FitRecord) {
-                        points.add(((FitRecord) record).toActivityPoint());
-                    }
-                }
-            } catch (final IOException e) {
-                LOG.error("Failed to open {}", trackFile, e);
-            } catch (final Exception e) {
-                LOG.error("Failed to parse fit file", e);
-            }
-        } else {
-            LOG.warn("Unknown file type {}", trackFile.getName());
+    private static synchronized BitmapDiskCache getThumbnailCache() {
+        if (thumbnailCache == null) {
+            final File directory = new File(GBApplication.getContext().getCacheDir(), "track_thumbnails");
+            thumbnailCache = new BitmapDiskCache(directory, THUMBNAIL_CACHE_SIZE);
         }
-
-        return points;
+        return thumbnailCache;
     }
 
-    private void drawTrack(Canvas canvas, List<? extends GPSCoordinate> trackPoints) {
-        double maxLat = (Collections.max(trackPoints, new GPSCoordinate.compareLatitude())).getLatitude();
-        double minLat = (Collections.min(trackPoints, new GPSCoordinate.compareLatitude())).getLatitude();
-        double maxLon = (Collections.max(trackPoints, new GPSCoordinate.compareLongitude())).getLongitude();
-        double minLon = (Collections.min(trackPoints, new GPSCoordinate.compareLongitude())).getLongitude();
-        double maxAlt = (Collections.max(trackPoints, new GPSCoordinate.compareElevation())).getAltitude();
-        double minAlt = (Collections.min(trackPoints, new GPSCoordinate.compareElevation())).getAltitude();
+    /**
+     * Draws the simplified path of the track, which looks the same at this size.
+     */
+    private void drawTrack(Canvas canvas, CompactTrack track, int trackColor) {
+        final int[] indexes = track.getPreviewIndexes();
+        double maxLat = -Double.MAX_VALUE, minLat = Double.MAX_VALUE;
+        double maxLon = -Double.MAX_VALUE, minLon = Double.MAX_VALUE;
+        double maxAlt = -Double.MAX_VALUE, minAlt = Double.MAX_VALUE;
+        for (final int i : indexes) {
+            maxLat = Math.max(maxLat, track.getLatitude(i));
+            minLat = Math.min(minLat, track.getLatitude(i));
+            maxLon = Math.max(maxLon, track.getLongitude(i));
+            minLon = Math.min(minLon, track.getLongitude(i));
+            maxAlt = Math.max(maxAlt, track.getAltitude(i));
+            minAlt = Math.min(minAlt, track.getAltitude(i));
+        }
         float scale_factor_w = (float) ((maxLon - minLon) / (maxLat - minLat));
         float scale_factor_h = (float) ((maxLat - minLat) / (maxLon - minLon));
 
@@ -141,21 +140,33 @@ public class ActivitySummariesGpsFragment extends AbstractGBFragment {
 
         Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
         paint.setStrokeWidth(1);
-        paint.setColor(getResources().getColor(R.color.chart_activity_light));
-
-        for (GPSCoordinate p : trackPoints) {
-            float lat = (float) ((p.getLatitude() - minLat) / (maxLat - minLat));
-            float lon = (float) ((p.getLongitude() - minLon) / (maxLon - minLon));
-            float alt = (float) ((p.getAltitude() - minAlt) / (maxAlt - minAlt));
+        paint.setStrokeCap(Paint.Cap.ROUND);
+        paint.setColor(trackColor);
+
+        float previousX = 0;
+        float previousY = 0;
+        for (int n = 0; n < indexes.length; n++) {
+            final int i = indexes[n];
+            float lat = (float) ((track.getLatitude(i) - minLat) / (maxLat - minLat));
+            float lon = (float) ((track.getLongitude(i) - minLon) / (maxLon - minLon));
+            float alt = maxAlt > minAlt ? (float) ((track.getAltitude(i) - minAlt) / (maxAlt - minAlt)) : 0;
+            float x = CANVAS_SIZE * lon * scale_factor_w;
+            float y = CANVAS_SIZE * lat * scale_factor_h;
             paint.setStrokeWidth(1 + alt); //make thicker with higher altitude, we could do more here
-            canvas.drawPoint(CANVAS_SIZE * lon * scale_factor_w, CANVAS_SIZE * lat * scale_factor_h, paint);
+            if (n == 0) {
+                canvas.drawPoint(x, y, paint);
+            } else {
+                canvas.drawLine(previousX, previousY, x, y, paint);
+            }
+            previousX = x;
+            previousY = y;
         }
     }
 
-    private Canvas createCanvas(ImageView imageView) {
-        Bitmap bitmap = createBitmap(CANVAS_SIZE, CANVAS_SIZE, Bitmap.Config.ARGB_8888);
+    private Bitmap createBitmap(int backgroundColor) {
+        Bitmap bitmap = Bitmap.createBitmap(CANVAS_SIZE, CANVAS_SIZE, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
-        canvas.drawColor(GBApplication.getWindowBackgroundColor(requireActivity()));
+        canvas.drawColor(backgroundColor);
         //frame around, but it doesn't look so nice
         /*
         Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -164,10 +175,7 @@ public class ActivitySummariesGpsFragment extends AbstractGBFragment {
         paint.setColor(getResources().getColor(R.color.chart_activity_light));
         canvas.drawRect(0,0,360,360,paint);
          */
-        imageView.setImageBitmap(bitmap);
-        imageView.setScaleY(-1f); //flip the canvas
-
-        return canvas;
+        return bitmap;
     }
 
     @Nullable
@@ -177,4 +185,3 @@ public class ActivitySummariesGpsFragment extends AbstractGBFragment {
     }
 
 }
-
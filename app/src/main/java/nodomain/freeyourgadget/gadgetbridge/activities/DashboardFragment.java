@@ -81,6 +81,7 @@ import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.DashboardTodayW
 import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.DashboardVO2MaxCyclingWidget;
 import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.DashboardVO2MaxAnyWidget;
 import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.DashboardVO2MaxRunningWidget;
+import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.data.DashboardTotalsData;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.util.DashboardUtils;
@@ -382,58 +383,47 @@ public class DashboardFragment extends Fragment implements MenuProvider {
         public int timeFrom;
         public int timeTo;
         public final List<GeneralizedActivity> generalizedActivities = Collections.synchronizedList(new ArrayList<>());
-        private int stepsTotal;
+        private DashboardTotalsData totals;
         private float stepsGoalFactor;
-        private int restingCaloriesTotal;
-        private int activeCaloriesTotal;
         private float activeCaloriesGoalFactor;
-        private int caloriesTotal;
-        private long sleepTotalMinutes;
         private float sleepGoalFactor;
-        private float distanceTotalMeters;
         private float distanceGoalFactor;
-        private long activeMinutesTotal;
         private float activeMinutesGoalFactor;
         private final Map<String, Serializable> genericData = new ConcurrentHashMap<>();
 
-        public void clear() {
-            restingCaloriesTotal = 0;
-            activeCaloriesTotal = 0;
+        public synchronized void clear() {
+            totals = null;
             activeCaloriesGoalFactor = 0;
-            caloriesTotal = 0;
-            stepsTotal = 0;
             stepsGoalFactor = 0;
-            sleepTotalMinutes = 0;
             sleepGoalFactor = 0;
-            distanceTotalMeters = 0;
             distanceGoalFactor = 0;
-            activeMinutesTotal = 0;
             activeMinutesGoalFactor = 0;
             generalizedActivities.clear();
             genericData.clear();
         }
 
         public boolean isEmpty() {
-            return (stepsTotal == 0 &&
+            return (totals == null &&
                     stepsGoalFactor == 0 &&
-                    restingCaloriesTotal == 0 &&
-                    activeCaloriesTotal == 0 &&
                     activeCaloriesGoalFactor == 0 &&
-                    caloriesTotal == 0 &&
-                    sleepTotalMinutes == 0 &&
                     sleepGoalFactor == 0 &&
-                    distanceTotalMeters == 0 &&
                     distanceGoalFactor == 0 &&
-                    activeMinutesTotal == 0 &&
                     activeMinutesGoalFactor == 0 &&
                     genericData.isEmpty() &&
                     generalizedActivities.isEmpty());
         }
 
+        /**
+         * The totals of all selected devices, computed once for all widgets.
+         */
+        private synchronized DashboardTotalsData getTotals() {
+            if (totals == null)
+                totals = DashboardTotalsData.compute(this);
+            return totals;
+        }
+
         public synchronized int getStepsTotal() {
-            if (stepsTotal == 0)
-                stepsTotal = DashboardUtils.getStepsTotal(this);
-            return stepsTotal;
+            return (int) getTotals().getSteps();
         }
 
         public synchronized float getStepsGoalFactor() {
@@ -443,9 +433,7 @@ public class DashboardFragment extends Fragment implements MenuProvider {
         }
 
         public synchronized float getDistanceTotal() {
-            if (distanceTotalMeters == 0)
-                distanceTotalMeters = DashboardUtils.getDistanceTotal(this);
-            return distanceTotalMeters;
+            return getTotals().getDistanceCm() * 0.01f;
         }
 
         public synchronized float getDistanceGoalFactor() {
@@ -455,9 +443,7 @@ public class DashboardFragment extends Fragment implements MenuProvider {
         }
 
         public synchronized long getActiveMinutesTotal() {
-            if (activeMinutesTotal == 0)
-                activeMinutesTotal = DashboardUtils.getActiveMinutesTotal(this);
-            return activeMinutesTotal;
+            return getTotals().getActiveMinutes();
         }
 
         public synchronized float getActiveMinutesGoalFactor() {
@@ -467,9 +453,7 @@ public class DashboardFragment extends Fragment implements MenuProvider {
         }
 
         public synchronized long getSleepMinutesTotal() {
-            if (sleepTotalMinutes == 0)
-                sleepTotalMinutes = DashboardUtils.getSleepMinutesTotal(this);
-            return sleepTotalMinutes;
+            return getTotals().getSleepMinutes();
         }
 
         public synchronized float getSleepMinutesGoalFactor() {
@@ -479,15 +463,12 @@ public class DashboardFragment extends Fragment implements MenuProvider {
         }
 
         public synchronized int getActiveCaloriesTotal() {
-            if (activeCaloriesTotal == 0)
-                activeCaloriesTotal = DashboardUtils.getActiveCaloriesTotal(this);
-            return activeCaloriesTotal;
+            // Convert calories to kcal
+            return (int) (getTotals().getActiveCalories() / 1000);
         }
 
         public synchronized int getRestingCaloriesTotal() {
-            if (restingCaloriesTotal == 0)
-                restingCaloriesTotal = DashboardUtils.getRestingCaloriesTotal(this);
-            return restingCaloriesTotal;
+            return (int) getTotals().getRestingCalories();
         }
 
         public synchronized float getActiveCaloriesGoalFactor() {
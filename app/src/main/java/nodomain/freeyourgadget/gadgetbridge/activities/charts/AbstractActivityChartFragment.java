@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.function.Consumer;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
@@ -46,6 +47,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.AbstractActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 
 public abstract class AbstractActivityChartFragment<D extends ChartsData> extends AbstractChartFragment<D>  {
@@ -180,6 +182,16 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
         return provider.getAllActivitySamples(tsFrom, tsTo);
     }
 
+    /**
+     * Same as {@link #getAllSamples(DBHandler, GBDevice, int, int)}, together with the minutes
+     * without samples.
+     * To be called from a background thread.
+     */
+    protected SparseActivitySamples<? extends ActivitySample> getAllSparseSamples(DBHandler db, GBDevice device, int tsFrom, int tsTo) {
+        SampleProvider<? extends ActivitySample> provider = getProvider(db, device);
+        return provider.getSparseActivitySamples(tsFrom, tsTo);
+    }
+
     protected List<? extends ActivitySample> getAllSamplesHighRes(DBHandler db, GBDevice device, int tsFrom, int tsTo) {
         SampleProvider<? extends ActivitySample> provider = getProvider(db, device);
         // Only retrieve if the provider signals it has high res data, otherwise it is useless
@@ -199,6 +211,15 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
     }
 
     public DefaultChartsData<LineData> refresh(GBDevice gbDevice, List<? extends ActivitySample> samples, List<? extends ActivitySample> highResSamples) {
+        return refresh(gbDevice, SparseActivitySamples.withoutGaps(samples, getTSStart(), getTSEnd()), highResSamples);
+    }
+
+    /**
+     * Same as {@link #refresh(GBDevice, List, List)}, but minutes without samples are drawn as
+     * unknown activity without intensity.
+     */
+    public DefaultChartsData<LineData> refresh(GBDevice gbDevice, SparseActivitySamples<? extends ActivitySample> sparseSamples, List<? extends ActivitySample> highResSamples) {
+        final List<? extends ActivitySample> samples = sparseSamples.getSamples();
         TimestampTranslation tsTranslation = new TimestampTranslation();
         LOG.info("{}: number of samples: {}", getTitle(), samples.size());
         LOG.info("{}: number of high res samples: {}", getTitle(), highResSamples.size());
@@ -210,64 +231,9 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
             return new DefaultChartsData<>(lineData, xValueFormatter);
         }
 
-        ActivityKind last_type = ActivityKind.UNKNOWN;
-        float last_value = 0;
-
-        int numEntries = samples.size();
-        List<List<Entry>> entries = new ArrayList<>();
-        for (int i = 0; i < 6; i++) {
-            entries.add(new ArrayList<>());
-        }
-
-        for (int i = 0; i < numEntries; i++) {
-            ActivitySample sample = samples.get(i);
-            ActivityKind type = sample.getKind();
-            int ts = tsTranslation.shorten(sample.getTimestamp());
-            final float value;
-            if (type != ActivityKind.NOT_WORN) {
-                if (ActivityKind.isSleep(type) && sample.getIntensity() < 0) {
-                    switch (type) {
-                        case SLEEP_ANY:
-                        case AWAKE_SLEEP:
-                            value = 0.25f;
-                            break;
-                        case DEEP_SLEEP:
-                            value = 0.10f;
-                            break;
-                        case LIGHT_SLEEP:
-                            value = 0.15f;
-                            break;
-                        case REM_SLEEP:
-                            value = 0.20f;
-                            break;
-                        default:
-                            value = Y_VALUE_DEEP_SLEEP;
-                            break;
-                    }
-                } else {
-                    value = sample.getIntensity();
-                }
-            } else {
-                value = Y_VALUE_DEEP_SLEEP;
-            }
-
-            // do not interpolate NOT_WORN on any side
-            boolean interpolate = !(last_type == ActivityKind.NOT_WORN || type == ActivityKind.NOT_WORN);
-            float interpolation_value = interpolate ? value : last_value;
-
-            // filled charts
-            int index = getIndexOfActivity(type);
-            int last_index = getIndexOfActivity(last_type);
-            if (last_type != type) {
-                entries.get(index).add(createLineEntry(0, ts));
-                entries.get(last_index).add(createLineEntry(interpolation_value, ts));
-                entries.get(last_index).add(createLineEntry(0, ts));
-            }
-            entries.get(index).add(createLineEntry(value, ts));
-
-            last_type = type;
-            last_value = value;
-        }
+        final ActivityEntries activityEntries = new ActivityEntries(tsTranslation);
+        sparseSamples.forEach(activityEntries);
+        final List<List<Entry>> entries = activityEntries.entries;
 
         boolean hr = supportsHeartrate(gbDevice);
         final List<Entry> heartRateLineEntries = new ArrayList<>();
@@ -335,6 +301,83 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
         return new DefaultChartsData<>(lineData, xValueFormatter);
     }
 
+    /**
+     * Collects the entries of the filled activity charts, one list per index of
+     * {@link #getIndexOfActivity(ActivityKind)}.
+     */
+    private class ActivityEntries implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final TimestampTranslation tsTranslation;
+        private final List<List<Entry>> entries = new ArrayList<>();
+        private ActivityKind last_type = ActivityKind.UNKNOWN;
+        private float last_value = 0;
+
+        private ActivityEntries(final TimestampTranslation tsTranslation) {
+            this.tsTranslation = tsTranslation;
+            for (int i = 0; i < 6; i++) {
+                entries.add(new ArrayList<>());
+            }
+        }
+
+        @Override
+        public void accept(final ActivitySample sample) {
+            final ActivityKind type = sample.getKind();
+            final float value;
+            if (type != ActivityKind.NOT_WORN) {
+                if (ActivityKind.isSleep(type) && sample.getIntensity() < 0) {
+                    switch (type) {
+                        case SLEEP_ANY:
+                        case AWAKE_SLEEP:
+                            value = 0.25f;
+                            break;
+                        case DEEP_SLEEP:
+                            value = 0.10f;
+                            break;
+                        case LIGHT_SLEEP:
+                            value = 0.15f;
+                            break;
+                        case REM_SLEEP:
+                            value = 0.20f;
+                            break;
+                        default:
+                            value = Y_VALUE_DEEP_SLEEP;
+                            break;
+                    }
+                } else {
+                    value = sample.getIntensity();
+                }
+            } else {
+                value = Y_VALUE_DEEP_SLEEP;
+            }
+
+            add(type, value, tsTranslation.shorten(sample.getTimestamp()));
+        }
+
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            add(ActivityKind.UNKNOWN, 0, tsTranslation.shorten(gapStart));
+            add(ActivityKind.UNKNOWN, 0, tsTranslation.shorten(gapEnd));
+        }
+
+        private void add(final ActivityKind type, final float value, final int ts) {
+            // do not interpolate NOT_WORN on any side
+            boolean interpolate = !(last_type == ActivityKind.NOT_WORN || type == ActivityKind.NOT_WORN);
+            float interpolation_value = interpolate ? value : last_value;
+
+            // filled charts
+            int index = getIndexOfActivity(type);
+            int last_index = getIndexOfActivity(last_type);
+            if (last_type != type) {
+                entries.get(index).add(createLineEntry(0, ts));
+                entries.get(last_index).add(createLineEntry(interpolation_value, ts));
+                entries.get(last_index).add(createLineEntry(0, ts));
+            }
+            entries.get(index).add(createLineEntry(value, ts));
+
+            last_type = type;
+            last_value = value;
+        }
+    }
+
     protected int getIndexOfActivity(ActivityKind kind) {
         switch (kind) {
             case DEEP_SLEEP: return 0;
@@ -403,6 +446,14 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
         return samples;
     }
 
+    protected SparseActivitySamples<? extends ActivitySample> getSparseSamples(DBHandler db, GBDevice device) {
+        int tsStart = getTSStart();
+        int tsEnd = getTSEnd();
+        SparseActivitySamples<? extends ActivitySample> samples = getAllSparseSamples(db, device, tsStart, tsEnd);
+        ensureStartAndEndSamples((List<ActivitySample>) samples.getSamples(), tsStart, tsEnd);
+        return samples;
+    }
+
     protected List<? extends ActivitySample> getSamplesHighRes(DBHandler db, GBDevice device) {
         int tsStart = getTSStart();
         int tsEnd = getTSEnd();
@@ -410,26 +461,32 @@ public abstract class AbstractActivityChartFragment<D extends ChartsData> extend
     }
 
     protected List<? extends ActivitySample> getSamplesofSleep(DBHandler db, GBDevice device) {
+        int tsStart = toSleepRangeTimestamp(getTSStart());
+        int tsEnd = toSleepRangeTimestamp(getTSEnd());
+
+        List<ActivitySample> samples = (List<ActivitySample>) getSamples(db, device, tsStart, tsEnd);
+        ensureStartAndEndSamples(samples, tsStart, tsEnd);
+        return samples;
+    }
+
+    protected SparseActivitySamples<? extends ActivitySample> getSparseSamplesOfSleep(DBHandler db, GBDevice device) {
+        int tsStart = toSleepRangeTimestamp(getTSStart());
+        int tsEnd = toSleepRangeTimestamp(getTSEnd());
+
+        SparseActivitySamples<? extends ActivitySample> samples = getAllSparseSamples(db, device, tsStart, tsEnd);
+        ensureStartAndEndSamples((List<ActivitySample>) samples.getSamples(), tsStart, tsEnd);
+        return samples;
+    }
+
+    private int toSleepRangeTimestamp(int timestamp) {
         int SLEEP_HOUR_LIMIT = 12;
 
-        int tsStart = getTSStart();
         Calendar day = GregorianCalendar.getInstance();
-        day.setTimeInMillis(tsStart * 1000L);
+        day.setTimeInMillis(timestamp * 1000L);
         day.set(Calendar.HOUR_OF_DAY, SLEEP_HOUR_LIMIT);
         day.set(Calendar.MINUTE, 0);
         day.set(Calendar.SECOND, 0);
-        tsStart = toTimestamp(day.getTime());
-
-        int tsEnd = getTSEnd();
-        day.setTimeInMillis(tsEnd* 1000L);
-        day.set(Calendar.HOUR_OF_DAY, SLEEP_HOUR_LIMIT);
-        day.set(Calendar.MINUTE, 0);
-        day.set(Calendar.SECOND, 0);
-        tsEnd = toTimestamp(day.getTime());
-
-        List<ActivitySample> samples = (List<ActivitySample>) getSamples(db, device, tsStart, tsEnd);
-        ensureStartAndEndSamples(samples, tsStart, tsEnd);
-        return samples;
+        return toTimestamp(day.getTime());
     }
 
     protected void ensureStartAndEndSamples(List<ActivitySample> samples, int tsStart, int tsEnd) {
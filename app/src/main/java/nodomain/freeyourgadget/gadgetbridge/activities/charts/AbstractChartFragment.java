@@ -45,8 +45,8 @@ import java.util.Set;
 
 import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.activities.AbstractGBFragment;
-import nodomain.freeyourgadget.gadgetbridge.database.DBAccess;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReadAccess;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.util.DateTimeUtils;
 
@@ -341,7 +341,7 @@ public abstract class AbstractChartFragment<D extends ChartsData> extends Abstra
     }
 
     @SuppressLint("StaticFieldLeak")
-    private final class RefreshTask extends DBAccess {
+    private final class RefreshTask extends DBReadAccess {
         private D chartsData;
 
         public RefreshTask(final String task, final Context context) {
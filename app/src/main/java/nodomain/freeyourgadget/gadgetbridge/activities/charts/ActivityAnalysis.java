@@ -22,11 +22,14 @@ import org.slf4j.LoggerFactory;
 
 import java.util.HashMap;
 import java.util.List;
+import java.util.function.Consumer;
 
+import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmount;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmounts;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 
 public class ActivityAnalysis {
     public static final Logger LOG = LoggerFactory.getLogger(ActivityAnalysis.class);
@@ -37,121 +40,317 @@ public class ActivityAnalysis {
     private int maxSpeed = 0;
 
     public ActivityAmounts calculateActivityAmounts(List<? extends ActivitySample> samples) {
-        ActivityAmount deepSleep = new ActivityAmount(ActivityKind.DEEP_SLEEP);
-        ActivityAmount lightSleep = new ActivityAmount(ActivityKind.LIGHT_SLEEP);
-        ActivityAmount remSleep = new ActivityAmount(ActivityKind.REM_SLEEP);
-        ActivityAmount awakeSleep = new ActivityAmount(ActivityKind.AWAKE_SLEEP);
-        ActivityAmount notWorn = new ActivityAmount(ActivityKind.NOT_WORN);
-        ActivityAmount activity = new ActivityAmount(ActivityKind.ACTIVITY);
-
-        ActivityAmount previousAmount = null;
-        ActivitySample previousSample = null;
+        final AmountsCalculator calculator = new AmountsCalculator();
         for (ActivitySample sample : samples) {
-            ActivityAmount amount;
-            switch (sample.getKind()) {
-                case DEEP_SLEEP:
-                    amount = deepSleep;
-                    break;
-                case LIGHT_SLEEP:
-                    amount = lightSleep;
-                    break;
-                case REM_SLEEP:
-                    amount = remSleep;
-                    break;
-                case AWAKE_SLEEP:
-                    amount = awakeSleep;
-                    break;
-                case NOT_WORN:
-                    amount = notWorn;
-                    break;
-                case ACTIVITY:
-                default:
-                    amount = activity;
-                    break;
-            }
+            calculator.accept(sample);
+        }
+        return calculator.getResult();
+    }
 
-            int steps = sample.getSteps();
-            if (steps > 0) {
-                amount.addSteps(steps);
-            }
+    /**
+     * Same as {@link #calculateActivityAmounts(List)}, but the time of minutes without samples is
+     * not attributed to the samples around them.
+     */
+    public ActivityAmounts calculateActivityAmounts(final SparseActivitySamples<? extends ActivitySample> samples) {
+        final AmountsCalculator calculator = new AmountsCalculator();
+        samples.forEach(calculator);
+        return calculator.getResult();
+    }
 
-            final int distance = sample.getDistanceCm();
-            if (distance >= 0) {
-                amount.addDistance(distance);
-            }
+    /**
+     * Same as {@link #calculateActivityAmounts(List)}, but streams the samples from the provider
+     * instead of loading the whole range into memory.
+     */
+    public ActivityAmounts calculateActivityAmounts(final SampleProvider<? extends ActivitySample> provider,
+                                                    final int timestampFrom,
+                                                    final int timestampTo) {
+        final AmountsCalculator calculator = new AmountsCalculator();
+        provider.forEachActivitySample(timestampFrom, timestampTo, calculator);
+        return calculator.getResult();
+    }
+
+    /**
+     * Same as {@link #calculateActivityAmounts(List)}, but splits the amounts into consecutive
+     * buckets of bucketSeconds, the first one starting at timestampFrom.
+     * <p>
+     * The time between two samples of the same bucket is attributed to that bucket. The time between
+     * the first sample of a bucket and its predecessor is kept apart as the lead-in of the bucket, as
+     * {@link #calculateActivityAmounts(List)} only counts it if the predecessor is analysed as well.
+     * Adding up the amounts of a run of buckets, plus the lead-ins of all buckets after the first one
+     * with samples, gives the same amounts as analysing the run at once.
+     * <p>
+     * Samples before timestampFrom are only used as the predecessor of the first sample in range,
+     * samples after the last bucket are ignored. Unlike {@link #calculateActivityAmounts(List)},
+     * amounts without any seconds are kept if they carry steps, distance or calories.
+     *
+     * @return one {@link BucketAmounts} per bucket, never null
+     */
+    public BucketAmounts[] calculateActivityAmounts(final List<? extends ActivitySample> samples,
+                                                    final int timestampFrom,
+                                                    final int bucketSeconds,
+                                                    final int numBuckets) {
+        final BucketedAmountsCalculator calculator = new BucketedAmountsCalculator(timestampFrom, bucketSeconds, numBuckets);
+        for (ActivitySample sample : samples) {
+            calculator.accept(sample);
+        }
+        return calculator.getResult();
+    }
+
+    /**
+     * Streaming variant of {@link #calculateActivityAmounts(List, int, int, int)}. Samples are
+     * read from the provider until the end of the last bucket, starting with the latest sample
+     * before timestampFrom.
+     */
+    public BucketAmounts[] calculateActivityAmounts(final SampleProvider<? extends ActivitySample> provider,
+                                                    final int timestampFrom,
+                                                    final int bucketSeconds,
+                                                    final int numBuckets) {
+        final BucketedAmountsCalculator calculator = new BucketedAmountsCalculator(timestampFrom, bucketSeconds, numBuckets);
+        // Providers that post-process their samples report the gaps as well, so they always return
+        // something for the minute before the range. The others may have their last sample earlier.
+        final int streamFrom = timestampFrom - SparseActivitySamples.SAMPLE_INTERVAL;
+        final ActivitySample predecessor = provider.getLatestActivitySample(streamFrom - 1);
+        if (predecessor != null) {
+            calculator.accept(predecessor);
+        }
+        provider.forEachActivitySample(streamFrom, timestampFrom + bucketSeconds * numBuckets - 1, calculator);
+        return calculator.getResult();
+    }
+
+    private void addSample(final ActivityAmount amount,
+                           final ActivityAmount previousAmount,
+                           final ActivitySample sample,
+                           final ActivitySample previousSample) {
+        int steps = sample.getSteps();
+        if (steps > 0) {
+            amount.addSteps(steps);
+        }
+
+        final int distance = sample.getDistanceCm();
+        if (distance >= 0) {
+            amount.addDistance(distance);
+        }
 
-            final int activeCalories = sample.getActiveCalories();
-            if (activeCalories > 0) {
-                amount.addActiveCalories(activeCalories);
+        final int activeCalories = sample.getActiveCalories();
+        if (activeCalories > 0) {
+            amount.addActiveCalories(activeCalories);
+        }
+
+        if (previousSample != null) {
+            long timeDifference = sample.getTimestamp() - previousSample.getTimestamp();
+            if (previousSample.getRawKind() == sample.getRawKind()) {
+                amount.addSeconds(timeDifference);
+            } else {
+                long sharedTimeDifference = (long) (timeDifference / 2.0f);
+                previousAmount.addSeconds(sharedTimeDifference);
+                amount.addSeconds(sharedTimeDifference);
             }
 
-            if (previousSample != null) {
-                long timeDifference = sample.getTimestamp() - previousSample.getTimestamp();
-                if (previousSample.getRawKind() == sample.getRawKind()) {
-                    amount.addSeconds(timeDifference);
-                } else {
-                    long sharedTimeDifference = (long) (timeDifference / 2.0f);
-                    previousAmount.addSeconds(sharedTimeDifference);
-                    amount.addSeconds(sharedTimeDifference);
+            // add time
+            if (steps > 0 && sample.getKind() == ActivityKind.ACTIVITY) {
+                if (steps > maxSpeed) {
+                    maxSpeed = steps;
                 }
 
-                // add time
-                if (steps > 0 && sample.getKind() == ActivityKind.ACTIVITY) {
-                    if (steps > maxSpeed) {
-                        maxSpeed = steps;
-                    }
-
-                    if (!stats.containsKey(steps)) {
+                if (!stats.containsKey(steps)) {
 //                        LOG.debug("Adding: " + steps);
-                        stats.put(steps, timeDifference);
-                    } else {
-                        long time = stats.get(steps);
+                    stats.put(steps, timeDifference);
+                } else {
+                    long time = stats.get(steps);
 //                        LOG.debug("Updating: " + steps + " " + timeDifference + time);
-                        stats.put(steps, timeDifference + time);
-                    }
+                    stats.put(steps, timeDifference + time);
                 }
             }
+        }
+
+        amount.setStartDate(sample.getTimestamp());
+        amount.setEndDate(sample.getTimestamp());
+    }
+
+    int calculateTotalSteps(List<? extends ActivitySample> samples) {
+        int totalSteps = 0;
+        for (ActivitySample sample : samples) {
+            int steps = sample.getSteps();
+            if (steps > 0) {
+                totalSteps += steps;
+            }
+        }
+        return totalSteps;
+    }
 
-            amount.setStartDate(sample.getTimestamp());
-            amount.setEndDate(sample.getTimestamp());
+    private class AmountsCalculator implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final KindAmounts amounts = new KindAmounts();
+        private ActivityAmount previousAmount = null;
+        private ActivitySample previousSample = null;
 
+        @Override
+        public void accept(final ActivitySample sample) {
+            final ActivityAmount amount = amounts.forKind(sample.getKind());
+            addSample(amount, previousAmount, sample, previousSample);
             previousAmount = amount;
             previousSample = sample;
         }
 
-        ActivityAmounts result = new ActivityAmounts();
-        if (deepSleep.getTotalSeconds() > 0) {
-            result.addAmount(deepSleep);
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            accept(new SparseActivitySamples.GapBound(gapStart));
+            accept(new SparseActivitySamples.GapBound(gapEnd));
         }
-        if (lightSleep.getTotalSeconds() > 0) {
-            result.addAmount(lightSleep);
+
+        private ActivityAmounts getResult() {
+            return amounts.toActivityAmounts(false);
+        }
+    }
+
+    private class BucketedAmountsCalculator implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final int timestampFrom;
+        private final int bucketSeconds;
+        private final KindAmounts[] buckets;
+        private final KindAmounts[] leadIns;
+        private final int[] sampleCounts;
+        private int previousBucket = -1;
+        private ActivityAmount previousAmount = null;
+        private ActivitySample previousSample = null;
+
+        private BucketedAmountsCalculator(final int timestampFrom, final int bucketSeconds, final int numBuckets) {
+            this.timestampFrom = timestampFrom;
+            this.bucketSeconds = bucketSeconds;
+            this.buckets = new KindAmounts[numBuckets];
+            this.leadIns = new KindAmounts[numBuckets];
+            this.sampleCounts = new int[numBuckets];
+            for (int i = 0; i < numBuckets; i++) {
+                buckets[i] = new KindAmounts();
+                leadIns[i] = new KindAmounts();
+            }
+        }
+
+        @Override
+        public void accept(final ActivitySample sample) {
+            final int bucket = sample.getTimestamp() >= timestampFrom ? (sample.getTimestamp() - timestampFrom) / bucketSeconds : -1;
+            if (bucket >= buckets.length) {
+                return;
+            }
+            if (bucket >= 0) {
+                final ActivityAmount amount = buckets[bucket].forKind(sample.getKind());
+                if (bucket == previousBucket) {
+                    addSample(amount, previousAmount, sample, previousSample);
+                } else {
+                    addSample(amount, null, sample, null);
+                    if (previousSample != null) {
+                        addLeadIn(leadIns[bucket], sample, previousSample);
+                    }
+                }
+                sampleCounts[bucket]++;
+                previousAmount = amount;
+            } else {
+                previousAmount = null;
+            }
+            previousBucket = bucket;
+            previousSample = sample;
         }
-        if (remSleep.getTotalSeconds() > 0) {
-            result.addAmount(remSleep);
+
+        /**
+         * Attributes the time since the previous sample the same way as
+         * {@link #addSample(ActivityAmount, ActivityAmount, ActivitySample, ActivitySample)}.
+         */
+        private void addLeadIn(final KindAmounts leadIn, final ActivitySample sample, final ActivitySample previousSample) {
+            final long timeDifference = sample.getTimestamp() - previousSample.getTimestamp();
+            if (previousSample.getRawKind() == sample.getRawKind()) {
+                leadIn.forKind(sample.getKind()).addSeconds(timeDifference);
+            } else {
+                final long sharedTimeDifference = (long) (timeDifference / 2.0f);
+                leadIn.forKind(previousSample.getKind()).addSeconds(sharedTimeDifference);
+                leadIn.forKind(sample.getKind()).addSeconds(sharedTimeDifference);
+            }
         }
-        if (awakeSleep.getTotalSeconds() > 0) {
-            result.addAmount(awakeSleep);
+
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            accept(new SparseActivitySamples.GapBound(gapStart));
+            accept(new SparseActivitySamples.GapBound(gapEnd));
         }
-        if (activity.getTotalSeconds() > 0) {
-            result.addAmount(activity);
+
+        private BucketAmounts[] getResult() {
+            final BucketAmounts[] result = new BucketAmounts[buckets.length];
+            for (int i = 0; i < buckets.length; i++) {
+                result[i] = new BucketAmounts(buckets[i].toActivityAmounts(true), leadIns[i].toActivityAmounts(false), sampleCounts[i]);
+            }
+            return result;
         }
-        if (notWorn.getTotalSeconds() > 0) {
-            result.addAmount(notWorn);
+    }
+
+    /**
+     * The amounts of one bucket of {@link #calculateActivityAmounts(List, int, int, int)}.
+     */
+    public static class BucketAmounts {
+        private final ActivityAmounts amounts;
+        private final ActivityAmounts leadIn;
+        private final int sampleCount;
+
+        private BucketAmounts(final ActivityAmounts amounts, final ActivityAmounts leadIn, final int sampleCount) {
+            this.amounts = amounts;
+            this.leadIn = leadIn;
+            this.sampleCount = sampleCount;
         }
 
-        result.calculatePercentages();
+        /**
+         * @return the amounts of the samples in the bucket, and the time between them
+         */
+        public ActivityAmounts getAmounts() {
+            return amounts;
+        }
 
-        return result;
+        /**
+         * @return the time between the first sample in the bucket and its predecessor, if any
+         */
+        public ActivityAmounts getLeadIn() {
+            return leadIn;
+        }
+
+        public int getSampleCount() {
+            return sampleCount;
+        }
     }
 
-    int calculateTotalSteps(List<? extends ActivitySample> samples) {
-        int totalSteps = 0;
-        for (ActivitySample sample : samples) {
-            int steps = sample.getSteps();
-            if (steps > 0) {
-                totalSteps += steps;
+    private static class KindAmounts {
+        private final ActivityAmount deepSleep = new ActivityAmount(ActivityKind.DEEP_SLEEP);
+        private final ActivityAmount lightSleep = new ActivityAmount(ActivityKind.LIGHT_SLEEP);
+        private final ActivityAmount remSleep = new ActivityAmount(ActivityKind.REM_SLEEP);
+        private final ActivityAmount awakeSleep = new ActivityAmount(ActivityKind.AWAKE_SLEEP);
+        private final ActivityAmount notWorn = new ActivityAmount(ActivityKind.NOT_WORN);
+        private final ActivityAmount activity = new ActivityAmount(ActivityKind.ACTIVITY);
+
+        private ActivityAmount forKind(final ActivityKind kind) {
+            switch (kind) {
+                case DEEP_SLEEP:
+                    return deepSleep;
+                case LIGHT_SLEEP:
+                    return lightSleep;
+                case REM_SLEEP:
+                    return remSleep;
+                case AWAKE_SLEEP:
+                    return awakeSleep;
+                case NOT_WORN:
+                    return notWorn;
+                case ACTIVITY:
+                default:
+                    return activity;
             }
         }
-        return totalSteps;
+
+        private ActivityAmounts toActivityAmounts(final boolean keepWithoutSeconds) {
+            final ActivityAmounts result = new ActivityAmounts();
+            for (final ActivityAmount amount : new ActivityAmount[]{deepSleep, lightSleep, remSleep, awakeSleep, activity, notWorn}) {
+                if (amount.getTotalSeconds() > 0 || (keepWithoutSeconds && hasValues(amount))) {
+                    result.addAmount(amount);
+                }
+            }
+            result.calculatePercentages();
+            return result;
+        }
+
+        private static boolean hasValues(final ActivityAmount amount) {
+            return amount.getTotalSteps() > 0 || amount.getTotalDistance() > 0 || amount.getTotalActiveCalories() > 0;
+        }
     }
 }
@@ -42,8 +42,8 @@ import java.util.concurrent.TimeUnit;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
-import nodomain.freeyourgadget.gadgetbridge.database.DBAccess;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReadAccess;
 import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
 import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.entities.AbstractActivitySample;
@@ -211,12 +211,12 @@ public class ActivityListingDashboard extends MaterialDialogFragment {
     private ActivitySession get_data(GBDevice gbDevice, DBHandler db, int timeFrom, int timeTo) {
 
         List<ActivitySession> stepSessions;
-        List<? extends ActivitySample> activitySamples = getAllSamples(db, gbDevice, timeFrom, timeTo);
+        SampleProvider<? extends ActivitySample> provider = getProvider(db, gbDevice);
         StepAnalysis stepAnalysis = new StepAnalysis();
 
         boolean isEmptySummary = false;
-        if (activitySamples != null) {
-            stepSessions = stepAnalysis.calculateStepSessions(activitySamples);
+        if (provider != null) {
+            stepSessions = stepAnalysis.calculateStepSessions(provider, timeFrom, timeTo);
             if (stepSessions.toArray().length == 0) {
                 isEmptySummary = true;
             }
@@ -230,11 +230,6 @@ public class ActivityListingDashboard extends MaterialDialogFragment {
         return coordinator.getSampleProvider(device, db.getDaoSession());
     }
 
-    protected List<? extends ActivitySample> getAllSamples(DBHandler db, GBDevice device, int tsFrom, int tsTo) {
-        SampleProvider<? extends ActivitySample> provider = getProvider(db, device);
-        return provider.getAllActivitySamples(tsFrom, tsTo);
-    }
-
     void indicate_progress(boolean inProgress) {
         View view = getView();
         if (view == null) {
@@ -298,7 +293,7 @@ public class ActivityListingDashboard extends MaterialDialogFragment {
         }
     }
 
-    public class RefreshTask extends DBAccess {
+    public class RefreshTask extends DBReadAccess {
 
         public RefreshTask(String task, Context context) {
             super(task, context);
@@ -44,6 +44,7 @@ import nodomain.freeyourgadget.gadgetbridge.activities.HeartRateUtils;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 
 
 public class ActivitySleepChartFragment extends AbstractActivityChartFragment<DefaultChartsData<LineData>> {
@@ -128,10 +129,10 @@ public class ActivitySleepChartFragment extends AbstractActivityChartFragment<De
 
     @Override
     protected DefaultChartsData<LineData> refreshInBackground(ChartsHost chartsHost, DBHandler db, GBDevice device) {
-        List<? extends ActivitySample> samples = getSamples(db, device);
+        SparseActivitySamples<? extends ActivitySample> samples = getSparseSamples(db, device);
         List<? extends ActivitySample> highResSamples = getSamplesHighRes(db, device);
         if (highResSamples == null)
-            return refresh(device, samples);
+            return refresh(device, samples, samples.getSamples());
         return refresh(device, samples, highResSamples);
     }
 
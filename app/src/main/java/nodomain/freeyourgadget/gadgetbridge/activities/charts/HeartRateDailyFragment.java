@@ -34,15 +34,19 @@ import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.activities.HeartRateUtils;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
-import nodomain.freeyourgadget.gadgetbridge.entities.AbstractActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.model.HeartRateSample;
+import nodomain.freeyourgadget.gadgetbridge.model.TimeSeries;
 import nodomain.freeyourgadget.gadgetbridge.util.Accumulator;
 import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 
 public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDailyFragment.HeartRateData> {
+    /**
+     * Upper bound of chart entries, more samples are decimated before they are drawn.
+     */
+    private static final int MAX_CHART_POINTS = 1440;
 
     protected int HEARTRATE_COLOR;
     protected int CHART_TEXT_COLOR;
@@ -92,9 +96,9 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
         return device.getDeviceCoordinator().supportsHeartRateRestingMeasurement(device);
     }
 
-    protected List<? extends AbstractActivitySample> getActivitySamples(DBHandler db, GBDevice device, int tsFrom, int tsTo) {
+    protected TimeSeries getHeartRateSeries(DBHandler db, GBDevice device, int tsFrom, int tsTo) {
         SampleProvider<? extends ActivitySample> provider = device.getDeviceCoordinator().getSampleProvider(device, db.getDaoSession());
-        return provider.getAllActivitySamplesHighRes(tsFrom, tsTo);
+        return provider.getHeartRateSeries(tsFrom, tsTo);
     }
 
     @Override
@@ -126,7 +130,19 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
         int startTs = (int) (day.getTimeInMillis() / 1000);
         int endTs = startTs + 24 * 60 * 60 - 1;
 
-        List<? extends ActivitySample> samples = getActivitySamples(db, device, startTs, endTs);
+        final TimeSeries heartRates = getHeartRateSeries(db, device, startTs, endTs);
+
+        // Statistics are taken from all samples, only the chart is decimated
+        final HeartRateUtils heartRateUtilsInstance = HeartRateUtils.getInstance();
+        final TimeSeries validHeartRates = new TimeSeries(heartRates.size());
+        final Accumulator accumulator = new Accumulator();
+        for (int i = 0; i < heartRates.size(); i++) {
+            final int heartRate = heartRates.getValue(i);
+            if (heartRateUtilsInstance.isValidHeartRateValue(heartRate)) {
+                validHeartRates.add(heartRates.getTimestamp(i), heartRate);
+                accumulator.add(heartRate);
+            }
+        }
 
         int restingHeartRate = -1;
         if (supportsHeartRateRestingMeasurement()) {
@@ -139,7 +155,7 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
                     .orElse(-1);
         }
 
-        return new HeartRateData(samples, restingHeartRate);
+        return new HeartRateData(validHeartRates.decimate(MAX_CHART_POINTS), accumulator, restingHeartRate);
     }
 
     @Override
@@ -237,22 +253,18 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
         String formattedDate = new SimpleDateFormat("E, MMM dd").format(date);
         mDateView.setText(formattedDate);
 
-        HeartRateUtils heartRateUtilsInstance = HeartRateUtils.getInstance();
         final TimestampTranslation tsTranslation = new TimestampTranslation();
         final List<Entry> lineEntries = new ArrayList<>();
-        List<? extends ActivitySample> samples = data.samples;
-        final Accumulator accumulator = new Accumulator();
+        final TimeSeries heartRates = data.heartRates;
+        final Accumulator accumulator = data.accumulator;
 
         final List<ILineDataSet> lineDataSets = new ArrayList<>();
         int lastTsShorten = 0;
-        for (int i =0; i < samples.size(); i++) {
-            final ActivitySample sample = samples.get(i);
-            final int tsShorten = tsTranslation.shorten(sample.getTimestamp());
-            if (!heartRateUtilsInstance.isValidHeartRateValue(sample.getHeartRate())) {
-                continue;
-            }
+        for (int i = 0; i < heartRates.size(); i++) {
+            final int tsShorten = tsTranslation.shorten(heartRates.getTimestamp(i));
+            final int heartRate = heartRates.getValue(i);
             if (lastTsShorten == 0 || (tsShorten - lastTsShorten) <= 60 * HeartRateUtils.MAX_HR_MEASUREMENTS_GAP_MINUTES) {
-                lineEntries.add(new Entry(tsShorten, sample.getHeartRate()));
+                lineEntries.add(new Entry(tsShorten, heartRate));
             } else {
                 if (!lineEntries.isEmpty()) {
                     List<Entry> clone = new ArrayList<>(lineEntries.size());
@@ -262,8 +274,7 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
                 }
             }
             lastTsShorten = tsShorten;
-            lineEntries.add(new Entry(tsShorten, sample.getHeartRate()));
-            accumulator.add(sample.getHeartRate());
+            lineEntries.add(new Entry(tsShorten, heartRate));
         }
 
         if (!lineEntries.isEmpty()) {
@@ -311,11 +322,13 @@ public class HeartRateDailyFragment extends AbstractChartFragment<HeartRateDaily
     }
 
     protected static class HeartRateData extends ChartsData {
-        public List<? extends ActivitySample> samples;
+        public TimeSeries heartRates;
+        public Accumulator accumulator;
         public int restingHeartRate;
 
-        protected HeartRateData(List<? extends ActivitySample> samples, int restingHeartRate) {
-            this.samples = samples;
+        protected HeartRateData(TimeSeries heartRates, Accumulator accumulator, int restingHeartRate) {
+            this.heartRates = heartRates;
+            this.accumulator = accumulator;
             this.restingHeartRate = restingHeartRate;
         }
     }
@@ -59,9 +59,8 @@ abstract class RespiratoryRateFragment<T extends ChartsData> extends AbstractCha
             day.add(Calendar.HOUR, 0);
             startTs = (int) (day.getTimeInMillis() / 1000);
             endTs = startTs + 24 * 60 * 60 - 1;
-            List<? extends ActivitySample> activitySamples = getAllActivitySamples(db, device, startTs, endTs);
             SleepAnalysis sleepAnalysis = new SleepAnalysis();
-            List<SleepAnalysis.SleepSession> sleepSessions = sleepAnalysis.calculateSleepSessions(activitySamples);
+            List<SleepAnalysis.SleepSession> sleepSessions = sleepAnalysis.calculateSleepSessions(getProvider(db, device), startTs, endTs);
             List<? extends AbstractRespiratoryRateSample> samples = getRespiratoryRateSamples(db, device, startTs, endTs);
             Calendar d = (Calendar) day.clone();
             daysData.add(new RespiratoryRateDay(d, samples, sleepSessions, supportsDayRespiratoryRate));
@@ -79,9 +78,8 @@ abstract class RespiratoryRateFragment<T extends ChartsData> extends AbstractCha
         return (List<AbstractRespiratoryRateSample>) provider.getAllSamples(tsFrom * 1000L, tsTo * 1000L);
     }
 
-    protected List<? extends ActivitySample> getAllActivitySamples(DBHandler db, GBDevice device, int startTs, int endTs) {
-        SampleProvider<? extends ActivitySample> provider = device.getDeviceCoordinator().getSampleProvider(device, db.getDaoSession());
-        return provider.getAllActivitySamples(startTs, endTs);
+    protected SampleProvider<? extends ActivitySample> getProvider(DBHandler db, GBDevice device) {
+        return device.getDeviceCoordinator().getSampleProvider(device, db.getDaoSession());
     }
 
     protected static class RespiratoryRateDay extends ChartsData {
@@ -19,9 +19,12 @@ package nodomain.freeyourgadget.gadgetbridge.activities.charts;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
+import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 
 public class SleepAnalysis {
 
@@ -29,18 +32,47 @@ public class SleepAnalysis {
     public static final long MAX_WAKE_PHASE_LENGTH = 2 * 60 * 60;
 
     public List<SleepSession> calculateSleepSessions(List<? extends ActivitySample> samples) {
-        List<SleepSession> result = new ArrayList<>();
+        final SessionCalculator calculator = new SessionCalculator();
+        for (ActivitySample sample : samples) {
+            calculator.accept(sample);
+        }
+        return calculator.getResult();
+    }
 
-        ActivitySample previousSample = null;
-        Date sleepStart = null;
-        Date sleepEnd = null;
-        long lightSleepDuration = 0;
-        long deepSleepDuration = 0;
-        long remSleepDuration = 0;
-        long awakeSleepDuration = 0;
-        long durationSinceLastSleep = 0;
+    /**
+     * Same as {@link #calculateSleepSessions(List)}, but minutes without samples interrupt the
+     * sleep like awake minutes do.
+     */
+    public List<SleepSession> calculateSleepSessions(SparseActivitySamples<? extends ActivitySample> samples) {
+        final SessionCalculator calculator = new SessionCalculator();
+        samples.forEach(calculator);
+        return calculator.getResult();
+    }
 
-        for (ActivitySample sample : samples) {
+    /**
+     * Same as {@link #calculateSleepSessions(List)}, but streams the samples from the provider
+     * instead of loading the whole range into memory.
+     */
+    public List<SleepSession> calculateSleepSessions(SampleProvider<? extends ActivitySample> provider, int timestampFrom, int timestampTo) {
+        final SessionCalculator calculator = new SessionCalculator();
+        provider.forEachActivitySample(timestampFrom, timestampTo, calculator);
+        return calculator.getResult();
+    }
+
+    private class SessionCalculator implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final List<SleepSession> result = new ArrayList<>();
+
+        private ActivitySample previousSample = null;
+        private Date sleepStart = null;
+        private Date sleepEnd = null;
+        private long lightSleepDuration = 0;
+        private long deepSleepDuration = 0;
+        private long remSleepDuration = 0;
+        private long awakeSleepDuration = 0;
+        private long durationSinceLastSleep = 0;
+
+        @Override
+        public void accept(ActivitySample sample) {
             if (isSleep(sample)) {
                 if (sleepStart == null)
                     sleepStart = getDateFromSample(sample);
@@ -86,10 +118,19 @@ public class SleepAnalysis {
 
             previousSample = sample;
         }
-        if (lightSleepDuration + deepSleepDuration + remSleepDuration + awakeSleepDuration > MIN_SESSION_LENGTH) {
-            result.add(new SleepSession(sleepStart, sleepEnd, lightSleepDuration, deepSleepDuration, remSleepDuration, awakeSleepDuration));
+
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            accept(new SparseActivitySamples.GapBound(gapStart));
+            accept(new SparseActivitySamples.GapBound(gapEnd));
+        }
+
+        private List<SleepSession> getResult() {
+            if (lightSleepDuration + deepSleepDuration + remSleepDuration + awakeSleepDuration > MIN_SESSION_LENGTH) {
+                result.add(new SleepSession(sleepStart, sleepEnd, lightSleepDuration, deepSleepDuration, remSleepDuration, awakeSleepDuration));
+            }
+            return result;
         }
-        return result;
     }
 
     private boolean isSleep(ActivitySample sample) {
@@ -51,6 +51,7 @@ import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
 import nodomain.freeyourgadget.gadgetbridge.devices.TimeSampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.Spo2Sample;
+import nodomain.freeyourgadget.gadgetbridge.model.TimeSeries;
 import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 
 // Based on StressChartFragment
@@ -58,6 +59,11 @@ import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 public class Spo2ChartFragment extends AbstractChartFragment<Spo2ChartFragment.Spo2ChartsData> {
     protected static final Logger LOG = LoggerFactory.getLogger(Spo2ChartFragment.class);
 
+    /**
+     * Upper bound of chart entries, more samples are decimated before they are drawn.
+     */
+    private static final int MAX_CHART_POINTS = 1440;
+
     private LineChart mSpo2Chart;
 
     private int BACKGROUND_COLOR;
@@ -240,17 +246,19 @@ public class Spo2ChartFragment extends AbstractChartFragment<Spo2ChartFragment.S
         private void processSamples() {
             reset();
 
+            final TimeSeries series = new TimeSeries(samples.size());
             for (final Spo2Sample sample : samples) {
-                processSample(sample);
+                series.add((int) (sample.getTimestamp() / 1000L), sample.getSpo2());
+                averageSum += sample.getSpo2();
+                averageNumSamples += 1;
             }
-        }
 
-        private void processSample(final Spo2Sample sample) {
-            final int ts = tsTranslation.shorten((int) (sample.getTimestamp() / 1000L));
-            lineEntries.add(new Entry(ts, sample.getSpo2()));
-
-            averageSum += sample.getSpo2();
-            averageNumSamples += 1;
+            // The average is taken from all samples, only the chart is decimated
+            final TimeSeries decimated = series.decimate(MAX_CHART_POINTS);
+            for (int i = 0; i < decimated.size(); i++) {
+                final int ts = tsTranslation.shorten(decimated.getTimestamp(i));
+                lineEntries.add(new Entry(ts, decimated.getValue(i)));
+            }
         }
 
         public Spo2ChartsData build() {
@@ -22,13 +22,16 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.activities.HeartRateUtils;
+import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySession;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityUser;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 
 public class StepAnalysis {
     protected static final Logger LOG = LoggerFactory.getLogger(StepAnalysis.class);
@@ -36,34 +39,54 @@ public class StepAnalysis {
 
     public List<ActivitySession> calculateStepSessions(List<? extends ActivitySample> samples) {
         LOG.debug("get all samples activity sessions: {}", samples.size());
-        List<ActivitySession> result = new ArrayList<>();
-        ActivityUser activityUser = new ActivityUser();
-        final int MIN_SESSION_LENGTH = 60 * GBApplication.getPrefs().getInt("chart_list_min_session_length", 5);
-        final int MAX_IDLE_PHASE_LENGTH = 60 * GBApplication.getPrefs().getInt("chart_list_max_idle_phase_length", 5);
-        final int MIN_STEPS_PER_MINUTE = GBApplication.getPrefs().getInt("chart_list_min_steps_per_minute", 40);
-        int stepLengthCm = activityUser.getStepLengthCm();
-        final double STEP_LENGTH_M = stepLengthCm * 0.01;
-        final double MIN_SESSION_INTENSITY = Math.max(0, Math.min(1, MIN_STEPS_PER_MINUTE * 0.01));
-        totalDailySteps = 0;
-
-        ActivitySample previousSample = null;
-        Date sessionStart = null;
-        Date sessionEnd;
-        int activeSteps = 0; //steps that we count
-        int activeDistanceCm = 0;
-        int stepsBetweenActivePeriods = 0; //steps during time when we maybe take a rest but then restart
-        int distanceBetweenActivePeriods = 0;
-        int durationSinceLastActiveStep = 0;
-        ActivityKind activityKind;
+        final SessionCalculator calculator = new SessionCalculator();
+        for (ActivitySample sample : samples) {
+            calculator.accept(sample);
+        }
+        return calculator.getResult();
+    }
 
-        List<Integer> heartRateSum = new ArrayList<>();
-        List<Integer> heartRateBetweenActivePeriodsSum = new ArrayList<>();
+    /**
+     * Same as {@link #calculateStepSessions(List)}, but streams the samples from the provider
+     * instead of loading the whole range into memory.
+     */
+    public List<ActivitySession> calculateStepSessions(SampleProvider<? extends ActivitySample> provider, int timestampFrom, int timestampTo) {
+        final SessionCalculator calculator = new SessionCalculator();
+        provider.forEachActivitySample(timestampFrom, timestampTo, calculator);
+        return calculator.getResult();
+    }
 
-        float activeIntensity = 0;
-        float intensityBetweenActivePeriods = 0;
-        HeartRateUtils heartRateUtilsInstance = HeartRateUtils.getInstance();
+    private class SessionCalculator implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final List<ActivitySession> result = new ArrayList<>();
+        private final int MIN_SESSION_LENGTH = 60 * GBApplication.getPrefs().getInt("chart_list_min_session_length", 5);
+        private final int MAX_IDLE_PHASE_LENGTH = 60 * GBApplication.getPrefs().getInt("chart_list_max_idle_phase_length", 5);
+        private final int MIN_STEPS_PER_MINUTE = GBApplication.getPrefs().getInt("chart_list_min_steps_per_minute", 40);
+        private final int stepLengthCm = new ActivityUser().getStepLengthCm();
+        private final double MIN_SESSION_INTENSITY = Math.max(0, Math.min(1, MIN_STEPS_PER_MINUTE * 0.01));
+        private final HeartRateUtils heartRateUtilsInstance = HeartRateUtils.getInstance();
+
+        private ActivitySample previousSample = null;
+        private Date sessionStart = null;
+        private Date sessionEnd;
+        private int activeSteps = 0; //steps that we count
+        private int activeDistanceCm = 0;
+        private int stepsBetweenActivePeriods = 0; //steps during time when we maybe take a rest but then restart
+        private int distanceBetweenActivePeriods = 0;
+        private int durationSinceLastActiveStep = 0;
+        private ActivityKind activityKind;
+
+        private List<Integer> heartRateSum = new ArrayList<>();
+        private List<Integer> heartRateBetweenActivePeriodsSum = new ArrayList<>();
+
+        private float activeIntensity = 0;
+        private float intensityBetweenActivePeriods = 0;
+
+        private SessionCalculator() {
+            totalDailySteps = 0;
+        }
 
-        for (ActivitySample sample : samples) {
+        @Override
+        public void accept(ActivitySample sample) {
             int steps = sample.getSteps();
             if (steps > 0) {
                 totalDailySteps += steps;
@@ -160,24 +183,34 @@ public class StepAnalysis {
                 previousSample = sample;
             }
         }
-        //trailing activity: make sure we show the last portion of the data as well in case no further activity is recorded yet
-
-        if (sessionStart != null) {
-            int current = previousSample.getTimestamp();
-            int starting = (int) (sessionStart.getTime() / 1000);
-            int session_length = current - starting - durationSinceLastActiveStep;
-
-            if (session_length >= MIN_SESSION_LENGTH) {
-                int heartRateAverage = heartRateSum.toArray().length > 0 ? calculateSumOfInts(heartRateSum) / heartRateSum.toArray().length : 0;
-                float distance = activeDistanceCm * 0.01f;
-                sessionEnd = getDateFromSample(previousSample);
-                activityKind = detect_activity_kind(session_length, activeSteps, heartRateAverage, activeIntensity);
-                ActivitySession ongoingActivity = new ActivitySession(sessionStart, sessionEnd, activeSteps, heartRateAverage, activeIntensity, distance, activityKind);
-                ongoingActivity.setSessionType(ActivitySession.SESSION_ONGOING);
-                result.add(ongoingActivity);
+
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            // idle time, that ends the current session if it is long enough
+            accept(new SparseActivitySamples.GapBound(gapStart));
+            accept(new SparseActivitySamples.GapBound(gapEnd));
+        }
+
+        private List<ActivitySession> getResult() {
+            //trailing activity: make sure we show the last portion of the data as well in case no further activity is recorded yet
+
+            if (sessionStart != null) {
+                int current = previousSample.getTimestamp();
+                int starting = (int) (sessionStart.getTime() / 1000);
+                int session_length = current - starting - durationSinceLastActiveStep;
+
+                if (session_length >= MIN_SESSION_LENGTH) {
+                    int heartRateAverage = heartRateSum.toArray().length > 0 ? calculateSumOfInts(heartRateSum) / heartRateSum.toArray().length : 0;
+                    float distance = activeDistanceCm * 0.01f;
+                    sessionEnd = getDateFromSample(previousSample);
+                    activityKind = detect_activity_kind(session_length, activeSteps, heartRateAverage, activeIntensity);
+                    ActivitySession ongoingActivity = new ActivitySession(sessionStart, sessionEnd, activeSteps, heartRateAverage, activeIntensity, distance, activityKind);
+                    ongoingActivity.setSessionType(ActivitySession.SESSION_ONGOING);
+                    result.add(ongoingActivity);
+                }
             }
+            return result;
         }
-        return result;
     }
 
     public ActivitySession calculateSummary(List<ActivitySession> sessions, boolean empty) {
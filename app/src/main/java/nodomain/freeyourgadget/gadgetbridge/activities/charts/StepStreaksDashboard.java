@@ -52,8 +52,8 @@ import java.util.Date;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
-import nodomain.freeyourgadget.gadgetbridge.database.DBAccess;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReadAccess;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.model.DailyTotals;
@@ -238,7 +238,7 @@ public class StepStreaksDashboard extends MaterialDialogFragment {
         return new TaskCalculateLatestStepsStreak(taskName, context, period);
     }
 
-    public class TaskCalculateLatestStepsStreak extends DBAccess {
+    public class TaskCalculateLatestStepsStreak extends DBReadAccess {
         String period;
 
         public TaskCalculateLatestStepsStreak(String taskName, Context context, String period) {
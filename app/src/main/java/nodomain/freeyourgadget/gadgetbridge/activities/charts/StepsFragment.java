@@ -12,6 +12,7 @@ import java.util.List;
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.devices.ActivityRollupProvider;
 import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmount;
@@ -87,8 +88,7 @@ abstract class StepsFragment<T extends ChartsData> extends AbstractChartFragment
         }
 
         if (amounts == null) {
-            ActivityAnalysis analysis = new ActivityAnalysis();
-            amounts = analysis.calculateActivityAmounts(getSamplesOfDay(db, day, 0, device));
+            amounts = getAmountsOfDay(db, day, device);
             if (activityAmountCache != null) {
                 activityAmountCache.add(key, amounts);
             }
@@ -97,6 +97,18 @@ abstract class StepsFragment<T extends ChartsData> extends AbstractChartFragment
         return amounts;
     }
 
+    protected ActivityAmounts getAmountsOfDay(DBHandler db, Calendar day, GBDevice device) {
+        day = (Calendar) day.clone(); // do not modify the caller's argument
+        day.set(Calendar.HOUR_OF_DAY, 0);
+        day.set(Calendar.MINUTE, 0);
+        day.set(Calendar.SECOND, 0);
+
+        int startTs = (int) (day.getTimeInMillis() / 1000);
+        int endTs = startTs + 24 * 60 * 60 - 1;
+
+        return new ActivityRollupProvider(device, db.getDaoSession()).getActivityAmounts(startTs, endTs);
+    }
+
     protected List<? extends ActivitySample> getSamplesOfDay(DBHandler db, Calendar day, int offsetHours, GBDevice device) {
         int startTs;
         int endTs;
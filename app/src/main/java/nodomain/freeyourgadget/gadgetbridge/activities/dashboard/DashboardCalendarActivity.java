@@ -55,7 +55,8 @@ import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.activities.AbstractGBActivity;
 import nodomain.freeyourgadget.gadgetbridge.activities.DashboardFragment;
-import nodomain.freeyourgadget.gadgetbridge.util.DashboardUtils;
+import nodomain.freeyourgadget.gadgetbridge.activities.dashboard.data.DashboardTotalsData;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityUser;
 import nodomain.freeyourgadget.gadgetbridge.util.DateTimeUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 
@@ -226,6 +227,7 @@ public class DashboardCalendarActivity extends AbstractGBActivity {
 
         @Override
         protected Void doInBackground(Void... params) {
+            final float stepsGoal = new ActivityUser().getStepsGoal();
             for (Calendar day : dayCells.keySet()) {
                 // Determine day color by the amount of the steps goal reached
                 DashboardFragment.DashboardData dashboardData = new DashboardFragment.DashboardData();
@@ -233,7 +235,8 @@ public class DashboardCalendarActivity extends AbstractGBActivity {
                 dashboardData.showDeviceList = showDeviceList;
                 dashboardData.timeTo = (int) (day.getTimeInMillis() / 1000);
                 dashboardData.timeFrom = DateTimeUtils.shiftDays(dashboardData.timeTo, -1);
-                float goalFactor = DashboardUtils.getStepsGoalFactor(dashboardData);
+                final DashboardTotalsData totals = DashboardTotalsData.compute(dashboardData, false);
+                float goalFactor = Math.min(1, totals.getSteps() / stepsGoal);
                 @ColorInt int dayColor;
                 if (goalFactor >= 1) {
                     dayColor = color_100;
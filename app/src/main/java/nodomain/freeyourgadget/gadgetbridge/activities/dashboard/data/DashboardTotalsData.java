@@ -0,0 +1,238 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.activities.dashboard.data;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.activities.DashboardFragment;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBReaderPool;
+import nodomain.freeyourgadget.gadgetbridge.devices.ActivityRollupProvider;
+import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
+import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityUser;
+import nodomain.freeyourgadget.gadgetbridge.model.DailyTotals;
+import nodomain.freeyourgadget.gadgetbridge.util.DashboardUtils;
+
+/**
+ * The activity totals of all devices selected on the dashboard. They are computed in a single
+ * pass, one device per thread if the database has concurrent readers, and shared by all widgets
+ * through {@link DashboardFragment.DashboardData}.
+ */
+public class DashboardTotalsData implements Serializable {
+    private static final Logger LOG = LoggerFactory.getLogger(DashboardTotalsData.class);
+
+    private static final int ACTIVE_MINUTES_CACHE_SIZE = 16;
+
+    /**
+     * Active minutes by device, time range, latest sample and {@link ActivityRollupProvider#getInvalidationCount()}, see {@link DailyTotals} for the other totals.
+     */
+    private static final Map<String, Long> ACTIVE_MINUTES_CACHE = new LinkedHashMap<String, Long>(ACTIVE_MINUTES_CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+            return size() > ACTIVE_MINUTES_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Shared by all computations, so that computing the totals for many days does not start new
+     * threads every time. The threads are stopped when idle.
+     */
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private long steps;
+    private long distanceCm;
+    private long activeCalories;
+    private long restingCalories;
+    private long sleepMinutes;
+    private long activeMinutes;
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public long getDistanceCm() {
+        return distanceCm;
+    }
+
+    /**
+     * @return the active calories, in calories
+     */
+    public long getActiveCalories() {
+        return activeCalories;
+    }
+
+    public long getRestingCalories() {
+        return restingCalories;
+    }
+
+    public long getSleepMinutes() {
+        return sleepMinutes;
+    }
+
+    public long getActiveMinutes() {
+        return activeMinutes;
+    }
+
+    public static DashboardTotalsData compute(final DashboardFragment.DashboardData dashboardData) {
+        return compute(dashboardData, true);
+    }
+
+    /**
+     * @param withActiveMinutes whether to compute the active minutes, which require a step analysis
+     *                          of the raw samples and are skipped when only the daily totals are needed
+     */
+    public static DashboardTotalsData compute(final DashboardFragment.DashboardData dashboardData, final boolean withActiveMinutes) {
+        final List<GBDevice> devices = new ArrayList<>();
+        for (GBDevice dev : GBApplication.app().getDeviceManager().getDevices()) {
+            if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) &&
+                    (dev.getDeviceCoordinator().supportsActivityTracking() || dev.getDeviceCoordinator().supportsActiveCalories())) {
+                devices.add(dev);
+            }
+        }
+
+        final long start = System.currentTimeMillis();
+        final DashboardTotalsData totals = new DashboardTotalsData();
+        if (devices.size() == 1 || !GBApplication.isDbReaderPoolEnabled()) {
+            // Without concurrent readers, the devices would only wait for each other
+            for (final GBDevice dev : devices) {
+                totals.add(computeForDevice(dev, dashboardData, withActiveMinutes));
+            }
+        } else if (!devices.isEmpty()) {
+            final List<Future<DashboardTotalsData>> futures = new ArrayList<>(devices.size());
+            for (final GBDevice dev : devices) {
+                futures.add(EXECUTOR.submit(() -> computeForDevice(dev, dashboardData, withActiveMinutes)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    totals.add(futures.get(i).get());
+                } catch (final ExecutionException e) {
+                    LOG.error("Could not compute dashboard totals for {}", devices.get(i), e.getCause());
+                } catch (final InterruptedException e) {
+                    LOG.warn("Interrupted while computing dashboard totals");
+                    for (final Future<DashboardTotalsData> future : futures) {
+                        future.cancel(true);
+                    }
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        LOG.debug("Computed dashboard totals for {} devices in {}ms", devices.size(), System.currentTimeMillis() - start);
+
+        return totals;
+    }
+
+    private static ExecutorService createExecutor() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                DBReaderPool.MAX_READERS,
+                DBReaderPool.MAX_READERS,
+                30,
+                TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    final Thread thread = new Thread(runnable, "DashboardTotals");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static DashboardTotalsData computeForDevice(final GBDevice device,
+                                                        final DashboardFragment.DashboardData dashboardData,
+                                                        final boolean withActiveMinutes) {
+        final DashboardTotalsData totals = new DashboardTotalsData();
+        final DeviceCoordinator coordinator = device.getDeviceCoordinator();
+
+        try (DBHandler dbHandler = GBApplication.acquireDbReadOnly()) {
+            final Calendar day = GregorianCalendar.getInstance();
+            day.setTimeInMillis(dashboardData.timeTo * 1000L);
+            final DailyTotals dailyTotals = DailyTotals.getDailyTotalsForDevice(device, day, dbHandler);
+
+            if (coordinator.supportsActivityTracking()) {
+                totals.steps = dailyTotals.getSteps();
+                if (dailyTotals.getSteps() > 0 && dailyTotals.getDistance() > 0) {
+                    totals.distanceCm = dailyTotals.getDistance();
+                } else {
+                    totals.distanceCm = dailyTotals.getSteps() * new ActivityUser().getStepLengthCm();
+                }
+                totals.sleepMinutes = dailyTotals.getSleep();
+                if (withActiveMinutes) {
+                    totals.activeMinutes = getActiveMinutes(device, dbHandler, dashboardData);
+                }
+            }
+            if (coordinator.supportsActiveCalories()) {
+                totals.activeCalories = dailyTotals.getActiveCalories();
+                totals.restingCalories = dailyTotals.getRestingCalories();
+            }
+        } catch (final Exception e) {
+            LOG.warn("Could not calculate dashboard totals for {}", device, e);
+        }
+
+        return totals;
+    }
+
+    private static long getActiveMinutes(final GBDevice device, final DBHandler dbHandler, final DashboardFragment.DashboardData dashboardData) {
+        final ActivitySample latestSample = device.getDeviceCoordinator()
+                .getSampleProvider(device, dbHandler.getDaoSession())
+                .getLatestActivitySample();
+        final String cacheKey = device.getAddress() + "/" + dashboardData.timeFrom + "/" + dashboardData.timeTo + "/" +
+                (latestSample != null ? latestSample.getTimestamp() : 0) + "/" + ActivityRollupProvider.getInvalidationCount();
+
+        synchronized (ACTIVE_MINUTES_CACHE) {
+            final Long cached = ACTIVE_MINUTES_CACHE.get(cacheKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final long activeMinutes = DashboardUtils.getActiveMinutes(device, dbHandler, dashboardData);
+        synchronized (ACTIVE_MINUTES_CACHE) {
+            ACTIVE_MINUTES_CACHE.put(cacheKey, activeMinutes);
+        }
+        return activeMinutes;
+    }
+
+    private void add(final DashboardTotalsData other) {
+        steps += other.steps;
+        distanceCm += other.distanceCm;
+        activeCalories += other.activeCalories;
+        restingCalories += other.restingCalories;
+        sleepMinutes += other.sleepMinutes;
+        activeMinutes += other.activeMinutes;
+    }
+}
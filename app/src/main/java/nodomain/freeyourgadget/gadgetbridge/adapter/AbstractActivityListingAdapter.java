@@ -35,7 +35,7 @@ import nodomain.freeyourgadget.gadgetbridge.R;
  */
 public abstract class AbstractActivityListingAdapter<T> extends RecyclerView.Adapter<AbstractActivityListingAdapter.AbstractActivityListingViewHolder<T>> {
     private final Context context;
-    private final List<T> items;
+    private List<T> items;
     private final BitSet selectedItems = new BitSet();
 
     private OnItemClickListener onItemSingleClickListener;
@@ -127,8 +127,14 @@ public abstract class AbstractActivityListingAdapter<T> extends RecyclerView.Ada
     }
 
     public void setItems(List<T> items, boolean notify) {
-        this.items.clear();
-        this.items.addAll(items);
+        setItemsList(new ArrayList<>(items), notify);
+    }
+
+    /**
+     * Uses the given list as items without copying it, eg. for a list that loads its items lazily.
+     */
+    protected void setItemsList(List<T> items, boolean notify) {
+        this.items = items;
         this.selectedItems.clear();
         if (notify) {
             notifyDataSetChanged();
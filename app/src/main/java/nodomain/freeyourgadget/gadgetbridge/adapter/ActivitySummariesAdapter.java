@@ -18,6 +18,8 @@
 package nodomain.freeyourgadget.gadgetbridge.adapter;
 
 import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.view.LayoutInflater;
 import android.view.Menu;
 import android.view.View;
@@ -31,27 +33,30 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.DecimalFormat;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
-import de.greenrobot.dao.query.QueryBuilder;
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
-import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
 import nodomain.freeyourgadget.gadgetbridge.entities.BaseActivitySummary;
 import nodomain.freeyourgadget.gadgetbridge.entities.BaseActivitySummaryDao;
+import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
 import nodomain.freeyourgadget.gadgetbridge.entities.Device;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityListItem;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryData;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries;
-import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryJsonSummary;
-import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryParser;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.util.DateTimeUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.FormatUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
@@ -61,9 +66,6 @@ import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.
 
 import androidx.annotation.NonNull;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-
 public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<BaseActivitySummary> {
     protected static final Logger LOG = LoggerFactory.getLogger(ActivitySummariesAdapter.class);
     private final GBDevice device;
@@ -73,6 +75,8 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
     String nameContainsFilter;
     List<Long> itemsFilter;
     private int activityKindFilter;
+    private StatsContainer stats = StatsContainer.EMPTY;
+    private List<Integer> activityKinds = Collections.emptyList();
 
     public ActivitySummariesAdapter(Context context, GBDevice device, int activityKindFilter, long dateFromFilter, long dateToFilter, String nameContainsFilter, long deviceFilter, List itemsFilter) {
         super(context);
@@ -89,61 +93,91 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
     @Override
     public void loadItems() {
         try (DBHandler handler = GBApplication.acquireDB()) {
-            BaseActivitySummaryDao summaryDao = handler.getDaoSession().getBaseActivitySummaryDao();
-            Device dbDevice = DBHelper.findDevice(device, handler.getDaoSession());
+            ActivitySummaryMetrics.materialize(getContext(), handler.getDaoSession());
+
+            final SQLiteDatabase db = handler.getDatabase();
+            final List<String> args = new ArrayList<>();
+            final String where = getWhereClause(handler.getDaoSession(), args);
+            final String[] whereArgs = args.toArray(new String[0]);
+
+            final long[] ids;
+            try (Cursor cursor = db.rawQuery("SELECT " + BaseActivitySummaryDao.Properties.Id.columnName +
+                    " FROM " + BaseActivitySummaryDao.TABLENAME + where +
+                    " ORDER BY " + BaseActivitySummaryDao.Properties.StartTime.columnName + " DESC", whereArgs)) {
+                ids = new long[cursor.getCount()];
+                int i = 0;
+                while (cursor.moveToNext()) {
+                    ids[i++] = cursor.getLong(0);
+                }
+            }
 
-            QueryBuilder<BaseActivitySummary> qb = summaryDao.queryBuilder();
+            stats = StatsContainer.query(db, where, whereArgs);
+            activityKinds = queryActivityKinds(db, where, whereArgs);
+            setItemsList(new SummaryPages(ids), true);
+        } catch (Exception e) {
+            GB.toast("Error loading activity summaries.", Toast.LENGTH_SHORT, GB.ERROR, e);
+        }
+    }
 
-            if (deviceFilter == ALL_DEVICES) {
-                qb.orderDesc(BaseActivitySummaryDao.Properties.StartTime);
-            } else if (deviceFilter != 0) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.DeviceId.eq(
-                                deviceFilter)).orderDesc(BaseActivitySummaryDao.Properties.StartTime);
-            } else {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.DeviceId.eq(
-                                dbDevice.getId())).orderDesc(BaseActivitySummaryDao.Properties.StartTime);
-            }
+    /**
+     * @return the activity kinds of the listed summaries, most recent first
+     */
+    public List<Integer> getActivityKinds() {
+        return activityKinds;
+    }
 
-            if (activityKindFilter != 0) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.ActivityKind.eq(activityKindFilter));
-            }
+    private String getWhereClause(final DaoSession session, final List<String> args) {
+        final List<String> conditions = new ArrayList<>();
+
+        if (deviceFilter == ALL_DEVICES) {
+            // no device condition
+        } else if (deviceFilter != 0) {
+            conditions.add(BaseActivitySummaryDao.Properties.DeviceId.columnName + " = ?");
+            args.add(String.valueOf(deviceFilter));
+        } else {
+            final Device dbDevice = DBHelper.findDevice(device, session);
+            conditions.add(BaseActivitySummaryDao.Properties.DeviceId.columnName + " = ?");
+            args.add(String.valueOf(dbDevice != null ? dbDevice.getId() : -1));
+        }
 
-            if (dateFromFilter != 0) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.StartTime.gt(new Date(dateFromFilter)));
-            }
-            if (dateToFilter != 0) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.EndTime.lt(new Date(dateToFilter)));
-            }
-            if (nameContainsFilter != null && !nameContainsFilter.isEmpty()) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.Name.like("%" + nameContainsFilter + "%"));
-            }
-            if (itemsFilter != null) {
-                qb.where(
-                        BaseActivitySummaryDao.Properties.Id.in(itemsFilter));
-            }
+        if (activityKindFilter != 0) {
+            conditions.add(BaseActivitySummaryDao.Properties.ActivityKind.columnName + " = ?");
+            args.add(String.valueOf(activityKindFilter));
+        }
 
+        if (dateFromFilter != 0) {
+            conditions.add(BaseActivitySummaryDao.Properties.StartTime.columnName + " > ?");
+            args.add(String.valueOf(dateFromFilter));
+        }
+        if (dateToFilter != 0) {
+            conditions.add(BaseActivitySummaryDao.Properties.EndTime.columnName + " < ?");
+            args.add(String.valueOf(dateToFilter));
+        }
+        if (nameContainsFilter != null && !nameContainsFilter.isEmpty()) {
+            conditions.add(BaseActivitySummaryDao.Properties.Name.columnName + " LIKE ?");
+            args.add("%" + nameContainsFilter + "%");
+        }
+        if (itemsFilter != null) {
+            conditions.add(BaseActivitySummaryDao.Properties.Id.columnName + " IN (" + StringUtils.join(itemsFilter, ",") + ")");
+        }
 
-            List<BaseActivitySummary> allSummaries = new ArrayList<>();
-            // HACK: Populate json in a dummy summary, so stats load faster
-            BaseActivitySummary dashboardSummary = new BaseActivitySummary();
-            final List<BaseActivitySummary> summaries = qb.build().list();
-            dashboardSummary.setSummaryData(StatsContainer.from(
-                    device.getDeviceCoordinator().getActivitySummaryParser(device, getContext()),
-                    summaries
-            ).toJson());
-            allSummaries.add(dashboardSummary); // dashboard
-            allSummaries.addAll(summaries);
-            allSummaries.add(new BaseActivitySummary()); // empty
-            setItems(allSummaries, true);
-        } catch (Exception e) {
-            GB.toast("Error loading activity summaries.", Toast.LENGTH_SHORT, GB.ERROR, e);
+        if (conditions.isEmpty()) {
+            return "";
+        }
+        return " WHERE " + StringUtils.join(conditions, " AND ");
+    }
+
+    private static List<Integer> queryActivityKinds(final SQLiteDatabase db, final String where, final String[] whereArgs) {
+        final List<Integer> kinds = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT " + BaseActivitySummaryDao.Properties.ActivityKind.columnName +
+                " FROM " + BaseActivitySummaryDao.TABLENAME + where +
+                " GROUP BY " + BaseActivitySummaryDao.Properties.ActivityKind.columnName +
+                " ORDER BY MAX(" + BaseActivitySummaryDao.Properties.StartTime.columnName + ") DESC", whereArgs)) {
+            while (cursor.moveToNext()) {
+                kinds.add(cursor.getInt(0));
+            }
         }
+        return kinds;
     }
 
     @NonNull
@@ -201,8 +235,17 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
         public void fill(final int position, final BaseActivitySummary summary, final boolean selected) {
             final boolean hasGps;
 
+            if (summary.getStartTime() == null) {
+                // removed since the list was loaded
+                rootView.setVisibility(View.GONE);
+                return;
+            }
+            rootView.setVisibility(View.VISIBLE);
+
             if (summary.getGpxTrack() != null) {
                 hasGps = true;
+            } else if (summary.getHasGps() != null) {
+                hasGps = summary.getHasGps();
             } else if (summary.getSummaryData() != null && summary.getSummaryData().contains(ActivitySummaryEntries.INTERNAL_HAS_GPS)) {
                 final ActivitySummaryData summaryData = ActivitySummaryData.fromJson(summary.getSummaryData());
                 hasGps = summaryData != null && summaryData.getBoolean(INTERNAL_HAS_GPS, false);
@@ -259,18 +302,7 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
         public void fill(final int position, final BaseActivitySummary summary, final boolean selected) {
             int activitiesCount = getItemCount() - 2; // remove dashboard and end spacer
 
-            final DeviceCoordinator coordinator = device.getDeviceCoordinator();
-
-            String summaryData = summary.getSummaryData();
-            final StatsContainer stats;
-            if (StringUtils.isNotBlank(summaryData)) {
-                stats = StatsContainer.fromJson(summaryData);
-            } else {
-                stats = StatsContainer.from(
-                        coordinator.getActivitySummaryParser(device, getContext()),
-                        getItems()
-                );
-            }
+            final StatsContainer stats = ActivitySummariesAdapter.this.stats;
 
             DecimalFormat df = new DecimalFormat("#.##");
             durationSumView.setText(String.format("%s", DateTimeUtils.formatDurationHoursMinutes((long) stats.durationSum, TimeUnit.MILLISECONDS)));
@@ -304,7 +336,7 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
     }
 
     private static class StatsContainer {
-        private static final Gson GSON = new GsonBuilder().create();
+        private static final StatsContainer EMPTY = new StatsContainer(0, 0, 0, 0, 0, 0, 0);
 
         private final double durationSum;
         private final double caloriesBurntSum;
@@ -330,65 +362,146 @@ public class ActivitySummariesAdapter extends AbstractActivityListingAdapter<Bas
             this.activityIcon = activityIcon;
         }
 
-        private static StatsContainer from(final ActivitySummaryParser summaryParser,
-                                           final List<BaseActivitySummary> activities) {
-            double durationSum = 0;
-            double caloriesBurntSum = 0;
-            double distanceSum = 0;
-            double activeSecondsSum = 0;
-            double firstItemDate = 0;
-            double lastItemDate = 0;
-            int activityIcon = 0;
-            boolean activitySame = true;
-
-            for (BaseActivitySummary summary : activities) {
-                if (summary.getStartTime() == null) continue; //first item is empty, for dashboard
-
-                if (firstItemDate == 0) firstItemDate = summary.getStartTime().getTime();
-                lastItemDate = summary.getEndTime().getTime();
-                durationSum += summary.getEndTime().getTime() - summary.getStartTime().getTime();
-
-                if (activityIcon == 0) {
-                    activityIcon = summary.getActivityKind();
-                } else {
-                    if (activityIcon != summary.getActivityKind()) {
-                        activitySame = false;
-                    }
+        /**
+         * Computes the totals of the listed summaries in a single aggregate query over the
+         * metric columns, see {@link ActivitySummaryMetrics}.
+         */
+        private static StatsContainer query(final SQLiteDatabase db, final String where, final String[] whereArgs) {
+            final String startTime = BaseActivitySummaryDao.Properties.StartTime.columnName;
+            final String endTime = BaseActivitySummaryDao.Properties.EndTime.columnName;
+            final String activityKind = BaseActivitySummaryDao.Properties.ActivityKind.columnName;
+
+            try (Cursor cursor = db.rawQuery("SELECT " +
+                    "SUM(" + endTime + " - " + startTime + "), " +
+                    "SUM(" + BaseActivitySummaryDao.Properties.CaloriesBurnt.columnName + "), " +
+                    "SUM(" + BaseActivitySummaryDao.Properties.DistanceMeters.columnName + "), " +
+                    "SUM(" + BaseActivitySummaryDao.Properties.ActiveSeconds.columnName + "), " +
+                    "MAX(" + startTime + "), " +
+                    "MIN(" + endTime + "), " +
+                    "MIN(NULLIF(" + activityKind + ", 0)), " +
+                    "MAX(NULLIF(" + activityKind + ", 0))" +
+                    " FROM " + BaseActivitySummaryDao.TABLENAME + where, whereArgs)) {
+                if (!cursor.moveToFirst()) {
+                    return EMPTY;
                 }
+                final int minActivityKind = cursor.getInt(6);
+                final int maxActivityKind = cursor.getInt(7);
+                return new StatsContainer(
+                        cursor.getDouble(0),
+                        cursor.getDouble(1),
+                        cursor.getDouble(2),
+                        cursor.getDouble(3),
+                        cursor.getDouble(4),
+                        cursor.getDouble(5),
+                        minActivityKind == maxActivityKind ? minActivityKind : 0
+                );
+            }
+        }
+    }
 
-                final ActivitySummaryJsonSummary activitySummaryJsonSummary = new ActivitySummaryJsonSummary(summaryParser, summary);
-                ActivitySummaryData summarySubdata = activitySummaryJsonSummary.getSummaryData(false);
+    /**
+     * The listed summaries, with the dashboard first and an empty spacer last. Only their ids are
+     * kept, the summaries are loaded in pages when they are shown.
+     */
+    private static class SummaryPages extends AbstractList<BaseActivitySummary> {
+        private static final int PAGE_SIZE = 50;
+        private static final int MAX_CACHED_PAGES = 8;
+
+        private final BaseActivitySummary dashboard = new BaseActivitySummary();
+        private final BaseActivitySummary spacer = new BaseActivitySummary();
+        private final long[] ids;
+        private final Map<Integer, BaseActivitySummary[]> pages = new LinkedHashMap<Integer, BaseActivitySummary[]>(MAX_CACHED_PAGES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Integer, BaseActivitySummary[]> eldest) {
+                return size() > MAX_CACHED_PAGES;
+            }
+        };
 
-                if (summarySubdata != null) {
-                    if (summarySubdata.has("caloriesBurnt")) {
-                        caloriesBurntSum += summarySubdata.getNumber("caloriesBurnt", 0).doubleValue();
-                    }
-                    if (summarySubdata.has("distanceMeters")) {
-                        distanceSum += summarySubdata.getNumber("distanceMeters", 0).doubleValue();
-                    }
-                    if (summarySubdata.has("activeSeconds")) {
-                        activeSecondsSum += summarySubdata.getNumber("activeSeconds", 0).doubleValue();
-                    }
-                }
+        private SummaryPages(final long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public BaseActivitySummary get(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+            }
+            if (index == 0) {
+                return dashboard;
+            }
+            if (index == ids.length + 1) {
+                return spacer;
             }
 
-            return new StatsContainer(
-                    durationSum,
-                    caloriesBurntSum,
-                    distanceSum,
-                    activeSecondsSum,
-                    firstItemDate,
-                    lastItemDate,
-                    activitySame ? activityIcon : 0
-            );
+            final int page = (index - 1) / PAGE_SIZE;
+            BaseActivitySummary[] summaries = pages.get(page);
+            if (summaries == null) {
+                summaries = loadPage(page);
+                pages.put(page, summaries);
+            }
+            return summaries[(index - 1) % PAGE_SIZE];
+        }
+
+        @Override
+        public int size() {
+            return ids.length + 2;
         }
 
-        public static StatsContainer fromJson(final String json) {
-            return GSON.fromJson(json, StatsContainer.class);
+        @Override
+        public int indexOf(final Object o) {
+            if (o == dashboard) {
+                return 0;
+            }
+            if (o == spacer) {
+                return ids.length + 1;
+            }
+            if (!(o instanceof BaseActivitySummary) || ((BaseActivitySummary) o).getId() == null) {
+                return -1;
+            }
+            final long id = ((BaseActivitySummary) o).getId();
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return i + 1;
+                }
+            }
+            return -1;
         }
 
-        public String toJson() {
-            return GSON.toJson(this);
+        private BaseActivitySummary[] loadPage(final int page) {
+            final int from = page * PAGE_SIZE;
+            final int to = Math.min(from + PAGE_SIZE, ids.length);
+            final BaseActivitySummary[] summaries = new BaseActivitySummary[to - from];
+
+            final List<Long> pageIds = new ArrayList<>(to - from);
+            final Map<Long, Integer> positions = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                pageIds.add(ids[i]);
+                positions.put(ids[i], i - from);
+            }
+
+            try (DBHandler handler = GBApplication.acquireDB()) {
+                final List<BaseActivitySummary> loaded = handler.getDaoSession().getBaseActivitySummaryDao().queryBuilder()
+                        .where(BaseActivitySummaryDao.Properties.Id.in(pageIds))
+                        .list();
+                for (final BaseActivitySummary summary : loaded) {
+                    final Integer position = positions.get(summary.getId());
+                    if (position != null) {
+                        summaries[position] = summary;
+                    }
+                }
+            } catch (final Exception e) {
+                LOG.error("Failed to load activity summaries {} to {}", from, to, e);
+            }
+
+            for (int i = 0; i < summaries.length; i++) {
+                if (summaries[i] == null) {
+                    // deleted since the ids were queried
+                    summaries[i] = new BaseActivitySummary();
+                    summaries[i].setId(ids[from + i]);
+                }
+            }
+
+            return summaries;
         }
     }
 }
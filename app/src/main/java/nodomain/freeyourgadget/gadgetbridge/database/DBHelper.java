@@ -22,6 +22,7 @@ import android.content.Context;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Build;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
@@ -36,12 +37,14 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
 
+import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.Property;
 import de.greenrobot.dao.query.Query;
 import de.greenrobot.dao.query.QueryBuilder;
@@ -69,6 +72,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.UserAttributes;
 import nodomain.freeyourgadget.gadgetbridge.entities.UserDao;
 import nodomain.freeyourgadget.gadgetbridge.entities.WorldClock;
 import nodomain.freeyourgadget.gadgetbridge.entities.WorldClockDao;
+import nodomain.freeyourgadget.gadgetbridge.externalevents.notifications.NotificationContentFilter;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityUser;
 import nodomain.freeyourgadget.gadgetbridge.model.ValidByDate;
@@ -114,9 +118,21 @@ public class DBHelper {
         return path;
     }
 
+    /**
+     * Makes sure that a copy of the closed database file is complete, ie. that no committed
+     * changes are left in the write-ahead log, see {@link nodomain.freeyourgadget.gadgetbridge.LockHandler#closeDb()}.
+     */
+    private static void ensureCheckpointed(final String dbPath) throws IOException {
+        final File wal = new File(dbPath + "-wal");
+        if (wal.length() > 0) {
+            throw new IOException("The write-ahead log of the database was not written back");
+        }
+    }
+
     public File exportDB(DBHandler dbHandler, File toDir) throws IllegalStateException, IOException {
         String dbPath = getClosedDBPath(dbHandler);
         try {
+            ensureCheckpointed(dbPath);
             File sourceFile = new File(dbPath);
             File destFile = new File(toDir, sourceFile.getName());
             if (destFile.exists()) {
@@ -138,6 +154,7 @@ public class DBHelper {
     public void exportDB(DBHandler dbHandler, OutputStream dest) throws IOException {
         String dbPath = getClosedDBPath(dbHandler);
         try {
+            ensureCheckpointed(dbPath);
             File source = new File(dbPath);
             FileUtils.copyFileToStream(source, dest);
         } finally {
@@ -145,6 +162,37 @@ public class DBHelper {
         }
     }
 
+    /**
+     * Writes a consistent copy of the open database to the given stream, without holding it in memory
+     * and without closing the database. Requires VACUUM INTO, available from Android 11 on. On older
+     * releases, the database is closed and the file is copied as in {@link #exportDB(DBHandler, OutputStream)}.
+     * <p>
+     * The stream is not closed, so that this can write into a zip entry.
+     */
+    public void exportDBSnapshot(DBHandler dbHandler, OutputStream dest) throws IOException {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            exportDB(dbHandler, dest);
+            return;
+        }
+
+        final File snapshot = File.createTempFile("db-snapshot", ".sqlite", context.getCacheDir());
+        try {
+            // VACUUM INTO refuses to overwrite an existing file
+            if (!snapshot.delete()) {
+                throw new IOException("Failed to prepare " + snapshot);
+            }
+            final long start = System.currentTimeMillis();
+            dbHandler.getDatabase().execSQL("VACUUM INTO ?", new Object[]{snapshot.getPath()});
+            LOG.debug("Created database snapshot of {} bytes in {}ms", snapshot.length(), System.currentTimeMillis() - start);
+
+            FileUtils.copyFileToStream(snapshot, dest);
+        } finally {
+            if (snapshot.exists() && !snapshot.delete()) {
+                LOG.warn("Failed to delete database snapshot {}", snapshot);
+            }
+        }
+    }
+
     private String getDate() {
         return new SimpleDateFormat("yyyyMMdd-HHmmss", Locale.US).format(new Date());
     }
@@ -158,8 +206,12 @@ public class DBHelper {
         try {
             File toFile = new File(dbPath);
             FileUtils.copyStreamToFile(inputStream, toFile);
+            // A write-ahead log left behind by the previous database must not be applied to the imported one
+            new File(dbPath + "-wal").delete();
+            new File(dbPath + "-shm").delete();
         } finally {
             dbHandler.openDb();
+            NotificationContentFilter.invalidate();
         }
     }
 
@@ -197,6 +249,43 @@ public class DBHelper {
         return false;
     }
 
+    /**
+     * Inserts or replaces a large number of entities, eg. history fetched from a device. All rows
+     * are written in a single transaction, through the compiled insert-or-replace statement of the
+     * dao.
+     *
+     * @param attach      whether to attach the entities to the identity scope of the session. Fetched
+     *                    history is usually not read back through the session, so attaching each row
+     *                    is wasted work. Auto-increment ids are not set on entities that are not attached.
+     * @param afterInsert run in the same transaction, after the entities were written. May be null.
+     */
+    public static <T> void insertOrReplaceBulk(final DaoSession session,
+                                               final AbstractDao<T, ?> dao,
+                                               final Collection<T> entities,
+                                               final boolean attach,
+                                               @Nullable final Runnable afterInsert) {
+        if (entities.isEmpty()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        session.runInTx(() -> {
+            dao.insertOrReplaceInTx(entities, attach);
+            if (afterInsert != null) {
+                afterInsert.run();
+            }
+        });
+        final long elapsedNanos = Math.max(1, System.nanoTime() - start);
+
+        LOG.debug(
+                "Inserted {} rows into {} in {}ms ({} rows/s)",
+                entities.size(),
+                dao.getTablename(),
+                elapsedNanos / 1_000_000L,
+                entities.size() * 1_000_000_000L / elapsedNanos
+        );
+    }
+
     /**
      * Looks up the user entity in the database. If a user exists already, it will
      * be updated with the current preferences values. If no user exists yet, it will
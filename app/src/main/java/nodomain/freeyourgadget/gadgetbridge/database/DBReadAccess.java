@@ -0,0 +1,39 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.database;
+
+import android.content.Context;
+
+import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.GBException;
+
+/**
+ * A {@link DBAccess} that only reads from the database, and therefore does not need to wait for
+ * device syncs writing in the background.
+ *
+ * @see GBApplication#acquireDbReadOnly()
+ */
+public abstract class DBReadAccess extends DBAccess {
+    public DBReadAccess(String task, Context context) {
+        super(task, context);
+    }
+
+    @Override
+    protected DBHandler acquireDB() throws GBException {
+        return GBApplication.acquireDbReadOnly();
+    }
+}
@@ -0,0 +1,236 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.database;
+
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import de.greenrobot.dao.identityscope.IdentityScopeType;
+import nodomain.freeyourgadget.gadgetbridge.GBException;
+import nodomain.freeyourgadget.gadgetbridge.entities.DaoMaster;
+import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
+
+/**
+ * A small pool of read-only {@link DBHandler}s, each with its own connection opened with
+ * {@link SQLiteDatabase#OPEN_READONLY} and its own {@link DaoSession}. With the database in
+ * write-ahead-logging mode, readers run concurrently with each other and with the single writer
+ * that is handed out by {@link nodomain.freeyourgadget.gadgetbridge.GBApplication#acquireDB()}.
+ * <p>
+ * Reader sessions have no identity scope, so they never return entities cached before a write
+ * of the writer session. Any write through a reader fails, all writes go through the writer.
+ */
+public class DBReaderPool {
+    private static final Logger LOG = LoggerFactory.getLogger(DBReaderPool.class);
+
+    public static final int MAX_READERS = 4;
+
+    private final Object lock = new Object();
+    // guarded by lock
+    private final ArrayDeque<Reader> idleReaders = new ArrayDeque<>();
+    private String path;
+    private int generation = 0;
+    private int activeReaders = 0;
+
+    public void init(final String path) {
+        synchronized (lock) {
+            closeIdleReaders();
+            this.path = path;
+            generation++;
+        }
+    }
+
+    /**
+     * Stops handing out readers, until the pool is initialized again, and waits until the readers
+     * in use were released, eg. before the database is closed or its files are replaced. Must only
+     * be called while holding the writer, which no reader waits for while it is in use.
+     *
+     * @throws IllegalStateException if readers are still in use after the timeout. The pool then
+     *                               keeps handing out readers, and the database must not be closed.
+     */
+    public void invalidate(final long timeout, final TimeUnit unit) {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (lock) {
+            final String previousPath = path;
+            closeIdleReaders();
+            path = null;
+            generation++;
+            lock.notifyAll();
+
+            while (activeReaders > 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    path = previousPath;
+                    throw new IllegalStateException(activeReaders + " database readers are still in use");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (final InterruptedException e) {
+                    path = previousPath;
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for the database readers", e);
+                }
+            }
+        }
+    }
+
+    public boolean isValid() {
+        synchronized (lock) {
+            return path != null;
+        }
+    }
+
+    /**
+     * Returns a reader, which must be closed when done.
+     */
+    public DBHandler acquire(final long timeout, final TimeUnit unit) throws GBException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final String readerPath;
+        final int readerGeneration;
+        synchronized (lock) {
+            while (path != null && activeReaders >= MAX_READERS) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new GBException("Unable to access the database.");
+                }
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new GBException("Interrupted while waiting for a database reader", e);
+                }
+            }
+            if (path == null) {
+                throw new GBException("Database is not open.");
+            }
+            activeReaders++;
+            final Reader reader = idleReaders.poll();
+            if (reader != null) {
+                return reader;
+            }
+            readerPath = path;
+            readerGeneration = generation;
+        }
+
+        // Opening a connection takes a while, do not block the other readers meanwhile
+        try {
+            LOG.debug("Opening new database reader connection");
+            final Reader reader = new Reader(readerPath, readerGeneration);
+            reader.openDb();
+            return reader;
+        } catch (final RuntimeException e) {
+            synchronized (lock) {
+                activeReaders--;
+                lock.notifyAll();
+            }
+            throw new GBException("Unable to open a database reader", e);
+        }
+    }
+
+    private void release(final Reader reader) {
+        synchronized (lock) {
+            if (reader.generation == generation && reader.session != null) {
+                idleReaders.push(reader);
+                activeReaders--;
+                lock.notifyAll();
+                return;
+            }
+        }
+        // The database was closed or reopened while the reader was in use. Only counted as released
+        // once its connection is closed, see #invalidate(long, TimeUnit)
+        reader.closeDb();
+        synchronized (lock) {
+            activeReaders--;
+            lock.notifyAll();
+        }
+    }
+
+    // must hold lock
+    private void closeIdleReaders() {
+        for (final Reader reader : idleReaders) {
+            reader.closeDb();
+        }
+        idleReaders.clear();
+    }
+
+    private class Reader implements DBHandler {
+        private final String path;
+        private final int generation;
+        private DaoMaster daoMaster;
+        private DaoSession session;
+
+        private Reader(final String path, final int generation) {
+            this.path = path;
+            this.generation = generation;
+        }
+
+        @Override
+        public synchronized void closeDb() {
+            if (session == null) {
+                return;
+            }
+            session.getDatabase().close();
+            session = null;
+            daoMaster = null;
+        }
+
+        @Override
+        public synchronized void openDb() {
+            if (session != null) {
+                return;
+            }
+            final SQLiteDatabase db = SQLiteDatabase.openDatabase(path, null, SQLiteDatabase.OPEN_READONLY);
+            daoMaster = new DaoMaster(db);
+            session = daoMaster.newSession(IdentityScopeType.None);
+        }
+
+        /**
+         * Readers open their connection directly, without a helper.
+         *
+         * @return null
+         */
+        @Override
+        public SQLiteOpenHelper getHelper() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+
+        @Override
+        public synchronized SQLiteDatabase getDatabase() {
+            return session.getDatabase();
+        }
+
+        @Override
+        public synchronized DaoMaster getDaoMaster() {
+            return daoMaster;
+        }
+
+        @Override
+        public synchronized DaoSession getDaoSession() {
+            return session;
+        }
+    }
+}
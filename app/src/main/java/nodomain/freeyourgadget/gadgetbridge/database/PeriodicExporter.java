@@ -22,18 +22,33 @@ import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
 import android.net.Uri;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.os.SystemClock;
 
+import androidx.documentfile.provider.DocumentFile;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 import nodomain.freeyourgadget.gadgetbridge.BuildConfig;
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
+import nodomain.freeyourgadget.gadgetbridge.entities.ActivityHourlyRollupDao;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
 import nodomain.freeyourgadget.gadgetbridge.util.GBPrefs;
 import nodomain.freeyourgadget.gadgetbridge.util.PendingIntentUtils;
@@ -49,6 +64,16 @@ public class PeriodicExporter extends BroadcastReceiver {
     public static final String ACTION_DATABASE_EXPORT_SUCCESS = "nodomain.freeyourgadget.gadgetbridge.action.DATABASE_EXPORT_SUCCESS";
     public static final String ACTION_DATABASE_EXPORT_FAIL = "nodomain.freeyourgadget.gadgetbridge.action.DATABASE_EXPORT_FAIL";
 
+    /**
+     * Tables up to this size are hashed completely when checking for changes, see {@link #getDatabaseFingerprint(SQLiteDatabase)}.
+     */
+    private static final int MAX_HASHED_ROWS = 1000;
+
+    /**
+     * Derived data that is recomputed on demand, and does not warrant a new export.
+     */
+    private static final Set<String> FINGERPRINT_IGNORED_TABLES = Collections.singleton(ActivityHourlyRollupDao.TABLENAME);
+
     public static void enablePeriodicExport(Context context) {
         Prefs prefs = GBApplication.getPrefs();
         GBApplication gbApp = GBApplication.app();
@@ -94,31 +119,130 @@ public class PeriodicExporter extends BroadcastReceiver {
         return new RefreshTask(task, context);
     }
 
-    public class RefreshTask extends DBAccess {
+    /**
+     * Computes a fingerprint of all tables, to detect whether anything changed since the last export.
+     * It is made of the row count and the highest rowid of every table, which change when samples
+     * are inserted, replaced or deleted. Small tables, such as the settings, may also be updated in
+     * place, so their full contents are hashed as well.
+     */
+    static String getDatabaseFingerprint(final SQLiteDatabase db) throws NoSuchAlgorithmException {
+        final List<String> tables = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%' AND name != 'android_metadata' ORDER BY name", null)) {
+            while (cursor.moveToNext()) {
+                tables.add(cursor.getString(0));
+            }
+        }
+
+        final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        final ByteBuffer buffer = ByteBuffer.allocate(9);
+        for (final String table : tables) {
+            if (FINGERPRINT_IGNORED_TABLES.contains(table)) {
+                continue;
+            }
+            updateDigest(digest, buffer, Cursor.FIELD_TYPE_STRING, table.getBytes(StandardCharsets.UTF_8));
+            final long count;
+            try (Cursor cursor = db.rawQuery("SELECT count(*), max(rowid) FROM '" + table + "'", null)) {
+                cursor.moveToFirst();
+                count = cursor.getLong(0);
+                updateDigest(digest, buffer, Cursor.FIELD_TYPE_INTEGER, count);
+                updateDigest(digest, buffer, Cursor.FIELD_TYPE_INTEGER, cursor.getLong(1));
+            }
+            if (count > MAX_HASHED_ROWS) {
+                continue;
+            }
+            try (Cursor cursor = db.rawQuery("SELECT * FROM '" + table + "'", null)) {
+                final int columns = cursor.getColumnCount();
+                while (cursor.moveToNext()) {
+                    for (int i = 0; i < columns; i++) {
+                        final int type = cursor.getType(i);
+                        switch (type) {
+                            case Cursor.FIELD_TYPE_NULL:
+                                updateDigest(digest, buffer, type, 0);
+                                break;
+                            case Cursor.FIELD_TYPE_INTEGER:
+                                updateDigest(digest, buffer, type, cursor.getLong(i));
+                                break;
+                            case Cursor.FIELD_TYPE_FLOAT:
+                                updateDigest(digest, buffer, type, Double.doubleToLongBits(cursor.getDouble(i)));
+                                break;
+                            case Cursor.FIELD_TYPE_STRING:
+                                updateDigest(digest, buffer, type, cursor.getString(i).getBytes(StandardCharsets.UTF_8));
+                                break;
+                            case Cursor.FIELD_TYPE_BLOB:
+                                updateDigest(digest, buffer, type, cursor.getBlob(i));
+                                break;
+                        }
+                    }
+                }
+            }
+        }
+
+        return GB.hexdump(digest.digest()).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Adds the type and a value to the digest, so that adjacent values cannot be confused.
+     */
+    private static void updateDigest(final MessageDigest digest, final ByteBuffer buffer, final int type, final long value) {
+        buffer.clear();
+        buffer.put((byte) type).putLong(value);
+        digest.update(buffer.array(), 0, buffer.position());
+    }
+
+    /**
+     * Adds the type, the length and the bytes to the digest, so that adjacent values cannot be confused.
+     */
+    private static void updateDigest(final MessageDigest digest, final ByteBuffer buffer, final int type, final byte[] value) {
+        updateDigest(digest, buffer, type, value.length);
+        digest.update(value);
+    }
+
+    /**
+     * Only holds the writer while exporting, checking for changes just needs a reader.
+     */
+    public class RefreshTask extends AsyncTask<Void, Void, Void> {
         Context localContext;
 
         public RefreshTask(String task, Context context) {
-            super(task, context);
             localContext = context;
         }
 
         @Override
-        protected void doInBackground(DBHandler handler) {
+        protected Void doInBackground(Void... params) {
             LOG.info("Exporting DB in a background thread");
-            try (DBHandler dbHandler = GBApplication.acquireDB()) {
+            try {
                 DBHelper helper = new DBHelper(localContext);
                 String dst = GBApplication.getPrefs().getString(GBPrefs.AUTO_EXPORT_LOCATION, null);
                 if (dst == null) {
                     LOG.warn("Unable to export DB, export location not set");
                     broadcastSuccess(false);
-                    return;
+                    return null;
                 }
                 Uri dstUri = Uri.parse(dst);
-                try (OutputStream out = localContext.getContentResolver().openOutputStream(dstUri)) {
-                    helper.exportDB(dbHandler, out);
+                String exportState = null;
+                if (GBApplication.getPrefs().getBoolean(GBPrefs.AUTO_EXPORT_INCREMENTAL, false)) {
+                    // Tied to the target, so that a new export location is always exported to
+                    try (DBHandler reader = GBApplication.acquireDbReadOnly()) {
+                        exportState = dst + "\n" + getDatabaseFingerprint(reader.getDatabase());
+                    }
+                    if (exportState.equals(GBApplication.getPrefs().getString(GBPrefs.AUTO_EXPORT_LAST_FINGERPRINT, null))
+                            && targetExists(dstUri)) {
+                        LOG.info("Database unchanged since the last export, skipping");
+                        GBApplication.app().setLastAutoExportTimestamp(System.currentTimeMillis());
+                        broadcastSuccess(true);
+                        return null;
+                    }
+                }
+                try (DBHandler dbHandler = GBApplication.acquireDB();
+                     OutputStream out = localContext.getContentResolver().openOutputStream(dstUri)) {
+                    helper.exportDBSnapshot(dbHandler, out);
                     GBApplication gbApp = GBApplication.app();
                     gbApp.setLastAutoExportTimestamp(System.currentTimeMillis());
                 }
+                // Only remembered once the export succeeded, so that a failed export is retried
+                GBApplication.getPrefs().getPreferences().edit()
+                        .putString(GBPrefs.AUTO_EXPORT_LAST_FINGERPRINT, exportState)
+                        .apply();
 
                 broadcastSuccess(true);
 
@@ -128,6 +252,15 @@ public class PeriodicExporter extends BroadcastReceiver {
                 LOG.info("Exception while exporting DB: ", ex);
                 broadcastSuccess(false);
             }
+            return null;
+        }
+
+        /**
+         * Whether the previous export is still there, it may have been deleted or emptied since.
+         */
+        private boolean targetExists(final Uri dstUri) {
+            final DocumentFile target = DocumentFile.fromSingleUri(localContext, dstUri);
+            return target != null && target.exists() && target.length() > 0;
         }
 
         private void broadcastSuccess(final boolean success) {
@@ -141,9 +274,5 @@ public class PeriodicExporter extends BroadcastReceiver {
             final Intent exportedNotifyIntent = new Intent(action);
             localContext.sendBroadcast(exportedNotifyIntent);
         }
-
-        @Override
-        protected void onPostExecute(Object o) {
-        }
     }
 }
@@ -0,0 +1,185 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.database;
+
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The (DEVICE_ID, TIMESTAMP) index of the sample tables, whose primary key is (TIMESTAMP,
+ * DEVICE_ID). New databases get it from the generated DAOs, this creates it for existing ones and
+ * checks that the queries of the sample providers actually use it.
+ */
+public final class SampleIndexes {
+    private static final Logger LOG = LoggerFactory.getLogger(SampleIndexes.class);
+
+    private static final String COLUMN_DEVICE_ID = "DEVICE_ID";
+    private static final String COLUMN_TIMESTAMP = "TIMESTAMP";
+
+    /**
+     * The shapes of the queries the sample providers run, see AbstractSampleProvider and
+     * AbstractTimeSampleProvider.
+     */
+    private static final String[] PROVIDER_QUERIES = {
+            // getGBActivitySamples, getAllSamples
+            "SELECT * FROM '%s' WHERE DEVICE_ID = ? AND TIMESTAMP >= ? AND TIMESTAMP <= ? ORDER BY TIMESTAMP",
+            // getLatestActivitySample, getLatestSample
+            "SELECT * FROM '%s' WHERE DEVICE_ID = ? ORDER BY TIMESTAMP DESC LIMIT 1",
+            // getLatestActivitySample(until), getLastSampleWithStepsBefore
+            "SELECT * FROM '%s' WHERE DEVICE_ID = ? AND TIMESTAMP <= ? ORDER BY TIMESTAMP DESC LIMIT 1",
+            // getFirstActivitySample, getFirstSample
+            "SELECT * FROM '%s' WHERE DEVICE_ID = ? ORDER BY TIMESTAMP ASC LIMIT 1",
+    };
+
+    private SampleIndexes() {
+    }
+
+    /**
+     * @return the tables whose primary key is (TIMESTAMP, DEVICE_ID)
+     */
+    public static List<String> findSampleTables(final SQLiteDatabase db) {
+        final List<String> tables = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT name FROM sqlite_master WHERE type = 'table' AND name NOT LIKE 'sqlite_%'", null)) {
+            while (cursor.moveToNext()) {
+                final String table = cursor.getString(0);
+                if (isSampleTable(db, table)) {
+                    tables.add(table);
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static boolean isSampleTable(final SQLiteDatabase db, final String table) {
+        boolean timestampFirst = false;
+        boolean deviceIdSecond = false;
+        try (Cursor cursor = db.rawQuery("PRAGMA table_info('" + table + "')", null)) {
+            final int nameIndex = cursor.getColumnIndex("name");
+            final int pkIndex = cursor.getColumnIndex("pk");
+            while (cursor.moveToNext()) {
+                final String column = cursor.getString(nameIndex);
+                final int pk = cursor.getInt(pkIndex);
+                if (COLUMN_TIMESTAMP.equals(column)) {
+                    timestampFirst = pk == 1;
+                } else if (COLUMN_DEVICE_ID.equals(column)) {
+                    deviceIdSecond = pk == 2;
+                } else if (pk != 0) {
+                    return false;
+                }
+            }
+        }
+        return timestampFirst && deviceIdSecond;
+    }
+
+    /**
+     * @return whether the table has an index that starts with (DEVICE_ID, TIMESTAMP)
+     */
+    public static boolean hasIndex(final SQLiteDatabase db, final String table) {
+        final List<String> indexes = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("PRAGMA index_list('" + table + "')", null)) {
+            final int nameIndex = cursor.getColumnIndex("name");
+            while (cursor.moveToNext()) {
+                indexes.add(cursor.getString(nameIndex));
+            }
+        }
+
+        for (final String index : indexes) {
+            final List<String> columns = new ArrayList<>();
+            try (Cursor cursor = db.rawQuery("PRAGMA index_info('" + index + "')", null)) {
+                final int nameIndex = cursor.getColumnIndex("name");
+                final int seqnoIndex = cursor.getColumnIndex("seqno");
+                while (cursor.moveToNext()) {
+                    final int seqno = cursor.getInt(seqnoIndex);
+                    while (columns.size() <= seqno) {
+                        columns.add(null);
+                    }
+                    columns.set(seqno, cursor.getString(nameIndex));
+                }
+            }
+            if (columns.size() >= 2 && COLUMN_DEVICE_ID.equals(columns.get(0)) && COLUMN_TIMESTAMP.equals(columns.get(1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates the index on all sample tables that do not have it yet.
+     */
+    public static void createIndexes(final SQLiteDatabase db) {
+        int created = 0;
+        for (final String table : findSampleTables(db)) {
+            if (!hasIndex(db, table)) {
+                db.execSQL("CREATE INDEX IF NOT EXISTS 'IDX_" + table + "_DEVICE_ID_TIMESTAMP' ON '" + table + "' (DEVICE_ID, TIMESTAMP)");
+                created++;
+            }
+        }
+        LOG.info("Created {} sample indexes", created);
+    }
+
+    /**
+     * Runs EXPLAIN QUERY PLAN for the sample provider queries on every sample table, and logs the
+     * ones that scan the whole table or sort the result.
+     *
+     * @return the number of queries that were flagged
+     */
+    public static int auditQueryPlans(final SQLiteDatabase db) {
+        final String[] args = {"0", "0", "0"};
+        int flagged = 0;
+        for (final String table : findSampleTables(db)) {
+            for (final String queryShape : PROVIDER_QUERIES) {
+                final String query = String.format(queryShape, table);
+                final String[] queryArgs = new String[countParameters(query)];
+                System.arraycopy(args, 0, queryArgs, 0, queryArgs.length);
+
+                final List<String> problems = new ArrayList<>();
+                try (Cursor cursor = db.rawQuery("EXPLAIN QUERY PLAN " + query, queryArgs)) {
+                    final int detailIndex = cursor.getColumnIndex("detail");
+                    while (cursor.moveToNext()) {
+                        final String detail = cursor.getString(detailIndex);
+                        if (detail.startsWith("SCAN") || detail.contains("TEMP B-TREE")) {
+                            problems.add(detail);
+                        }
+                    }
+                }
+
+                if (!problems.isEmpty()) {
+                    LOG.warn("Query on {} is not served by an index: {} - {}", table, query, problems);
+                    flagged++;
+                }
+            }
+        }
+        LOG.info("Audited sample query plans, {} flagged", flagged);
+        return flagged;
+    }
+
+    private static int countParameters(final String query) {
+        int count = 0;
+        for (int i = 0; i < query.length(); i++) {
+            if (query.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,49 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.database.schema;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import de.greenrobot.dao.Property;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
+import nodomain.freeyourgadget.gadgetbridge.database.DBUpdateScript;
+import nodomain.freeyourgadget.gadgetbridge.entities.BaseActivitySummaryDao;
+
+public class GadgetbridgeUpdate_94 implements DBUpdateScript {
+    @Override
+    public void upgradeSchema(final SQLiteDatabase db) {
+        addColumn(db, BaseActivitySummaryDao.Properties.MetricsVersion, "INTEGER");
+        addColumn(db, BaseActivitySummaryDao.Properties.DistanceMeters, "REAL");
+        addColumn(db, BaseActivitySummaryDao.Properties.CaloriesBurnt, "REAL");
+        addColumn(db, BaseActivitySummaryDao.Properties.ActiveSeconds, "REAL");
+        addColumn(db, BaseActivitySummaryDao.Properties.AverageHR, "INTEGER");
+        addColumn(db, BaseActivitySummaryDao.Properties.HasGps, "INTEGER");
+        // the metrics of existing summaries are extracted by ActivitySummaryMetrics on first use
+    }
+
+    private static void addColumn(final SQLiteDatabase db, final Property property, final String type) {
+        if (!DBHelper.existsColumn(BaseActivitySummaryDao.TABLENAME, property.columnName, db)) {
+            final String statement = "ALTER TABLE " + BaseActivitySummaryDao.TABLENAME + " ADD COLUMN \""
+                    + property.columnName + "\" " + type + ";";
+            db.execSQL(statement);
+        }
+    }
+
+    @Override
+    public void downgradeSchema(final SQLiteDatabase db) {
+    }
+}
@@ -0,0 +1,50 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.database.schema;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import de.greenrobot.dao.Property;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
+import nodomain.freeyourgadget.gadgetbridge.database.DBUpdateScript;
+import nodomain.freeyourgadget.gadgetbridge.entities.ActivityHourlyRollupDao;
+
+public class GadgetbridgeUpdate_96 implements DBUpdateScript {
+    @Override
+    public void upgradeSchema(final SQLiteDatabase db) {
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInActivitySeconds);
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInLightSleepSeconds);
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInDeepSleepSeconds);
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInRemSleepSeconds);
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInAwakeSleepSeconds);
+        addColumn(db, ActivityHourlyRollupDao.Properties.LeadInNotWornSeconds);
+        // the rollups are a cache, the existing ones lack the lead-in and are recomputed on demand
+        db.execSQL("DELETE FROM " + ActivityHourlyRollupDao.TABLENAME + ";");
+    }
+
+    private static void addColumn(final SQLiteDatabase db, final Property property) {
+        if (!DBHelper.existsColumn(ActivityHourlyRollupDao.TABLENAME, property.columnName, db)) {
+            final String statement = "ALTER TABLE " + ActivityHourlyRollupDao.TABLENAME + " ADD COLUMN \""
+                    + property.columnName + "\" INTEGER NOT NULL DEFAULT 0;";
+            db.execSQL(statement);
+        }
+    }
+
+    @Override
+    public void downgradeSchema(final SQLiteDatabase db) {
+    }
+}
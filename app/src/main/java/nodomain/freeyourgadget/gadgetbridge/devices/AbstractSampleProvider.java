@@ -17,24 +17,27 @@
     along with this program.  If not, see <https://www.gnu.org/licenses/>. */
 package nodomain.freeyourgadget.gadgetbridge.devices;
 
+import android.database.Cursor;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
+import java.io.IOException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import de.greenrobot.dao.AbstractDao;
 import de.greenrobot.dao.Property;
+import de.greenrobot.dao.query.CloseableListIterator;
 import de.greenrobot.dao.query.QueryBuilder;
 import de.greenrobot.dao.query.WhereCondition;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
@@ -44,6 +47,8 @@ import nodomain.freeyourgadget.gadgetbridge.entities.Device;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
+import nodomain.freeyourgadget.gadgetbridge.model.TimeSeries;
 
 /**
  * Base class for all sample providers. A Sample provider is device specific and provides
@@ -54,6 +59,18 @@ public abstract class AbstractSampleProvider<T extends AbstractActivitySample> i
     private static final Logger LOG = LoggerFactory.getLogger(AbstractSampleProvider.class);
 
     private static final WhereCondition[] NO_CONDITIONS = new WhereCondition[0];
+
+    /**
+     * Size of the ranges fetched by {@link #forEachActivitySample(int, int, Consumer)} for providers
+     * that post-process their samples.
+     */
+    private static final int STREAM_CHUNK_SECONDS = 24 * 60 * 60;
+
+    /**
+     * Number of samples after which the identity scope is cleared while streaming.
+     */
+    private static final int STREAM_DETACH_INTERVAL = 1440;
+
     private final DaoSession mSession;
     private final GBDevice mDevice;
 
@@ -82,6 +99,112 @@ public abstract class AbstractSampleProvider<T extends AbstractActivitySample> i
         return getGBActivitySamplesHighRes(timestamp_from, timestamp_to);
     }
 
+    /**
+     * Streams the samples of the given range. Providers that return the plain database rows are
+     * read through a lazy cursor, one entity at a time. Providers that merge or convert their
+     * samples in {@link #getGBActivitySamples(int, int)} are streamed in day-sized chunks through
+     * {@link #getSparseActivitySamples(int, int)}, so memory is bounded by one chunk.
+     */
+    @Override
+    public void forEachActivitySample(final int timestamp_from, final int timestamp_to, final Consumer<? super T> consumer) {
+        if (returnsRawSamples()) {
+            forEachGBActivitySample(timestamp_from, timestamp_to, consumer);
+            return;
+        }
+
+        for (long chunkFrom = timestamp_from; chunkFrom <= timestamp_to; chunkFrom += STREAM_CHUNK_SECONDS) {
+            final int chunkTo = (int) Math.min(chunkFrom + STREAM_CHUNK_SECONDS - 1, timestamp_to);
+            getSparseActivitySamples((int) chunkFrom, chunkTo).forEach(consumer);
+        }
+    }
+
+    /**
+     * Streams the plain database rows between two timestamps (inclusive), in ascending order,
+     * through a lazy cursor.
+     */
+    protected void forEachGBActivitySample(final int timestamp_from, final int timestamp_to, final Consumer<? super T> consumer) {
+        final Device dbDevice = DBHelper.findDevice(getDevice(), getSession());
+        if (dbDevice == null) {
+            // no device, no samples
+            return;
+        }
+        final QueryBuilder<T> qb = getSampleDao().queryBuilder();
+        final Property timestampProperty = getTimestampSampleProperty();
+        qb.where(getDeviceIdentifierSampleProperty().eq(dbDevice.getId()), timestampProperty.ge(timestamp_from))
+                .where(timestampProperty.le(timestamp_to))
+                .orderAsc(timestampProperty);
+
+        int count = 0;
+        try (CloseableListIterator<T> it = qb.build().listIterator()) {
+            while (it.hasNext()) {
+                final T sample = it.next();
+                sample.setProvider(this);
+                consumer.accept(sample);
+                if (++count % STREAM_DETACH_INTERVAL == 0) {
+                    detachFromSession();
+                }
+            }
+        } catch (final IOException e) {
+            LOG.warn("Failed to close sample cursor", e);
+        }
+        detachFromSession();
+    }
+
+    /**
+     * Reads the heart rate column straight from the database, without creating an entity per row,
+     * if the provider returns the plain database rows.
+     */
+    @NonNull
+    @Override
+    public TimeSeries getHeartRateSeries(final int timestamp_from, final int timestamp_to) {
+        final Property heartRateProperty = findSampleProperty("heartRate");
+        if (heartRateProperty == null || !returnsRawSamples()) {
+            return SampleProvider.super.getHeartRateSeries(timestamp_from, timestamp_to);
+        }
+
+        final Device dbDevice = DBHelper.findDevice(getDevice(), getSession());
+        if (dbDevice == null) {
+            // no device, no samples
+            return new TimeSeries();
+        }
+
+        final String timestampColumn = getTimestampSampleProperty().columnName;
+        final String sql = "SELECT " + timestampColumn + ", " + heartRateProperty.columnName
+                + " FROM " + getSampleDao().getTablename()
+                + " WHERE " + getDeviceIdentifierSampleProperty().columnName + " = ?"
+                + " AND " + timestampColumn + " BETWEEN ? AND ?"
+                + " AND " + heartRateProperty.columnName + " > 0"
+                + " ORDER BY " + timestampColumn;
+        final String[] args = {
+                String.valueOf(dbDevice.getId()),
+                String.valueOf(timestamp_from),
+                String.valueOf(timestamp_to)
+        };
+        try (Cursor cursor = getSession().getDatabase().rawQuery(sql, args)) {
+            return TimeSeries.fromCursor(cursor, 0, 1, false);
+        }
+    }
+
+    @Nullable
+    private Property findSampleProperty(final String name) {
+        for (final Property property : getSampleDao().getProperties()) {
+            if (name.equals(property.name)) {
+                return property;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@link #getAllActivitySamples(int, int)} and {@link #getAllActivitySamplesHighRes(int, int)}
+     * return the plain database rows. Providers that override them, {@link #getGBActivitySamples(int, int)},
+     * {@link #getGBActivitySamplesHighRes(int, int)} or {@link #getSparseActivitySamples(int, int)}
+     * must return false, so that their samples are not read straight from the database.
+     */
+    protected boolean returnsRawSamples() {
+        return true;
+    }
+
     @Override
     public boolean hasHighResData() {
         return false;
@@ -101,11 +224,40 @@ public abstract class AbstractSampleProvider<T extends AbstractActivitySample> i
     @Override
     public void addGBActivitySample(T activitySample) {
         getSampleDao().insertOrReplace(activitySample);
+        ActivityRollupProvider.invalidate(getSession(), activitySample.getDeviceId(), activitySample.getTimestamp(), activitySample.getTimestamp());
     }
 
     @Override
     public void addGBActivitySamples(T[] activitySamples) {
         getSampleDao().insertOrReplaceInTx(activitySamples);
+        invalidateRollups(activitySamples);
+    }
+
+    @Override
+    public void addGBActivitySamplesBulk(final List<T> activitySamples, final boolean attach) {
+        DBHelper.insertOrReplaceBulk(getSession(), getSampleDao(), activitySamples, attach, () -> invalidateRollups(activitySamples));
+    }
+
+    /**
+     * Drops the pre-aggregated {@link ActivityRollupProvider} totals covering the given samples.
+     * Subclasses that write samples without going through {@link #addGBActivitySamples(AbstractActivitySample[])}
+     * should call this afterwards.
+     */
+    protected void invalidateRollups(final T[] activitySamples) {
+        invalidateRollups(Arrays.asList(activitySamples));
+    }
+
+    protected void invalidateRollups(final List<T> activitySamples) {
+        if (activitySamples.isEmpty()) {
+            return;
+        }
+        int minTimestamp = Integer.MAX_VALUE;
+        int maxTimestamp = Integer.MIN_VALUE;
+        for (final T sample : activitySamples) {
+            minTimestamp = Math.min(minTimestamp, sample.getTimestamp());
+            maxTimestamp = Math.max(maxTimestamp, sample.getTimestamp());
+        }
+        ActivityRollupProvider.invalidate(getSession(), activitySamples.get(0).getDeviceId(), minTimestamp, maxTimestamp);
     }
 
     @Nullable
@@ -331,60 +483,45 @@ public abstract class AbstractSampleProvider<T extends AbstractActivitySample> i
         return d1.equals(d2);
     }
 
-    protected List<T> fillGaps(final List<T> samples, final int timestamp_from, final int timestamp_to) {
-        if (samples.isEmpty()) {
-            return samples;
+    /**
+     * The samples with a placeholder sample for every missing minute, for the callers of
+     * {@link #getAllActivitySamples(int, int)} that expect a sample every minute.
+     */
+    protected List<T> fillGaps(final SparseActivitySamples<T> sparseSamples) {
+        if (sparseSamples.getGapCount() == 0) {
+            return sparseSamples.getSamples();
         }
 
-        final long nanoStart = System.nanoTime();
-
-        final List<T> ret = new LinkedList<>(samples);
+        final List<T> samples = new ArrayList<>(sparseSamples.getSamples().size() + sparseSamples.getMissingSampleCount());
+        sparseSamples.forEach(new GapFiller(samples));
+        return samples;
+    }
 
-        //ret.sort(Comparator.comparingLong(T::getTimestamp));
+    private class GapFiller implements Consumer<T>, SparseActivitySamples.GapConsumer {
+        private final List<T> samples;
 
-        final int firstTimestamp = ret.get(0).getTimestamp();
-        if (firstTimestamp - timestamp_from > 60) {
-            // Gap at the start
-            for (int ts = timestamp_from; ts <= firstTimestamp + 60; ts += 60) {
-                ret.add(0, createDummySample(ts));
-            }
+        private GapFiller(final List<T> samples) {
+            this.samples = samples;
         }
 
-        final int lastTimestamp = ret.get(ret.size() - 1).getTimestamp();
-        // Do not generate fake samples into the future
-        final long minTo = Math.min(timestamp_to, System.currentTimeMillis() / 1000L);
-        if (minTo - lastTimestamp > 60) {
-            // Gap at the end
-            for (int ts = lastTimestamp + 60; ts <= minTo; ts += 60) {
-                ret.add(createDummySample(ts));
-            }
+        @Override
+        public void accept(final T sample) {
+            samples.add(sample);
         }
 
-        final ListIterator<T> it = ret.listIterator();
-        T previousSample = it.next();
-
-        while (it.hasNext()) {
-            final T sample = it.next();
-            if (sample.getTimestamp() - previousSample.getTimestamp() > 60) {
-                LOG.trace("Filling gap between {} and {}", Instant.ofEpochSecond(previousSample.getTimestamp() + 60), Instant.ofEpochSecond(sample.getTimestamp()));
-                for (int ts = previousSample.getTimestamp() + 60; ts < sample.getTimestamp(); ts += 60) {
-                    it.add(createDummySample(ts));
-                }
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            for (int ts = gapStart; ts <= gapEnd; ts += SparseActivitySamples.SAMPLE_INTERVAL) {
+                samples.add(createPlaceholderSample(ts));
             }
-            previousSample = sample;
         }
-
-        final long nanoEnd = System.nanoTime();
-
-        final long executionTime = (nanoEnd - nanoStart) / 1000000;
-
-        final int dummyCount = ret.size() - samples.size();
-        LOG.trace("Filled gaps with {} samples in {}ms", dummyCount, executionTime);
-
-        return ret;
     }
 
-    private T createDummySample(final int ts) {
+    /**
+     * Creates a sample for a minute without data, to fill a gap or to carry data that is overlaid
+     * from elsewhere, such as sleep stages.
+     */
+    protected T createPlaceholderSample(final int ts) {
         final T dummySample = createActivitySample();
         dummySample.setTimestamp(ts);
         dummySample.setRawKind(ActivityKind.UNKNOWN.getCode());
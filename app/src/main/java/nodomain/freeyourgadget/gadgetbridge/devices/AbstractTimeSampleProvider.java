@@ -75,11 +75,35 @@ public abstract class AbstractTimeSampleProvider<T extends AbstractTimeSample> i
     @Override
     public void addSample(final T activitySample) {
         getSampleDao().insertOrReplace(activitySample);
+        invalidateRollups(Collections.singletonList(activitySample));
     }
 
     @Override
     public void addSamples(final List<T> activitySamples) {
         getSampleDao().insertOrReplaceInTx(activitySamples);
+        invalidateRollups(activitySamples);
+    }
+
+    @Override
+    public void addSamplesBulk(final List<T> timeSamples, final boolean attach) {
+        DBHelper.insertOrReplaceBulk(getSession(), getSampleDao(), timeSamples, attach, () -> invalidateRollups(timeSamples));
+    }
+
+    /**
+     * Time samples (heart rate, sleep stages...) are merged into the activity samples by some
+     * providers, so writing them drops the affected {@link ActivityRollupProvider} totals as well.
+     */
+    protected void invalidateRollups(final List<T> timeSamples) {
+        if (timeSamples.isEmpty()) {
+            return;
+        }
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        for (final T sample : timeSamples) {
+            minTimestamp = Math.min(minTimestamp, sample.getTimestamp());
+            maxTimestamp = Math.max(maxTimestamp, sample.getTimestamp());
+        }
+        ActivityRollupProvider.invalidate(getSession(), timeSamples.get(0).getDeviceId(), minTimestamp / 1000L, maxTimestamp / 1000L);
     }
 
     @Nullable
@@ -0,0 +1,380 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.devices;
+
+import androidx.annotation.NonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.activities.charts.ActivityAnalysis;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
+import nodomain.freeyourgadget.gadgetbridge.entities.ActivityHourlyRollup;
+import nodomain.freeyourgadget.gadgetbridge.entities.ActivityHourlyRollupDao;
+import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
+import nodomain.freeyourgadget.gadgetbridge.entities.Device;
+import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmount;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmounts;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+
+/**
+ * Provides activity totals from the pre-aggregated {@link ActivityHourlyRollup} table, so that
+ * day, week and month views do not need to re-read and re-analyse every raw sample.
+ * <p>
+ * Missing hours are computed from the device's {@link SampleProvider} on demand. Hours with samples
+ * that ended before the start of the current day are persisted, the current day is always computed
+ * live. The totals of a range are the same as analysing all of its samples at once with
+ * {@link ActivityAnalysis#calculateActivityAmounts(List)}.
+ * <p>
+ * Persisted hours are dropped again by {@link #invalidate(DaoSession, long, long, long)} whenever
+ * samples in their range are written through the sample providers.
+ * <p>
+ * Rollups are only ever written through the database writer of {@link GBApplication#acquireDB()}:
+ * right away if the calling thread already holds it, otherwise in the background. They are not
+ * written if samples were invalidated since they were computed, as they may be outdated.
+ */
+public class ActivityRollupProvider {
+    private static final Logger LOG = LoggerFactory.getLogger(ActivityRollupProvider.class);
+
+    public static final int ROLLUP_SECONDS = 3600;
+
+    /// Incremented on every invalidation, to detect rollups computed from outdated samples
+    private static final AtomicLong invalidations = new AtomicLong();
+    private static final ExecutorService persistExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "ActivityRollupPersist");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final GBDevice mDevice;
+    private final DaoSession mSession;
+
+    public ActivityRollupProvider(final GBDevice device, final DaoSession session) {
+        mDevice = device;
+        mSession = session;
+    }
+
+    /**
+     * Get the activity amounts between two timestamps (inclusive).
+     *
+     * @param timestampFrom Start timestamp, must be the start of a local hour
+     * @param timestampTo   End timestamp
+     */
+    @NonNull
+    public ActivityAmounts getActivityAmounts(final int timestampFrom, final int timestampTo) {
+        final Device dbDevice = DBHelper.findDevice(mDevice, mSession);
+        final SampleProvider<? extends ActivitySample> sampleProvider = mDevice.getDeviceCoordinator().getSampleProvider(mDevice, mSession);
+        if (dbDevice == null || sampleProvider == null) {
+            return new ActivityAmounts();
+        }
+
+        final long invalidationsBefore = invalidations.get();
+        final ActivityHourlyRollupDao dao = mSession.getActivityHourlyRollupDao();
+        final int numBuckets = (timestampTo - timestampFrom) / ROLLUP_SECONDS + 1;
+        final ActivityHourlyRollup[] rollups = new ActivityHourlyRollup[numBuckets];
+        final boolean[] hasSamples = new boolean[numBuckets];
+
+        final List<ActivityHourlyRollup> persisted = dao.queryBuilder()
+                .where(
+                        ActivityHourlyRollupDao.Properties.DeviceId.eq(dbDevice.getId()),
+                        ActivityHourlyRollupDao.Properties.Timestamp.ge(timestampFrom),
+                        ActivityHourlyRollupDao.Properties.Timestamp.le(timestampTo)
+                ).list();
+        for (final ActivityHourlyRollup rollup : persisted) {
+            final int offset = rollup.getTimestamp() - timestampFrom;
+            // Rows of a different hour grid (eg. after a timezone change) are ignored and recomputed
+            if (offset % ROLLUP_SECONDS == 0) {
+                rollups[offset / ROLLUP_SECONDS] = rollup;
+                // Only hours with samples are persisted
+                hasSamples[offset / ROLLUP_SECONDS] = true;
+            }
+        }
+
+        final int settledUntil = getStartOfToday();
+        final List<ActivityHourlyRollup> toPersist = new ArrayList<>();
+        int i = 0;
+        while (i < numBuckets) {
+            if (rollups[i] != null) {
+                i++;
+                continue;
+            }
+            int j = i;
+            while (j < numBuckets && rollups[j] == null) {
+                j++;
+            }
+            computeRollups(sampleProvider, dbDevice, timestampFrom, rollups, hasSamples, i, j);
+            for (int k = i; k < j; k++) {
+                // Empty hours are cheap to recompute, and would have to be dropped when samples arrive later
+                if (hasSamples[k] && rollups[k].getTimestamp() + ROLLUP_SECONDS <= settledUntil) {
+                    toPersist.add(rollups[k]);
+                }
+            }
+            i = j;
+        }
+
+        if (!toPersist.isEmpty()) {
+            LOG.debug("Persisting {} activity rollups for {}", toPersist.size(), mDevice.getAddress());
+            if (GBApplication.isDbLockedByCurrentThread()) {
+                persist(toPersist, invalidationsBefore);
+            } else {
+                persistExecutor.execute(() -> persist(toPersist, invalidationsBefore));
+            }
+        }
+
+        return toActivityAmounts(rollups, hasSamples);
+    }
+
+    private static void persist(final List<ActivityHourlyRollup> rollups, final long invalidationsBefore) {
+        try (DBHandler db = GBApplication.acquireDB()) {
+            // Samples are written and invalidated while holding the writer, so this can not change meanwhile
+            if (invalidations.get() != invalidationsBefore) {
+                LOG.debug("Samples were written meanwhile, not persisting {} activity rollups", rollups.size());
+                return;
+            }
+            final ActivityHourlyRollupDao dao = db.getDaoSession().getActivityHourlyRollupDao();
+            dao.insertOrReplaceInTx(rollups);
+            dao.detachAll();
+        } catch (final Exception e) {
+            LOG.error("Failed to persist activity rollups", e);
+        }
+    }
+
+    /**
+     * Computes the rollups for buckets [from, to) from the raw samples, including the time since the
+     * sample preceding each hour.
+     */
+    private void computeRollups(final SampleProvider<? extends ActivitySample> sampleProvider,
+                                final Device dbDevice,
+                                final int timestampFrom,
+                                final ActivityHourlyRollup[] rollups,
+                                final boolean[] hasSamples,
+                                final int from,
+                                final int to) {
+        final int rangeFrom = timestampFrom + from * ROLLUP_SECONDS;
+        final ActivityAnalysis.BucketAmounts[] amounts = new ActivityAnalysis().calculateActivityAmounts(sampleProvider, rangeFrom, ROLLUP_SECONDS, to - from);
+        for (int i = 0; i < amounts.length; i++) {
+            rollups[from + i] = toRollup(dbDevice, rangeFrom + i * ROLLUP_SECONDS, amounts[i].getAmounts(), amounts[i].getLeadIn());
+            hasSamples[from + i] = amounts[i].getSampleCount() > 0;
+        }
+    }
+
+    static ActivityHourlyRollup toRollup(final Device dbDevice,
+                                         final int timestamp,
+                                         final ActivityAmounts amounts,
+                                         final ActivityAmounts leadIn) {
+        final ActivityHourlyRollup rollup = new ActivityHourlyRollup();
+        rollup.setTimestamp(timestamp);
+        rollup.setDeviceId(dbDevice.getId());
+
+        long steps = 0;
+        long distance = 0;
+        long activeCalories = 0;
+        for (final ActivityAmount amount : amounts.getAmounts()) {
+            steps += amount.getTotalSteps();
+            distance += amount.getTotalDistance();
+            activeCalories += amount.getTotalActiveCalories();
+
+            final int seconds = (int) amount.getTotalSeconds();
+            switch (amount.getActivityKind()) {
+                case LIGHT_SLEEP:
+                    rollup.setLightSleepSeconds(rollup.getLightSleepSeconds() + seconds);
+                    break;
+                case DEEP_SLEEP:
+                    rollup.setDeepSleepSeconds(rollup.getDeepSleepSeconds() + seconds);
+                    break;
+                case REM_SLEEP:
+                    rollup.setRemSleepSeconds(rollup.getRemSleepSeconds() + seconds);
+                    break;
+                case AWAKE_SLEEP:
+                    rollup.setAwakeSleepSeconds(rollup.getAwakeSleepSeconds() + seconds);
+                    break;
+                case NOT_WORN:
+                    rollup.setNotWornSeconds(rollup.getNotWornSeconds() + seconds);
+                    break;
+                case ACTIVITY:
+                default:
+                    // Every other kind (eg. running, cycling) is counted as activity
+                    rollup.setActivitySeconds(rollup.getActivitySeconds() + seconds);
+                    break;
+            }
+        }
+        rollup.setSteps((int) steps);
+        rollup.setDistanceCm((int) distance);
+        rollup.setActiveCalories((int) activeCalories);
+
+        for (final ActivityAmount amount : leadIn.getAmounts()) {
+            final int seconds = (int) amount.getTotalSeconds();
+            switch (amount.getActivityKind()) {
+                case LIGHT_SLEEP:
+                    rollup.setLeadInLightSleepSeconds(rollup.getLeadInLightSleepSeconds() + seconds);
+                    break;
+                case DEEP_SLEEP:
+                    rollup.setLeadInDeepSleepSeconds(rollup.getLeadInDeepSleepSeconds() + seconds);
+                    break;
+                case REM_SLEEP:
+                    rollup.setLeadInRemSleepSeconds(rollup.getLeadInRemSleepSeconds() + seconds);
+                    break;
+                case AWAKE_SLEEP:
+                    rollup.setLeadInAwakeSleepSeconds(rollup.getLeadInAwakeSleepSeconds() + seconds);
+                    break;
+                case NOT_WORN:
+                    rollup.setLeadInNotWornSeconds(rollup.getLeadInNotWornSeconds() + seconds);
+                    break;
+                case ACTIVITY:
+                default:
+                    rollup.setLeadInActivitySeconds(rollup.getLeadInActivitySeconds() + seconds);
+                    break;
+            }
+        }
+
+        return rollup;
+    }
+
+    private static ActivityAmounts toActivityAmounts(final ActivityHourlyRollup[] rollups, final boolean[] hasSamples) {
+        final ActivityAmount deepSleep = new ActivityAmount(ActivityKind.DEEP_SLEEP);
+        final ActivityAmount lightSleep = new ActivityAmount(ActivityKind.LIGHT_SLEEP);
+        final ActivityAmount remSleep = new ActivityAmount(ActivityKind.REM_SLEEP);
+        final ActivityAmount awakeSleep = new ActivityAmount(ActivityKind.AWAKE_SLEEP);
+        final ActivityAmount notWorn = new ActivityAmount(ActivityKind.NOT_WORN);
+        final ActivityAmount activity = new ActivityAmount(ActivityKind.ACTIVITY);
+
+        boolean hadSamples = false;
+        for (int i = 0; i < rollups.length; i++) {
+            final ActivityHourlyRollup rollup = rollups[i];
+            // The time since the preceding sample only counts if that sample is in range as well
+            if (hadSamples) {
+                addSeconds(deepSleep, rollup, rollup.getLeadInDeepSleepSeconds());
+                addSeconds(lightSleep, rollup, rollup.getLeadInLightSleepSeconds());
+                addSeconds(remSleep, rollup, rollup.getLeadInRemSleepSeconds());
+                addSeconds(awakeSleep, rollup, rollup.getLeadInAwakeSleepSeconds());
+                addSeconds(notWorn, rollup, rollup.getLeadInNotWornSeconds());
+                addSeconds(activity, rollup, rollup.getLeadInActivitySeconds());
+            }
+            hadSamples |= hasSamples[i];
+
+            addSeconds(deepSleep, rollup, rollup.getDeepSleepSeconds());
+            addSeconds(lightSleep, rollup, rollup.getLightSleepSeconds());
+            addSeconds(remSleep, rollup, rollup.getRemSleepSeconds());
+            addSeconds(awakeSleep, rollup, rollup.getAwakeSleepSeconds());
+            addSeconds(notWorn, rollup, rollup.getNotWornSeconds());
+            addSeconds(activity, rollup, rollup.getActivitySeconds());
+
+            // Totals are not split by kind, all consumers add them up across kinds
+            activity.addSteps(rollup.getSteps());
+            activity.addDistance(rollup.getDistanceCm());
+            activity.addActiveCalories(rollup.getActiveCalories());
+        }
+
+        final ActivityAmounts result = new ActivityAmounts();
+        if (deepSleep.getTotalSeconds() > 0) {
+            result.addAmount(deepSleep);
+        }
+        if (lightSleep.getTotalSeconds() > 0) {
+            result.addAmount(lightSleep);
+        }
+        if (remSleep.getTotalSeconds() > 0) {
+            result.addAmount(remSleep);
+        }
+        if (awakeSleep.getTotalSeconds() > 0) {
+            result.addAmount(awakeSleep);
+        }
+        if (activity.getTotalSeconds() > 0 || activity.getTotalSteps() > 0 || activity.getTotalDistance() > 0 || activity.getTotalActiveCalories() > 0) {
+            result.addAmount(activity);
+        }
+        if (notWorn.getTotalSeconds() > 0) {
+            result.addAmount(notWorn);
+        }
+
+        result.calculatePercentages();
+
+        return result;
+    }
+
+    private static void addSeconds(final ActivityAmount amount, final ActivityHourlyRollup rollup, final int seconds) {
+        if (seconds <= 0) {
+            return;
+        }
+        amount.addSeconds(seconds);
+        amount.setStartDate(rollup.getTimestamp());
+        amount.setEndDate(rollup.getTimestamp() + ROLLUP_SECONDS - 1);
+    }
+
+    private static int getStartOfToday() {
+        final Calendar today = Calendar.getInstance();
+        today.set(Calendar.HOUR_OF_DAY, 0);
+        today.set(Calendar.MINUTE, 0);
+        today.set(Calendar.SECOND, 0);
+        today.set(Calendar.MILLISECOND, 0);
+        return (int) (today.getTimeInMillis() / 1000L);
+    }
+
+    /**
+     * @return a counter that is incremented whenever samples are written through the sample
+     * providers, or a device is deleted. Caches of values computed from the samples include it in
+     * their key, so that they are not used after a write.
+     */
+    public static long getInvalidationCount() {
+        return invalidations.get();
+    }
+
+    /**
+     * Drops the persisted rollups that may be affected by samples written between two timestamps
+     * (inclusive, in seconds). The next persisted hour after the range is dropped as well, since the
+     * time since the last written sample may be its lead-in.
+     */
+    public static void invalidate(final DaoSession session, final long deviceId, final long timestampFrom, final long timestampTo) {
+        invalidations.incrementAndGet();
+        final ActivityHourlyRollupDao dao = session.getActivityHourlyRollupDao();
+        final List<ActivityHourlyRollup> next = dao.queryBuilder()
+                .where(
+                        ActivityHourlyRollupDao.Properties.DeviceId.eq(deviceId),
+                        ActivityHourlyRollupDao.Properties.Timestamp.gt(timestampTo)
+                ).orderAsc(ActivityHourlyRollupDao.Properties.Timestamp).limit(1).list();
+        long deleteUntil = timestampTo;
+        if (!next.isEmpty()) {
+            deleteUntil = next.get(0).getTimestamp();
+            dao.detach(next.get(0));
+        }
+        dao.queryBuilder()
+                .where(
+                        ActivityHourlyRollupDao.Properties.DeviceId.eq(deviceId),
+                        ActivityHourlyRollupDao.Properties.Timestamp.gt(timestampFrom - ROLLUP_SECONDS),
+                        ActivityHourlyRollupDao.Properties.Timestamp.le(deleteUntil)
+                ).buildDelete().executeDeleteWithoutDetachingEntities();
+    }
+
+    /**
+     * Drops all persisted rollups of a device, eg. when the device is deleted.
+     */
+    public static void invalidateAll(final DaoSession session, final long deviceId) {
+        invalidations.incrementAndGet();
+        session.getActivityHourlyRollupDao().queryBuilder()
+                .where(ActivityHourlyRollupDao.Properties.DeviceId.eq(deviceId))
+                .buildDelete().executeDeleteWithoutDetachingEntities();
+    }
+}
@@ -0,0 +1,265 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.devices;
+
+import androidx.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import nodomain.freeyourgadget.gadgetbridge.impl.GBDeviceCandidate;
+import nodomain.freeyourgadget.gadgetbridge.model.DeviceType;
+
+/**
+ * Narrows down which device types may support a discovered device, so that only a few
+ * coordinators are asked instead of all of them.
+ * <p>
+ * Most coordinators only match the device name against {@link AbstractDeviceCoordinator#getSupportedDeviceName()}.
+ * The literal text those patterns start with is kept in a prefix trie, so a name is only checked
+ * against the patterns whose prefix it starts with. Coordinators that override
+ * {@link DeviceCoordinator#supports(GBDeviceCandidate)}, and patterns without a literal prefix, are
+ * always checked. The candidates are checked in the same priority order as before, so the result
+ * does not change.
+ */
+public class DeviceTypeIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceTypeIndex.class);
+
+    /// Flags that do not change how the literal prefix of a pattern is matched. UNICODE_CASE is not
+    /// one of them, since it also folds some non-ASCII characters to ASCII letters.
+    private static final int PREFIX_SAFE_FLAGS = Pattern.CASE_INSENSITIVE | Pattern.LITERAL
+            | Pattern.DOTALL | Pattern.MULTILINE;
+
+    private final DeviceType[] orderedDeviceTypes;
+    /// Indexes into orderedDeviceTypes of the types that are checked for every device
+    private final BitSet alwaysChecked = new BitSet();
+    private final TrieNode caseSensitivePrefixes = new TrieNode();
+    /// Keys are lowercased in ASCII, like CASE_INSENSITIVE compares them
+    private final TrieNode caseInsensitivePrefixes = new TrieNode();
+
+    /**
+     * Builds the index, which creates all coordinators. Should not be done on the main thread.
+     *
+     * @param orderedDeviceTypes all device types, in the order they should be checked
+     */
+    public DeviceTypeIndex(final DeviceType[] orderedDeviceTypes) {
+        final long start = System.currentTimeMillis();
+        this.orderedDeviceTypes = orderedDeviceTypes;
+
+        int indexed = 0;
+        for (int i = 0; i < orderedDeviceTypes.length; i++) {
+            final Pattern pattern = getNamePattern(orderedDeviceTypes[i].getDeviceCoordinator());
+            if (pattern == null) {
+                alwaysChecked.set(i);
+                continue;
+            }
+
+            final boolean caseInsensitive = isCaseInsensitive(pattern);
+            final String prefix = getLiteralPrefix(pattern);
+            if (prefix.isEmpty()) {
+                alwaysChecked.set(i);
+            } else if (caseInsensitive) {
+                caseInsensitivePrefixes.add(toAsciiLowerCase(prefix), i);
+                indexed++;
+            } else {
+                caseSensitivePrefixes.add(prefix, i);
+                indexed++;
+            }
+        }
+
+        LOG.debug(
+                "Indexed {} of {} device types by name prefix in {}ms",
+                indexed,
+                orderedDeviceTypes.length,
+                System.currentTimeMillis() - start
+        );
+    }
+
+    /**
+     * @return the first device type, in priority order, whose coordinator supports the device, or
+     * {@link DeviceType#UNKNOWN}
+     */
+    public DeviceType resolve(final GBDeviceCandidate candidate) {
+        final BitSet candidates = (BitSet) alwaysChecked.clone();
+        final String name = candidate.getName();
+        if (name != null) {
+            caseSensitivePrefixes.collect(name, candidates);
+            caseInsensitivePrefixes.collect(toAsciiLowerCase(name), candidates);
+        }
+
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (orderedDeviceTypes[i].getDeviceCoordinator().supports(candidate)) {
+                return orderedDeviceTypes[i];
+            }
+        }
+        return DeviceType.UNKNOWN;
+    }
+
+    /**
+     * @return the name pattern, if it is all the coordinator checks to support a device
+     */
+    @Nullable
+    private static Pattern getNamePattern(final DeviceCoordinator coordinator) {
+        if (!(coordinator instanceof AbstractDeviceCoordinator)) {
+            return null;
+        }
+        try {
+            final Class<?> declaringClass = coordinator.getClass().getMethod("supports", GBDeviceCandidate.class).getDeclaringClass();
+            if (declaringClass != AbstractDeviceCoordinator.class) {
+                return null;
+            }
+        } catch (final NoSuchMethodException e) {
+            return null;
+        }
+        return ((AbstractDeviceCoordinator) coordinator).getSupportedDeviceName();
+    }
+
+    static boolean isCaseInsensitive(final Pattern pattern) {
+        if ((pattern.flags() & Pattern.CASE_INSENSITIVE) != 0) {
+            return true;
+        }
+        final String regex = pattern.pattern();
+        return (pattern.flags() & Pattern.LITERAL) == 0
+                && (regex.startsWith("(?i)") || regex.startsWith("^(?i)"));
+    }
+
+    /**
+     * @return the text every name matched by the pattern starts with, empty if there is none or it
+     * can not be determined
+     */
+    static String getLiteralPrefix(final Pattern pattern) {
+        final int flags = pattern.flags();
+        if ((flags & ~PREFIX_SAFE_FLAGS) != 0) {
+            return "";
+        }
+        final String regex = pattern.pattern();
+        if ((flags & Pattern.LITERAL) != 0) {
+            return regex;
+        }
+        if (regex.contains("\\Q") || hasTopLevelAlternation(regex)) {
+            return "";
+        }
+
+        int i = 0;
+        if (regex.startsWith("^")) {
+            i++;
+        }
+        if (regex.startsWith("(?i)", i)) {
+            i += 4;
+        }
+
+        final StringBuilder prefix = new StringBuilder();
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            final char literal;
+            if (c == '\\') {
+                if (i + 1 >= regex.length() || Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    // character classes, back references and the like
+                    break;
+                }
+                literal = regex.charAt(i + 1);
+                i += 2;
+            } else if (".[]{}()*+?^$|".indexOf(c) >= 0) {
+                break;
+            } else {
+                literal = c;
+                i++;
+            }
+
+            if (i < regex.length() && "?*{".indexOf(regex.charAt(i)) >= 0) {
+                // the character is optional or repeated, so it is not part of the prefix
+                if (Character.isLowSurrogate(literal) && prefix.length() > 0) {
+                    prefix.setLength(prefix.length() - 1);
+                }
+                break;
+            }
+            prefix.append(literal);
+        }
+        return prefix.toString();
+    }
+
+    private static boolean hasTopLevelAlternation(final String regex) {
+        int depth = 0;
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                if (c == ']') {
+                    inClass = false;
+                }
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '|' && depth == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String toAsciiLowerCase(final String text) {
+        final char[] chars = text.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] >= 'A' && chars[i] <= 'Z') {
+                chars[i] += 'a' - 'A';
+            }
+        }
+        return new String(chars);
+    }
+
+    private static final class TrieNode {
+        private final Map<Character, TrieNode> children = new HashMap<>();
+        private final BitSet deviceTypes = new BitSet();
+
+        private void add(final String prefix, final int deviceTypeIndex) {
+            TrieNode node = this;
+            for (int i = 0; i < prefix.length(); i++) {
+                final char c = prefix.charAt(i);
+                TrieNode child = node.children.get(c);
+                if (child == null) {
+                    child = new TrieNode();
+                    node.children.put(c, child);
+                }
+                node = child;
+            }
+            node.deviceTypes.set(deviceTypeIndex);
+        }
+
+        /**
+         * Adds the device types of all prefixes of the text to the result.
+         */
+        private void collect(final String text, final BitSet result) {
+            TrieNode node = this;
+            for (int i = 0; i < text.length(); i++) {
+                node = node.children.get(text.charAt(i));
+                if (node == null) {
+                    return;
+                }
+                result.or(node.deviceTypes);
+            }
+        }
+    }
+}
@@ -18,11 +18,14 @@
 package nodomain.freeyourgadget.gadgetbridge.devices;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import nodomain.freeyourgadget.gadgetbridge.entities.AbstractActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
+import nodomain.freeyourgadget.gadgetbridge.model.TimeSeries;
 
 /**
  * Interface to retrieve samples from the database, and also create and add samples to the database.
@@ -47,7 +50,9 @@ public interface SampleProvider<T extends AbstractActivitySample> {
 
     /**
      * Returns the list of all samples, of any type, within the given time span.
-     * This returns exactly one sample every minute.
+     * This returns at most one sample every minute. Providers that expect a sample every minute
+     * fill the minutes without one with placeholder samples, see
+     * {@link #getSparseActivitySamples(int, int)} to get the gaps without them.
      * @param timestamp_from the start timestamp
      * @param timestamp_to the end timestamp
      * @return the list of samples of any type
@@ -62,6 +67,49 @@ public interface SampleProvider<T extends AbstractActivitySample> {
      */
     List<T> getAllActivitySamplesHighRes(int timestamp_from, int timestamp_to);
 
+    /**
+     * Same samples as {@link #getAllActivitySamples(int, int)}, but without the placeholders for
+     * the minutes where a sample was expected and is missing. Those minutes are reported as gaps
+     * instead. Providers that do not expect a sample every minute report no gaps.
+     * @param timestamp_from the start timestamp
+     * @param timestamp_to the end timestamp
+     */
+    @NonNull
+    default SparseActivitySamples<T> getSparseActivitySamples(int timestamp_from, int timestamp_to) {
+        return SparseActivitySamples.withoutGaps(getAllActivitySamples(timestamp_from, timestamp_to), timestamp_from, timestamp_to);
+    }
+
+    /**
+     * Streaming variant of {@link #getAllActivitySamples(int, int)}. Hands the same samples to the
+     * consumer one at a time, in ascending timestamp order, without keeping the whole range in
+     * memory. Consumers should not retain the samples, or the memory benefit is lost. Consumers that
+     * implement {@link SparseActivitySamples.GapConsumer} also receive the gaps in between.
+     * @param timestamp_from the start timestamp
+     * @param timestamp_to the end timestamp
+     * @param consumer receives each sample
+     */
+    default void forEachActivitySample(int timestamp_from, int timestamp_to, Consumer<? super T> consumer) {
+        getSparseActivitySamples(timestamp_from, timestamp_to).forEach(consumer);
+    }
+
+    /**
+     * The heart rate of the samples of {@link #getAllActivitySamplesHighRes(int, int)}, as a
+     * compact time series. Samples without a heart rate measurement are left out.
+     * @param timestamp_from the start timestamp
+     * @param timestamp_to the end timestamp
+     */
+    @NonNull
+    default TimeSeries getHeartRateSeries(int timestamp_from, int timestamp_to) {
+        final List<T> samples = getAllActivitySamplesHighRes(timestamp_from, timestamp_to);
+        final TimeSeries series = new TimeSeries(samples.size());
+        for (final T sample : samples) {
+            if (sample.getHeartRate() > 0) {
+                series.add(sample.getTimestamp(), sample.getHeartRate());
+            }
+        }
+        return series;
+    }
+
     /**
      * Specifies that the sample provider has higher resolution data. Set to true if the sample
      * provider can provide more than one sample a minute.
@@ -92,6 +140,19 @@ public interface SampleProvider<T extends AbstractActivitySample> {
      */
     void addGBActivitySamples(T[] activitySamples);
 
+    /**
+     * Adds many samples at once, such as the history fetched from a device. Existing samples
+     * with the same timestamp will be overwritten.
+     * @param activitySamples the samples to add
+     * @param attach whether the samples should be kept in the identity scope of the session, which
+     *               is only needed if they are read back through the same session
+     */
+    default void addGBActivitySamplesBulk(List<T> activitySamples, boolean attach) {
+        for (final T sample : activitySamples) {
+            addGBActivitySample(sample);
+        }
+    }
+
     /**
      * Factory method to creates an empty sample of the correct type for this sample provider
      * @return the newly created "empty" sample
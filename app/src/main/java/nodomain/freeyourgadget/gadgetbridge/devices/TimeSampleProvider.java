@@ -64,6 +64,18 @@ public interface TimeSampleProvider<T extends TimeSample> {
      */
     void addSamples(List<T> timeSamples);
 
+    /**
+     * Adds many samples at once, such as the history fetched from a device. Existing samples are
+     * overwritten as in {@link #addSamples(List)}.
+     *
+     * @param timeSamples the samples to add
+     * @param attach      whether the samples should be kept in the identity scope of the session,
+     *                    which is only needed if they are read back through the same session
+     */
+    default void addSamplesBulk(List<T> timeSamples, boolean attach) {
+        addSamples(timeSamples);
+    }
+
     /**
      * Factory method to creates an empty sample of the correct type for this sample provider.
      *
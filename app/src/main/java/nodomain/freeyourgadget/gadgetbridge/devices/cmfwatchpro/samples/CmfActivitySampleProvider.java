@@ -92,6 +92,11 @@ public class CmfActivitySampleProvider extends AbstractSampleProvider<CmfActivit
         return new CmfActivitySample();
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<CmfActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
         LOG.trace(
@@ -40,6 +40,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 
 public class ColmiActivitySampleProvider extends AbstractSampleProvider<ColmiActivitySample> {
     private static final Logger LOG = LoggerFactory.getLogger(ColmiActivitySampleProvider.class);
@@ -91,8 +92,19 @@ public class ColmiActivitySampleProvider extends AbstractSampleProvider<ColmiAct
         return new ColmiActivitySample();
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<ColmiActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
+        return fillGaps(getSparseActivitySamples(timestamp_from, timestamp_to));
+    }
+
+    @NonNull
+    @Override
+    public SparseActivitySamples<ColmiActivitySample> getSparseActivitySamples(final int timestamp_from, final int timestamp_to) {
         LOG.trace(
                 "Getting Colmi activity samples between {} and {}",
                 timestamp_from,
@@ -100,11 +112,7 @@ public class ColmiActivitySampleProvider extends AbstractSampleProvider<ColmiAct
         );
         final long nanoStart = System.nanoTime();
 
-        final List<ColmiActivitySample> samples = fillGaps(
-                super.getGBActivitySamples(timestamp_from, timestamp_to),
-                timestamp_from,
-                timestamp_to
-        );
+        final List<ColmiActivitySample> samples = super.getGBActivitySamples(timestamp_from, timestamp_to);
 
         final Map<Integer, ColmiActivitySample> sampleByTs = new HashMap<>();
         for (final ColmiActivitySample sample : samples) {
@@ -121,7 +129,7 @@ public class ColmiActivitySampleProvider extends AbstractSampleProvider<ColmiAct
         final long executionTime = (nanoEnd - nanoStart) / 1000000;
         LOG.trace("Getting Colmi samples took {}ms", executionTime);
 
-        return finalSamples;
+        return SparseActivitySamples.withGaps(finalSamples, timestamp_from, timestamp_to);
     }
 
     private void overlayHeartRate(final Map<Integer, ColmiActivitySample> sampleByTs, final int timestamp_from, final int timestamp_to) {
@@ -22,6 +22,7 @@ import androidx.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import de.greenrobot.dao.AbstractDao;
@@ -35,6 +36,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.GarminSleepStageSample;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.SparseActivitySamples;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionSleepStage;
 import nodomain.freeyourgadget.gadgetbridge.util.RangeMap;
 
@@ -88,8 +90,19 @@ public class GarminActivitySampleProvider extends AbstractSampleProvider<GarminA
         return new GarminActivitySample();
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<GarminActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
+        return fillGaps(getSparseActivitySamples(timestamp_from, timestamp_to));
+    }
+
+    @NonNull
+    @Override
+    public SparseActivitySamples<GarminActivitySample> getSparseActivitySamples(final int timestamp_from, final int timestamp_to) {
         LOG.trace(
                 "Getting garmin activity samples between {} and {}",
                 timestamp_from,
@@ -98,26 +111,26 @@ public class GarminActivitySampleProvider extends AbstractSampleProvider<GarminA
 
         final long nanoStart = System.nanoTime();
 
-        final List<GarminActivitySample> samples = fillGaps(
-                super.getGBActivitySamples(timestamp_from, timestamp_to),
-                timestamp_from,
-                timestamp_to
-        );
+        final List<GarminActivitySample> samples = super.getGBActivitySamples(timestamp_from, timestamp_to);
 
         if (!samples.isEmpty()) {
             convertCumulativeSteps(samples, GarminActivitySampleDao.Properties.Steps);
         }
 
         convertCalories(samples);
-        overlaySleep(samples, timestamp_from, timestamp_to);
+        final SparseActivitySamples<GarminActivitySample> sparseSamples = overlaySleep(
+                SparseActivitySamples.withGaps(samples, timestamp_from, timestamp_to),
+                timestamp_from,
+                timestamp_to
+        );
 
         final long nanoEnd = System.nanoTime();
 
         final long executionTime = (nanoEnd - nanoStart) / 1000000;
 
-        LOG.trace("Getting Garmin samples took {}ms", executionTime);
+        LOG.trace("Getting Garmin samples took {}ms, {} minutes without samples", executionTime, sparseSamples.getMissingSampleCount());
 
-        return samples;
+        return sparseSamples;
     }
 
     /**
@@ -129,7 +142,13 @@ public class GarminActivitySampleProvider extends AbstractSampleProvider<GarminA
         }
     }
 
-    public void overlaySleep(final List<GarminActivitySample> samples, final int timestamp_from, final int timestamp_to) {
+    /**
+     * Sets the sleep stages on the samples. Minutes without a sample only get one if they were
+     * spent asleep.
+     */
+    public SparseActivitySamples<GarminActivitySample> overlaySleep(final SparseActivitySamples<GarminActivitySample> sparseSamples,
+                                                                   final int timestamp_from,
+                                                                   final int timestamp_to) {
         // The samples provided by Garmin are upper-bound timestamps of the sleep stage
         final RangeMap<Long, ActivityKind> stagesMap = new RangeMap<>(RangeMap.Mode.UPPER_BOUND);
 
@@ -182,16 +201,49 @@ public class GarminActivitySampleProvider extends AbstractSampleProvider<GarminA
             }
         }
 
-        if (!stagesMap.isEmpty()) {
-            for (final GarminActivitySample sample : samples) {
-                final long ts = sample.getTimestamp() * 1000L;
-                final ActivityKind sleepType = stagesMap.get(ts);
+        if (stagesMap.isEmpty()) {
+            return sparseSamples;
+        }
+
+        final List<GarminActivitySample> samples = sparseSamples.getSamples();
+        for (final GarminActivitySample sample : samples) {
+            final long ts = sample.getTimestamp() * 1000L;
+            final ActivityKind sleepType = stagesMap.get(ts);
+            if (sleepType != null && !sleepType.equals(ActivityKind.UNKNOWN)) {
+                sample.setRawKind(sleepType.getCode());
+                sample.setRawIntensity(ActivitySample.NOT_MEASURED);
+            }
+        }
+
+        final List<GarminActivitySample> sleepSamples = new ArrayList<>();
+        for (int i = 0; i < sparseSamples.getGapCount(); i++) {
+            for (int ts = sparseSamples.getGapStart(i); ts <= sparseSamples.getGapEnd(i); ts += SparseActivitySamples.SAMPLE_INTERVAL) {
+                final ActivityKind sleepType = stagesMap.get(ts * 1000L);
                 if (sleepType != null && !sleepType.equals(ActivityKind.UNKNOWN)) {
-                    sample.setRawKind(sleepType.getCode());
-                    sample.setRawIntensity(ActivitySample.NOT_MEASURED);
+                    final GarminActivitySample sleepSample = createPlaceholderSample(ts);
+                    sleepSample.setRawKind(sleepType.getCode());
+                    sleepSamples.add(sleepSample);
                 }
             }
         }
+
+        if (sleepSamples.isEmpty()) {
+            return sparseSamples;
+        }
+
+        // Both lists are sorted by timestamp
+        final List<GarminActivitySample> merged = new ArrayList<>(samples.size() + sleepSamples.size());
+        int i = 0;
+        int j = 0;
+        while (i < samples.size() || j < sleepSamples.size()) {
+            if (j >= sleepSamples.size() || (i < samples.size() && samples.get(i).getTimestamp() < sleepSamples.get(j).getTimestamp())) {
+                merged.add(samples.get(i++));
+            } else {
+                merged.add(sleepSamples.get(j++));
+            }
+        }
+
+        return SparseActivitySamples.withGaps(merged, timestamp_from, timestamp_to);
     }
 
     private ActivityKind toActivityKind(final GarminSleepStageSample stageSample) {
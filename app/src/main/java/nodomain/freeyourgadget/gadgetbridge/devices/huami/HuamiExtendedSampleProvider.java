@@ -74,6 +74,11 @@ public class HuamiExtendedSampleProvider extends AbstractSampleProvider<HuamiExt
         return new HuamiExtendedActivitySample();
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<HuamiExtendedActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
         final List<HuamiExtendedActivitySample> samples = super.getGBActivitySamples(timestamp_from, timestamp_to);
@@ -20,6 +20,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -217,11 +218,26 @@ public class HuaweiSampleProvider extends AbstractSampleProvider<HuaweiActivityS
 
         getSampleDao().insertOrReplace(start);
         getSampleDao().insertOrReplace(end);
+        invalidateRollups(new HuaweiActivitySample[]{start, end});
     }
 
     @Override
     public void addGBActivitySamples(HuaweiActivitySample[] activitySamples) {
-        List<HuaweiActivitySample> newSamples = new ArrayList<>();
+        List<HuaweiActivitySample> newSamples = expandSamples(Arrays.asList(activitySamples));
+        getSampleDao().insertOrReplaceInTx(newSamples);
+        invalidateRollups(newSamples);
+    }
+
+    @Override
+    public void addGBActivitySamplesBulk(List<HuaweiActivitySample> activitySamples, boolean attach) {
+        super.addGBActivitySamplesBulk(expandSamples(activitySamples), attach);
+    }
+
+    /**
+     * Every sample is stored twice, once at its start and once at its end timestamp
+     */
+    private List<HuaweiActivitySample> expandSamples(List<HuaweiActivitySample> activitySamples) {
+        List<HuaweiActivitySample> newSamples = new ArrayList<>(activitySamples.size() * 2);
         for (HuaweiActivitySample sample : activitySamples) {
             HuaweiActivitySample start = copySample(sample);
             HuaweiActivitySample end = copySample(sample);
@@ -236,7 +252,7 @@ public class HuaweiSampleProvider extends AbstractSampleProvider<HuaweiActivityS
             newSamples.add(start);
             newSamples.add(end);
         }
-        getSampleDao().insertOrReplaceInTx(newSamples);
+        return newSamples;
     }
 
     /**
@@ -292,6 +308,11 @@ public class HuaweiSampleProvider extends AbstractSampleProvider<HuaweiActivityS
      *  - Add the activity sample data to the generated samples
      *  - Add the workout data to the generated samples
      */
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<HuaweiActivitySample> getGBActivitySamples(int timestamp_from, int timestamp_to) {
         List<HuaweiActivitySample> processedSamples = new ArrayList<>();
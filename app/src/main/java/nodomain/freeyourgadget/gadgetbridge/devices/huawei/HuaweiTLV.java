@@ -44,37 +44,67 @@ public class HuaweiTLV {
         return Objects.equals(valueMap, huaweiTLV.valueMap);
     }
 
+    /**
+     * A single tag and its value. Parsed values are kept as a slice of the parsed buffer, and
+     * only copied into their own array when {@link #getValue()} is called.
+     */
     public static class TLV {
         private final byte tag;
-        private final byte[] value;
+        private final byte[] buffer;
+        private final int offset;
+        private final int length;
+        private byte[] value;
 
         public TLV(byte tag, byte[] value) {
             this.tag = tag;
+            this.buffer = value;
+            this.offset = 0;
+            this.length = value.length;
             this.value = value;
         }
 
+        TLV(byte tag, byte[] buffer, int offset, int length) {
+            this.tag = tag;
+            this.buffer = buffer;
+            this.offset = offset;
+            this.length = length;
+        }
+
         public byte getTag() {
             return tag;
         }
 
         public byte[] getValue() {
+            if (value == null)
+                value = Arrays.copyOfRange(buffer, offset, offset + length);
             return value;
         }
 
+        /**
+         * @return A read-only view of the value, without copying it
+         */
+        public ByteBuffer getValueBuffer() {
+            return ByteBuffer.wrap(buffer, offset, length).slice().asReadOnlyBuffer();
+        }
+
+        public int getValueLength() {
+            return length;
+        }
+
         public int length() {
-            return 1 + VarInt.getVarIntSize(value.length) + value.length;
+            return 1 + VarInt.getVarIntSize(length) + length;
         }
 
         public byte[] serialize() {
             return ByteBuffer.allocate(this.length())
                     .put(tag)
-                    .put(VarInt.putVarIntValue(value.length))
-                    .put(value)
+                    .put(VarInt.putVarIntValue(length))
+                    .put(buffer, offset, length)
                     .array();
         }
 
         public String toString() {
-            return "{tag: " + Integer.toHexString(tag & 0xFF) + " - Value: " + StringUtils.bytesToHex(value) + "} - ";
+            return "{tag: " + Integer.toHexString(tag & 0xFF) + " - Value: " + StringUtils.bytesToHex(getValue()) + "} - ";
         }
 
         @Override
@@ -82,14 +112,27 @@ public class HuaweiTLV {
             if (this == o) return true;
             if (o == null || getClass() != o.getClass()) return false;
             TLV tlv = (TLV) o;
-            return tag == tlv.tag && Arrays.equals(value, tlv.value);
+            if (tag != tlv.tag || length != tlv.length)
+                return false;
+            for (int i = 0; i < length; i++)
+                if (buffer[offset + i] != tlv.buffer[tlv.offset + i])
+                    return false;
+            return true;
         }
     }
 
     private static final Logger LOG = LoggerFactory.getLogger(HuaweiTLV.class);
 
+    // Lists up to this size are scanned, larger ones are indexed by tag on the first lookup
+    private static final int INDEX_THRESHOLD = 8;
+
     protected List<TLV> valueMap;
 
+    // Position of the first element with each tag (+1, 0 if absent), for the indexed list and size
+    private int[] tagIndex;
+    private List<TLV> indexedMap;
+    private int indexedSize;
+
     public HuaweiTLV() {
         this.valueMap = new ArrayList<>();
     }
@@ -111,7 +154,8 @@ public class HuaweiTLV {
      *  can be thrown:
      *    1. offset + length is greater than the buffer length
      *    2. The buffer is malformed which causes an element size to be larger than the remaining
-     *       buffer length
+     *       length
+     * The values are not copied, so the buffer must not be modified afterwards.
      */
     public HuaweiTLV parse(byte[] buffer, int offset, int length)  {
         if (buffer == null)
@@ -126,15 +170,15 @@ public class HuaweiTLV {
             if (parsed == length && tag == 0)
                 break;
             // Size is a VarInt >= 1 byte
-            VarInt varInt = new VarInt(buffer, offset + parsed);
-            int size = varInt.dValue;
-            parsed += varInt.size;
-            byte[] value = new byte[size];
-            System.arraycopy(buffer, offset + parsed, value, 0, size);
-            put(tag, value);
+            int size = VarInt.getVarIntValue(buffer, offset + parsed);
+            parsed += VarInt.getVarIntSize(size);
+            // Nested TLVs are parsed in place, so the element must not extend past their own length
+            if (parsed + size > length)
+                throw new ArrayIndexOutOfBoundsException("TLV element of size " + size + " exceeds parsed length " + length);
+            valueMap.add(new TLV(tag, buffer, offset + parsed, size));
             parsed += size;
         }
-        LOG.debug("Parsed TLV: " + this);
+        LOG.debug("Parsed TLV: {}", this);
         return this;
     }
 
@@ -152,7 +196,7 @@ public class HuaweiTLV {
         ByteBuffer buffer = ByteBuffer.allocate(length);
         for (TLV entry : valueMap)
             buffer.put(entry.serialize());
-        LOG.debug("Serialized TLV: " + this);
+        LOG.debug("Serialized TLV: {}", this);
         return buffer.array();
     }
 
@@ -212,11 +256,49 @@ public class HuaweiTLV {
         return this.valueMap;
     }
 
+    /**
+     * @return The position of the first element with the tag, or -1 if there is none
+     */
+    private int indexOf(int tag) {
+        final int size = valueMap.size();
+        if (size <= INDEX_THRESHOLD) {
+            for (int i = 0; i < size; i++)
+                if (valueMap.get(i).getTag() == (byte) tag)
+                    return i;
+            return -1;
+        }
+
+        if (tagIndex == null || indexedMap != valueMap || indexedSize != size) {
+            if (tagIndex == null || indexedMap != valueMap || indexedSize > size) {
+                tagIndex = new int[256];
+                indexedSize = 0;
+            }
+            // Elements are only ever appended, so only the new ones need to be indexed
+            for (int i = indexedSize; i < size; i++) {
+                final int t = valueMap.get(i).getTag() & 0xFF;
+                if (tagIndex[t] == 0)
+                    tagIndex[t] = i + 1;
+            }
+            indexedMap = valueMap;
+            indexedSize = size;
+        }
+        return tagIndex[tag & 0xFF] - 1;
+    }
+
+    private TLV getTlv(int tag) throws HuaweiPacket.MissingTagException {
+        final int index = indexOf(tag);
+        if (index < 0)
+            throw new HuaweiPacket.MissingTagException(tag);
+        return valueMap.get(index);
+    }
+
+    private ByteBuffer getValueBuffer(int tag) throws HuaweiPacket.MissingTagException {
+        final TLV tlv = getTlv(tag);
+        return ByteBuffer.wrap(tlv.buffer, tlv.offset, tlv.length);
+    }
+
     public byte[] getBytes(int tag) throws HuaweiPacket.MissingTagException {
-        for (TLV item : valueMap)
-            if (item.getTag() == (byte) tag)
-                return item.getValue();
-        throw new HuaweiPacket.MissingTagException(tag);
+        return getTlv(tag).getValue();
     }
 
     public byte[] getBytes(int tag, byte[] defaultValue) {
@@ -228,7 +310,10 @@ public class HuaweiTLV {
     }
 
     public Byte getByte(int tag) throws HuaweiPacket.MissingTagException {
-        return getBytes(tag)[0];
+        final TLV tlv = getTlv(tag);
+        if (tlv.length == 0)
+            throw new ArrayIndexOutOfBoundsException(0);
+        return tlv.buffer[tlv.offset];
     }
 
     public Byte getByte(int tag, Byte defaultValue) {
@@ -240,7 +325,7 @@ public class HuaweiTLV {
     }
 
     public Boolean getBoolean(int tag) throws HuaweiPacket.MissingTagException {
-        return getBytes(tag)[0] == 1;
+        return getByte(tag) == 1;
     }
 
     public Boolean getBoolean(int tag, Boolean defaultValue) {
@@ -252,7 +337,7 @@ public class HuaweiTLV {
     }
 
     public Integer getInteger(int tag) throws HuaweiPacket.MissingTagException {
-        return ByteBuffer.wrap(getBytes(tag)).getInt();
+        return getValueBuffer(tag).getInt();
     }
 
     public Integer getInteger(int tag, Integer defaultResult) {
@@ -264,7 +349,7 @@ public class HuaweiTLV {
     }
 
     public Short getShort(int tag) throws HuaweiPacket.MissingTagException {
-        return ByteBuffer.wrap(getBytes(tag)).getShort();
+        return getValueBuffer(tag).getShort();
     }
 
     public Short getShort(int tag, Short defaultValue) {
@@ -276,42 +361,44 @@ public class HuaweiTLV {
     }
 
     public Long getLong(int tag) throws HuaweiPacket.MissingTagException {
-        return ByteBuffer.wrap(getBytes(tag)).getLong();
+        return getValueBuffer(tag).getLong();
     }
 
     public Integer getAsInteger(int tag) throws HuaweiPacket.MissingTagException {
-        byte[] bytes = getBytes(tag);
-        if(bytes.length == 1) {
-            return bytes[0] & 0xFF;
-        } else if(bytes.length == 2) {
-            return ByteBuffer.wrap(getBytes(tag)).getShort() & 0xFFFF;
+        ByteBuffer value = getValueBuffer(tag);
+        if(value.remaining() == 1) {
+            return value.get() & 0xFF;
+        } else if(value.remaining() == 2) {
+            return value.getShort() & 0xFFFF;
         }
-        return ByteBuffer.wrap(getBytes(tag)).getInt();
+        return value.getInt();
     }
 
     public String getString(int tag) throws HuaweiPacket.MissingTagException {
-        return new String(getBytes(tag), StandardCharsets.UTF_8);
+        final TLV tlv = getTlv(tag);
+        return new String(tlv.buffer, tlv.offset, tlv.length, StandardCharsets.UTF_8);
     }
 
     public HuaweiTLV getObject(int tag) throws HuaweiPacket.MissingTagException {
-        byte[] bytes = getBytes(tag);
-        return new HuaweiTLV().parse(bytes, 0, bytes.length);
+        final TLV tlv = getTlv(tag);
+        return new HuaweiTLV().parse(tlv.buffer, tlv.offset, tlv.length);
     }
 
     public List<HuaweiTLV> getObjects(int tag) {
         List<HuaweiTLV> returnValue = new ArrayList<>();
-        for (TLV tlv : valueMap) {
+        final int first = indexOf(tag);
+        if (first < 0)
+            return returnValue;
+        for (int i = first; i < valueMap.size(); i++) {
+            final TLV tlv = valueMap.get(i);
             if (tlv.getTag() == (byte) tag)
-                returnValue.add(new HuaweiTLV().parse(tlv.getValue()));
+                returnValue.add(new HuaweiTLV().parse(tlv.buffer, tlv.offset, tlv.length));
         }
         return returnValue;
     }
 
     public boolean contains(int tag) {
-        for (TLV item : valueMap)
-            if (item.getTag() == (byte) tag)
-                return true;
-        return false;
+        return indexOf(tag) >= 0;
     }
 
     /**
@@ -326,6 +413,7 @@ public class HuaweiTLV {
                 foundItem = item;
         if (foundItem != null) {
             valueMap.remove(foundItem);
+            tagIndex = null;
             return foundItem.getValue();
         } else {
             return null;
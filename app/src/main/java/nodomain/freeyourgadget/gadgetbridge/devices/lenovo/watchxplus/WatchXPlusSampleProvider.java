@@ -132,6 +132,11 @@ public class WatchXPlusSampleProvider extends AbstractSampleProvider<WatchXPlusA
 
 
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @NonNull
     @Override
     public List<WatchXPlusActivitySample> getAllActivitySamples(int timestamp_from, int timestamp_to) {
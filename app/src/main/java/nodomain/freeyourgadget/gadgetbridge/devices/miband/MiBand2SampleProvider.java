@@ -37,6 +37,11 @@ public class MiBand2SampleProvider extends AbstractMiBandSampleProvider {
         super(device, session);
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<MiBandActivitySample> getGBActivitySamples(int timestamp_from, int timestamp_to) {
         List<MiBandActivitySample> samples = super.getGBActivitySamples(timestamp_from, timestamp_to);
@@ -52,6 +52,11 @@ public class PebbleHealthSampleProvider extends AbstractSampleProvider<PebbleHea
         super(device, session);
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @NonNull
     @Override
     public List<PebbleHealthActivitySample> getAllActivitySamples(int timestamp_from, int timestamp_to) {
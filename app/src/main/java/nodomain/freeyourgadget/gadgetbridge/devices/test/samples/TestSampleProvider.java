@@ -86,6 +86,11 @@ public class TestSampleProvider extends AbstractSampleProvider<TestSampleProvide
         throw new UnsupportedOperationException("read-only sample provider");
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<TestActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
         final List<TestActivitySample> samples = new ArrayList<>();
@@ -89,6 +89,11 @@ public class XiaomiSampleProvider extends AbstractSampleProvider<XiaomiActivityS
         return new XiaomiActivitySample();
     }
 
+    @Override
+    protected boolean returnsRawSamples() {
+        return false;
+    }
+
     @Override
     protected List<XiaomiActivitySample> getGBActivitySamples(final int timestamp_from, final int timestamp_to) {
         final List<XiaomiActivitySample> samples = super.getGBActivitySamples(timestamp_from, timestamp_to);
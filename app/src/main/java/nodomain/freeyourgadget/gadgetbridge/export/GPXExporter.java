@@ -26,6 +26,7 @@ import org.xmlpull.v1.XmlSerializer;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.charset.StandardCharsets;
@@ -57,32 +58,38 @@ public class GPXExporter implements ActivityTrackExporter {
 
     @Override
     public void performExport(ActivityTrack track, File targetFile) throws IOException, GPXTrackEmptyException {
-        String encoding = StandardCharsets.UTF_8.name();
-        XmlSerializer ser = Xml.newSerializer();
         try (FileOutputStream outputStream = new FileOutputStream(targetFile)) {
-            ser.setOutput(outputStream, encoding);
-            ser.startDocument(encoding, Boolean.TRUE);
-            ser.setPrefix("xsi", NS_XSI_URI);
-            ser.setPrefix(NS_TRACKPOINT_EXTENSION, NS_TRACKPOINT_EXTENSION_URI);
-            ser.setPrefix(NS_GPX_PREFIX, NS_GPX_URI);
-            ser.setPrefix(OPENTRACKS_PREFIX, OPENTRACKS_NAMESPACE_URI);
-
-            ser.startTag(NS_GPX_URI, "gpx");
-            ser.attribute(null, "version", "1.1");
-            if (creator != null) {
-                ser.attribute(null, "creator", creator);
-            } else {
-                ser.attribute(null, "creator", GBApplication.app().getNameAndVersion());
-            }
-            ser.attribute(NS_XSI_URI, "schemaLocation",NS_GPX_URI + " " + TOPOGRAFIX_NAMESPACE_XSD);
-
-            exportMetadata(ser, track);
-            exportTrack(ser, track);
+            performExport(track, outputStream, Xml.newSerializer());
+        }
+    }
 
-            ser.endTag(NS_GPX_URI, "gpx");
-            ser.endDocument();
-            ser.flush();
+    /**
+     * Writes the track to a stream, with a serializer of the caller's choice.
+     */
+    public void performExport(ActivityTrack track, OutputStream outputStream, XmlSerializer ser) throws IOException, GPXTrackEmptyException {
+        String encoding = StandardCharsets.UTF_8.name();
+        ser.setOutput(outputStream, encoding);
+        ser.startDocument(encoding, Boolean.TRUE);
+        ser.setPrefix("xsi", NS_XSI_URI);
+        ser.setPrefix(NS_TRACKPOINT_EXTENSION, NS_TRACKPOINT_EXTENSION_URI);
+        ser.setPrefix(NS_GPX_PREFIX, NS_GPX_URI);
+        ser.setPrefix(OPENTRACKS_PREFIX, OPENTRACKS_NAMESPACE_URI);
+
+        ser.startTag(NS_GPX_URI, "gpx");
+        ser.attribute(null, "version", "1.1");
+        if (creator != null) {
+            ser.attribute(null, "creator", creator);
+        } else {
+            ser.attribute(null, "creator", GBApplication.app().getNameAndVersion());
         }
+        ser.attribute(NS_XSI_URI, "schemaLocation",NS_GPX_URI + " " + TOPOGRAFIX_NAMESPACE_XSD);
+
+        exportMetadata(ser, track);
+        exportTrack(ser, track);
+
+        ser.endTag(NS_GPX_URI, "gpx");
+        ser.endDocument();
+        ser.flush();
     }
 
     private void exportMetadata(XmlSerializer ser, ActivityTrack track) throws IOException {
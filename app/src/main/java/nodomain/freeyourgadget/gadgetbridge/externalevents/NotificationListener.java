@@ -38,6 +38,7 @@ import android.media.session.MediaSession;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.PowerManager;
+import android.os.SystemClock;
 import android.os.Process;
 import android.os.UserHandle;
 import android.provider.MediaStore;
@@ -67,17 +68,12 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
-import de.greenrobot.dao.query.Query;
-import nodomain.freeyourgadget.gadgetbridge.BuildConfig;
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.R;
-import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.devices.pebble.PebbleColor;
 import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilter;
-import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilterDao;
-import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilterEntry;
-import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilterEntryDao;
 import nodomain.freeyourgadget.gadgetbridge.externalevents.notifications.GoogleMapsNotificationHandler;
+import nodomain.freeyourgadget.gadgetbridge.externalevents.notifications.NotificationContentFilter;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.AppNotificationType;
 import nodomain.freeyourgadget.gadgetbridge.model.CallSpec;
@@ -87,6 +83,7 @@ import nodomain.freeyourgadget.gadgetbridge.model.NotificationSpec;
 import nodomain.freeyourgadget.gadgetbridge.model.NotificationType;
 import nodomain.freeyourgadget.gadgetbridge.service.DeviceCommunicationService;
 import nodomain.freeyourgadget.gadgetbridge.util.BitmapUtil;
+import nodomain.freeyourgadget.gadgetbridge.util.ExpiringCache;
 import nodomain.freeyourgadget.gadgetbridge.util.GBPrefs;
 import nodomain.freeyourgadget.gadgetbridge.util.LimitedQueue;
 import nodomain.freeyourgadget.gadgetbridge.util.MediaManager;
@@ -94,9 +91,6 @@ import nodomain.freeyourgadget.gadgetbridge.util.NotificationUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.PebbleUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.Prefs;
 
-import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_MODE_BLACKLIST;
-import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_MODE_WHITELIST;
-import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_SUBMODE_ALL;
 import static nodomain.freeyourgadget.gadgetbridge.util.StringUtils.ensureNotNull;
 
 public class NotificationListener extends NotificationListenerService {
@@ -118,8 +112,13 @@ public class NotificationListener extends NotificationListenerService {
     private final LimitedQueue<Integer, String> mPackageLookup = new LimitedQueue<>(64);
     private final LimitedQueue<Integer, Long> mNotificationHandleLookup = new LimitedQueue<>(128);
 
-    private final HashMap<String, Long> notificationBurstPrevention = new HashMap<>();
-    private final HashMap<String, Long> notificationOldRepeatPrevention = new HashMap<>();
+    private final ExpiringCache<String, Long> notificationBurstPrevention = new ExpiringCache<>(256, 1, TimeUnit.HOURS);
+    private final ExpiringCache<String, Long> notificationOldRepeatPrevention = new ExpiringCache<>(256, 1, TimeUnit.DAYS);
+
+    /// Updates of the same notification that arrive faster than this are collapsed into the last one
+    private static final long NOTIFICATION_COALESCING_WINDOW_MS = 500;
+    private final ExpiringCache<String, Long> notificationLastProcessed = new ExpiringCache<>(256, NOTIFICATION_COALESCING_WINDOW_MS, TimeUnit.MILLISECONDS);
+    private final HashMap<String, PendingNotification> pendingNotifications = new HashMap<>();
 
     private static final Set<String> GROUP_SUMMARY_WHITELIST = new HashSet<String>() {{
         add("com.microsoft.office.lync15");
@@ -271,6 +270,10 @@ public class NotificationListener extends NotificationListenerService {
         LocalBroadcastManager.getInstance(this).unregisterReceiver(mReceiver);
         notificationStack.clear();
         notificationsActive.clear();
+        for (final PendingNotification pendingNotification : pendingNotifications.values()) {
+            mHandler.removeCallbacks(pendingNotification);
+        }
+        pendingNotifications.clear();
         cleanUpNotificationPictureProvider();
         super.onDestroy();
     }
@@ -287,6 +290,32 @@ public class NotificationListener extends NotificationListenerService {
         notificationStack.remove(sbn.getPackageName());
         notificationStack.add(sbn.getPackageName());
 
+        // Collapse rapid updates of the same notification (eg. progress or chat updates), only the
+        // last one within the window is processed
+        final String key = sbn.getKey();
+        final PendingNotification pendingNotification = pendingNotifications.get(key);
+        if (pendingNotification != null) {
+            LOG.debug("Coalescing update of notification {}", key);
+            pendingNotification.sbn = sbn;
+            pendingNotification.rankingMap = rankingMap;
+            return;
+        }
+
+        final long now = SystemClock.uptimeMillis();
+        final Long lastProcessed = notificationLastProcessed.get(key);
+        if (lastProcessed != null && now - lastProcessed < NOTIFICATION_COALESCING_WINDOW_MS) {
+            LOG.debug("Delaying update of notification {}, last one was {} ms ago", key, now - lastProcessed);
+            final PendingNotification delayed = new PendingNotification(key, sbn, rankingMap);
+            pendingNotifications.put(key, delayed);
+            mHandler.postAtTime(delayed, lastProcessed + NOTIFICATION_COALESCING_WINDOW_MS);
+            return;
+        }
+
+        notificationLastProcessed.put(key, now);
+        processNotificationPosted(sbn, rankingMap);
+    }
+
+    private void processNotificationPosted(final StatusBarNotification sbn, final RankingMap rankingMap) {
         if (isServiceNotRunningAndShouldIgnoreNotifications()) return;
 
         final GBPrefs prefs = GBApplication.getPrefs();
@@ -516,46 +545,13 @@ public class NotificationListener extends NotificationListenerService {
     }
 
     private boolean checkNotificationContentForWhiteAndBlackList(String packageName, String body) {
-        long start = System.currentTimeMillis();
-
-        List<String> wordsList = new ArrayList<>();
-        NotificationFilter notificationFilter;
-
-        try (DBHandler db = GBApplication.acquireDB()) {
-
-            NotificationFilterDao notificationFilterDao = db.getDaoSession().getNotificationFilterDao();
-            NotificationFilterEntryDao notificationFilterEntryDao = db.getDaoSession().getNotificationFilterEntryDao();
-
-            Query<NotificationFilter> query = notificationFilterDao.queryBuilder().where(NotificationFilterDao.Properties.AppIdentifier.eq(packageName.toLowerCase())).build();
-            notificationFilter = query.unique();
-
-            if (notificationFilter == null) {
-                LOG.debug("No Notification Filter found");
-                return true;
-            }
-
-            LOG.debug("Loaded notification filter for '{}'", packageName);
-            Query<NotificationFilterEntry> queryEntries = notificationFilterEntryDao.queryBuilder().where(NotificationFilterEntryDao.Properties.NotificationFilterId.eq(notificationFilter.getId())).build();
-
-            List<NotificationFilterEntry> filterEntries = queryEntries.list();
-
-            if (BuildConfig.DEBUG) {
-                LOG.info("Database lookup took '{}' ms", System.currentTimeMillis() - start);
-            }
-
-            if (!filterEntries.isEmpty()) {
-                for (NotificationFilterEntry temp : filterEntries) {
-                    wordsList.add(temp.getNotificationFilterContent());
-                    LOG.debug("Loaded filter word: " + temp.getNotificationFilterContent());
-                }
-            }
-
-        } catch (Exception e) {
-            LOG.error("Could not acquire DB.", e);
+        final NotificationContentFilter notificationFilter = NotificationContentFilter.get(packageName.toLowerCase());
+        if (notificationFilter == null) {
+            LOG.debug("No Notification Filter found");
             return true;
         }
 
-        return shouldContinueAfterFilter(body, wordsList, notificationFilter);
+        return notificationFilter.shouldContinue(body);
     }
 
     private void handleCallNotification(StatusBarNotification sbn) {
@@ -615,52 +611,11 @@ public class NotificationListener extends NotificationListenerService {
     boolean shouldContinueAfterFilter(String body, @NonNull List<String> wordsList, @NonNull NotificationFilter notificationFilter) {
         LOG.debug("Mode: '{}' Submode: '{}' WordsList: '{}'", notificationFilter.getNotificationFilterMode(), notificationFilter.getNotificationFilterSubMode(), wordsList);
 
-        boolean allMode = notificationFilter.getNotificationFilterSubMode() == NOTIFICATION_FILTER_SUBMODE_ALL;
-
-        switch (notificationFilter.getNotificationFilterMode()) {
-            case NOTIFICATION_FILTER_MODE_BLACKLIST:
-                if (allMode) {
-                    for (String word : wordsList) {
-                        if (!body.contains(word)) {
-                            LOG.info("Not every word was found, blacklist has no effect, processing continues.");
-                            return true;
-                        }
-                    }
-                    LOG.info("Every word was found, blacklist has effect, processing stops.");
-                    return false;
-                } else {
-                    boolean containsAny = StringUtils.containsAny(body, wordsList.toArray(new CharSequence[0]));
-                    if (!containsAny) {
-                        LOG.info("No matching word was found, blacklist has no effect, processing continues.");
-                    } else {
-                        LOG.info("At least one matching word was found, blacklist has effect, processing stops.");
-                    }
-                    return !containsAny;
-                }
-
-            case NOTIFICATION_FILTER_MODE_WHITELIST:
-                if (allMode) {
-                    for (String word : wordsList) {
-                        if (!body.contains(word)) {
-                            LOG.info("Not every word was found, whitelist has no effect, processing stops.");
-                            return false;
-                        }
-                    }
-                    LOG.info("Every word was found, whitelist has effect, processing continues.");
-                    return true;
-                } else {
-                    boolean containsAny = StringUtils.containsAny(body, wordsList.toArray(new CharSequence[0]));
-                    if (containsAny) {
-                        LOG.info("At least one matching word was found, whitelist has effect, processing continues.");
-                    } else {
-                        LOG.info("No matching word was found, whitelist has no effect, processing stops.");
-                    }
-                    return containsAny;
-                }
-
-            default:
-                return true;
-        }
+        return new NotificationContentFilter(
+                notificationFilter.getNotificationFilterMode(),
+                notificationFilter.getNotificationFilterSubMode(),
+                wordsList
+        ).shouldContinue(body);
     }
 
     // Strip Unicode control sequences: some apps like Telegram add a lot of them for unknown reasons.
@@ -797,6 +752,11 @@ public class NotificationListener extends NotificationListenerService {
 
         notificationStack.remove(sbn.getPackageName());
 
+        final PendingNotification pendingNotification = pendingNotifications.remove(sbn.getKey());
+        if (pendingNotification != null) {
+            mHandler.removeCallbacks(pendingNotification);
+        }
+
         if (isServiceNotRunningAndShouldIgnoreNotifications()) return;
 
         final GBPrefs prefs = GBApplication.getPrefs();
@@ -1110,4 +1070,27 @@ public class NotificationListener extends NotificationListenerService {
 
         return PebbleUtils.getPebbleColor(iconPrimaryColor);
     }
+
+    /**
+     * The last update of a notification that arrived within the coalescing window, processed when
+     * the window ends.
+     */
+    private class PendingNotification implements Runnable {
+        private final String key;
+        private StatusBarNotification sbn;
+        private RankingMap rankingMap;
+
+        private PendingNotification(final String key, final StatusBarNotification sbn, final RankingMap rankingMap) {
+            this.key = key;
+            this.sbn = sbn;
+            this.rankingMap = rankingMap;
+        }
+
+        @Override
+        public void run() {
+            pendingNotifications.remove(key);
+            notificationLastProcessed.put(key, SystemClock.uptimeMillis());
+            processNotificationPosted(sbn, rankingMap);
+        }
+    }
 }
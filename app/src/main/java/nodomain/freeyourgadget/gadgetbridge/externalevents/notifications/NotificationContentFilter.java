@@ -0,0 +1,206 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.externalevents.notifications;
+
+import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_MODE_BLACKLIST;
+import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_MODE_WHITELIST;
+import static nodomain.freeyourgadget.gadgetbridge.activities.NotificationFilterActivity.NOTIFICATION_FILTER_SUBMODE_ALL;
+
+import androidx.annotation.Nullable;
+
+import org.ahocorasick.trie.Emit;
+import org.ahocorasick.trie.Trie;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
+import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilter;
+import nodomain.freeyourgadget.gadgetbridge.entities.NotificationFilterEntry;
+
+/**
+ * The words filter of an app, compiled into a single matcher that finds all words in one pass
+ * over the notification text.
+ * <p>
+ * The filters of all apps are loaded from the database at once, the first time they are needed,
+ * and kept in memory until {@link #invalidate()} is called after they were changed.
+ */
+public class NotificationContentFilter {
+    private static final Logger LOG = LoggerFactory.getLogger(NotificationContentFilter.class);
+
+    // guarded by NotificationContentFilter.class
+    @Nullable
+    private static Map<String, NotificationContentFilter> filtersByApp = null;
+    private static int generation = 0;
+
+    private final int mode;
+    private final boolean allMode;
+    private final int numWords;
+    /// An empty word is contained in every text
+    private final boolean hasEmptyWord;
+    private final Trie trie;
+
+    public NotificationContentFilter(final int mode, final int subMode, final List<String> words) {
+        this.mode = mode;
+        this.allMode = subMode == NOTIFICATION_FILTER_SUBMODE_ALL;
+
+        final Set<String> distinctWords = new HashSet<>(words);
+        this.hasEmptyWord = distinctWords.remove("");
+        this.numWords = distinctWords.size();
+        final Trie.TrieBuilder builder = Trie.builder();
+        for (final String word : distinctWords) {
+            builder.addKeyword(word);
+        }
+        this.trie = builder.build();
+    }
+
+    /**
+     * @param packageName the app that posted the notification, in lowercase
+     * @return the filter of the app, or null if it has none
+     */
+    @Nullable
+    public static NotificationContentFilter get(final String packageName) {
+        Map<String, NotificationContentFilter> filters;
+        final int loadGeneration;
+        synchronized (NotificationContentFilter.class) {
+            filters = filtersByApp;
+            loadGeneration = generation;
+        }
+
+        if (filters == null) {
+            // Load them without holding the lock, so that invalidate() never waits for the database
+            filters = load();
+            if (filters == null) {
+                // try again on the next notification
+                return null;
+            }
+            synchronized (NotificationContentFilter.class) {
+                // Do not keep filters that were changed while they were loaded
+                if (generation == loadGeneration) {
+                    filtersByApp = filters;
+                }
+            }
+        }
+
+        return filters.get(packageName);
+    }
+
+    /**
+     * Drops the cached filters, so that they are loaded again from the database when needed.
+     */
+    public static synchronized void invalidate() {
+        filtersByApp = null;
+        generation++;
+    }
+
+    @Nullable
+    private static Map<String, NotificationContentFilter> load() {
+        final long start = System.currentTimeMillis();
+        final Map<String, NotificationContentFilter> filters = new HashMap<>();
+
+        try (DBHandler db = GBApplication.acquireDbReadOnly()) {
+            final List<NotificationFilter> notificationFilters = db.getDaoSession().getNotificationFilterDao().loadAll();
+            for (final NotificationFilter notificationFilter : notificationFilters) {
+                if (notificationFilter.getAppIdentifier() == null) {
+                    continue;
+                }
+                final List<NotificationFilterEntry> entries = notificationFilter.getNotificationFilterEntryList();
+                final List<String> words = new ArrayList<>(entries.size());
+                for (final NotificationFilterEntry entry : entries) {
+                    words.add(entry.getNotificationFilterContent());
+                }
+                filters.put(notificationFilter.getAppIdentifier().toLowerCase(), new NotificationContentFilter(
+                        notificationFilter.getNotificationFilterMode(),
+                        notificationFilter.getNotificationFilterSubMode(),
+                        words
+                ));
+            }
+        } catch (final Exception e) {
+            LOG.error("Could not load notification filters", e);
+            return null;
+        }
+
+        LOG.debug("Loaded {} notification filters in {}ms", filters.size(), System.currentTimeMillis() - start);
+        return filters;
+    }
+
+    /**
+     * @return whether the notification with this text should be processed
+     */
+    public boolean shouldContinue(final String body) {
+        switch (mode) {
+            case NOTIFICATION_FILTER_MODE_BLACKLIST:
+                if (allMode) {
+                    if (!containsAll(body)) {
+                        LOG.info("Not every word was found, blacklist has no effect, processing continues.");
+                        return true;
+                    }
+                    LOG.info("Every word was found, blacklist has effect, processing stops.");
+                    return false;
+                } else {
+                    final boolean containsAny = hasEmptyWord || trie.containsMatch(body);
+                    if (!containsAny) {
+                        LOG.info("No matching word was found, blacklist has no effect, processing continues.");
+                    } else {
+                        LOG.info("At least one matching word was found, blacklist has effect, processing stops.");
+                    }
+                    return !containsAny;
+                }
+
+            case NOTIFICATION_FILTER_MODE_WHITELIST:
+                if (allMode) {
+                    if (!containsAll(body)) {
+                        LOG.info("Not every word was found, whitelist has no effect, processing stops.");
+                        return false;
+                    }
+                    LOG.info("Every word was found, whitelist has effect, processing continues.");
+                    return true;
+                } else {
+                    final boolean containsAny = hasEmptyWord || trie.containsMatch(body);
+                    if (containsAny) {
+                        LOG.info("At least one matching word was found, whitelist has effect, processing continues.");
+                    } else {
+                        LOG.info("No matching word was found, whitelist has no effect, processing stops.");
+                    }
+                    return containsAny;
+                }
+
+            default:
+                return true;
+        }
+    }
+
+    private boolean containsAll(final String body) {
+        if (numWords == 0) {
+            return true;
+        }
+        final Collection<Emit> emits = trie.parseText(body);
+        final Set<String> found = new HashSet<>();
+        for (final Emit emit : emits) {
+            found.add(emit.getKeyword());
+        }
+        return found.size() == numWords;
+    }
+}
@@ -0,0 +1,209 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.ACTIVE_SECONDS;
+import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.CALORIES_BURNT;
+import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.DISTANCE_METERS;
+import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.HR_AVG;
+import static nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries.INTERNAL_HAS_GPS;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteStatement;
+
+import androidx.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nodomain.freeyourgadget.gadgetbridge.entities.BaseActivitySummary;
+import nodomain.freeyourgadget.gadgetbridge.entities.BaseActivitySummaryDao;
+import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
+import nodomain.freeyourgadget.gadgetbridge.entities.Device;
+import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
+import nodomain.freeyourgadget.gadgetbridge.util.DeviceHelper;
+
+/**
+ * The numbers of a {@link BaseActivitySummary} that are shown in the activity list and its totals,
+ * extracted from the summaryData into their own columns, so that the list does not need to parse
+ * the json of every summary.
+ */
+public final class ActivitySummaryMetrics {
+    private static final Logger LOG = LoggerFactory.getLogger(ActivitySummaryMetrics.class);
+
+    /**
+     * Bump to extract the metrics of all summaries again, eg. when a new one is added.
+     */
+    public static final int VERSION = 1;
+
+    private static final int BATCH_SIZE = 100;
+
+    private ActivitySummaryMetrics() {
+    }
+
+    /**
+     * Extracts the metrics from the summaryData of the summary. Should be called every time
+     * before a summary with new summaryData is stored.
+     */
+    public static void update(final BaseActivitySummary summary) {
+        update(summary, summary.getSummaryData());
+    }
+
+    /**
+     * Extracts the metrics from the given summaryData, for summaries that are stored without it.
+     */
+    public static void update(final BaseActivitySummary summary, @Nullable final String summaryDataJson) {
+        ActivitySummaryData summaryData = null;
+        try {
+            summaryData = ActivitySummaryData.fromJson(summaryDataJson);
+        } catch (final Exception e) {
+            LOG.warn("Failed to parse summary data of {}", summary.getId(), e);
+        }
+        apply(summary, summaryData);
+    }
+
+    /**
+     * Extracts the metrics of all summaries that were stored without them, eg. before they were
+     * added or by a path that does not call {@link #update(BaseActivitySummary)}. Summaries are
+     * re-parsed by the parser of their device, as the activity details would, and only the metric
+     * columns are written.
+     */
+    public static void materialize(final Context context, final DaoSession session) {
+        final BaseActivitySummaryDao dao = session.getBaseActivitySummaryDao();
+        final SQLiteDatabase db = session.getDatabase();
+        final Map<Long, ActivitySummaryParser> parsers = new HashMap<>();
+
+        final long start = System.currentTimeMillis();
+        int count = 0;
+
+        final SQLiteStatement statement = db.compileStatement("UPDATE " + BaseActivitySummaryDao.TABLENAME + " SET " +
+                BaseActivitySummaryDao.Properties.MetricsVersion.columnName + " = ?, " +
+                BaseActivitySummaryDao.Properties.DistanceMeters.columnName + " = ?, " +
+                BaseActivitySummaryDao.Properties.CaloriesBurnt.columnName + " = ?, " +
+                BaseActivitySummaryDao.Properties.ActiveSeconds.columnName + " = ?, " +
+                BaseActivitySummaryDao.Properties.AverageHR.columnName + " = ?, " +
+                BaseActivitySummaryDao.Properties.HasGps.columnName + " = ? WHERE " +
+                BaseActivitySummaryDao.Properties.Id.columnName + " = ?");
+        try {
+            while (true) {
+                // Every summary of a batch gets the current version, so the next query returns the next batch
+                final List<BaseActivitySummary> batch = dao.queryBuilder().whereOr(
+                        BaseActivitySummaryDao.Properties.MetricsVersion.isNull(),
+                        BaseActivitySummaryDao.Properties.MetricsVersion.lt(VERSION)
+                ).limit(BATCH_SIZE).list();
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                db.beginTransaction();
+                try {
+                    for (final BaseActivitySummary summary : batch) {
+                        final ActivitySummaryParser parser = getParser(context, session, parsers, summary.getDeviceId());
+                        ActivitySummaryData summaryData = null;
+                        try {
+                            summaryData = new ActivitySummaryJsonSummary(parser, summary).getSummaryData(false);
+                        } catch (final Exception e) {
+                            LOG.warn("Failed to parse summary data of {}", summary.getId(), e);
+                        }
+                        apply(summary, summaryData);
+
+                        statement.clearBindings();
+                        statement.bindLong(1, VERSION);
+                        bindDouble(statement, 2, summary.getDistanceMeters());
+                        bindDouble(statement, 3, summary.getCaloriesBurnt());
+                        bindDouble(statement, 4, summary.getActiveSeconds());
+                        if (summary.getAverageHR() != null) {
+                            statement.bindLong(5, summary.getAverageHR());
+                        } else {
+                            statement.bindNull(5);
+                        }
+                        statement.bindLong(6, Boolean.TRUE.equals(summary.getHasGps()) ? 1 : 0);
+                        statement.bindLong(7, summary.getId());
+                        statement.executeUpdateDelete();
+
+                        // The parser may have modified the entity, which must not be stored by someone else
+                        dao.detach(summary);
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+                count += batch.size();
+            }
+        } finally {
+            statement.close();
+        }
+
+        if (count > 0) {
+            LOG.info("Extracted the metrics of {} activity summaries in {}ms", count, System.currentTimeMillis() - start);
+        }
+    }
+
+    private static void apply(final BaseActivitySummary summary, @Nullable final ActivitySummaryData summaryData) {
+        summary.setMetricsVersion(VERSION);
+        summary.setDistanceMeters(getDouble(summaryData, DISTANCE_METERS));
+        summary.setCaloriesBurnt(getDouble(summaryData, CALORIES_BURNT));
+        summary.setActiveSeconds(getDouble(summaryData, ACTIVE_SECONDS));
+        final Double averageHR = getDouble(summaryData, HR_AVG);
+        summary.setAverageHR(averageHR != null ? (int) Math.round(averageHR) : null);
+        summary.setHasGps(summary.getGpxTrack() != null || (summaryData != null && summaryData.getBoolean(INTERNAL_HAS_GPS, false)));
+    }
+
+    @Nullable
+    private static Double getDouble(@Nullable final ActivitySummaryData summaryData, final String key) {
+        if (summaryData == null) {
+            return null;
+        }
+        final Number value = summaryData.getNumber(key, null);
+        return value != null ? value.doubleValue() : null;
+    }
+
+    private static void bindDouble(final SQLiteStatement statement, final int index, @Nullable final Double value) {
+        if (value != null) {
+            statement.bindDouble(index, value);
+        } else {
+            statement.bindNull(index);
+        }
+    }
+
+    @Nullable
+    private static ActivitySummaryParser getParser(final Context context,
+                                                   final DaoSession session,
+                                                   final Map<Long, ActivitySummaryParser> parsers,
+                                                   final long deviceId) {
+        if (parsers.containsKey(deviceId)) {
+            return parsers.get(deviceId);
+        }
+        ActivitySummaryParser parser = null;
+        try {
+            final Device dbDevice = session.getDeviceDao().load(deviceId);
+            if (dbDevice != null) {
+                final GBDevice gbDevice = DeviceHelper.getInstance().toGBDevice(dbDevice);
+                parser = gbDevice.getDeviceCoordinator().getActivitySummaryParser(gbDevice, context);
+            }
+        } catch (final Exception e) {
+            LOG.warn("Failed to get the activity summary parser for device {}", deviceId, e);
+        }
+        parsers.put(deviceId, parser);
+        return parser;
+    }
+}
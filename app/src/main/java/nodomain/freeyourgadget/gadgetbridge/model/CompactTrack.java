@@ -0,0 +1,361 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * The time, location, altitude and heart rate of the points of a track, in a fraction of the memory
+ * of {@link ActivityPoint}s. Other values of the points, such as speed or cadence, are not kept.
+ * <p>
+ * The track also contains a simplified version of its path, for drawing previews. In its binary
+ * form, each value is stored as the difference to the previous one.
+ */
+public class CompactTrack {
+    /// Points that differ less than this fraction of the larger side of the bounding box from the
+    /// simplified path are left out of the preview, which is half a pixel on a 360px thumbnail
+    public static final double PREVIEW_TOLERANCE = 1 / 720d;
+
+    private static final int FLAG_LOCATION = 1;
+    private static final int FLAG_ALTITUDE = 1 << 1;
+    private static final int FLAG_TIME = 1 << 2;
+    private static final int FLAG_HEART_RATE = 1 << 3;
+
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double ALTITUDE_SCALE = 100;
+
+    private final int size;
+    private final byte[] flags;
+    /// In 1e-7 degrees
+    private final int[] latitudes;
+    private final int[] longitudes;
+    /// In centimeters
+    private final int[] altitudes;
+    /// In milliseconds
+    private final long[] times;
+    private final int[] heartRates;
+    /// Indexes of the points with a location that make up the simplified path, in ascending order
+    private final int[] previewIndexes;
+
+    private CompactTrack(final int size) {
+        this.size = size;
+        this.flags = new byte[size];
+        this.latitudes = new int[size];
+        this.longitudes = new int[size];
+        this.altitudes = new int[size];
+        this.times = new long[size];
+        this.heartRates = new int[size];
+        this.previewIndexes = null;
+    }
+
+    private CompactTrack(final CompactTrack track, final int[] previewIndexes) {
+        this.size = track.size;
+        this.flags = track.flags;
+        this.latitudes = track.latitudes;
+        this.longitudes = track.longitudes;
+        this.altitudes = track.altitudes;
+        this.times = track.times;
+        this.heartRates = track.heartRates;
+        this.previewIndexes = previewIndexes;
+    }
+
+    public static CompactTrack fromActivityPoints(final List<ActivityPoint> points) {
+        final CompactTrack track = new CompactTrack(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            final ActivityPoint point = points.get(i);
+            int pointFlags = 0;
+            final GPSCoordinate location = point.getLocation();
+            if (location != null) {
+                pointFlags |= FLAG_LOCATION;
+                track.latitudes[i] = (int) Math.round(location.getLatitude() * COORDINATE_SCALE);
+                track.longitudes[i] = (int) Math.round(location.getLongitude() * COORDINATE_SCALE);
+                if (location.getAltitude() != GPSCoordinate.UNKNOWN_ALTITUDE) {
+                    pointFlags |= FLAG_ALTITUDE;
+                    track.altitudes[i] = (int) Math.round(location.getAltitude() * ALTITUDE_SCALE);
+                }
+            }
+            if (point.getTime() != null) {
+                pointFlags |= FLAG_TIME;
+                track.times[i] = point.getTime().getTime();
+            }
+            if (point.getHeartRate() > 0) {
+                pointFlags |= FLAG_HEART_RATE;
+                track.heartRates[i] = point.getHeartRate();
+            }
+            track.flags[i] = (byte) pointFlags;
+        }
+        return new CompactTrack(track, track.simplify());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean hasLocation(final int index) {
+        return (flags[index] & FLAG_LOCATION) != 0;
+    }
+
+    public double getLatitude(final int index) {
+        return latitudes[index] / COORDINATE_SCALE;
+    }
+
+    public double getLongitude(final int index) {
+        return longitudes[index] / COORDINATE_SCALE;
+    }
+
+    /**
+     * @return the altitude in meters, or {@link GPSCoordinate#UNKNOWN_ALTITUDE}
+     */
+    public double getAltitude(final int index) {
+        if ((flags[index] & FLAG_ALTITUDE) == 0) {
+            return GPSCoordinate.UNKNOWN_ALTITUDE;
+        }
+        return altitudes[index] / ALTITUDE_SCALE;
+    }
+
+    /**
+     * @return the heart rate, or 0 if it was not measured
+     */
+    public int getHeartRate(final int index) {
+        return heartRates[index];
+    }
+
+    /**
+     * @return the indexes of the points to draw for a preview of the path, in ascending order
+     */
+    public int[] getPreviewIndexes() {
+        return previewIndexes;
+    }
+
+    /**
+     * @return the points, with only the values this track keeps
+     */
+    public List<ActivityPoint> toActivityPoints() {
+        final List<ActivityPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final ActivityPoint point = new ActivityPoint();
+            if ((flags[i] & FLAG_TIME) != 0) {
+                point.setTime(new Date(times[i]));
+            }
+            if (hasLocation(i)) {
+                point.setLocation(new GPSCoordinate(getLongitude(i), getLatitude(i), getAltitude(i)));
+            }
+            point.setHeartRate(heartRates[i]);
+            points.add(point);
+        }
+        return points;
+    }
+
+    /**
+     * Douglas-Peucker simplification of the points with a location, with {@link #PREVIEW_TOLERANCE}.
+     */
+    private int[] simplify() {
+        int numLocated = 0;
+        final int[] located = new int[size];
+        int minLat = Integer.MAX_VALUE, maxLat = Integer.MIN_VALUE;
+        int minLon = Integer.MAX_VALUE, maxLon = Integer.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            if (hasLocation(i)) {
+                located[numLocated++] = i;
+                minLat = Math.min(minLat, latitudes[i]);
+                maxLat = Math.max(maxLat, latitudes[i]);
+                minLon = Math.min(minLon, longitudes[i]);
+                maxLon = Math.max(maxLon, longitudes[i]);
+            }
+        }
+        if (numLocated <= 2) {
+            return Arrays.copyOf(located, numLocated);
+        }
+
+        final double tolerance = Math.max((double) maxLat - minLat, (double) maxLon - minLon) * PREVIEW_TOLERANCE;
+        final boolean[] keep = new boolean[numLocated];
+        keep[0] = true;
+        keep[numLocated - 1] = true;
+
+        // Ranges of located still to be simplified, as pairs of first and last
+        int[] stack = new int[64];
+        int stackSize = 0;
+        stack[stackSize++] = 0;
+        stack[stackSize++] = numLocated - 1;
+        while (stackSize > 0) {
+            final int last = stack[--stackSize];
+            final int first = stack[--stackSize];
+
+            int farthest = -1;
+            double maxDistance = tolerance;
+            for (int i = first + 1; i < last; i++) {
+                final double distance = distanceToSegment(located[i], located[first], located[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    farthest = i;
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+
+            keep[farthest] = true;
+            if (stackSize + 4 > stack.length) {
+                stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[stackSize++] = first;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = farthest;
+            stack[stackSize++] = last;
+        }
+
+        int numKept = 0;
+        final int[] kept = new int[numLocated];
+        for (int i = 0; i < numLocated; i++) {
+            if (keep[i]) {
+                kept[numKept++] = located[i];
+            }
+        }
+        return Arrays.copyOf(kept, numKept);
+    }
+
+    private double distanceToSegment(final int point, final int start, final int end) {
+        final double x = longitudes[point], y = latitudes[point];
+        final double x1 = longitudes[start], y1 = latitudes[start];
+        final double dx = (double) longitudes[end] - x1, dy = (double) latitudes[end] - y1;
+        final double lengthSquared = dx * dx + dy * dy;
+        double t = 0;
+        if (lengthSquared > 0) {
+            t = Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / lengthSquared));
+        }
+        return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+    }
+
+    public void writeTo(final DataOutputStream out) throws IOException {
+        writeVarLong(out, size);
+        int previousLat = 0, previousLon = 0, previousAlt = 0, previousHeartRate = 0;
+        long previousTime = 0;
+        for (int i = 0; i < size; i++) {
+            out.writeByte(flags[i]);
+            if ((flags[i] & FLAG_LOCATION) != 0) {
+                writeVarLong(out, zigZag((long) latitudes[i] - previousLat));
+                writeVarLong(out, zigZag((long) longitudes[i] - previousLon));
+                previousLat = latitudes[i];
+                previousLon = longitudes[i];
+            }
+            if ((flags[i] & FLAG_ALTITUDE) != 0) {
+                writeVarLong(out, zigZag((long) altitudes[i] - previousAlt));
+                previousAlt = altitudes[i];
+            }
+            if ((flags[i] & FLAG_TIME) != 0) {
+                writeVarLong(out, zigZag(times[i] - previousTime));
+                previousTime = times[i];
+            }
+            if ((flags[i] & FLAG_HEART_RATE) != 0) {
+                writeVarLong(out, zigZag((long) heartRates[i] - previousHeartRate));
+                previousHeartRate = heartRates[i];
+            }
+        }
+
+        writeVarLong(out, previewIndexes.length);
+        int previousIndex = 0;
+        for (final int index : previewIndexes) {
+            writeVarLong(out, index - previousIndex);
+            previousIndex = index;
+        }
+    }
+
+    public static CompactTrack readFrom(final DataInputStream in) throws IOException {
+        final CompactTrack track = new CompactTrack(readSize(in));
+        int lat = 0, lon = 0, alt = 0, heartRate = 0;
+        long time = 0;
+        for (int i = 0; i < track.size; i++) {
+            final byte pointFlags = in.readByte();
+            track.flags[i] = pointFlags;
+            if ((pointFlags & FLAG_LOCATION) != 0) {
+                lat += (int) unZigZag(readVarLong(in));
+                lon += (int) unZigZag(readVarLong(in));
+                track.latitudes[i] = lat;
+                track.longitudes[i] = lon;
+            }
+            if ((pointFlags & FLAG_ALTITUDE) != 0) {
+                alt += (int) unZigZag(readVarLong(in));
+                track.altitudes[i] = alt;
+            }
+            if ((pointFlags & FLAG_TIME) != 0) {
+                time += unZigZag(readVarLong(in));
+                track.times[i] = time;
+            }
+            if ((pointFlags & FLAG_HEART_RATE) != 0) {
+                heartRate += (int) unZigZag(readVarLong(in));
+                track.heartRates[i] = heartRate;
+            }
+        }
+
+        final int[] previewIndexes = new int[readSize(in)];
+        int index = 0;
+        for (int i = 0; i < previewIndexes.length; i++) {
+            index += (int) readVarLong(in);
+            if (index < 0 || index >= track.size) {
+                throw new IOException("Invalid preview index " + index);
+            }
+            previewIndexes[i] = index;
+        }
+        return new CompactTrack(track, previewIndexes);
+    }
+
+    private static int readSize(final DataInputStream in) throws IOException {
+        final long size = readVarLong(in);
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            throw new IOException("Invalid size " + size);
+        }
+        return (int) size;
+    }
+
+    private static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(final DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(final DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -22,12 +22,14 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
-import nodomain.freeyourgadget.gadgetbridge.activities.charts.ActivityAnalysis;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.devices.AbstractTimeSampleProvider;
+import nodomain.freeyourgadget.gadgetbridge.devices.ActivityRollupProvider;
 import nodomain.freeyourgadget.gadgetbridge.devices.DefaultRestingMetabolicRateProvider;
 import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
 import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
@@ -38,6 +40,20 @@ import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 public class DailyTotals implements Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(DailyTotals.class);
 
+    private static final int CACHE_SIZE = 32;
+
+    /**
+     * Totals computed from the activity samples, keyed by {@link #getCacheKey(GBDevice, Calendar, DBHandler)},
+     * shared by the dashboard, the device cards and the home screen widgets. Resting calories are
+     * not cached, as they depend on the current time of day.
+     */
+    private static final Map<String, DailyTotals> CACHE = new LinkedHashMap<String, DailyTotals>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, DailyTotals> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     private final long steps;
     private final long distance;
     private final long activeCalories;
@@ -79,7 +95,7 @@ public class DailyTotals implements Serializable {
 
     public static DailyTotals getDailyTotalsForDevice(GBDevice device, Calendar day) {
 
-        try (DBHandler handler = GBApplication.acquireDB()) {
+        try (DBHandler handler = GBApplication.acquireDbReadOnly()) {
             return getDailyTotalsForDevice(device, day, handler);
         } catch (Exception e) {
             //GB.toast("Error loading sleep/steps widget data for device: " + device, Toast.LENGTH_SHORT, GB.ERROR, e);
@@ -88,28 +104,63 @@ public class DailyTotals implements Serializable {
     }
 
     public static DailyTotals getDailyTotalsForDevice(GBDevice device, Calendar day, DBHandler handler) {
-        ActivityAnalysis analysis = new ActivityAnalysis();
+        final String cacheKey = getCacheKey(device, day, handler);
+        DailyTotals activityTotals;
+        synchronized (CACHE) {
+            activityTotals = CACHE.get(cacheKey);
+        }
+        if (activityTotals == null) {
+            activityTotals = computeActivityTotals(device, day, handler);
+            synchronized (CACHE) {
+                CACHE.put(cacheKey, activityTotals);
+            }
+        }
+
+        return new DailyTotals(
+                activityTotals.steps,
+                activityTotals.distance,
+                activityTotals.sleep,
+                activityTotals.activeCalories,
+                getRestingCaloriesOfDay(handler, day, device)
+        );
+    }
+
+    /**
+     * The totals of a day only change when samples are written, see {@link ActivityRollupProvider#getInvalidationCount()}.
+     * The latest sample also covers samples written without the sample providers.
+     */
+    private static String getCacheKey(GBDevice device, Calendar day, DBHandler handler) {
+        final ActivitySample latestSample = getProvider(handler, device).getLatestActivitySample();
+        final Calendar dayStart = (Calendar) day.clone();
+        dayStart.set(Calendar.HOUR_OF_DAY, 0);
+        dayStart.set(Calendar.MINUTE, 0);
+        dayStart.set(Calendar.SECOND, 0);
+        dayStart.set(Calendar.MILLISECOND, 0);
+        return device.getAddress() + "/" + dayStart.getTimeInMillis() / 1000 + "/" + (latestSample != null ? latestSample.getTimestamp() : 0) +
+                "/" + ActivityRollupProvider.getInvalidationCount();
+    }
+
+    private static DailyTotals computeActivityTotals(GBDevice device, Calendar day, DBHandler handler) {
+        ActivityRollupProvider rollupProvider = new ActivityRollupProvider(device, handler.getDaoSession());
         ActivityAmounts totalAmounts;
         ActivityAmounts amountsSleep;
 
-        totalAmounts = analysis.calculateActivityAmounts(getSamplesOfDay(handler, day, 0, device));
-        amountsSleep = analysis.calculateActivityAmounts(getSamplesOfDay(handler, day, -12, device));
+        totalAmounts = getAmountsOfDay(rollupProvider, day, 0);
+        amountsSleep = getAmountsOfDay(rollupProvider, day, -12);
 
         long[] sleep = getTotalsSleepForActivityAmounts(amountsSleep);
 
         long totalSteps = 0;
         long totalDistance = 0;
         long totalActiveCalories = 0;
-        long totalRestingCalories = 0;
         for (ActivityAmount amount : totalAmounts.getAmounts()) {
             totalSteps += amount.getTotalSteps();
             totalDistance += amount.getTotalDistance();
             totalActiveCalories += amount.getTotalActiveCalories();
         }
-        totalRestingCalories = getRestingCaloriesOfDay(handler, day, device);
 
         // Purposely not including awake sleep
-        return new DailyTotals(totalSteps, totalDistance, sleep, totalActiveCalories, totalRestingCalories);
+        return new DailyTotals(totalSteps, totalDistance, sleep, totalActiveCalories, 0);
     }
 
     private static long[] getTotalsSleepForActivityAmounts(ActivityAmounts activityAmounts) {
@@ -135,7 +186,7 @@ public class DailyTotals implements Serializable {
         return new long[]{totalMinutesLightSleep, totalMinutesDeepSleep, totalMinutesRemSleep, totalMinutesAwakeSleep};
     }
 
-    private static List<? extends ActivitySample> getSamplesOfDay(DBHandler db, Calendar day, int offsetHours, GBDevice device) {
+    private static ActivityAmounts getAmountsOfDay(ActivityRollupProvider rollupProvider, Calendar day, int offsetHours) {
         int startTs;
         int endTs;
 
@@ -148,7 +199,7 @@ public class DailyTotals implements Serializable {
         startTs = (int) (day.getTimeInMillis() / 1000);
         endTs = startTs + 24 * 60 * 60 - 1;
 
-        return getSamples(db, device, startTs, endTs);
+        return rollupProvider.getActivityAmounts(startTs, endTs);
     }
 
     private static int getRestingCaloriesOfDay(DBHandler db, Calendar day, GBDevice device) {
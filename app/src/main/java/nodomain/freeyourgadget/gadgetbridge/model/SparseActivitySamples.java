@@ -0,0 +1,316 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
+
+/**
+ * The per-minute activity samples of a time range, without placeholders for the minutes that have
+ * no sample. Those minutes are instead described as gaps, each a range from the first to the last
+ * missing minute.
+ * <p>
+ * Only providers whose samples are expected every minute report gaps, for all others the samples
+ * are taken as they are and there are no gaps.
+ */
+public class SparseActivitySamples<T extends ActivitySample> {
+    public static final int SAMPLE_INTERVAL = 60;
+
+    private static final int[] NO_GAPS = new int[0];
+
+    private final List<T> samples;
+    private final int timestampFrom;
+    private final int timestampTo;
+    /// First and last missing timestamp of each gap, in ascending order
+    private final int[] gapStarts;
+    private final int[] gapEnds;
+
+    private SparseActivitySamples(final List<T> samples,
+                                  final int timestampFrom,
+                                  final int timestampTo,
+                                  final int[] gapStarts,
+                                  final int[] gapEnds) {
+        this.samples = samples;
+        this.timestampFrom = timestampFrom;
+        this.timestampTo = timestampTo;
+        this.gapStarts = gapStarts;
+        this.gapEnds = gapEnds;
+    }
+
+    public static <T extends ActivitySample> SparseActivitySamples<T> withoutGaps(final List<T> samples,
+                                                                               final int timestampFrom,
+                                                                               final int timestampTo) {
+        return new SparseActivitySamples<>(samples, timestampFrom, timestampTo, NO_GAPS, NO_GAPS);
+    }
+
+    /**
+     * Finds the minutes without samples between timestampFrom and timestampTo, or until now if that
+     * is earlier. No gaps are reported if there are no samples at all.
+     *
+     * @param samples the samples, in ascending timestamp order
+     */
+    public static <T extends ActivitySample> SparseActivitySamples<T> withGaps(final List<T> samples,
+                                                                            final int timestampFrom,
+                                                                            final int timestampTo) {
+        if (samples.isEmpty()) {
+            return withoutGaps(samples, timestampFrom, timestampTo);
+        }
+
+        int numGaps = 0;
+        int[] gapStarts = new int[16];
+        int[] gapEnds = new int[16];
+
+        final int firstTimestamp = samples.get(0).getTimestamp();
+        if (firstTimestamp - timestampFrom > SAMPLE_INTERVAL) {
+            // Gap at the start, aligned to the start of the range
+            gapStarts[numGaps] = timestampFrom;
+            gapEnds[numGaps] = timestampFrom + ((firstTimestamp - timestampFrom - 1) / SAMPLE_INTERVAL) * SAMPLE_INTERVAL;
+            numGaps++;
+        }
+
+        int previousTimestamp = firstTimestamp;
+        for (int i = 1; i < samples.size(); i++) {
+            final int timestamp = samples.get(i).getTimestamp();
+            if (timestamp - previousTimestamp > SAMPLE_INTERVAL) {
+                if (numGaps == gapStarts.length) {
+                    gapStarts = Arrays.copyOf(gapStarts, numGaps * 2);
+                    gapEnds = Arrays.copyOf(gapEnds, numGaps * 2);
+                }
+                gapStarts[numGaps] = previousTimestamp + SAMPLE_INTERVAL;
+                gapEnds[numGaps] = previousTimestamp + ((timestamp - previousTimestamp - 1) / SAMPLE_INTERVAL) * SAMPLE_INTERVAL;
+                numGaps++;
+            }
+            previousTimestamp = timestamp;
+        }
+
+        // Do not report gaps in the future
+        final long minTo = Math.min(timestampTo, System.currentTimeMillis() / 1000L);
+        if (minTo - previousTimestamp > SAMPLE_INTERVAL) {
+            // Gap at the end
+            if (numGaps == gapStarts.length) {
+                gapStarts = Arrays.copyOf(gapStarts, numGaps + 1);
+                gapEnds = Arrays.copyOf(gapEnds, numGaps + 1);
+            }
+            gapStarts[numGaps] = previousTimestamp + SAMPLE_INTERVAL;
+            gapEnds[numGaps] = previousTimestamp + (int) ((minTo - previousTimestamp) / SAMPLE_INTERVAL) * SAMPLE_INTERVAL;
+            numGaps++;
+        }
+
+        return new SparseActivitySamples<>(
+                samples,
+                timestampFrom,
+                timestampTo,
+                Arrays.copyOf(gapStarts, numGaps),
+                Arrays.copyOf(gapEnds, numGaps)
+        );
+    }
+
+    /**
+     * @return the actual samples, in ascending timestamp order
+     */
+    public List<T> getSamples() {
+        return samples;
+    }
+
+    public int getTimestampFrom() {
+        return timestampFrom;
+    }
+
+    public int getTimestampTo() {
+        return timestampTo;
+    }
+
+    public int getGapCount() {
+        return gapStarts.length;
+    }
+
+    /**
+     * @return the timestamp of the first missing sample of the gap
+     */
+    public int getGapStart(final int index) {
+        return gapStarts[index];
+    }
+
+    /**
+     * @return the timestamp of the last missing sample of the gap
+     */
+    public int getGapEnd(final int index) {
+        return gapEnds[index];
+    }
+
+    /**
+     * @return the number of minutes without a sample
+     */
+    public int getMissingSampleCount() {
+        int count = 0;
+        for (int i = 0; i < gapStarts.length; i++) {
+            count += (gapEnds[i] - gapStarts[i]) / SAMPLE_INTERVAL + 1;
+        }
+        return count;
+    }
+
+    /**
+     * @return the samples and gaps between timestampFrom and timestampTo (inclusive), gaps that
+     * cross the bounds are cut off
+     */
+    public SparseActivitySamples<T> trim(final int timestampFrom, final int timestampTo) {
+        final List<T> trimmed = new ArrayList<>(samples.size());
+        for (final T sample : samples) {
+            if (sample.getTimestamp() >= timestampFrom && sample.getTimestamp() <= timestampTo) {
+                trimmed.add(sample);
+            }
+        }
+
+        int numGaps = 0;
+        final int[] trimmedStarts = new int[gapStarts.length];
+        final int[] trimmedEnds = new int[gapEnds.length];
+        for (int i = 0; i < gapStarts.length; i++) {
+            if (gapEnds[i] < timestampFrom || gapStarts[i] > timestampTo) {
+                continue;
+            }
+            int start = gapStarts[i];
+            if (start < timestampFrom) {
+                start += ((timestampFrom - start + SAMPLE_INTERVAL - 1) / SAMPLE_INTERVAL) * SAMPLE_INTERVAL;
+            }
+            int end = gapEnds[i];
+            if (end > timestampTo) {
+                end -= ((end - timestampTo + SAMPLE_INTERVAL - 1) / SAMPLE_INTERVAL) * SAMPLE_INTERVAL;
+            }
+            if (start <= end) {
+                trimmedStarts[numGaps] = start;
+                trimmedEnds[numGaps] = end;
+                numGaps++;
+            }
+        }
+
+        return new SparseActivitySamples<>(
+                trimmed,
+                timestampFrom,
+                timestampTo,
+                Arrays.copyOf(trimmedStarts, numGaps),
+                Arrays.copyOf(trimmedEnds, numGaps)
+        );
+    }
+
+    /**
+     * Hands the samples to the consumer, in ascending timestamp order. If the consumer is also a
+     * {@link GapConsumer}, the gaps are handed to it in between, in the same order.
+     */
+    public void forEach(final Consumer<? super T> consumer) {
+        final GapConsumer gapConsumer = consumer instanceof GapConsumer ? (GapConsumer) consumer : null;
+        int gap = 0;
+        for (final T sample : samples) {
+            if (gapConsumer != null) {
+                while (gap < gapStarts.length && gapStarts[gap] < sample.getTimestamp()) {
+                    gapConsumer.acceptGap(gapStarts[gap], gapEnds[gap]);
+                    gap++;
+                }
+            }
+            consumer.accept(sample);
+        }
+        if (gapConsumer != null) {
+            while (gap < gapStarts.length) {
+                gapConsumer.acceptGap(gapStarts[gap], gapEnds[gap]);
+                gap++;
+            }
+        }
+    }
+
+    /**
+     * Receives the gaps of {@link #forEach(Consumer)}.
+     */
+    public interface GapConsumer {
+        /**
+         * @param gapStart the timestamp of the first missing sample
+         * @param gapEnd   the timestamp of the last missing sample, the same as gapStart if only
+         *                 one is missing
+         */
+        void acceptGap(int gapStart, int gapEnd);
+    }
+
+    /**
+     * A placeholder for the first or last missing sample of a gap, for analyses that work on the
+     * time between samples. Handing both bounds of a gap to such an analysis has the same effect
+     * as one placeholder per missing minute, without allocating them.
+     */
+    public static final class GapBound implements ActivitySample {
+        private final int timestamp;
+
+        public GapBound(final int timestamp) {
+            this.timestamp = timestamp;
+        }
+
+        @Override
+        public int getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public SampleProvider<?> getProvider() {
+            return null;
+        }
+
+        @Override
+        public int getRawKind() {
+            return ActivityKind.UNKNOWN.getCode();
+        }
+
+        @Override
+        public ActivityKind getKind() {
+            return ActivityKind.UNKNOWN;
+        }
+
+        @Override
+        public int getRawIntensity() {
+            return NOT_MEASURED;
+        }
+
+        @Override
+        public float getIntensity() {
+            return 0;
+        }
+
+        @Override
+        public int getSteps() {
+            return NOT_MEASURED;
+        }
+
+        @Override
+        public int getDistanceCm() {
+            return NOT_MEASURED;
+        }
+
+        @Override
+        public int getActiveCalories() {
+            return NOT_MEASURED;
+        }
+
+        @Override
+        public int getHeartRate() {
+            return NOT_MEASURED;
+        }
+
+        @Override
+        public void setHeartRate(final int value) {
+            // placeholders carry no measurements
+        }
+    }
+}
@@ -0,0 +1,134 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import android.database.Cursor;
+
+import java.util.Arrays;
+
+/**
+ * A series of values over time, kept in primitive columns instead of one object per sample.
+ * Chart data is read into it straight from a database cursor and reduced with
+ * {@link #decimate(int)} before any chart entries are created.
+ * <p>
+ * Timestamps are in seconds and must be added in ascending order.
+ */
+public class TimeSeries {
+    private int[] timestamps;
+    private short[] values;
+    private int size;
+
+    public TimeSeries() {
+        this(64);
+    }
+
+    public TimeSeries(final int initialCapacity) {
+        this.timestamps = new int[Math.max(initialCapacity, 1)];
+        this.values = new short[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Reads all rows of the cursor, which is not closed.
+     *
+     * @param timestampColumn the index of the timestamp column, in seconds or milliseconds
+     * @param valueColumn     the index of the value column
+     * @param millis          whether the timestamps are in milliseconds
+     */
+    public static TimeSeries fromCursor(final Cursor cursor,
+                                        final int timestampColumn,
+                                        final int valueColumn,
+                                        final boolean millis) {
+        final TimeSeries series = new TimeSeries(cursor.getCount());
+        while (cursor.moveToNext()) {
+            final int timestamp = millis
+                    ? (int) (cursor.getLong(timestampColumn) / 1000L)
+                    : cursor.getInt(timestampColumn);
+            series.add(timestamp, cursor.getInt(valueColumn));
+        }
+        return series;
+    }
+
+    public void add(final int timestamp, final int value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        timestamps[size] = timestamp;
+        values[size] = (short) value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getTimestamp(final int index) {
+        return timestamps[index];
+    }
+
+    public int getValue(final int index) {
+        return values[index];
+    }
+
+    /**
+     * Reduces the series to at most maxPoints samples, by keeping only the lowest and the highest
+     * value of each time bucket, in their original order. Peaks survive, unlike with averaging, and
+     * buckets without samples stay empty, so gaps in the series are kept as well.
+     *
+     * @return this series, if it is already small enough
+     */
+    public TimeSeries decimate(final int maxPoints) {
+        if (size <= maxPoints || maxPoints < 2) {
+            return this;
+        }
+
+        final int numBuckets = maxPoints / 2;
+        final long firstTimestamp = timestamps[0];
+        final long bucketLength = ((long) timestamps[size - 1] - firstTimestamp) / numBuckets + 1;
+        final TimeSeries decimated = new TimeSeries(numBuckets * 2);
+
+        int bucketStart = 0;
+        while (bucketStart < size) {
+            final long bucket = (timestamps[bucketStart] - firstTimestamp) / bucketLength;
+            int min = bucketStart;
+            int max = bucketStart;
+            int i = bucketStart + 1;
+            while (i < size && (timestamps[i] - firstTimestamp) / bucketLength == bucket) {
+                if (values[i] < values[min]) {
+                    min = i;
+                } else if (values[i] > values[max]) {
+                    max = i;
+                }
+                i++;
+            }
+
+            final int first = Math.min(min, max);
+            final int last = Math.max(min, max);
+            decimated.add(timestamps[first], values[first]);
+            if (last != first) {
+                decimated.add(timestamps[last], values[last]);
+            }
+            bucketStart = i;
+        }
+
+        return decimated;
+    }
+}
@@ -30,19 +30,25 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.io.ObjectStreamException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import nodomain.freeyourgadget.gadgetbridge.util.FileUtils;
+
 public class Weather {
     private static final Logger LOG = LoggerFactory.getLogger(Weather.class);
 
-    private final ArrayList<WeatherSpec> weatherSpecs = new ArrayList<>();
+    private static final long MAX_CACHE_SIZE = 1024 * 1024;
+
+    /// Replaced as a whole on every update, so that it can be read from any thread
+    private volatile List<WeatherSpec> weatherSpecs = new ArrayList<>();
 
     private JSONObject reconstructedOWMForecast = null;
 
     private File cacheFile;
+    /// Contents of the cache file, to not write it again when the weather did not change
+    private byte[] cachedBytes;
 
     private Weather() {
         // Use getInstance
@@ -50,11 +56,12 @@ public class Weather {
 
     @Nullable
     public WeatherSpec getWeatherSpec() {
-        if (weatherSpecs.isEmpty()) {
+        final List<WeatherSpec> specs = weatherSpecs;
+        if (specs.isEmpty()) {
             return null;
         }
 
-        return weatherSpecs.get(0);
+        return specs.get(0);
     }
 
     public List<WeatherSpec> getWeatherSpecs() {
@@ -62,8 +69,7 @@ public class Weather {
     }
 
     public void setWeatherSpec(final List<WeatherSpec> newWeatherSpecs) {
-        weatherSpecs.clear();
-        weatherSpecs.addAll(newWeatherSpecs);
+        weatherSpecs = new ArrayList<>(newWeatherSpecs);
         saveToCache();
     }
 
@@ -1154,33 +1160,33 @@ public class Weather {
      * @param cacheDir the cache directory, where the cache file will be created
      * @param enabled whether caching is enabled
      */
-    public void setCacheFile(final File cacheDir, final boolean enabled) {
-        // FIXME: Do not use serializable for this
+    public synchronized void setCacheFile(final File cacheDir, final boolean enabled) {
+        cacheFile = new File(cacheDir, "weatherCache.dat");
 
-        cacheFile = new File(cacheDir, "weatherCache.bin");
+        // Cache of older versions, written with java serialization
+        final File legacyCacheFile = new File(cacheDir, "weatherCache.bin");
 
         if (enabled) {
             LOG.info("Setting weather cache file to {}", cacheFile.getPath());
 
             if (cacheFile.isFile() && weatherSpecs.isEmpty()) {
-                try (final ObjectInputStream o = new ObjectInputStream(new FileInputStream(cacheFile))) {
-                    final ArrayList<WeatherSpec> cachedSpecs = (ArrayList<WeatherSpec>) o.readObject();
-                    weatherSpecs.addAll(cachedSpecs);
-                } catch (final ObjectStreamException e) {
-                    LOG.error("Failed to deserialize weather from cache", e);
-                    // keep cacheFile set - it's most likely an older version
+                try (FileInputStream in = new FileInputStream(cacheFile)) {
+                    final byte[] bytes = FileUtils.readAll(in, MAX_CACHE_SIZE);
+                    weatherSpecs = WeatherCache.decode(bytes);
+                    cachedBytes = bytes;
+                    LOG.info("Loaded {} weather locations from cache", weatherSpecs.size());
                 } catch (final IOException e) {
                     LOG.error("Failed to read weather cache file", e);
-                    // Something is wrong with the file
-                    cacheFile = null;
-                } catch (final Throwable e) {
-                    LOG.error("Failed to read weather from cache", e);
-                    // keep cacheFile set - it's most likely an older version
+                    // It will be overwritten by the next weather update
                 }
+            } else if (legacyCacheFile.isFile() && weatherSpecs.isEmpty()) {
+                migrateLegacyCache(legacyCacheFile);
+                return;
             } else if (!weatherSpecs.isEmpty()) {
                 saveToCache();
             }
         } else {
+            cachedBytes = null;
             if (cacheFile.isFile()) {
                 LOG.info("Deleting weather cache file {}", cacheFile.getPath());
 
@@ -1188,26 +1194,84 @@ public class Weather {
                     cacheFile.delete();
                 } catch (final Throwable e) {
                     LOG.error("Failed to delete cache file", e);
-                    cacheFile = null;
                 }
             }
+            cacheFile = null;
+        }
+
+        // Already migrated, or no longer needed
+        deleteLegacyCache(legacyCacheFile);
+    }
+
+    /**
+     * Loads the cache of older versions, written with java serialization, and saves it in the
+     * current format. The legacy cache is deleted once saved, or if it can not be read.
+     */
+    @SuppressWarnings("unchecked")
+    private void migrateLegacyCache(final File legacyCacheFile) {
+        LOG.info("Migrating legacy weather cache file {}", legacyCacheFile.getPath());
+
+        try (ObjectInputStream o = new ObjectInputStream(new FileInputStream(legacyCacheFile))) {
+            weatherSpecs = new ArrayList<>((List<WeatherSpec>) o.readObject());
+        } catch (final Exception e) {
+            LOG.error("Failed to read legacy weather cache file", e);
+            deleteLegacyCache(legacyCacheFile);
+            return;
+        }
+
+        LOG.info("Loaded {} weather locations from legacy cache", weatherSpecs.size());
+
+        saveToCache();
+        if (weatherSpecs.isEmpty() || cachedBytes != null) {
+            deleteLegacyCache(legacyCacheFile);
+        }
+    }
+
+    private static void deleteLegacyCache(final File legacyCacheFile) {
+        if (legacyCacheFile.isFile()) {
+            LOG.info("Deleting legacy weather cache file {}", legacyCacheFile.getPath());
+            if (!legacyCacheFile.delete()) {
+                LOG.warn("Failed to delete legacy weather cache file");
+            }
         }
     }
 
     /**
      * Save the current weather to cache, if a cache file is enabled and the weather is not null.
      */
-    public void saveToCache() {
-        if (weatherSpecs.isEmpty() || cacheFile == null) {
+    public synchronized void saveToCache() {
+        final List<WeatherSpec> specs = weatherSpecs;
+        if (specs.isEmpty() || cacheFile == null) {
+            return;
+        }
+
+        final byte[] bytes;
+        try {
+            bytes = WeatherCache.encode(specs);
+        } catch (final IOException e) {
+            LOG.error("Failed to encode weather for cache", e);
+            return;
+        }
+
+        if (Arrays.equals(bytes, cachedBytes)) {
+            LOG.debug("Weather did not change, not saving to cache");
             return;
         }
 
-        LOG.info("Loading weather from cache {}", cacheFile.getPath());
+        LOG.info("Saving weather to cache {}", cacheFile.getPath());
 
-        try (ObjectOutputStream o = new ObjectOutputStream(new FileOutputStream(cacheFile))) {
-            o.writeObject(weatherSpecs);
-        } catch (final Throwable e) {
+        // Write to a temporary file first, so that a crash never leaves a truncated cache behind
+        final File tmpFile = new File(cacheFile.getPath() + ".tmp");
+        try (FileOutputStream out = new FileOutputStream(tmpFile)) {
+            out.write(bytes);
+        } catch (final IOException e) {
             LOG.error("Failed to save weather to cache", e);
+            return;
+        }
+        if (!tmpFile.renameTo(cacheFile)) {
+            LOG.error("Failed to replace weather cache file");
+            return;
         }
+        cachedBytes = bytes;
     }
 }
@@ -0,0 +1,323 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Binary format of the weather cache file.
+ * <p>
+ * The file starts with a magic number, the format version and the number of locations, followed by
+ * one length-prefixed record per {@link WeatherSpec}. Fields are only ever appended to the end of a
+ * record, and the version bumped, so that newer versions can still read older files. Records are
+ * decoded lazily, as most callers only need the first location.
+ */
+public final class WeatherCache {
+    private static final int MAGIC = 0x47425743; // GBWC
+    public static final int VERSION = 1;
+
+    private WeatherCache() {
+    }
+
+    public static byte[] encode(final List<WeatherSpec> weatherSpecs) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(baos);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(weatherSpecs.size());
+
+        final ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        final DataOutputStream record = new DataOutputStream(recordBytes);
+        for (final WeatherSpec weatherSpec : weatherSpecs) {
+            recordBytes.reset();
+            writeWeatherSpec(record, weatherSpec);
+            record.flush();
+            out.writeInt(recordBytes.size());
+            recordBytes.writeTo(out);
+        }
+
+        out.flush();
+        return baos.toByteArray();
+    }
+
+    /**
+     * @return the weather specs of the cache, decoded on first access
+     * @throws IOException if the data is not a weather cache of a supported version
+     */
+    public static List<WeatherSpec> decode(final byte[] data) throws IOException {
+        final ByteBuffer buf = ByteBuffer.wrap(data);
+        try {
+            if (buf.getInt() != MAGIC) {
+                throw new IOException("Not a weather cache");
+            }
+            final int version = buf.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported weather cache version " + version);
+            }
+            final int count = buf.getInt();
+            if (count < 0 || count > buf.remaining() / 4) {
+                throw new IOException("Invalid number of locations " + count);
+            }
+            final int[] offsets = new int[count];
+            final int[] lengths = new int[count];
+            for (int i = 0; i < count; i++) {
+                lengths[i] = buf.getInt();
+                if (lengths[i] < 0 || lengths[i] > buf.remaining()) {
+                    throw new IOException("Truncated weather cache");
+                }
+                offsets[i] = buf.position();
+                buf.position(buf.position() + lengths[i]);
+            }
+            return new LazyWeatherSpecs(data, version, offsets, lengths);
+        } catch (final BufferUnderflowException e) {
+            throw new IOException("Truncated weather cache", e);
+        }
+    }
+
+    private static void writeWeatherSpec(final DataOutputStream out, final WeatherSpec spec) throws IOException {
+        out.writeInt(spec.timestamp);
+        writeString(out, spec.location);
+        out.writeInt(spec.currentTemp);
+        out.writeInt(spec.currentConditionCode);
+        writeString(out, spec.currentCondition);
+        out.writeInt(spec.currentHumidity);
+        out.writeInt(spec.todayMaxTemp);
+        out.writeInt(spec.todayMinTemp);
+        out.writeFloat(spec.windSpeed);
+        out.writeInt(spec.windDirection);
+        out.writeFloat(spec.uvIndex);
+        out.writeInt(spec.precipProbability);
+        out.writeInt(spec.dewPoint);
+        out.writeFloat(spec.pressure);
+        out.writeInt(spec.cloudCover);
+        out.writeFloat(spec.visibility);
+        out.writeInt(spec.sunRise);
+        out.writeInt(spec.sunSet);
+        out.writeInt(spec.moonRise);
+        out.writeInt(spec.moonSet);
+        out.writeInt(spec.moonPhase);
+        out.writeFloat(spec.latitude);
+        out.writeFloat(spec.longitude);
+        out.writeInt(spec.feelsLikeTemp);
+        out.writeInt(spec.isCurrentLocation);
+        writeAirQuality(out, spec.airQuality);
+
+        final List<WeatherSpec.Daily> forecasts = spec.forecasts != null ? spec.forecasts : new ArrayList<>();
+        out.writeInt(forecasts.size());
+        for (final WeatherSpec.Daily daily : forecasts) {
+            out.writeInt(daily.minTemp);
+            out.writeInt(daily.maxTemp);
+            out.writeInt(daily.conditionCode);
+            out.writeInt(daily.humidity);
+            out.writeFloat(daily.windSpeed);
+            out.writeInt(daily.windDirection);
+            out.writeFloat(daily.uvIndex);
+            out.writeInt(daily.precipProbability);
+            out.writeInt(daily.sunRise);
+            out.writeInt(daily.sunSet);
+            out.writeInt(daily.moonRise);
+            out.writeInt(daily.moonSet);
+            out.writeInt(daily.moonPhase);
+            writeAirQuality(out, daily.airQuality);
+        }
+
+        final List<WeatherSpec.Hourly> hourly = spec.hourly != null ? spec.hourly : new ArrayList<>();
+        out.writeInt(hourly.size());
+        for (final WeatherSpec.Hourly hour : hourly) {
+            out.writeInt(hour.timestamp);
+            out.writeInt(hour.temp);
+            out.writeInt(hour.conditionCode);
+            out.writeInt(hour.humidity);
+            out.writeFloat(hour.windSpeed);
+            out.writeInt(hour.windDirection);
+            out.writeFloat(hour.uvIndex);
+            out.writeInt(hour.precipProbability);
+        }
+    }
+
+    private static WeatherSpec readWeatherSpec(final DataInputStream in, final int version) throws IOException {
+        final WeatherSpec spec = new WeatherSpec();
+        spec.timestamp = in.readInt();
+        spec.location = readString(in);
+        spec.currentTemp = in.readInt();
+        spec.currentConditionCode = in.readInt();
+        spec.currentCondition = readString(in);
+        spec.currentHumidity = in.readInt();
+        spec.todayMaxTemp = in.readInt();
+        spec.todayMinTemp = in.readInt();
+        spec.windSpeed = in.readFloat();
+        spec.windDirection = in.readInt();
+        spec.uvIndex = in.readFloat();
+        spec.precipProbability = in.readInt();
+        spec.dewPoint = in.readInt();
+        spec.pressure = in.readFloat();
+        spec.cloudCover = in.readInt();
+        spec.visibility = in.readFloat();
+        spec.sunRise = in.readInt();
+        spec.sunSet = in.readInt();
+        spec.moonRise = in.readInt();
+        spec.moonSet = in.readInt();
+        spec.moonPhase = in.readInt();
+        spec.latitude = in.readFloat();
+        spec.longitude = in.readFloat();
+        spec.feelsLikeTemp = in.readInt();
+        spec.isCurrentLocation = in.readInt();
+        spec.airQuality = readAirQuality(in);
+
+        final int numForecasts = in.readInt();
+        for (int i = 0; i < numForecasts; i++) {
+            final WeatherSpec.Daily daily = new WeatherSpec.Daily();
+            daily.minTemp = in.readInt();
+            daily.maxTemp = in.readInt();
+            daily.conditionCode = in.readInt();
+            daily.humidity = in.readInt();
+            daily.windSpeed = in.readFloat();
+            daily.windDirection = in.readInt();
+            daily.uvIndex = in.readFloat();
+            daily.precipProbability = in.readInt();
+            daily.sunRise = in.readInt();
+            daily.sunSet = in.readInt();
+            daily.moonRise = in.readInt();
+            daily.moonSet = in.readInt();
+            daily.moonPhase = in.readInt();
+            daily.airQuality = readAirQuality(in);
+            spec.forecasts.add(daily);
+        }
+
+        final int numHourly = in.readInt();
+        for (int i = 0; i < numHourly; i++) {
+            final WeatherSpec.Hourly hour = new WeatherSpec.Hourly();
+            hour.timestamp = in.readInt();
+            hour.temp = in.readInt();
+            hour.conditionCode = in.readInt();
+            hour.humidity = in.readInt();
+            hour.windSpeed = in.readFloat();
+            hour.windDirection = in.readInt();
+            hour.uvIndex = in.readFloat();
+            hour.precipProbability = in.readInt();
+            spec.hourly.add(hour);
+        }
+
+        // Fields added in later versions go here, guarded by the version
+
+        return spec;
+    }
+
+    private static void writeAirQuality(final DataOutputStream out, @Nullable final WeatherSpec.AirQuality airQuality) throws IOException {
+        out.writeBoolean(airQuality != null);
+        if (airQuality == null) {
+            return;
+        }
+        out.writeInt(airQuality.aqi);
+        out.writeFloat(airQuality.co);
+        out.writeFloat(airQuality.no2);
+        out.writeFloat(airQuality.o3);
+        out.writeFloat(airQuality.pm10);
+        out.writeFloat(airQuality.pm25);
+        out.writeFloat(airQuality.so2);
+        out.writeInt(airQuality.coAqi);
+        out.writeInt(airQuality.no2Aqi);
+        out.writeInt(airQuality.o3Aqi);
+        out.writeInt(airQuality.pm10Aqi);
+        out.writeInt(airQuality.pm25Aqi);
+        out.writeInt(airQuality.so2Aqi);
+    }
+
+    @Nullable
+    private static WeatherSpec.AirQuality readAirQuality(final DataInputStream in) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        final WeatherSpec.AirQuality airQuality = new WeatherSpec.AirQuality();
+        airQuality.aqi = in.readInt();
+        airQuality.co = in.readFloat();
+        airQuality.no2 = in.readFloat();
+        airQuality.o3 = in.readFloat();
+        airQuality.pm10 = in.readFloat();
+        airQuality.pm25 = in.readFloat();
+        airQuality.so2 = in.readFloat();
+        airQuality.coAqi = in.readInt();
+        airQuality.no2Aqi = in.readInt();
+        airQuality.o3Aqi = in.readInt();
+        airQuality.pm10Aqi = in.readInt();
+        airQuality.pm25Aqi = in.readInt();
+        airQuality.so2Aqi = in.readInt();
+        return airQuality;
+    }
+
+    private static void writeString(final DataOutputStream out, @Nullable final String str) throws IOException {
+        out.writeBoolean(str != null);
+        if (str != null) {
+            out.writeUTF(str);
+        }
+    }
+
+    @Nullable
+    private static String readString(final DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * The weather specs of a cache file, each decoded the first time it is accessed. A record that
+     * can not be decoded is returned as an empty {@link WeatherSpec}, since the list size is fixed.
+     */
+    private static class LazyWeatherSpecs extends AbstractList<WeatherSpec> implements RandomAccess {
+        private final byte[] data;
+        private final int version;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final WeatherSpec[] decoded;
+
+        private LazyWeatherSpecs(final byte[] data, final int version, final int[] offsets, final int[] lengths) {
+            this.data = data;
+            this.version = version;
+            this.offsets = offsets;
+            this.lengths = lengths;
+            this.decoded = new WeatherSpec[offsets.length];
+        }
+
+        @Override
+        public synchronized WeatherSpec get(final int index) {
+            if (decoded[index] == null) {
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, offsets[index], lengths[index]))) {
+                    decoded[index] = readWeatherSpec(in, version);
+                } catch (final IOException e) {
+                    // corrupted record
+                    decoded[index] = new WeatherSpec();
+                }
+            }
+            return decoded[index];
+        }
+
+        @Override
+        public int size() {
+            return offsets.length;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.service;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.os.SystemClock;
+
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the commands for a single device one after the other, on a thread of its own, so that
+ * encoding and sending them does not block the main thread, and a slow device does not block the
+ * others.
+ * <p>
+ * The thread has a looper, so device supports can still create a {@link Handler} while handling
+ * a command.
+ * <p>
+ * A queue serves a single device support. Once that is disconnected, the queue is stopped and a
+ * new one is created for the next device support, which only starts running commands after the
+ * previous queue has finished.
+ */
+public class DeviceCommandQueue {
+    private static final Logger LOG = LoggerFactory.getLogger(DeviceCommandQueue.class);
+
+    private final String deviceAddress;
+    private final HandlerThread thread;
+    private final Handler handler;
+    /// Token of the commands without coalescing key, so that clearing them leaves the other callbacks alone
+    private final Object commandToken = new Object();
+    /// One token per coalescing key, to find the pending command that is superseded
+    private final Map<String, Object> coalescingTokens = new HashMap<>();
+    private boolean stopping = false;
+
+    /**
+     * @param previous the stopped queue of the previous device support, if any
+     */
+    public DeviceCommandQueue(final String deviceAddress, @Nullable final DeviceCommandQueue previous) {
+        this.deviceAddress = deviceAddress;
+        this.thread = new HandlerThread("Commands for " + deviceAddress, Process.THREAD_PRIORITY_BACKGROUND);
+        this.thread.start();
+        this.handler = new Handler(thread.getLooper());
+        if (previous != null) {
+            // Do not run anything while the previous device support is still being disposed
+            handler.post(previous::awaitTermination);
+        }
+    }
+
+    /**
+     * Queues a command after all pending ones.
+     *
+     * @param coalescingKey if not null, a pending command with the same key is dropped, since the
+     *                      new one supersedes it
+     */
+    public synchronized void post(@Nullable final String coalescingKey, final Runnable command) {
+        if (stopping) {
+            LOG.warn("Command queue for {} was stopped, dropping command", deviceAddress);
+            return;
+        }
+        Object token = commandToken;
+        if (coalescingKey != null) {
+            token = coalescingTokens.get(coalescingKey);
+            if (token == null) {
+                token = new Object();
+                coalescingTokens.put(coalescingKey, token);
+            }
+            handler.removeCallbacksAndMessages(token);
+        }
+        handler.postAtTime(command, token, SystemClock.uptimeMillis());
+    }
+
+    /**
+     * Drops all commands that did not start yet. Waiting for the previous queue is not a command, and
+     * is kept.
+     */
+    public synchronized void clear() {
+        handler.removeCallbacksAndMessages(commandToken);
+        for (final Object token : coalescingTokens.values()) {
+            handler.removeCallbacksAndMessages(token);
+        }
+    }
+
+    public synchronized boolean isStopping() {
+        return stopping;
+    }
+
+    /**
+     * Drops all commands that did not start yet, and stops the thread once the command in progress,
+     * if any, and then the last command have run.
+     */
+    public synchronized void stop(@Nullable final Runnable lastCommand) {
+        if (stopping) {
+            return;
+        }
+        LOG.debug("Stopping command queue for {}", deviceAddress);
+        clear();
+        if (lastCommand != null) {
+            handler.post(lastCommand);
+        }
+        stopping = true;
+        thread.quitSafely();
+    }
+
+    /**
+     * Waits until all commands queued so far have run.
+     *
+     * @return false if they did not run within the timeout
+     */
+    @VisibleForTesting
+    public boolean awaitIdle(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(1);
+        synchronized (this) {
+            if (!handler.post(latch::countDown)) {
+                // The thread already quit, after running everything that was queued
+                return true;
+            }
+        }
+        return latch.await(timeout, unit);
+    }
+
+    private void awaitTermination() {
+        try {
+            thread.join();
+        } catch (final InterruptedException e) {
+            LOG.warn("Interrupted while waiting for the previous command queue for {}", deviceAddress);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -41,9 +41,11 @@ import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import androidx.core.content.ContextCompat;
 import androidx.localbroadcastmanager.content.LocalBroadcastManager;
 
@@ -57,6 +59,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.GBException;
@@ -117,7 +120,8 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
     public static class DeviceStruct{
         private GBDevice device;
         private DeviceCoordinator coordinator;
-        private DeviceSupport deviceSupport;
+        /// Read by the command queue of the device, to drop commands for a disconnected support
+        private volatile DeviceSupport deviceSupport;
 
         public GBDevice getDevice() {
             return device;
@@ -246,6 +250,9 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
     private DeviceSupportFactory mFactory;
     private final ArrayList<DeviceStruct> deviceStructs = new ArrayList<>(1);
     private final HashMap<String, ArrayList<Intent>> cachedNotifications = new HashMap<>();
+    /// Only accessed from the main thread
+    private final HashMap<String, DeviceCommandQueue> commandQueues = new HashMap<>();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
 
     private PhoneCallReceiver mPhoneCallReceiver = null;
     private SMSReceiver mSMSReceiver = null;
@@ -677,13 +684,27 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
                 if (deviceSupport != null) {
                     setDeviceSupport(gbDevice, deviceSupport);
 
-                    if (firstTime) {
-                        deviceSupport.connectFirstTime();
-                    } else {
-                        deviceSupport.setAutoReconnect(autoReconnect);
-                        deviceSupport.setScanReconnect(reconnectViaScan);
-                        deviceSupport.connect();
-                    }
+                    // Connect once the previous device support was disposed on the command queue
+                    final DeviceStruct deviceStruct = registeredStruct;
+                    final boolean deviceAutoReconnect = autoReconnect;
+                    final boolean scanReconnect = reconnectViaScan;
+                    getCommandQueue(gbDevice).post(null, () -> {
+                        if (deviceStruct.getDeviceSupport() != deviceSupport) {
+                            LOG.warn("Not connecting to {}, the device was disconnected", gbDevice);
+                            return;
+                        }
+                        try {
+                            if (firstTime) {
+                                deviceSupport.connectFirstTime();
+                            } else {
+                                deviceSupport.setAutoReconnect(deviceAutoReconnect);
+                                deviceSupport.setScanReconnect(scanReconnect);
+                                deviceSupport.connect();
+                            }
+                        } catch (final Exception e) {
+                            GB.toast(this, getString(R.string.cannot_connect, e.getMessage()), Toast.LENGTH_SHORT, GB.ERROR, e);
+                        }
+                    });
                 } else {
                     GB.toast(this, getString(R.string.cannot_connect, "Can't create device support"), Toast.LENGTH_SHORT, GB.ERROR);
                 }
@@ -774,31 +795,19 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
      * @param text original text
      * @return 'text' or a new String without non supported chars like emoticons, etc.
      */
-    private String sanitizeNotifText(String text, GBDevice device) throws DeviceNotFoundException {
+    private String sanitizeNotifText(String text, DeviceSupport deviceSupport, DeviceCoordinator coordinator) {
         if (text == null || text.length() == 0)
             return text;
 
-        text = getDeviceSupport(device).customStringFilter(text);
+        text = deviceSupport.customStringFilter(text);
 
-        if (!getDeviceCoordinator(device).supportsUnicodeEmojis()) {
+        if (!coordinator.supportsUnicodeEmojis()) {
             return EmojiConverter.convertUnicodeEmojiToAscii(text, getApplicationContext());
         }
 
         return text;
     }
 
-    private DeviceCoordinator getDeviceCoordinator(GBDevice device) throws DeviceNotFoundException {
-        if(device == null){
-            throw new DeviceNotFoundException("null");
-        }
-        for(DeviceStruct struct : deviceStructs){
-            if(struct.getDevice().equals(device)){
-                return struct.getCoordinator();
-            }
-        }
-        throw new DeviceNotFoundException(device);
-    }
-
     private void handleAction(Intent intent, String action, GBDevice device) throws DeviceNotFoundException {
         if(ACTION_DISCONNECT.equals(intent.getAction())) {
             try {
@@ -812,8 +821,97 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
             return;
         }
 
-        DeviceSupport deviceSupport = getDeviceSupport(device);
+        if (ACTION_REQUEST_DEVICEINFO.equals(action)) {
+            device.sendDeviceUpdateIntent(this, GBDevice.DeviceUpdateSubject.NOTHING);
+            return;
+        }
+
+        final DeviceStruct deviceStruct = getDeviceStruct(device);
+        final DeviceSupport deviceSupport = getDeviceSupport(device);
+
+        // Encoding and sending the command may take a while, do not block the main thread or other devices
+        getCommandQueue(device).post(getCoalescingKey(action), () -> {
+            if (deviceStruct.getDeviceSupport() != deviceSupport) {
+                LOG.warn("Dropping {} for {}, the device was disconnected", action, device);
+                return;
+            }
+            try {
+                handleAction(intent, action, device, deviceStruct.getCoordinator(), deviceSupport);
+            } catch (final Exception e) {
+                LOG.error("An exception was raised while handling the action {} for the device {}: ", action, device, e);
+            }
+        });
+    }
 
+    /**
+     * @return the key of commands that supersede the pending ones with the same key, or null
+     */
+    @Nullable
+    private static String getCoalescingKey(final String action) {
+        switch (action) {
+            case ACTION_SETMUSICINFO:
+            case ACTION_SETMUSICSTATE:
+            case ACTION_SETNAVIGATIONINFO:
+            case ACTION_SEND_WEATHER:
+            case ACTION_SET_GPS_LOCATION:
+            case ACTION_SET_PHONE_VOLUME:
+                return action;
+            default:
+                return null;
+        }
+    }
+
+    private DeviceCommandQueue getCommandQueue(final GBDevice device) {
+        DeviceCommandQueue commandQueue = commandQueues.get(device.getAddress());
+        if (commandQueue == null || commandQueue.isStopping()) {
+            commandQueue = new DeviceCommandQueue(device.getAddress(), commandQueue);
+            commandQueues.put(device.getAddress(), commandQueue);
+        }
+        return commandQueue;
+    }
+
+    /**
+     * Waits until the commands queued so far for a device have run.
+     *
+     * @return false if they did not run within the timeout
+     */
+    @VisibleForTesting
+    boolean awaitCommandQueue(final String address, final long timeout, final TimeUnit unit) throws InterruptedException {
+        final DeviceCommandQueue commandQueue = commandQueues.get(address);
+        return commandQueue == null || commandQueue.awaitIdle(timeout, unit);
+    }
+
+    /**
+     * Disposes the device support once the command it is handling, if any, is done, and stops the
+     * command queue of the device. Pending commands are dropped. The queue is removed once it has
+     * finished, unless a new device support already replaced it.
+     */
+    private void disposeDeviceSupport(final GBDevice device, final DeviceSupport deviceSupport) {
+        final String address = device.getAddress();
+        final DeviceCommandQueue commandQueue = commandQueues.get(address);
+        if (commandQueue == null || commandQueue.isStopping()) {
+            // nothing is running for this device support
+            deviceSupport.dispose();
+            return;
+        }
+        commandQueue.stop(() -> {
+            try {
+                deviceSupport.dispose();
+            } finally {
+                mainHandler.post(() -> {
+                    if (commandQueues.get(address) == commandQueue) {
+                        commandQueues.remove(address);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Handles an action on the command queue of the device.
+     */
+    private void handleAction(final Intent intent, final String action, final GBDevice device,
+                              final DeviceCoordinator coordinator, final DeviceSupport deviceSupport) {
         Prefs devicePrefs = new Prefs(GBApplication.getDeviceSpecificSharedPrefs(device.getAddress()));
 
         final Transliterator transliterator = LanguageUtils.getTransliterator(device);
@@ -825,7 +923,7 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
             if (intentCopy.hasExtra(extra)) {
                 // Ensure the text is sanitized (eg. emoji converted to ascii) before applying the transliterators
                 // otherwise the emoji are removed before converting them
-                String sanitizedText = sanitizeNotifText(intentCopy.getStringExtra(extra), device);
+                String sanitizedText = sanitizeNotifText(intentCopy.getStringExtra(extra), deviceSupport, coordinator);
                 if (transliterator != null) {
                     sanitizedText = transliterator.transliterate(sanitizedText);
                 }
@@ -834,9 +932,6 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
         }
 
         switch (action) {
-            case ACTION_REQUEST_DEVICEINFO:
-                device.sendDeviceUpdateIntent(this, GBDevice.DeviceUpdateSubject.NOTHING);
-                break;
             case ACTION_NOTIFICATION: {
                 int desiredId = intentCopy.getIntExtra(EXTRA_NOTIFICATION_ID, -1);
                 NotificationSpec notificationSpec = new NotificationSpec(desiredId);
@@ -1159,7 +1254,7 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
        DeviceStruct deviceStruct = getDeviceStruct(device);
        DeviceSupport cachedDeviceSupport = deviceStruct.getDeviceSupport();
        if (deviceSupport != cachedDeviceSupport && cachedDeviceSupport != null) {
-           cachedDeviceSupport.dispose();
+           disposeDeviceSupport(device, cachedDeviceSupport);
        }
        deviceStruct.setDeviceSupport(deviceSupport);
     }
@@ -1167,7 +1262,7 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
     private void removeDeviceSupport(GBDevice device) throws DeviceNotFoundException {
         DeviceStruct struct = getDeviceStruct(device);
         if(struct.getDeviceSupport() != null){
-            struct.getDeviceSupport().dispose();
+            disposeDeviceSupport(device, struct.getDeviceSupport());
         }
         struct.setDeviceSupport(null);
     }
@@ -1556,6 +1651,10 @@ public class DeviceCommunicationService extends Service implements SharedPrefere
                 e.printStackTrace();
             }
         }
+        for (DeviceCommandQueue commandQueue : commandQueues.values()) {
+            commandQueue.stop(null);
+        }
+        commandQueues.clear();
         GB.removeNotification(GB.NOTIFICATION_ID, this); // need to do this because the updated notification won't be cancelled when service stops
 
         unregisterReceiver(bluetoothCommandReceiver);
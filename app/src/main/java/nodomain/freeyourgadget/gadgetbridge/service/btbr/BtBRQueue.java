@@ -37,9 +37,9 @@ import java.util.Locale;
 import java.util.UUID;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.Logging;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.service.DeviceSupport;
-import nodomain.freeyourgadget.gadgetbridge.util.GB;
 
 public final class BtBRQueue {
     private static final Logger LOG = LoggerFactory.getLogger(BtBRQueue.class);
@@ -81,7 +81,7 @@ public final class BtBRQueue {
                     break;
                 }
 
-                LOG.debug("Received {} bytes: {}", nRead, GB.hexdump(buffer, 0, nRead));
+                LOG.debug("Received {} bytes: {}", nRead, Logging.lazyHexdump(buffer, 0, nRead));
 
                 try {
                     mCallback.onSocketRead(Arrays.copyOf(buffer, nRead));
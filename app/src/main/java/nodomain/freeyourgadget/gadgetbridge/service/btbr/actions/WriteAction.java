@@ -59,7 +59,7 @@ public class WriteAction extends BtBRAction {
 
     protected boolean writeValue(byte[] value) {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("writing to socket: " + Logging.formatBytes(value));
+            LOG.debug("writing to socket: {}", Logging.lazyFormatBytes(value));
         }
         try {
             mOutputStream.write(value);
@@ -614,10 +614,11 @@ public final class BtLEQueue {
                                          BluetoothGattCharacteristic characteristic,
                                          int status) {
             LOG.debug(
-                    "characteristic read: {}{}{}",
+                    "characteristic read: {}{}{}{}",
                     characteristic.getUuid(),
                     getStatusString(status),
-                    status == BluetoothGatt.GATT_SUCCESS ? ": " + Logging.formatBytes(characteristic.getValue()) : ""
+                    status == BluetoothGatt.GATT_SUCCESS ? ": " : "",
+                    status == BluetoothGatt.GATT_SUCCESS ? Logging.lazyFormatBytes(characteristic.getValue()) : ""
             );
             if (!checkCorrectGattInstance(gatt, "characteristic read")) {
                 return;
@@ -668,8 +669,7 @@ public final class BtLEQueue {
         public void onCharacteristicChanged(BluetoothGatt gatt,
                                             BluetoothGattCharacteristic characteristic) {
             if (LOG.isDebugEnabled()) {
-                String content = Logging.formatBytes(characteristic.getValue());
-                LOG.debug("characteristic changed: {} value: {}", characteristic.getUuid(), content);
+                LOG.debug("characteristic changed: {} value: {}", characteristic.getUuid(), Logging.lazyFormatBytes(characteristic.getValue()));
             }
             if (!checkCorrectGattInstance(gatt, "characteristic changed")) {
                 return;
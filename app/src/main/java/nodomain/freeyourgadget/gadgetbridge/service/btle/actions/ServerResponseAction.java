@@ -54,7 +54,7 @@ public class ServerResponseAction extends BtLEServerAction {
 
     protected boolean writeValue(BluetoothGattServer gattServer, BluetoothDevice device, int requestId, int status, int offset, byte[] value) {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("writing to server: " + device.getAddress() + ": " + Logging.formatBytes(value));
+            LOG.debug("writing to server: {}: {}", device.getAddress(), Logging.lazyFormatBytes(value));
         }
 
         return gattServer.sendResponse(device, requestId, 0, offset, value);
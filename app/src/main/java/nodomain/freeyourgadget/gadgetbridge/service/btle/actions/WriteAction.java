@@ -55,7 +55,7 @@ public class WriteAction extends BtLEAction {
 
     protected boolean writeValue(BluetoothGatt gatt, BluetoothGattCharacteristic characteristic, byte[] value) {
         if (LOG.isDebugEnabled()) {
-            LOG.debug("writing to characteristic: " + characteristic.getUuid() + ": " + Logging.formatBytes(value));
+            LOG.debug("writing to characteristic: {}: {}", characteristic.getUuid(), Logging.lazyFormatBytes(value));
         }
         if (characteristic.setValue(value)) {
             return gatt.writeCharacteristic(characteristic);
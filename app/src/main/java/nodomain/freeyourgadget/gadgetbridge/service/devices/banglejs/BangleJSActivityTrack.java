@@ -41,6 +41,7 @@ import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityPoint;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryData;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityTrack;
 import nodomain.freeyourgadget.gadgetbridge.util.FileUtils;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
@@ -250,6 +251,7 @@ class BangleJSActivityTrack {
                 User user = DBHelper.getUser(session);
                 summary.setDevice(deviceDB);
                 summary.setUser(user);
+                ActivitySummaryMetrics.update(summary);
                 session.getBaseActivitySummaryDao().insertOrReplace(summary);
             } catch (Exception ex) {
                 GB.toast(context, "Error saving activity summary", Toast.LENGTH_LONG, GB.ERROR, ex);
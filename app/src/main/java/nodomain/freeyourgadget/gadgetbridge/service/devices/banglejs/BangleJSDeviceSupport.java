@@ -162,10 +162,10 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
     private int mtuSize = 20;
     int bangleCommandSeq = 0; // to attempt to stop duplicate packets when sending Local Intents
 
-    /// Current line of data received from Bangle.js
-    private String receivedLine = "";
+    /// Splits the data received from Bangle.js into lines
+    private final BangleJSUartFramer uartFramer = new BangleJSUartFramer();
     /// All characters received from Bangle.js for debug purposes (limited to MAX_RECEIVE_HISTORY_CHARS). Can be dumped with 'Fetch Device Debug Logs' from Debug menu
-    private String receiveHistory = "";
+    private final StringBuilder receiveHistory = new StringBuilder();
     private boolean realtimeHRM = false;
     private boolean realtimeStep = false;
     /// How often should activity data be sent - in seconds
@@ -241,9 +241,10 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
     }
 
     private void addReceiveHistory(String s) {
-        receiveHistory += s;
-        if (receiveHistory.length() > MAX_RECEIVE_HISTORY_CHARS)
-            receiveHistory = receiveHistory.substring(receiveHistory.length() - MAX_RECEIVE_HISTORY_CHARS);
+        receiveHistory.append(s);
+        // trim in larger steps, so the history is not copied for every packet
+        if (receiveHistory.length() > MAX_RECEIVE_HISTORY_CHARS + MAX_RECEIVE_HISTORY_CHARS / 4)
+            receiveHistory.delete(0, receiveHistory.length() - MAX_RECEIVE_HISTORY_CHARS);
     }
 
     private void registerLocalIntents() {
@@ -508,15 +509,23 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
 
 
 
-    private void handleUartRxLine(String line) {
-        LOG.info("UART RX LINE: " + line);
+    /**
+     * @param line a line from the {@link BangleJSUartFramer}, only valid during this call
+     */
+    private void handleUartRxLine(CharSequence line) {
         if (line.length()==0) return;
-        if (">Uncaught ReferenceError: \"GB\" is not defined".equals(line))
-          GB.toast(getContext(), "'Android Integration' plugin not installed on Bangle.js", Toast.LENGTH_LONG, GB.ERROR);
-        else if (line.charAt(0)=='{') {
+        if (line.charAt(0)=='{') {
             // JSON - we hope!
+            LOG.info("UART RX JSON LINE: {} chars", line.length());
             try {
-                JSONObject json = new JSONObject(line);
+                JSONObject json;
+                try {
+                    json = BangleJSJsonTokenizer.parseObject(line);
+                } catch (JSONException e) {
+                    // not strict JSON - try the more lenient parser
+                    LOG.debug("UART RX JSON not strict: {}", e.getLocalizedMessage());
+                    json = new JSONObject(line.toString());
+                }
                 if (json.has("t")) {
                     handleUartRxJSON(json);
                     LOG.info("UART RX JSON parsed successfully");
@@ -526,9 +535,16 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
                 LOG.error("UART RX JSON parse failure: "+ e.getLocalizedMessage());
                 GB.toast(getContext(), "Malformed JSON from Bangle.js: " + e.getLocalizedMessage(), Toast.LENGTH_LONG, GB.ERROR);
             }
-        } else if (line.startsWith("data:image/bmp;base64,")) {
+            return;
+        }
+
+        final String lineStr = line.toString();
+        LOG.info("UART RX LINE: " + lineStr);
+        if (">Uncaught ReferenceError: \"GB\" is not defined".equals(lineStr))
+          GB.toast(getContext(), "'Android Integration' plugin not installed on Bangle.js", Toast.LENGTH_LONG, GB.ERROR);
+        else if (lineStr.startsWith("data:image/bmp;base64,")) {
             LOG.debug("Got screenshot bmp");
-            final byte[] screenshotBytes = Base64.decode(line.substring(21), Base64.DEFAULT);
+            final byte[] screenshotBytes = Base64.decode(lineStr.substring(21), Base64.DEFAULT);
             final GBDeviceEventScreenshot gbDeviceEventScreenshot = new GBDeviceEventScreenshot(screenshotBytes);
             evaluateGBDeviceEvent(gbDeviceEventScreenshot);
         } else {
@@ -1213,17 +1229,11 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
                 }
             }
             String packetStr = new String(chars, StandardCharsets.ISO_8859_1);
-            LOG.debug("RX: " + packetStr);
+            LOG.debug("RX: {}", packetStr);
             // logging
             addReceiveHistory(packetStr);
             // split into input lines
-            receivedLine += packetStr;
-            while (receivedLine.contains("\n")) {
-                int p = receivedLine.indexOf("\n");
-                String line = receivedLine.substring(0,(p>0) ? (p-1) : 0);
-                receivedLine = receivedLine.substring(p+1);
-                handleUartRxLine(line);
-            }
+            uartFramer.append(chars, this::handleUartRxLine);
             // Send an intent with new data
             Intent intent = new Intent(BangleJSDeviceSupport.BANGLEJS_COMMAND_RX);
             intent.putExtra("DATA", packetStr);
@@ -1668,9 +1678,9 @@ public class BangleJSDeviceSupport extends AbstractBTLEDeviceSupport {
             LOG.warn("Writing log to "+outputFile.toString());
             try {
                 BufferedWriter writer = new BufferedWriter(new FileWriter(outputFile));
-                writer.write(receiveHistory);
+                writer.write(receiveHistory.substring(Math.max(0, receiveHistory.length() - MAX_RECEIVE_HISTORY_CHARS)));
                 writer.close();
-                receiveHistory = "";
+                receiveHistory.setLength(0);
                 GB.toast(getContext(), "Log written to "+filename, Toast.LENGTH_LONG, GB.INFO);
             } catch (IOException e) {
                 LOG.warn("Could not write to file", e);
@@ -0,0 +1,249 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.service.devices.banglejs;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Parses the JSON sent by Bangle.js in a single pass over a {@link CharSequence}, such as a line of
+ * the {@link BangleJSUartFramer}, without copying the input into a string first. Only the strict
+ * JSON produced by Espruino's JSON.stringify is accepted.
+ */
+public class BangleJSJsonTokenizer {
+    private final CharSequence in;
+    private int pos = 0;
+
+    private BangleJSJsonTokenizer(final CharSequence in) {
+        this.in = in;
+    }
+
+    public static JSONObject parseObject(final CharSequence in) throws JSONException {
+        final BangleJSJsonTokenizer tokenizer = new BangleJSJsonTokenizer(in);
+        tokenizer.skipWhitespace();
+        final JSONObject object = tokenizer.readObject();
+        tokenizer.skipWhitespace();
+        if (tokenizer.pos != in.length()) {
+            throw tokenizer.syntaxError("Unexpected data after the object");
+        }
+        return object;
+    }
+
+    private Object readValue() throws JSONException {
+        skipWhitespace();
+        switch (peek()) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                readLiteral("true");
+                return Boolean.TRUE;
+            case 'f':
+                readLiteral("false");
+                return Boolean.FALSE;
+            case 'n':
+                readLiteral("null");
+                return JSONObject.NULL;
+            default:
+                return readNumber();
+        }
+    }
+
+    private JSONObject readObject() throws JSONException {
+        expect('{');
+        final JSONObject object = new JSONObject();
+        skipWhitespace();
+        if (peek() == '}') {
+            pos++;
+            return object;
+        }
+        while (true) {
+            skipWhitespace();
+            if (peek() != '"') {
+                throw syntaxError("Expected a key");
+            }
+            final String key = readString();
+            skipWhitespace();
+            expect(':');
+            object.put(key, readValue());
+            skipWhitespace();
+            final char c = next();
+            if (c == '}') {
+                return object;
+            } else if (c != ',') {
+                throw syntaxError("Expected ',' or '}'");
+            }
+        }
+    }
+
+    private JSONArray readArray() throws JSONException {
+        expect('[');
+        final JSONArray array = new JSONArray();
+        skipWhitespace();
+        if (peek() == ']') {
+            pos++;
+            return array;
+        }
+        while (true) {
+            array.put(readValue());
+            skipWhitespace();
+            final char c = next();
+            if (c == ']') {
+                return array;
+            } else if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+        }
+    }
+
+    private String readString() throws JSONException {
+        expect('"');
+        final int start = pos;
+        StringBuilder sb = null;
+        while (true) {
+            final char c = next();
+            if (c == '"') {
+                if (sb == null) {
+                    return in.subSequence(start, pos - 1).toString();
+                }
+                return sb.toString();
+            }
+            if (c == '\\') {
+                if (sb == null) {
+                    sb = new StringBuilder(Math.max(16, pos - start + 16)).append(in, start, pos - 1);
+                }
+                final char escaped = next();
+                switch (escaped) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        if (pos + 4 > in.length()) {
+                            throw syntaxError("Unterminated escape sequence");
+                        }
+                        int codePoint = 0;
+                        for (int i = 0; i < 4; i++) {
+                            final int digit = Character.digit(in.charAt(pos++), 16);
+                            if (digit < 0) {
+                                throw syntaxError("Invalid escape sequence");
+                            }
+                            codePoint = (codePoint << 4) | digit;
+                        }
+                        sb.append((char) codePoint);
+                        break;
+                    default:
+                        // \" \\ \/ and anything Espruino escapes without need
+                        sb.append(escaped);
+                        break;
+                }
+            } else if (sb != null) {
+                sb.append(c);
+            }
+        }
+    }
+
+    private Number readNumber() throws JSONException {
+        final int start = pos;
+        boolean decimal = false;
+        while (pos < in.length()) {
+            final char c = in.charAt(pos);
+            if (c == '.' || c == 'e' || c == 'E') {
+                decimal = true;
+            } else if (!(c == '-' || c == '+' || (c >= '0' && c <= '9'))) {
+                break;
+            }
+            pos++;
+        }
+        if (start == pos) {
+            throw syntaxError("Unexpected character");
+        }
+        final String number = in.subSequence(start, pos).toString();
+        try {
+            if (!decimal) {
+                final long value = Long.parseLong(number);
+                if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+                    return (int) value;
+                }
+                return value;
+            }
+        } catch (final NumberFormatException e) {
+            // too large for a long
+        }
+        try {
+            return Double.valueOf(number);
+        } catch (final NumberFormatException e) {
+            throw syntaxError("Invalid number " + number);
+        }
+    }
+
+    private void readLiteral(final String literal) throws JSONException {
+        for (int i = 0; i < literal.length(); i++) {
+            if (next() != literal.charAt(i)) {
+                throw syntaxError("Expected " + literal);
+            }
+        }
+    }
+
+    private void skipWhitespace() {
+        while (pos < in.length()) {
+            final char c = in.charAt(pos);
+            if (c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    private char peek() throws JSONException {
+        if (pos >= in.length()) {
+            throw syntaxError("Unexpected end of data");
+        }
+        return in.charAt(pos);
+    }
+
+    private char next() throws JSONException {
+        final char c = peek();
+        pos++;
+        return c;
+    }
+
+    private void expect(final char expected) throws JSONException {
+        if (next() != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+    }
+
+    private JSONException syntaxError(final String message) {
+        return new JSONException(message + " at character " + pos);
+    }
+}
@@ -0,0 +1,142 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.service.devices.banglejs;
+
+import androidx.annotation.NonNull;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits the bytes received from the Bangle.js UART into lines. Every byte is copied and scanned
+ * once, no matter how many packets a line spans, and complete lines are handed out as a view on
+ * the buffer instead of a new string.
+ */
+public class BangleJSUartFramer {
+    private static final Logger LOG = LoggerFactory.getLogger(BangleJSUartFramer.class);
+
+    private static final int INITIAL_CAPACITY = 1024;
+    /// Buffers that grew larger than this for a long line are dropped once the line is complete
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    /// Longer lines are discarded, so that a missing newline can not use up all memory
+    public static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    public interface LineListener {
+        /**
+         * @param line the line, without the line ending, only valid until this method returns
+         */
+        void onLine(CharSequence line);
+    }
+
+    private final Line line = new Line();
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private int length = 0;
+    private boolean discarding = false;
+
+    public void append(final byte[] data, final LineListener listener) {
+        append(data, 0, data.length, listener);
+    }
+
+    public void append(final byte[] data, final int offset, final int count, final LineListener listener) {
+        for (int i = offset; i < offset + count; i++) {
+            final byte b = data[i];
+            if (b == '\n') {
+                if (discarding) {
+                    discarding = false;
+                } else {
+                    // Bangle.js terminates its lines with \r\n
+                    line.length = (length > 0 && buffer[length - 1] == '\r') ? length - 1 : length;
+                    listener.onLine(line);
+                }
+                reset();
+                continue;
+            }
+            if (discarding) {
+                continue;
+            }
+            if (length == MAX_LINE_LENGTH) {
+                LOG.warn("UART RX line longer than {} bytes - discarding", MAX_LINE_LENGTH);
+                discarding = true;
+                reset();
+                continue;
+            }
+            if (length == buffer.length) {
+                final byte[] grown = new byte[Math.min(buffer.length * 2, MAX_LINE_LENGTH)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+            buffer[length++] = b;
+        }
+    }
+
+    /**
+     * @return the number of bytes of the incomplete line that is currently buffered
+     */
+    public int getPendingLength() {
+        return length;
+    }
+
+    public void clear() {
+        discarding = false;
+        reset();
+    }
+
+    private void reset() {
+        length = 0;
+        if (buffer.length > MAX_RETAINED_CAPACITY) {
+            buffer = new byte[INITIAL_CAPACITY];
+        }
+    }
+
+    /**
+     * The bytes of the current line, as ISO-8859-1 characters like the rest of the Bangle.js
+     * protocol.
+     */
+    private class Line implements CharSequence {
+        private int length;
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("Index " + index + ", length " + length);
+            }
+            return (char) (buffer[index] & 0xff);
+        }
+
+        @NonNull
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("Range " + start + "-" + end + ", length " + length);
+            }
+            return new String(buffer, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return new String(buffer, 0, length, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -63,6 +63,7 @@ import nodomain.freeyourgadget.gadgetbridge.export.GPXExporter;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityPoint;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityTrack;
 import nodomain.freeyourgadget.gadgetbridge.model.GPSCoordinate;
 import nodomain.freeyourgadget.gadgetbridge.util.DateTimeUtils;
@@ -420,6 +421,7 @@ public class CmfActivitySync {
                 return;
             }
 
+            ActivitySummaryMetrics.update(summary);
             summary.setSummaryData(null); // remove json before saving to database
 
             try (DBHandler dbHandler = GBApplication.acquireDB()) {
@@ -535,6 +537,7 @@ public class CmfActivitySync {
 
             final BaseActivitySummary summaryToUpdate = summaries.get(0);
             summaryToUpdate.setGpxTrack(gpxFile.getAbsolutePath());
+            summaryToUpdate.setHasGps(true);
             session.getBaseActivitySummaryDao().insertOrReplace(summaryToUpdate);
         } catch (final Exception e) {
             LOG.error("Failed to update summary with gpx path", e);
@@ -32,10 +32,13 @@ public final class ChecksumCalculator {
     }
 
     public static int computeCrc(ByteBuffer byteBuffer, int offset, int length) {
-        byteBuffer.rewind();
-        byte[] data = new byte[length];
-        byteBuffer.get(data);
-        return computeCrc(0, data, offset, length);
+        int crc = 0;
+        for (int i = offset; i < offset + length; ++i) {
+            int b = byteBuffer.get(i);
+            crc = (((crc >> 4) & 4095) ^ CONSTANTS[crc & 15]) ^ CONSTANTS[b & 15];
+            crc = (((crc >> 4) & 4095) ^ CONSTANTS[crc & 15]) ^ CONSTANTS[(b >> 4) & 15];
+        }
+        return crc;
     }
 
     public static int computeCrc(int initialCrc, byte[] data, int offset, int length) {
@@ -1,15 +1,20 @@
 package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashSet;
@@ -60,9 +65,20 @@ public class FileTransferHandler implements MessageHandler {
         return upload.getCurrentlyUploading() != null;
     }
 
+    /**
+     * Closes the file of an unfinished download. The data received so far is kept, so that the
+     * download can be resumed from there.
+     */
+    public void dispose() {
+        final FileFragment fileFragment = download.getCurrentlyDownloading();
+        if (fileFragment != null) {
+            fileFragment.closePartFile();
+        }
+    }
+
     public GFDIMessage handle(GFDIMessage message) {
         if (message instanceof DownloadRequestStatusMessage)
-            download.processDownloadRequestStatusMessage((DownloadRequestStatusMessage) message);
+            return download.processDownloadRequestStatusMessage((DownloadRequestStatusMessage) message);
         else if (message instanceof FileTransferDataMessage)
             download.processDownloadChunkedMessage((FileTransferDataMessage) message);
         else if (message instanceof CreateFileStatusMessage)
@@ -76,7 +92,13 @@ public class FileTransferHandler implements MessageHandler {
     }
 
     public DownloadRequestMessage downloadDirectoryEntry(DirectoryEntry directoryEntry) {
-        download.setCurrentlyDownloading(new FileFragment(directoryEntry));
+        final FileFragment fileFragment = new FileFragment(directoryEntry);
+        fileFragment.partFile = download.getPartFile(directoryEntry);
+        download.setCurrentlyDownloading(fileFragment);
+        if (fileFragment.resume()) {
+            LOG.info("Resuming download of {} at offset {}", directoryEntry.getFileName(), fileFragment.getReceivedSize());
+            return new DownloadRequestMessage(directoryEntry.getFileIndex(), 0, DownloadRequestMessage.REQUEST_TYPE.CONTINUE, fileFragment.getRunningCrc(), fileFragment.getReceivedSize());
+        }
         return new DownloadRequestMessage(directoryEntry.getFileIndex(), 0, DownloadRequestMessage.REQUEST_TYPE.NEW, 0, 0);
     }
 
@@ -111,29 +133,63 @@ public CreateFileMessage initiateUpload(byte[] fileAsByteArray, FileType.FILETYP
                 throw new IllegalStateException("Received file transfer of unknown file");
 
             currentlyDownloading.append(fileTransferDataMessage);
-            if (!currentlyDownloading.dataHolder.hasRemaining())
+            if (!currentlyDownloading.hasRemaining())
                 processCompleteDownload();
         }
 
         private void processCompleteDownload() {
-            currentlyDownloading.dataHolder.flip();
-
             if (FileType.FILETYPE.DIRECTORY.equals(currentlyDownloading.directoryEntry.filetype)) { //is a directory
+                currentlyDownloading.dataHolder.flip();
                 parseDirectoryEntries();
+            } else if (currentlyDownloading.isStreaming()) {
+                commitPartFile();
             } else {
+                currentlyDownloading.dataHolder.flip();
                 saveFileToExternalStorage();
             }
 
             currentlyDownloading = null;
         }
 
-        public void processDownloadRequestStatusMessage(DownloadRequestStatusMessage downloadRequestStatusMessage) {
+        public DownloadRequestMessage processDownloadRequestStatusMessage(DownloadRequestStatusMessage downloadRequestStatusMessage) {
             if (null == currentlyDownloading)
                 throw new IllegalStateException("Received file transfer of unknown file");
-            if (downloadRequestStatusMessage.canProceed())
+            if (downloadRequestStatusMessage.canProceed()) {
                 currentlyDownloading.setSize(downloadRequestStatusMessage);
-            else
+                if (currentlyDownloading.isResumed() && !currentlyDownloading.isStreaming()) {
+                    LOG.error("Failed to reopen the partial download of {}", currentlyDownloading.getFileName());
+                    currentlyDownloading = null;
+                }
+            } else if (currentlyDownloading.isResumed()) {
+                // the watch may not support resuming this file, start over
+                final DirectoryEntry directoryEntry = currentlyDownloading.directoryEntry;
+                LOG.warn("Resuming the download of {} was refused, downloading it again", directoryEntry.getFileName());
+                currentlyDownloading.deletePartFile();
+                final FileFragment fileFragment = new FileFragment(directoryEntry);
+                fileFragment.partFile = getPartFile(directoryEntry);
+                currentlyDownloading = fileFragment;
+                return new DownloadRequestMessage(directoryEntry.getFileIndex(), 0, DownloadRequestMessage.REQUEST_TYPE.NEW, 0, 0);
+            } else {
                 currentlyDownloading = null;
+            }
+            return null;
+        }
+
+        /**
+         * @return the file that a download is streamed to until it is complete, or null if it
+         * should be kept in memory instead
+         */
+        @Nullable
+        private File getPartFile(final DirectoryEntry directoryEntry) {
+            if (FileType.FILETYPE.DIRECTORY.equals(directoryEntry.filetype)) {
+                return null;
+            }
+            try {
+                return new File(deviceSupport.getWritableExportDirectory(), directoryEntry.getFileName() + ".part");
+            } catch (final IOException e) {
+                LOG.warn("Failed to get export directory, downloading {} to memory", directoryEntry.getFileName(), e);
+                return null;
+            }
         }
 
         private void saveFileToExternalStorage() {
@@ -149,6 +205,23 @@ public CreateFileMessage initiateUpload(byte[] fileAsByteArray, FileType.FILETYP
                 return; // do not signal file as saved
             }
 
+            signalFileDownloaded(outputFile);
+        }
+
+        private void commitPartFile() {
+            final File outputFile;
+            try {
+                outputFile = currentlyDownloading.commitPartFile();
+                outputFile.setLastModified(currentlyDownloading.directoryEntry.fileDate.getTime());
+            } catch (final IOException e) {
+                LOG.error("Failed to save file", e);
+                return; // do not signal file as saved
+            }
+
+            signalFileDownloaded(outputFile);
+        }
+
+        private void signalFileDownloaded(final File outputFile) {
             FileDownloadedDeviceEvent fileDownloadedDeviceEvent = new FileDownloadedDeviceEvent();
             fileDownloadedDeviceEvent.directoryEntry = currentlyDownloading.directoryEntry;
             fileDownloadedDeviceEvent.localPath = outputFile.getAbsolutePath();
@@ -247,12 +320,24 @@ public CreateFileMessage initiateUpload(byte[] fileAsByteArray, FileType.FILETYP
 
     }
 
+    /**
+     * A file that is being transferred. Downloads are streamed to a part file when one is set,
+     * which is renamed once the download is complete. Otherwise, and for uploads, the whole file
+     * is kept in memory.
+     */
     public static class FileFragment {
         private final DirectoryEntry directoryEntry;
         private final int maxBlockSize = 500; //TODO: why 500?
         private int dataSize;
         private ByteBuffer dataHolder;
         private int runningCrc;
+        @Nullable
+        private File partFile;
+        @Nullable
+        private FileChannel partChannel;
+        /// Bytes written to the part file, all of them passed the CRC check
+        private int partSize;
+        private boolean resumed;
 
         FileFragment(DirectoryEntry directoryEntry) {
             this.directoryEntry = directoryEntry;
@@ -276,24 +361,151 @@ public CreateFileMessage initiateUpload(byte[] fileAsByteArray, FileType.FILETYP
             return directoryEntry.getFileName();
         }
 
+        /**
+         * Picks up the data of an interrupted download from the part file, if there is one.
+         *
+         * @return whether the download continues from {@link #getReceivedSize()}, with the CRC of
+         * the data received so far as seed
+         */
+        private boolean resume() {
+            if (partFile == null || !partFile.exists()) {
+                return false;
+            }
+            final long length = partFile.length();
+            if (length == 0 || directoryEntry.fileSize <= 0 || length >= directoryEntry.fileSize) {
+                deletePartFile();
+                return false;
+            }
+
+            int crc = 0;
+            try (InputStream in = new FileInputStream(partFile)) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc = ChecksumCalculator.computeCrc(crc, buffer, 0, read);
+                }
+            } catch (final IOException e) {
+                LOG.warn("Failed to read partial download {}", partFile, e);
+                deletePartFile();
+                return false;
+            }
+
+            this.partSize = (int) length;
+            this.resumed = true;
+            setRunningCrc(crc);
+            return true;
+        }
+
+        private boolean isResumed() {
+            return resumed;
+        }
+
+        private boolean isStreaming() {
+            return partChannel != null;
+        }
+
         private void setSize(DownloadRequestStatusMessage downloadRequestStatusMessage) {
             if (0 != getDataSize())
                 throw new IllegalStateException("Data size already set");
 
-            this.setDataSize(downloadRequestStatusMessage.getMaxFileSize());
+            if (resumed) {
+                // only resumed when the size from the directory is known
+                this.setDataSize(directoryEntry.fileSize);
+            } else {
+                this.setDataSize(downloadRequestStatusMessage.getMaxFileSize());
+            }
+
+            if (partFile != null) {
+                try {
+                    partChannel = new RandomAccessFile(partFile, "rw").getChannel();
+                    // drop anything past the data that passed the CRC check
+                    partChannel.truncate(partSize);
+                    partChannel.position(partSize);
+                    return;
+                } catch (final IOException e) {
+                    LOG.warn("Failed to open {}, downloading to memory", partFile, e);
+                    closePartFile();
+                    if (resumed) {
+                        // the data received so far is only on disk
+                        return;
+                    }
+                }
+            }
+
             this.dataHolder = ByteBuffer.allocate(getDataSize());
         }
 
+        private int getReceivedSize() {
+            return partChannel != null || resumed ? partSize : dataHolder.position();
+        }
+
+        private boolean hasRemaining() {
+            return getReceivedSize() < getDataSize();
+        }
+
         private void append(FileTransferDataMessage fileTransferDataMessage) {
-            if (fileTransferDataMessage.getDataOffset() != dataHolder.position())
+            if (fileTransferDataMessage.getDataOffset() != getReceivedSize())
                 throw new IllegalStateException("Received message that was already received");
 
             final int dataCrc = ChecksumCalculator.computeCrc(getRunningCrc(), fileTransferDataMessage.getMessage(), 0, fileTransferDataMessage.getMessage().length);
             if (fileTransferDataMessage.getCrc() != dataCrc)
                 throw new IllegalStateException("Received message with invalid CRC");
+
+            if (partChannel != null) {
+                final ByteBuffer chunk = ByteBuffer.wrap(fileTransferDataMessage.getMessage());
+                try {
+                    while (chunk.hasRemaining()) {
+                        partChannel.write(chunk);
+                    }
+                } catch (final IOException e) {
+                    throw new IllegalStateException("Failed to write to " + partFile, e);
+                }
+                partSize += fileTransferDataMessage.getMessage().length;
+            } else {
+                this.dataHolder.put(fileTransferDataMessage.getMessage());
+            }
             setRunningCrc(dataCrc);
+        }
+
+        /**
+         * Moves the complete part file to its final name.
+         *
+         * @return the downloaded file
+         */
+        private File commitPartFile() throws IOException {
+            if (partChannel == null || partFile == null)
+                throw new IllegalStateException("Download is not streamed to a file");
+
+            partChannel.force(false);
+            closePartFile();
+
+            final File outputFile = new File(partFile.getParentFile(), getFileName());
+            if (outputFile.exists() && !outputFile.delete()) {
+                throw new IOException("Failed to replace " + outputFile);
+            }
+            if (!partFile.renameTo(outputFile)) {
+                throw new IOException("Failed to rename " + partFile + " to " + outputFile);
+            }
+            return outputFile;
+        }
+
+        private void closePartFile() {
+            if (partChannel == null) {
+                return;
+            }
+            try {
+                partChannel.close();
+            } catch (final IOException e) {
+                LOG.warn("Failed to close {}", partFile, e);
+            }
+            partChannel = null;
+        }
 
-            this.dataHolder.put(fileTransferDataMessage.getMessage());
+        private void deletePartFile() {
+            closePartFile();
+            if (partFile != null && partFile.exists() && !partFile.delete()) {
+                LOG.warn("Failed to delete {}", partFile);
+            }
         }
 
         private FileTransferDataMessage take() {
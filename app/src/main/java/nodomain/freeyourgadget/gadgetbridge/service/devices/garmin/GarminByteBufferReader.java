@@ -11,6 +11,10 @@ public class GarminByteBufferReader {
         this.byteBuffer = ByteBuffer.wrap(data);
     }
 
+    public GarminByteBufferReader(ByteBuffer data) {
+        this.byteBuffer = data;
+    }
+
     public int remaining() {
         return byteBuffer.remaining();
     }
@@ -31,6 +35,10 @@ public class GarminByteBufferReader {
         return byteBuffer.position();
     }
 
+    public void skip(int size) {
+        byteBuffer.position(byteBuffer.position() + size);
+    }
+
     public int readShort() {
         return Short.toUnsignedInt(byteBuffer.getShort());
     }
@@ -79,4 +87,8 @@ public class GarminByteBufferReader {
 
         return bytes;
     }
+
+    public void readBytes(byte[] dst, int offset, int size) {
+        byteBuffer.get(dst, offset, size);
+    }
 }
@@ -128,6 +128,7 @@ public class GarminSupport extends AbstractBTLEDeviceSupport implements ICommuni
     public void dispose() {
         LOG.info("Garmin dispose()");
         GBLocationService.stop(getContext(), getDevice());
+        fileTransferHandler.dispose();
         super.dispose();
     }
 
@@ -3,11 +3,22 @@ package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit;
 import android.content.Context;
 import android.os.Handler;
 
+import androidx.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
@@ -15,9 +26,17 @@ import nodomain.freeyourgadget.gadgetbridge.devices.PendingFileProvider;
 import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 
+/**
+ * Imports fit files in a pipeline: files are parsed concurrently on a small pool of worker
+ * threads, while a single writer thread persists the results in file order, batching several
+ * files into each database transaction.
+ */
 public class FitAsyncProcessor {
     private static final Logger LOG = LoggerFactory.getLogger(FitAsyncProcessor.class);
 
+    private static final int MAX_PARSER_THREADS = 4;
+    private static final int MAX_BATCH_SIZE = 16;
+
     private final Context context;
     private final GBDevice gbDevice;
     private final Handler handler;
@@ -32,42 +51,134 @@ public class FitAsyncProcessor {
      * Process a list of files asynchronously. Callback is executed on the UI thread.
      */
     public void process(final List<File> files, final Callback callback) {
-        LOG.debug("Starting processor for {} files", files.size());
+        final int numThreads = Math.max(1, Math.min(MAX_PARSER_THREADS, Runtime.getRuntime().availableProcessors() - 1));
+
+        LOG.debug("Starting processor for {} files with {} parser threads", files.size(), numThreads);
 
         new Thread(() -> {
+            final ExecutorService parsers = Executors.newFixedThreadPool(numThreads);
+
+            // Limit how many parsed files are kept in memory while waiting for the writer
+            final int maxInFlight = numThreads * 2;
+            final Deque<Future<ParsedFile>> inFlight = new ArrayDeque<>(maxInFlight);
+            final List<ParsedFile> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
             try {
-                int i = 0;
-                for (final File file : files) {
-                    i++;
-                    LOG.debug("Parsing {}", file);
+                int submitted = 0;
+                for (int i = 0; i < files.size(); i++) {
+                    while (submitted < files.size() && inFlight.size() < maxInFlight) {
+                        final File file = files.get(submitted++);
+                        inFlight.add(parsers.submit(() -> parse(file)));
+                    }
+
+                    final File file = files.get(i);
+                    final Future<ParsedFile> future = inFlight.poll();
 
-                    final int finalI = i;
+                    final int finalI = i + 1;
                     FitAsyncProcessor.this.handler.post(() -> callback.onProgress(finalI));
 
                     try {
-                        final FitImporter fitImporter = new FitImporter(context, gbDevice);
-                        fitImporter.importFile(file);
-                    } catch (final Exception ex) {
-                        LOG.error("Exception while importing {}", file, ex);
-                        continue; // do not remove from pending files
+                        batch.add(future.get());
+                    } catch (final ExecutionException ex) {
+                        LOG.error("Exception while importing {}", file, ex.getCause());
+                        // do not remove from pending files
                     }
 
-                    try (DBHandler handler = GBApplication.acquireDB()) {
-                        final DaoSession session = handler.getDaoSession();
-
-                        final PendingFileProvider pendingFileProvider = new PendingFileProvider(gbDevice, session);
-
-                        pendingFileProvider.removePendingFile(file.getPath());
-                    } catch (final Exception e) {
-                        LOG.error("Exception while removing pending file {}", file, e);
+                    // Flush when the batch is full, or when the writer would otherwise wait for the
+                    // parsers, so that the database is not held while idle
+                    final Future<ParsedFile> next = inFlight.peek();
+                    if (batch.size() >= MAX_BATCH_SIZE || (!batch.isEmpty() && (next == null || !next.isDone()))) {
+                        persist(batch);
+                        batch.clear();
                     }
                 }
+            } catch (final InterruptedException e) {
+                LOG.warn("Interrupted while parsing from storage");
+                Thread.currentThread().interrupt();
             } catch (final Exception e) {
                 LOG.error("Failed to parse from storage", e);
+            } finally {
+                parsers.shutdownNow();
             }
 
             FitAsyncProcessor.this.handler.post(callback::onFinish);
-        }).start();
+        }, "FitAsyncProcessor").start();
+    }
+
+    private ParsedFile parse(final File file) throws IOException {
+        LOG.debug("Parsing {}", file);
+
+        final FitImporter fitImporter = new FitImporter(context, gbDevice);
+        if (fitImporter.parseFile(file)) {
+            return new ParsedFile(file, fitImporter);
+        }
+
+        // Nothing to persist, but the file was processed and should not be retried
+        return new ParsedFile(file, null);
+    }
+
+    /**
+     * Persists a batch of parsed files and removes them from the pending files, all in a single
+     * transaction. If the transaction fails, the files are persisted one by one, so that only the
+     * ones that fail on their own remain pending and will be retried.
+     */
+    private void persist(final List<ParsedFile> batch) {
+        final long start = System.currentTimeMillis();
+
+        try (DBHandler handler = GBApplication.acquireDB()) {
+            final DaoSession session = handler.getDaoSession();
+
+            try {
+                persistInTx(session, batch);
+            } catch (final Exception e) {
+                if (batch.size() == 1) {
+                    LOG.error("Exception while persisting {}", batch.get(0).file, e);
+                    session.clear();
+                    return;
+                }
+
+                LOG.warn("Exception while persisting {} files, persisting them one by one", batch.size(), e);
+                // The rolled back transaction may have left entities in the session cache
+                session.clear();
+                for (final ParsedFile parsedFile : batch) {
+                    try {
+                        persistInTx(session, Collections.singletonList(parsedFile));
+                    } catch (final Exception fileException) {
+                        LOG.error("Exception while persisting {}", parsedFile.file, fileException);
+                        session.clear();
+                    }
+                }
+            }
+        } catch (final Exception e) {
+            LOG.error("Exception while persisting {} files", batch.size(), e);
+            return;
+        }
+
+        LOG.debug("Persisted {} files in {}ms", batch.size(), System.currentTimeMillis() - start);
+    }
+
+    private void persistInTx(final DaoSession session, final List<ParsedFile> parsedFiles) {
+        final PendingFileProvider pendingFileProvider = new PendingFileProvider(gbDevice, session);
+
+        session.runInTx(() -> {
+            for (final ParsedFile parsedFile : parsedFiles) {
+                if (parsedFile.importer != null) {
+                    parsedFile.importer.persist(parsedFile.file, session);
+                }
+                pendingFileProvider.removePendingFile(parsedFile.file.getPath());
+            }
+        });
+    }
+
+    private static class ParsedFile {
+        private final File file;
+        @Nullable
+        private final FitImporter importer;
+
+        private ParsedFile(final File file, @Nullable final FitImporter importer) {
+            this.file = file;
+            this.importer = importer;
+        }
     }
 
     public interface Callback {
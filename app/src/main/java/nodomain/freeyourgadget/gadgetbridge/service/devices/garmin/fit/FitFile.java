@@ -5,12 +5,12 @@ import androidx.annotation.NonNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -18,7 +18,6 @@ import java.util.Map;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.ChecksumCalculator;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.GarminByteBufferReader;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecordDataFactory;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.messages.MessageWriter;
 
 public class FitFile {
@@ -39,37 +38,59 @@ public class FitFile {
         this.canGenerateOutput = true;
     }
 
-    private static byte[] readFileToByteArray(File file) throws IOException {
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(); InputStream inputStream = new FileInputStream(file)) {
-            byte[] buffer = new byte[1024];
-            int length;
-            while ((length = inputStream.read(buffer)) != -1) {
-                outputStream.write(buffer, 0, length);
-            }
-            return outputStream.toByteArray();
-        }
-    }
-
     public static FitFile parseIncoming(File file) throws IOException {
-        return parseIncoming(readFileToByteArray(file));
+        return parseIncoming(mapFile(file));
     }
 
-    //TODO: process file in chunks??
     public static FitFile parseIncoming(byte[] fileContents) {
+        return parseIncoming(ByteBuffer.wrap(fileContents));
+    }
+
+    public static FitFile parseIncoming(ByteBuffer fileContents) {
+        final List<RecordData> dataRecords = new ArrayList<>();
+        final Header header = visitIncoming(fileContents, record -> dataRecords.add(record.toRecordData()));
+        return new FitFile(header, dataRecords);
+    }
+
+    /**
+     * Decodes a file without keeping its records in memory. The file is memory-mapped, and each
+     * data message is passed to the visitor as a view over the mapped buffer.
+     */
+    public static Header visitIncoming(File file, RecordVisitor visitor) throws IOException {
+        return visitIncoming(mapFile(file), visitor);
+    }
 
-        final GarminByteBufferReader garminByteBufferReader = new GarminByteBufferReader(fileContents);
+    private static ByteBuffer mapFile(File file) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file); FileChannel channel = inputStream.getChannel()) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Decodes the file contents, starting at index 0 of the buffer. The records passed to the
+     * visitor are only valid during the callback.
+     */
+    public static Header visitIncoming(ByteBuffer fileContents, RecordVisitor visitor) {
+        final ByteBuffer buffer = fileContents.duplicate();
+        buffer.rewind();
+
+        final GarminByteBufferReader garminByteBufferReader = new GarminByteBufferReader(buffer);
         garminByteBufferReader.setByteOrder(ByteOrder.LITTLE_ENDIAN);
 
         final Header header = Header.parseIncomingHeader(garminByteBufferReader);
 
         // needed because the headers can be redefined in the file. The last header for a local message number wins
         Map<Integer, RecordDefinition> recordDefinitionMap = new HashMap<>();
-        List<RecordData> dataRecords = new ArrayList<>();
+        // files such as monitoring ones redefine the same messages over and over, so we only parse each distinct definition once
+        Map<ByteBuffer, RecordDefinition> internedDefinitions = new HashMap<>();
+        List<RecordData> fieldDescriptions = new ArrayList<>();
+        final RecordView recordView = new RecordView(fileContents.duplicate());
         Long referenceTimestamp = null;
 
         while (garminByteBufferReader.getPosition() < header.getHeaderSize() + header.getDataSize()) {
+            final int recordStart = garminByteBufferReader.getPosition();
             byte rawRecordHeader = (byte) garminByteBufferReader.readByte();
-            RecordHeader recordHeader = new RecordHeader(rawRecordHeader);
+            RecordHeader recordHeader = RecordHeader.fromByte(rawRecordHeader);
             final Integer timeOffset = recordHeader.getTimeOffset();
             if (timeOffset != null) {
                 if (referenceTimestamp == null) {
@@ -83,32 +104,49 @@ public class FitFile {
                 }
             }
             if (recordHeader.isDefinition()) {
-                final RecordDefinition recordDefinition = RecordDefinition.parseIncoming(garminByteBufferReader, recordHeader);
-                if (recordDefinition != null) {
-                    if (recordHeader.isDeveloperData())
-                        for (RecordData rd : dataRecords) {
-                            if (GlobalFITMessage.FIELD_DESCRIPTION.equals(rd.getGlobalFITMessage()))
-                                recordDefinition.populateDevFields(rd);
+                final RecordDefinition recordDefinition;
+                if (recordHeader.isDeveloperData()) {
+                    // developer fields depend on the field descriptions seen so far, do not intern them
+                    recordDefinition = RecordDefinition.parseIncoming(garminByteBufferReader, recordHeader);
+                    if (recordDefinition != null)
+                        for (RecordData rd : fieldDescriptions) {
+                            recordDefinition.populateDevFields(rd);
                         }
+                } else {
+                    final ByteBuffer rawDefinition = buffer.duplicate();
+                    rawDefinition.position(recordStart);
+                    rawDefinition.limit(recordStart + 1 + 5 + 3 * Byte.toUnsignedInt(buffer.get(recordStart + 5)));
+                    final RecordDefinition interned = internedDefinitions.get(rawDefinition);
+                    if (interned != null) {
+                        garminByteBufferReader.skip(rawDefinition.remaining() - 1);
+                        recordDefinition = interned;
+                    } else {
+                        recordDefinition = RecordDefinition.parseIncoming(garminByteBufferReader, recordHeader);
+                        internedDefinitions.put(rawDefinition, recordDefinition);
+                    }
+                }
+                if (recordDefinition != null) {
                     recordDefinitionMap.put(recordHeader.getLocalMessageType(), recordDefinition);
                 }
             } else {
                 final RecordDefinition referenceRecordDefinition = recordDefinitionMap.get(recordHeader.getLocalMessageType());
                 if (referenceRecordDefinition != null) {
-                    final RecordData runningData = FitRecordDataFactory.create(referenceRecordDefinition, recordHeader);
-                    dataRecords.add(runningData);
-                    Long newTimestamp = runningData.parseDataMessage(garminByteBufferReader, referenceTimestamp);
+                    Long newTimestamp = recordView.reset(referenceRecordDefinition, recordHeader, garminByteBufferReader.getPosition(), referenceTimestamp);
+                    garminByteBufferReader.skip(recordView.getSize());
                     if (newTimestamp != null)
                         referenceTimestamp = newTimestamp;
+                    if (GlobalFITMessage.FIELD_DESCRIPTION.equals(referenceRecordDefinition.getGlobalFITMessage()))
+                        fieldDescriptions.add(recordView.toRecordData());
+                    visitor.onRecord(recordView);
                 }
             }
         }
         garminByteBufferReader.setByteOrder(ByteOrder.LITTLE_ENDIAN);
         int fileCrc = garminByteBufferReader.readShort();
-        if (fileCrc != ChecksumCalculator.computeCrc(fileContents, header.getHeaderSize(), fileContents.length - header.getHeaderSize() - 2)) {
+        if (fileCrc != ChecksumCalculator.computeCrc(buffer, header.getHeaderSize(), buffer.limit() - header.getHeaderSize() - 2)) {
             throw new IllegalArgumentException("Wrong CRC for FIT file");
         }
-        return new FitFile(header, dataRecords);
+        return header;
     }
 
     public List<RecordData> getRecordsByGlobalMessage(GlobalFITMessage globalFITMessage) {
@@ -175,6 +213,10 @@ public class FitFile {
         return dataRecords.toString();
     }
 
+    public interface RecordVisitor {
+        void onRecord(RecordView record);
+    }
+
     public static class Header {
         public static final int MAGIC = 0x5449462E;
 
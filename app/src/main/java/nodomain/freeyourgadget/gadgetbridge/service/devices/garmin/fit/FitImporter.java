@@ -55,6 +55,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.User;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryParser;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.FileType;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionHrvStatus;
@@ -66,18 +67,13 @@ import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitMonitoring;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitMonitoringHrData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitMonitoringInfo;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitPhysiologicalMetrics;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecord;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRespirationRate;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSession;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSleepDataInfo;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSleepDataRaw;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSleepStage;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSleepStats;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSpo2;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitSport;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitStressLevel;
-import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitTimeInZone;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
 
 public class FitImporter {
@@ -102,6 +98,7 @@ public class FitImporter {
     private FitSleepDataInfo fitSleepDataInfo = null;
     private final List<FitSleepDataRaw> fitSleepDataRawSamples = new ArrayList<>();
     private FitFileId fileId = null;
+    private Long lastMonitoringTimestamp = null;
 
     private final GarminWorkoutParser workoutParser;
 
@@ -111,267 +108,296 @@ public class FitImporter {
         this.workoutParser = new GarminWorkoutParser(context);
     }
 
+    public void importFile(final File file) throws IOException {
+        if (!parseFile(file)) {
+            return;
+        }
+
+        try (DBHandler handler = GBApplication.acquireDB()) {
+            persist(file, handler.getDaoSession());
+        } catch (final Exception e) {
+            GB.toast(context, "Error saving samples", Toast.LENGTH_LONG, GB.ERROR, e);
+        }
+    }
+
     /**
+     * Parses a file into memory, without touching the database. This is safe to run concurrently,
+     * as long as each thread uses its own importer.
+     *
+     * @return true if the file was parsed and can be persisted with {@link #persist(File, DaoSession)}
      * @noinspection StatementWithEmptyBody
      */
-    public void importFile(final File file) throws IOException {
+    public boolean parseFile(final File file) throws IOException {
         reset();
 
-        final FitFile fitFile = FitFile.parseIncoming(file);
-
-        Long lastMonitoringTimestamp = null;
-
-        for (final RecordData record : fitFile.getRecords()) {
+        // Records are handled as they are decoded, so the file is never held in memory as a whole
+        FitFile.visitIncoming(file, recordView -> {
             if (fileId != null && fileId.getType() == FileType.FILETYPE.ACTIVITY) {
-                if (workoutParser.handleRecord(record)) {
-                    continue;
+                // The workout parser keeps the records it handles
+                if (workoutParser.handleRecord(recordView.toRecordData())) {
+                    return;
                 }
             }
 
-            final Long ts = record.getComputedTimestamp();
-
-            if (record instanceof FitFileId) {
-                final FitFileId newFileId = (FitFileId) record;
-                LOG.debug("File ID: {}", newFileId);
-                if (fileId != null) {
-                    // Should not happen
-                    LOG.warn("Already had a file ID: {}", fileId);
-                }
-                fileId = newFileId;
-            } else if (record instanceof FitStressLevel) {
-                final FitStressLevel stressRecord = (FitStressLevel) record;
-                final Integer stress = stressRecord.getStressLevelValue();
-                if (stress != null && stress >= 0) {
-                    LOG.trace("Stress at {}: {}", ts, stress);
-                    final GarminStressSample sample = new GarminStressSample();
-                    sample.setTimestamp(ts * 1000L);
-                    sample.setStress(stress);
-                    stressSamples.add(sample);
-                }
-
-                final Integer energy = stressRecord.getBodyEnergy();
-                if (energy != null) {
-                    LOG.trace("Body energy at {}: {}", ts, energy);
-                    final GarminBodyEnergySample sample = new GarminBodyEnergySample();
-                    sample.setTimestamp(ts * 1000L);
-                    sample.setEnergy(energy);
-                    bodyEnergySamples.add(sample);
-                }
-            } else if (record instanceof FitSleepDataInfo) {
-                final FitSleepDataInfo newFitSleepDataInfo = (FitSleepDataInfo) record;
-                LOG.debug("Sleep Data Info: {}", newFitSleepDataInfo);
-                if (fitSleepDataInfo != null) {
-                    // Should not happen
-                    LOG.warn("Already had sleep data info: {}", fitSleepDataInfo);
-                }
-                fitSleepDataInfo = newFitSleepDataInfo;
-            } else if (record instanceof FitSleepDataRaw) {
-                final FitSleepDataRaw fitSleepDataRaw = (FitSleepDataRaw) record;
-                //LOG.debug("Sleep Data Raw: {}", fitSleepDataRaw);
-                fitSleepDataRawSamples.add(fitSleepDataRaw);
-            } else if (record instanceof FitSleepStats) {
-                final Integer score = ((FitSleepStats) record).getOverallSleepScore();
-                if (score == null) {
-                    continue;
-                }
-                LOG.trace("Sleep stats at {}: {}", ts, record);
-                final GarminSleepStatsSample sample = new GarminSleepStatsSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setSleepScore(score);
-                sleepStatsSamples.add(sample);
-            } else if (record instanceof FitSleepStage) {
-                final FieldDefinitionSleepStage.SleepStage stage = ((FitSleepStage) record).getSleepStage();
-                if (stage == null) {
-                    continue;
-                }
-                LOG.trace("Sleep stage at {}: {}", ts, record);
-                final GarminSleepStageSample sample = new GarminSleepStageSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setStage(stage.getId());
-                sleepStageSamples.add(sample);
-            } else if (record instanceof FitMonitoring) {
-                LOG.trace("Monitoring at {}: {}", ts, record);
-                final FitMonitoring monitoringRecord = (FitMonitoring) record;
-                final Long currentMonitoringTimestamp = monitoringRecord.computeTimestamp(lastMonitoringTimestamp);
-                if (!activitySamplesPerTimestamp.containsKey(currentMonitoringTimestamp)) {
-                    activitySamplesPerTimestamp.put(currentMonitoringTimestamp, new ArrayList<>());
-                }
-                Objects.requireNonNull(activitySamplesPerTimestamp.get(currentMonitoringTimestamp)).add(monitoringRecord);
-                lastMonitoringTimestamp = currentMonitoringTimestamp;
-            } else if (record instanceof FitSpo2) {
-                final Integer spo2 = ((FitSpo2) record).getReadingSpo2();
-                if (spo2 == null || spo2 <= 0) {
-                    continue;
-                }
-                LOG.trace("SpO2 at {}: {}", ts, spo2);
-                final GarminSpo2Sample sample = new GarminSpo2Sample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setSpo2(spo2);
-                spo2samples.add(sample);
-            } else if (record instanceof FitRespirationRate) {
-                final Float respiratoryRate = ((FitRespirationRate) record).getRespirationRate();
-                if (respiratoryRate == null || respiratoryRate <= 0) {
-                    continue;
-                }
-                LOG.trace("Respiratory rate at {}: {}", ts, respiratoryRate);
-                final GarminRespiratoryRateSample sample = new GarminRespiratoryRateSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setRespiratoryRate(respiratoryRate);
-                respiratoryRateSamples.add(sample);
-            } else if (record instanceof FitEvent) {
-                final FitEvent event = (FitEvent) record;
-                if (event.getEvent() == null) {
-                    LOG.warn("Event in {} is null", event);
-                    continue;
-                }
-
-                LOG.trace("Event at {}: {}", ts, event);
-
-                final GarminEventSample sample = new GarminEventSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setEvent(event.getEvent());
-                if (event.getEventType() != null) {
-                    sample.setEventType(event.getEventType());
-                }
-                if (event.getData() != null) {
-                    sample.setData(event.getData());
-                }
-                events.add(sample);
-            } else if (record instanceof FitRecord) {
-                // handled in workout parser
-            } else if (record instanceof FitSession) {
-                // handled in workout parser
-            } else if (record instanceof FitPhysiologicalMetrics) {
-                // handled in workout parser
-            } else if (record instanceof FitSport) {
-                // handled in workout parser
-            } else if (record instanceof FitTimeInZone) {
-                // handled in workout parser
-            } else if (record instanceof FitHrvSummary) {
-                final FitHrvSummary hrvSummary = (FitHrvSummary) record;
-                LOG.trace("HRV summary at {}: {}", ts, record);
-                final GarminHrvSummarySample sample = new GarminHrvSummarySample();
-                sample.setTimestamp(ts * 1000L);
-                if (hrvSummary.getWeeklyAverage() != null) {
-                    sample.setWeeklyAverage(Math.round(hrvSummary.getWeeklyAverage()));
-                }
-                if (hrvSummary.getLastNightAverage() != null) {
-                    sample.setLastNightAverage(Math.round(hrvSummary.getLastNightAverage()));
-                }
-                if (hrvSummary.getLastNight5MinHigh() != null) {
-                    sample.setLastNight5MinHigh(Math.round(hrvSummary.getLastNight5MinHigh()));
-                }
-                if (hrvSummary.getBaselineLowUpper() != null) {
-                    sample.setBaselineLowUpper(Math.round(hrvSummary.getBaselineLowUpper()));
-                }
-                if (hrvSummary.getBaselineBalancedLower() != null) {
-                    sample.setBaselineBalancedLower(Math.round(hrvSummary.getBaselineBalancedLower()));
-                }
-                if (hrvSummary.getBaselineBalancedUpper() != null) {
-                    sample.setBaselineBalancedUpper(Math.round(hrvSummary.getBaselineBalancedUpper()));
-                }
-                final FieldDefinitionHrvStatus.HrvStatus status = hrvSummary.getStatus();
-                if (status != null) {
-                    sample.setStatusNum(status.getId());
-                }
-                hrvSummarySamples.add(sample);
-            } else if (record instanceof FitHrvValue) {
-                final FitHrvValue hrvValue = (FitHrvValue) record;
-                if (hrvValue.getValue() == null) {
-                    LOG.warn("HRV value at {} is null", ts);
-                    continue;
-                }
-                LOG.trace("HRV value at {}: {}", ts, hrvValue.getValue());
-                final GarminHrvValueSample sample = new GarminHrvValueSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setValue(Math.round(hrvValue.getValue()));
-                hrvValueSamples.add(sample);
-            } else if (record instanceof FitMonitoringInfo) {
-                final FitMonitoringInfo monitoringInfo = (FitMonitoringInfo) record;
-                if (monitoringInfo.getRestingMetabolicRate() == null) {
-                    continue;
-                }
-                LOG.trace("Monitoring info at {}: {}", ts, record);
-                final GarminRestingMetabolicRateSample sample = new GarminRestingMetabolicRateSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setRestingMetabolicRate(monitoringInfo.getRestingMetabolicRate());
-                restingMetabolicRateSamples.add(sample);
-            } else if (record instanceof FitMonitoringHrData) {
-                final FitMonitoringHrData monitoringHrData = (FitMonitoringHrData) record;
-                if (monitoringHrData.getRestingHeartRate() == null) {
-                    LOG.warn("Resting HR at {} is null", ts);
-                    continue;
-                }
-                LOG.trace("Resting HR at {}: {}", ts, monitoringHrData.getRestingHeartRate());
-                final GarminHeartRateRestingSample sample = new GarminHeartRateRestingSample();
-                sample.setTimestamp(ts * 1000L);
-                sample.setHeartRate(monitoringHrData.getRestingHeartRate());
-                restingHrSamples.add(sample);
-            } else {
-                LOG.trace("Unknown record: {}", record);
-
-                if (!unknownRecords.containsKey(record.getGlobalFITMessage().getNumber())) {
-                    unknownRecords.put(record.getGlobalFITMessage().getNumber(), 0);
-                }
-                unknownRecords.put(
-                        record.getGlobalFITMessage().getNumber(),
-                        Objects.requireNonNull(unknownRecords.get(record.getGlobalFITMessage().getNumber())) + 1
-                );
-            }
-        }
+            handleRecord(recordView);
+        });
 
         if (fileId == null) {
             LOG.error("Got no file ID");
-            return;
+            return false;
         }
         if (fileId.getType() == null) {
             LOG.error("File has no type");
-            return;
+            return false;
         }
 
-        try (DBHandler handler = GBApplication.acquireDB()) {
-            final DaoSession session = handler.getDaoSession();
-
-            switch (fileId.getType()) {
-                case ACTIVITY:
-                    persistWorkout(file, session);
-                    break;
-                case MONITOR:
-                    persistActivitySamples(session);
-                    persistAbstractSamples(spo2samples, new GarminSpo2SampleProvider(gbDevice, session));
-                    persistAbstractSamples(respiratoryRateSamples, new GarminRespiratoryRateSampleProvider(gbDevice, session));
-                    persistAbstractSamples(restingHrSamples, new GarminHeartRateRestingSampleProvider(gbDevice, session));
-                    persistAbstractSamples(stressSamples, new GarminStressSampleProvider(gbDevice, session));
-                    persistAbstractSamples(bodyEnergySamples, new GarminBodyEnergySampleProvider(gbDevice, session));
-                    persistAbstractSamples(restingMetabolicRateSamples, new GarminRestingMetabolicRateSampleProvider(gbDevice, session));
-                    break;
-                case SLEEP:
-                    persistAbstractSamples(events, new GarminEventSampleProvider(gbDevice, session));
-                    persistAbstractSamples(sleepStatsSamples, new GarminSleepStatsSampleProvider(gbDevice, session));
-
-                    // We may have samples, but not sleep samples - #4048
-                    // 0 unmeasurable, 1 awake
-                    final boolean anySleepSample = sleepStageSamples.stream()
-                            .anyMatch(s -> s.getStage() != 0 && s.getStage() != 1);
-                    if (anySleepSample) {
-                        persistAbstractSamples(sleepStageSamples, new GarminSleepStageSampleProvider(gbDevice, session));
-                    }
-
-                    processRawSleepSamples(session);
-                    break;
-                case HRV_STATUS:
-                    persistAbstractSamples(hrvSummarySamples, new GarminHrvSummarySampleProvider(gbDevice, session));
-                    persistAbstractSamples(hrvValueSamples, new GarminHrvValueSampleProvider(gbDevice, session));
-                    break;
-                default:
-                    LOG.warn("Unable to handle fit file of type {}", fileId.getType());
+        for (final Map.Entry<Integer, Integer> e : unknownRecords.entrySet()) {
+            LOG.warn("Unknown record of global number {} seen {} times", e.getKey(), e.getValue());
+        }
+
+        return true;
+    }
+
+    /**
+     * Only the records that are kept until they are persisted are copied out of the view. The
+     * fields of the others are read straight from it, through the static accessors of the
+     * matching {@link RecordData} subclasses.
+     */
+    private void handleRecord(final RecordView recordView) {
+        final GlobalFITMessage message = recordView.getGlobalFITMessage();
+        final Long ts = recordView.getComputedTimestamp();
+
+        if (GlobalFITMessage.FILE_ID.equals(message)) {
+            final FitFileId newFileId = (FitFileId) recordView.toRecordData();
+            LOG.debug("File ID: {}", newFileId);
+            if (fileId != null) {
+                // Should not happen
+                LOG.warn("Already had a file ID: {}", fileId);
             }
-        } catch (final Exception e) {
-            GB.toast(context, "Error saving samples", Toast.LENGTH_LONG, GB.ERROR, e);
+            fileId = newFileId;
+        } else if (GlobalFITMessage.STRESS_LEVEL.equals(message)) {
+            // see FitStressLevel#getComputedTimestamp
+            final Long stressTime = FitStressLevel.getStressLevelTime(recordView);
+            final long stressTs = stressTime != null ? stressTime : ts;
+
+            final Integer stress = FitStressLevel.getStressLevelValue(recordView);
+            if (stress != null && stress >= 0) {
+                LOG.trace("Stress at {}: {}", stressTs, stress);
+                final GarminStressSample sample = new GarminStressSample();
+                sample.setTimestamp(stressTs * 1000L);
+                sample.setStress(stress);
+                stressSamples.add(sample);
+            }
+
+            final Integer energy = FitStressLevel.getBodyEnergy(recordView);
+            if (energy != null) {
+                LOG.trace("Body energy at {}: {}", stressTs, energy);
+                final GarminBodyEnergySample sample = new GarminBodyEnergySample();
+                sample.setTimestamp(stressTs * 1000L);
+                sample.setEnergy(energy);
+                bodyEnergySamples.add(sample);
+            }
+        } else if (GlobalFITMessage.SLEEP_DATA_INFO.equals(message)) {
+            final FitSleepDataInfo newFitSleepDataInfo = (FitSleepDataInfo) recordView.toRecordData();
+            LOG.debug("Sleep Data Info: {}", newFitSleepDataInfo);
+            if (fitSleepDataInfo != null) {
+                // Should not happen
+                LOG.warn("Already had sleep data info: {}", fitSleepDataInfo);
+            }
+            fitSleepDataInfo = newFitSleepDataInfo;
+        } else if (GlobalFITMessage.SLEEP_DATA_RAW.equals(message)) {
+            fitSleepDataRawSamples.add((FitSleepDataRaw) recordView.toRecordData());
+        } else if (GlobalFITMessage.SLEEP_STATS.equals(message)) {
+            final Integer score = FitSleepStats.getOverallSleepScore(recordView);
+            if (score == null) {
+                return;
+            }
+            LOG.trace("Sleep stats at {}: {}", ts, recordView);
+            final GarminSleepStatsSample sample = new GarminSleepStatsSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setSleepScore(score);
+            sleepStatsSamples.add(sample);
+        } else if (GlobalFITMessage.SLEEP_STAGE.equals(message)) {
+            final FieldDefinitionSleepStage.SleepStage stage = FitSleepStage.getSleepStage(recordView);
+            if (stage == null) {
+                return;
+            }
+            LOG.trace("Sleep stage at {}: {}", ts, stage);
+            final GarminSleepStageSample sample = new GarminSleepStageSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setStage(stage.getId());
+            sleepStageSamples.add(sample);
+        } else if (GlobalFITMessage.MONITORING.equals(message)) {
+            final FitMonitoring monitoringRecord = (FitMonitoring) recordView.toRecordData();
+            LOG.trace("Monitoring at {}: {}", ts, monitoringRecord);
+            final Long currentMonitoringTimestamp = monitoringRecord.computeTimestamp(lastMonitoringTimestamp);
+            if (!activitySamplesPerTimestamp.containsKey(currentMonitoringTimestamp)) {
+                activitySamplesPerTimestamp.put(currentMonitoringTimestamp, new ArrayList<>());
+            }
+            Objects.requireNonNull(activitySamplesPerTimestamp.get(currentMonitoringTimestamp)).add(monitoringRecord);
+            lastMonitoringTimestamp = currentMonitoringTimestamp;
+        } else if (GlobalFITMessage.SPO2.equals(message)) {
+            final Integer spo2 = FitSpo2.getReadingSpo2(recordView);
+            if (spo2 == null || spo2 <= 0) {
+                return;
+            }
+            LOG.trace("SpO2 at {}: {}", ts, spo2);
+            final GarminSpo2Sample sample = new GarminSpo2Sample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setSpo2(spo2);
+            spo2samples.add(sample);
+        } else if (GlobalFITMessage.RESPIRATION_RATE.equals(message)) {
+            final Float respiratoryRate = FitRespirationRate.getRespirationRate(recordView);
+            if (respiratoryRate == null || respiratoryRate <= 0) {
+                return;
+            }
+            LOG.trace("Respiratory rate at {}: {}", ts, respiratoryRate);
+            final GarminRespiratoryRateSample sample = new GarminRespiratoryRateSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setRespiratoryRate(respiratoryRate);
+            respiratoryRateSamples.add(sample);
+        } else if (GlobalFITMessage.EVENT.equals(message)) {
+            final Integer event = FitEvent.getEvent(recordView);
+            if (event == null) {
+                LOG.warn("Event in {} is null", recordView);
+                return;
+            }
+
+            LOG.trace("Event at {}: {}", ts, recordView);
+
+            final GarminEventSample sample = new GarminEventSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setEvent(event);
+            final Integer eventType = FitEvent.getEventType(recordView);
+            if (eventType != null) {
+                sample.setEventType(eventType);
+            }
+            final Long data = FitEvent.getData(recordView);
+            if (data != null) {
+                sample.setData(data);
+            }
+            events.add(sample);
+        } else if (GlobalFITMessage.RECORD.equals(message)
+                || GlobalFITMessage.SESSION.equals(message)
+                || GlobalFITMessage.PHYSIOLOGICAL_METRICS.equals(message)
+                || GlobalFITMessage.SPORT.equals(message)
+                || GlobalFITMessage.TIME_IN_ZONE.equals(message)) {
+            // handled in workout parser
+        } else if (GlobalFITMessage.HRV_SUMMARY.equals(message)) {
+            LOG.trace("HRV summary at {}: {}", ts, recordView);
+            final GarminHrvSummarySample sample = new GarminHrvSummarySample();
+            sample.setTimestamp(ts * 1000L);
+            final Float weeklyAverage = FitHrvSummary.getWeeklyAverage(recordView);
+            if (weeklyAverage != null) {
+                sample.setWeeklyAverage(Math.round(weeklyAverage));
+            }
+            final Float lastNightAverage = FitHrvSummary.getLastNightAverage(recordView);
+            if (lastNightAverage != null) {
+                sample.setLastNightAverage(Math.round(lastNightAverage));
+            }
+            final Float lastNight5MinHigh = FitHrvSummary.getLastNight5MinHigh(recordView);
+            if (lastNight5MinHigh != null) {
+                sample.setLastNight5MinHigh(Math.round(lastNight5MinHigh));
+            }
+            final Float baselineLowUpper = FitHrvSummary.getBaselineLowUpper(recordView);
+            if (baselineLowUpper != null) {
+                sample.setBaselineLowUpper(Math.round(baselineLowUpper));
+            }
+            final Float baselineBalancedLower = FitHrvSummary.getBaselineBalancedLower(recordView);
+            if (baselineBalancedLower != null) {
+                sample.setBaselineBalancedLower(Math.round(baselineBalancedLower));
+            }
+            final Float baselineBalancedUpper = FitHrvSummary.getBaselineBalancedUpper(recordView);
+            if (baselineBalancedUpper != null) {
+                sample.setBaselineBalancedUpper(Math.round(baselineBalancedUpper));
+            }
+            final FieldDefinitionHrvStatus.HrvStatus status = FitHrvSummary.getStatus(recordView);
+            if (status != null) {
+                sample.setStatusNum(status.getId());
+            }
+            hrvSummarySamples.add(sample);
+        } else if (GlobalFITMessage.HRV_VALUE.equals(message)) {
+            final Float hrvValue = FitHrvValue.getValue(recordView);
+            if (hrvValue == null) {
+                LOG.warn("HRV value at {} is null", ts);
+                return;
+            }
+            LOG.trace("HRV value at {}: {}", ts, hrvValue);
+            final GarminHrvValueSample sample = new GarminHrvValueSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setValue(Math.round(hrvValue));
+            hrvValueSamples.add(sample);
+        } else if (GlobalFITMessage.MONITORING_INFO.equals(message)) {
+            final Integer restingMetabolicRate = FitMonitoringInfo.getRestingMetabolicRate(recordView);
+            if (restingMetabolicRate == null) {
+                return;
+            }
+            LOG.trace("Monitoring info at {}: {}", ts, recordView);
+            final GarminRestingMetabolicRateSample sample = new GarminRestingMetabolicRateSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setRestingMetabolicRate(restingMetabolicRate);
+            restingMetabolicRateSamples.add(sample);
+        } else if (GlobalFITMessage.MONITORING_HR_DATA.equals(message)) {
+            final Integer restingHeartRate = FitMonitoringHrData.getRestingHeartRate(recordView);
+            if (restingHeartRate == null) {
+                LOG.warn("Resting HR at {} is null", ts);
+                return;
+            }
+            LOG.trace("Resting HR at {}: {}", ts, restingHeartRate);
+            final GarminHeartRateRestingSample sample = new GarminHeartRateRestingSample();
+            sample.setTimestamp(ts * 1000L);
+            sample.setHeartRate(restingHeartRate);
+            restingHrSamples.add(sample);
+        } else {
+            LOG.trace("Unknown record: {}", recordView);
+
+            if (!unknownRecords.containsKey(message.getNumber())) {
+                unknownRecords.put(message.getNumber(), 0);
+            }
+            unknownRecords.put(
+                    message.getNumber(),
+                    Objects.requireNonNull(unknownRecords.get(message.getNumber())) + 1
+            );
         }
+    }
 
-        for (final Map.Entry<Integer, Integer> e : unknownRecords.entrySet()) {
-            LOG.warn("Unknown record of global number {} seen {} times", e.getKey(), e.getValue());
+    /**
+     * Persists the samples of the last file parsed by {@link #parseFile(File)}.
+     */
+    public void persist(final File file, final DaoSession session) {
+        switch (fileId.getType()) {
+            case ACTIVITY:
+                persistWorkout(file, session);
+                break;
+            case MONITOR:
+                persistActivitySamples(session);
+                persistAbstractSamples(spo2samples, new GarminSpo2SampleProvider(gbDevice, session));
+                persistAbstractSamples(respiratoryRateSamples, new GarminRespiratoryRateSampleProvider(gbDevice, session));
+                persistAbstractSamples(restingHrSamples, new GarminHeartRateRestingSampleProvider(gbDevice, session));
+                persistAbstractSamples(stressSamples, new GarminStressSampleProvider(gbDevice, session));
+                persistAbstractSamples(bodyEnergySamples, new GarminBodyEnergySampleProvider(gbDevice, session));
+                persistAbstractSamples(restingMetabolicRateSamples, new GarminRestingMetabolicRateSampleProvider(gbDevice, session));
+                break;
+            case SLEEP:
+                persistAbstractSamples(events, new GarminEventSampleProvider(gbDevice, session));
+                persistAbstractSamples(sleepStatsSamples, new GarminSleepStatsSampleProvider(gbDevice, session));
+
+                // We may have samples, but not sleep samples - #4048
+                // 0 unmeasurable, 1 awake
+                final boolean anySleepSample = sleepStageSamples.stream()
+                        .anyMatch(s -> s.getStage() != 0 && s.getStage() != 1);
+                if (anySleepSample) {
+                    persistAbstractSamples(sleepStageSamples, new GarminSleepStageSampleProvider(gbDevice, session));
+                }
+
+                processRawSleepSamples(session);
+                break;
+            case HRV_STATUS:
+                persistAbstractSamples(hrvSummarySamples, new GarminHrvSummarySampleProvider(gbDevice, session));
+                persistAbstractSamples(hrvValueSamples, new GarminHrvValueSampleProvider(gbDevice, session));
+                break;
+            default:
+                LOG.warn("Unable to handle fit file of type {}", fileId.getType());
         }
     }
 
@@ -393,6 +419,7 @@ public class FitImporter {
         }
 
         workoutParser.updateSummary(summary);
+        ActivitySummaryMetrics.update(summary);
 
         summary.setRawDetailsPath(file.getAbsolutePath());
 
@@ -426,6 +453,7 @@ public class FitImporter {
         fitSleepDataInfo = null;
         fitSleepDataRawSamples.clear();
         fileId = null;
+        lastMonitoringTimestamp = null;
         workoutParser.reset();
     }
 
@@ -565,7 +593,7 @@ public class FitImporter {
                 sample.setUser(user);
             }
 
-            sampleProvider.addGBActivitySamples(activitySamples.toArray(new GarminActivitySample[0]));
+            sampleProvider.addGBActivitySamplesBulk(activitySamples, false);
         } catch (final Exception e) {
             GB.toast(context, "Error saving activity samples", Toast.LENGTH_LONG, GB.ERROR, e);
         }
@@ -653,7 +681,7 @@ public class FitImporter {
                 sample.setUser(user);
             }
 
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(context, "Error saving samples", Toast.LENGTH_LONG, GB.ERROR, e);
         }
@@ -1,10 +1,10 @@
 package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
@@ -18,12 +18,14 @@ import static nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.ba
 
 import org.apache.commons.lang3.StringUtils;
 
-public class RecordData {
+public class RecordData implements RecordFields {
 
     private final RecordDefinition recordDefinition;
     private final RecordHeader recordHeader;
     private final GlobalFITMessage globalFITMessage;
     private final List<FieldData> fieldDataList;
+    @Nullable
+    private final FieldData timestampField;
     protected ByteBuffer valueHolder;
 
     /**
@@ -38,37 +40,14 @@ public class RecordData {
         if (null == recordDefinition.getFieldDefinitions())
             throw new IllegalArgumentException("Cannot create record data without FieldDefinitions " + recordDefinition);
 
-        fieldDataList = new ArrayList<>();
-
         this.recordDefinition = recordDefinition;
         this.recordHeader = recordHeader;
         this.globalFITMessage = recordDefinition.getGlobalFITMessage();
 
-        int totalSize = 0;
-
-        for (FieldDefinition fieldDef :
-                recordDefinition.getFieldDefinitions()) {
-            fieldDataList.add(new FieldData(fieldDef, totalSize));
-            totalSize += fieldDef.getSize();
-        }
-
-        if (recordDefinition.getDevFieldDefinitions() != null) {
-            for (DevFieldDefinition fieldDef :
-                    recordDefinition.getDevFieldDefinitions()) {
-                FieldDefinition temp = new FieldDefinition(fieldDef.getFieldDefinitionNumber(), fieldDef.getSize(), fieldDef.getBaseType(), fieldDef.getName());
-                fieldDataList.add(new FieldData(temp, totalSize));
-                totalSize += fieldDef.getSize();
-            }
-        }
-
-        this.valueHolder = ByteBuffer.allocate(totalSize);
-        valueHolder.order(recordDefinition.getByteOrder());
-
-        for (FieldData fieldData :
-                fieldDataList) {
-            fieldData.invalidate();
-        }
-
+        final RecordLayout layout = recordDefinition.getLayout();
+        this.fieldDataList = layout.getFields();
+        this.timestampField = layout.getTimestampField();
+        this.valueHolder = layout.newValueHolder();
     }
 
     public GlobalFITMessage getGlobalFITMessage() {
@@ -81,16 +60,28 @@ public class RecordData {
 
     public Long parseDataMessage(final GarminByteBufferReader garminByteBufferReader, final Long currentTimestamp) {
         garminByteBufferReader.setByteOrder(valueHolder.order());
+        garminByteBufferReader.readBytes(valueHolder.array(), 0, valueHolder.capacity());
+        return updateComputedTimestamp(currentTimestamp);
+    }
+
+    /**
+     * Copies an already decoded data message from the current position of the source buffer.
+     */
+    void copyDataMessage(final ByteBuffer source, final Long computedTimestamp) {
+        source.get(valueHolder.array(), 0, valueHolder.capacity());
+        this.computedTimestamp = computedTimestamp;
+    }
+
+    private Long updateComputedTimestamp(final Long currentTimestamp) {
         computedTimestamp = currentTimestamp;
-        Long referenceTimestamp = null;
-        for (FieldData fieldData : fieldDataList) {
-            Long runningTimestamp = fieldData.parseDataMessage(garminByteBufferReader);
-            if (runningTimestamp != null) {
-                computedTimestamp = runningTimestamp;
-                referenceTimestamp = runningTimestamp;
-            }
+        if (timestampField == null) {
+            return null;
+        }
+        final Long runningTimestamp = (Long) timestampField.decode(valueHolder);
+        if (runningTimestamp != null) {
+            computedTimestamp = runningTimestamp;
         }
-        return referenceTimestamp;
+        return runningTimestamp;
     }
 
     public void generateOutgoingDataPayload(MessageWriter writer) {
@@ -103,7 +94,7 @@ public class RecordData {
         for (FieldData fieldData :
                 fieldDataList) {
             if (fieldData.getNumber() == number) {
-                fieldData.encode(value);
+                fieldData.encode(valueHolder, value);
                 found = true;
                 break;
             }
@@ -118,7 +109,7 @@ public class RecordData {
         for (FieldData fieldData :
                 fieldDataList) {
             if (fieldData.getName().equals(name)) {
-                fieldData.encode(value);
+                fieldData.encode(valueHolder, value);
                 found = true;
                 break;
             }
@@ -132,7 +123,7 @@ public class RecordData {
         for (FieldData fieldData :
                 fieldDataList) {
             if (fieldData.getNumber() == number) {
-                return fieldData.decode();
+                return fieldData.decode(valueHolder);
             }
         }
         return null;
@@ -142,7 +133,7 @@ public class RecordData {
         for (FieldData fieldData :
                 fieldDataList) {
             if (fieldData.getName().equals(name)) {
-                return fieldData.decode();
+                return fieldData.decode(valueHolder);
             }
         }
         return null;
@@ -182,7 +173,7 @@ public class RecordData {
             } else {
                 fieldName = "unknown_" + fieldData.getNumber() + fieldData;
             }
-            Object o = fieldData.decode();
+            Object o = fieldData.decode(valueHolder);
             final String fieldValueString;
             if (o == null) {
                 fieldValueString = null;
@@ -196,29 +187,33 @@ public class RecordData {
         return tsb.build();
     }
 
-    private class FieldData {
+    /**
+     * Position and definition of a field inside the value holder. These are immutable and shared by
+     * all records of the same {@link RecordDefinition}, see {@link RecordLayout}.
+     */
+    static final class FieldData {
         private final FieldDefinition fieldDefinition;
         private final int position;
         private final int size;
         private final int baseSize;
 
-        public FieldData(FieldDefinition fieldDefinition, int position) {
+        FieldData(FieldDefinition fieldDefinition, int position) {
             this.fieldDefinition = fieldDefinition;
             this.position = position;
             this.size = fieldDefinition.getSize();
             this.baseSize = fieldDefinition.getBaseType().getSize();
         }
 
-        private String getName() {
+        String getName() {
             return fieldDefinition.getName();
         }
 
-        private int getNumber() {
+        int getNumber() {
             return fieldDefinition.getNumber();
         }
 
-        private void invalidate() {
-            goToPosition();
+        void invalidate(ByteBuffer valueHolder) {
+            goToPosition(valueHolder, 0);
             if (STRING.equals(fieldDefinition.getBaseType())) {
                 for (int i = 0; i < size; i++) {
                     valueHolder.put((byte) 0);
@@ -230,23 +225,15 @@ public class RecordData {
             }
         }
 
-        private void goToPosition() {
-            valueHolder.position(position);
+        private void goToPosition(ByteBuffer valueHolder, int base) {
+            valueHolder.position(base + position);
         }
 
-        private Long parseDataMessage(GarminByteBufferReader garminByteBufferReader) {
-            goToPosition();
-            valueHolder.put(garminByteBufferReader.readBytes(size));
-            if (fieldDefinition.getNumber() == 253)
-                return (Long) decode();
-            return null;
-        }
-
-        private void encode(Object... objects) {
+        private void encode(ByteBuffer valueHolder, Object... objects) {
             if (objects[0] instanceof boolean[] || objects[0] instanceof short[] || objects[0] instanceof int[] || objects[0] instanceof long[] || objects[0] instanceof float[] || objects[0] instanceof double[]) {
                 throw new IllegalArgumentException("Array of primitive types not supported, box them to objects");
             }
-            goToPosition();
+            goToPosition(valueHolder, 0);
             final int slots = size / baseSize;
             int i = 0;
             for (Object o : objects) {
@@ -263,8 +250,15 @@ public class RecordData {
             }
         }
 
-        private Object decode() {
-            goToPosition();
+        Object decode(ByteBuffer valueHolder) {
+            return decode(valueHolder, 0);
+        }
+
+        /**
+         * Decodes the field of a data message that starts at the given index of the buffer.
+         */
+        Object decode(ByteBuffer valueHolder, int base) {
+            goToPosition(valueHolder, base);
             if (STRING.equals(fieldDefinition.getBaseType())) {
                 final byte[] bytes = new byte[size];
                 valueHolder.get(bytes);
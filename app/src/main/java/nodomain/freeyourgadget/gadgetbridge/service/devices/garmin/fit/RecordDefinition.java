@@ -17,6 +17,7 @@ public class RecordDefinition {
     private final java.nio.ByteOrder byteOrder;
     private List<FieldDefinition> fieldDefinitions;
     private List<DevFieldDefinition> devFieldDefinitions;
+    private RecordLayout layout;
 
     public RecordDefinition(RecordHeader recordHeader, ByteOrder byteOrder, GlobalFITMessage globalFITMessage, List<FieldDefinition> fieldDefinitions, List<DevFieldDefinition> devFieldDefinitions) {
         this.recordHeader = recordHeader;
@@ -73,6 +74,7 @@ public class RecordDefinition {
 
     public void setDevFieldDefinitions(List<DevFieldDefinition> devFieldDefinitions) {
         this.devFieldDefinitions = devFieldDefinitions;
+        this.layout = null;
     }
 
     public RecordHeader getRecordHeader() {
@@ -86,6 +88,14 @@ public class RecordDefinition {
 
     public void setFieldDefinitions(List<FieldDefinition> fieldDefinitions) {
         this.fieldDefinitions = fieldDefinitions;
+        this.layout = null;
+    }
+
+    RecordLayout getLayout() {
+        if (layout == null) {
+            layout = new RecordLayout(this);
+        }
+        return layout;
     }
 
     public void generateOutgoingPayload(MessageWriter writer) {
@@ -117,6 +127,7 @@ public class RecordDefinition {
                     BaseType baseType = BaseType.fromIdentifier((int) recordData.getFieldByName("fit_base_type_id"));
                     devFieldDef.setBaseType(baseType);
                     devFieldDef.setName((String) recordData.getFieldByName("field_name"));
+                    layout = null;
                 }
             } catch (Exception e) {
                 //ignore
@@ -0,0 +1,12 @@
+package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit;
+
+import androidx.annotation.Nullable;
+
+/**
+ * The decoded fields of a data message, read by the static accessors of the generated
+ * {@link RecordData} subclasses.
+ */
+public interface RecordFields {
+    @Nullable
+    Object getFieldByNumber(int number);
+}
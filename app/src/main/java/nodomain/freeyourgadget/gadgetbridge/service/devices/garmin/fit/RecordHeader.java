@@ -5,6 +5,15 @@ import androidx.annotation.Nullable;
 
 
 public class RecordHeader {
+    // Headers are immutable and there are only 256 of them, so parsing can share them
+    private static final RecordHeader[] HEADERS = new RecordHeader[256];
+
+    static {
+        for (int i = 0; i < HEADERS.length; i++) {
+            HEADERS[i] = new RecordHeader((byte) i);
+        }
+    }
+
     private final boolean definition;
     private final boolean developerData;
     private final int localMessageType;
@@ -32,6 +41,10 @@ public class RecordHeader {
         }
     }
 
+    public static RecordHeader fromByte(byte header) {
+        return HEADERS[header & 0xff];
+    }
+
     public int getLocalMessageType() {
         return localMessageType;
     }
@@ -0,0 +1,80 @@
+package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit;
+
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The layout of the data messages of a {@link RecordDefinition}: the position of each field, the
+ * total size, and the values of an empty record. It is computed once per definition and shared by
+ * all of its data records.
+ */
+final class RecordLayout {
+    private static final int TIMESTAMP_FIELD_NUMBER = 253;
+
+    private final List<RecordData.FieldData> fields;
+    @Nullable
+    private final RecordData.FieldData timestampField;
+    private final byte[] invalidValues;
+    private final RecordDefinition recordDefinition;
+
+    RecordLayout(final RecordDefinition recordDefinition) {
+        this.recordDefinition = recordDefinition;
+
+        final List<RecordData.FieldData> fields = new ArrayList<>();
+        RecordData.FieldData timestampField = null;
+        int totalSize = 0;
+
+        for (FieldDefinition fieldDef : recordDefinition.getFieldDefinitions()) {
+            final RecordData.FieldData fieldData = new RecordData.FieldData(fieldDef, totalSize);
+            fields.add(fieldData);
+            if (fieldDef.getNumber() == TIMESTAMP_FIELD_NUMBER) {
+                timestampField = fieldData;
+            }
+            totalSize += fieldDef.getSize();
+        }
+
+        if (recordDefinition.getDevFieldDefinitions() != null) {
+            for (DevFieldDefinition fieldDef : recordDefinition.getDevFieldDefinitions()) {
+                FieldDefinition temp = new FieldDefinition(fieldDef.getFieldDefinitionNumber(), fieldDef.getSize(), fieldDef.getBaseType(), fieldDef.getName());
+                fields.add(new RecordData.FieldData(temp, totalSize));
+                totalSize += fieldDef.getSize();
+            }
+        }
+
+        this.fields = Collections.unmodifiableList(fields);
+        this.timestampField = timestampField;
+
+        final ByteBuffer invalid = ByteBuffer.allocate(totalSize);
+        invalid.order(recordDefinition.getByteOrder());
+        for (RecordData.FieldData fieldData : fields) {
+            fieldData.invalidate(invalid);
+        }
+        this.invalidValues = invalid.array();
+    }
+
+    List<RecordData.FieldData> getFields() {
+        return fields;
+    }
+
+    @Nullable
+    RecordData.FieldData getTimestampField() {
+        return timestampField;
+    }
+
+    int getSize() {
+        return invalidValues.length;
+    }
+
+    /**
+     * A new value holder for a record, with all fields set to their invalid value.
+     */
+    ByteBuffer newValueHolder() {
+        final ByteBuffer valueHolder = ByteBuffer.wrap(invalidValues.clone());
+        valueHolder.order(recordDefinition.getByteOrder());
+        return valueHolder;
+    }
+}
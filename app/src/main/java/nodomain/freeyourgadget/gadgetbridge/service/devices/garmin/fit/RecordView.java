@@ -0,0 +1,103 @@
+package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecordDataFactory;
+
+/**
+ * A view of a data message, decoding its fields straight from the file buffer when requested.
+ * <p>
+ * The same instance is reused for every record passed to a {@link FitFile.RecordVisitor}, so it
+ * must not be retained after the callback returns - use {@link #toRecordData()} to keep a record.
+ */
+public final class RecordView implements RecordFields {
+    private final ByteBuffer buffer;
+
+    private RecordDefinition recordDefinition;
+    private RecordHeader recordHeader;
+    private RecordLayout layout;
+    private int offset;
+    private Long computedTimestamp;
+
+    RecordView(final ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Points the view to the data message at the given offset of the buffer.
+     *
+     * @return the timestamp from the record's timestamp field, if any
+     */
+    Long reset(final RecordDefinition recordDefinition,
+               final RecordHeader recordHeader,
+               final int offset,
+               final Long currentTimestamp) {
+        this.recordDefinition = recordDefinition;
+        this.recordHeader = recordHeader;
+        this.layout = recordDefinition.getLayout();
+        this.offset = offset;
+        this.computedTimestamp = currentTimestamp;
+
+        buffer.order(recordDefinition.getByteOrder());
+
+        final RecordData.FieldData timestampField = layout.getTimestampField();
+        if (timestampField == null) {
+            return null;
+        }
+        final Long runningTimestamp = (Long) timestampField.decode(buffer, offset);
+        if (runningTimestamp != null) {
+            computedTimestamp = runningTimestamp;
+        }
+        return runningTimestamp;
+    }
+
+    int getSize() {
+        return layout.getSize();
+    }
+
+    public GlobalFITMessage getGlobalFITMessage() {
+        return recordDefinition.getGlobalFITMessage();
+    }
+
+    public RecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * @see RecordData#computedTimestamp
+     */
+    public Long getComputedTimestamp() {
+        return computedTimestamp;
+    }
+
+    @Nullable
+    public Object getFieldByNumber(final int number) {
+        final List<RecordData.FieldData> fields = layout.getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            if (fields.get(i).getNumber() == number) {
+                return fields.get(i).decode(buffer, offset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the record into a standalone {@link RecordData}, of the message-specific subclass.
+     */
+    public RecordData toRecordData() {
+        final RecordData recordData = FitRecordDataFactory.create(recordDefinition, recordHeader);
+        buffer.position(offset);
+        recordData.copyDataMessage(buffer, computedTimestamp);
+        return recordData;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return toRecordData().toString();
+    }
+}
@@ -26,6 +26,7 @@ import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.FileType;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.GlobalFITMessage;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionGoalSource;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionGoalType;
@@ -100,6 +101,7 @@ public class FitCodeGen {
         imports.add(Nullable.class.getCanonicalName());
         imports.add(RecordData.class.getCanonicalName());
         imports.add(RecordDefinition.class.getCanonicalName());
+        imports.add(RecordFields.class.getCanonicalName());
         imports.add(RecordHeader.class.getCanonicalName());
         //imports.add(GBToStringBuilder.class.getCanonicalName());
         imports.addAll(getImports(outputFile));
@@ -190,18 +192,24 @@ public class FitCodeGen {
             sb.append("\n");
             sb.append("    @Nullable\n");
             sb.append("    public ").append(fieldTypeName).append(method(" get", primitive)).append("() {\n");
+            sb.append("        return").append(method(" get", primitive)).append("(this);\n");
+            sb.append("    }\n");
+            sb.append("\n");
+            // Static accessor, so that the fields can also be read from a RecordView without copying the record
+            sb.append("    @Nullable\n");
+            sb.append("    public static ").append(fieldTypeName).append(method(" get", primitive)).append("(final RecordFields record) {\n");
             if (fieldTypeName.endsWith("[]")) {
                 // Special case for arrays, since these are decoded in RecordData and we can't easily decode them with the correct type
                 // FIXME this should be refactored...
                 final String simpleTypeName = fieldTypeName.replace("[]", "");
-                sb.append("        final Object[] objectsArray = (Object[]) getFieldByNumber(").append(primitive.getNumber()).append(");\n");
+                sb.append("        final Object[] objectsArray = (Object[]) record.getFieldByNumber(").append(primitive.getNumber()).append(");\n");
                 sb.append("        final ").append(fieldTypeName).append(" ret = new ").append(simpleTypeName).append("[objectsArray.length];\n");
                 sb.append("        for (int i = 0; i < objectsArray.length; i++) {\n");
                 sb.append("            ret[i] = (").append(simpleTypeName).append(") objectsArray[i];\n");
                 sb.append("        }\n");
                 sb.append("        return ret;\n");
             } else {
-                sb.append("        return (").append(fieldTypeName).append(") getFieldByNumber(").append(primitive.getNumber()).append(");\n");
+                sb.append("        return (").append(fieldTypeName).append(") record.getFieldByNumber(").append(primitive.getNumber()).append(");\n");
             }
             sb.append("    }\n");
         }
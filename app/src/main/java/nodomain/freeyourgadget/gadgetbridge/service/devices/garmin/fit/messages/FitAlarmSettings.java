@@ -6,6 +6,7 @@ import java.util.Calendar;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -24,6 +25,11 @@ public class FitAlarmSettings extends RecordData {
 
     @Nullable
     public Calendar getTime() {
-        return (Calendar) getFieldByNumber(0);
+        return getTime(this);
+    }
+
+    @Nullable
+    public static Calendar getTime(final RecordFields record) {
+        return (Calendar) record.getFieldByNumber(0);
     }
 }
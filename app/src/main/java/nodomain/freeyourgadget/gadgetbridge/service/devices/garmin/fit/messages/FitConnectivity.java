@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,46 +23,91 @@ public class FitConnectivity extends RecordData {
 
     @Nullable
     public Integer getBluetoothEnabled() {
-        return (Integer) getFieldByNumber(0);
+        return getBluetoothEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getBluetoothEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public String getName() {
-        return (String) getFieldByNumber(3);
+        return getName(this);
+    }
+
+    @Nullable
+    public static String getName(final RecordFields record) {
+        return (String) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getLiveTrackingEnabled() {
-        return (Integer) getFieldByNumber(4);
+        return getLiveTrackingEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getLiveTrackingEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getWeatherConditionsEnabled() {
-        return (Integer) getFieldByNumber(5);
+        return getWeatherConditionsEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getWeatherConditionsEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getWeatherAlertsEnabled() {
-        return (Integer) getFieldByNumber(6);
+        return getWeatherAlertsEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getWeatherAlertsEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Integer getAutoActivityUploadEnabled() {
-        return (Integer) getFieldByNumber(7);
+        return getAutoActivityUploadEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getAutoActivityUploadEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Integer getCourseDownloadEnabled() {
-        return (Integer) getFieldByNumber(8);
+        return getCourseDownloadEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getCourseDownloadEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Integer getWorkoutDownloadEnabled() {
-        return (Integer) getFieldByNumber(9);
+        return getWorkoutDownloadEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getWorkoutDownloadEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Integer getGpsEphemerisDownloadEnabled() {
-        return (Integer) getFieldByNumber(10);
+        return getGpsEphemerisDownloadEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getGpsEphemerisDownloadEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(10);
     }
 }
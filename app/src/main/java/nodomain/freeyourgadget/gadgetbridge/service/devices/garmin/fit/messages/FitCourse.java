@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitCourse extends RecordData {
 
     @Nullable
     public Integer getSport() {
-        return (Integer) getFieldByNumber(4);
+        return getSport(this);
+    }
+
+    @Nullable
+    public static Integer getSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public String getName() {
-        return (String) getFieldByNumber(5);
+        return getName(this);
+    }
+
+    @Nullable
+    public static String getName(final RecordFields record) {
+        return (String) record.getFieldByNumber(5);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitDeveloperData extends RecordData {
 
     @Nullable
     public Integer getApplicationId() {
-        return (Integer) getFieldByNumber(1);
+        return getApplicationId(this);
+    }
+
+    @Nullable
+    public static Integer getApplicationId(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getDeveloperDataIndex() {
-        return (Integer) getFieldByNumber(3);
+        return getDeveloperDataIndex(this);
+    }
+
+    @Nullable
+    public static Integer getDeveloperDataIndex(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,26 +23,51 @@ public class FitDeviceInfo extends RecordData {
 
     @Nullable
     public Integer getManufacturer() {
-        return (Integer) getFieldByNumber(2);
+        return getManufacturer(this);
+    }
+
+    @Nullable
+    public static Integer getManufacturer(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Long getSerialNumber() {
-        return (Long) getFieldByNumber(3);
+        return getSerialNumber(this);
+    }
+
+    @Nullable
+    public static Long getSerialNumber(final RecordFields record) {
+        return (Long) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getProduct() {
-        return (Integer) getFieldByNumber(4);
+        return getProduct(this);
+    }
+
+    @Nullable
+    public static Integer getProduct(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getSoftwareVersion() {
-        return (Integer) getFieldByNumber(5);
+        return getSoftwareVersion(this);
+    }
+
+    @Nullable
+    public static Integer getSoftwareVersion(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,81 +23,161 @@ public class FitDeviceSettings extends RecordData {
 
     @Nullable
     public Integer getActiveTimeZone() {
-        return (Integer) getFieldByNumber(0);
+        return getActiveTimeZone(this);
+    }
+
+    @Nullable
+    public static Integer getActiveTimeZone(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Long getUtcOffset() {
-        return (Long) getFieldByNumber(1);
+        return getUtcOffset(this);
+    }
+
+    @Nullable
+    public static Long getUtcOffset(final RecordFields record) {
+        return (Long) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Long getTimeOffset() {
-        return (Long) getFieldByNumber(2);
+        return getTimeOffset(this);
+    }
+
+    @Nullable
+    public static Long getTimeOffset(final RecordFields record) {
+        return (Long) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getTimeMode() {
-        return (Integer) getFieldByNumber(4);
+        return getTimeMode(this);
+    }
+
+    @Nullable
+    public static Integer getTimeMode(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getTimeZoneOffset() {
-        return (Integer) getFieldByNumber(5);
+        return getTimeZoneOffset(this);
+    }
+
+    @Nullable
+    public static Integer getTimeZoneOffset(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getBacklightMode() {
-        return (Integer) getFieldByNumber(12);
+        return getBacklightMode(this);
+    }
+
+    @Nullable
+    public static Integer getBacklightMode(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(12);
     }
 
     @Nullable
     public Integer getActivityTrackerEnabled() {
-        return (Integer) getFieldByNumber(36);
+        return getActivityTrackerEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getActivityTrackerEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(36);
     }
 
     @Nullable
     public Integer getMoveAlertEnabled() {
-        return (Integer) getFieldByNumber(46);
+        return getMoveAlertEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getMoveAlertEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(46);
     }
 
     @Nullable
     public Integer getDateMode() {
-        return (Integer) getFieldByNumber(47);
+        return getDateMode(this);
+    }
+
+    @Nullable
+    public static Integer getDateMode(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(47);
     }
 
     @Nullable
     public Integer getDisplayOrientation() {
-        return (Integer) getFieldByNumber(55);
+        return getDisplayOrientation(this);
+    }
+
+    @Nullable
+    public static Integer getDisplayOrientation(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(55);
     }
 
     @Nullable
     public Integer getMountingSide() {
-        return (Integer) getFieldByNumber(56);
+        return getMountingSide(this);
+    }
+
+    @Nullable
+    public static Integer getMountingSide(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(56);
     }
 
     @Nullable
     public Integer getDefaultPage() {
-        return (Integer) getFieldByNumber(57);
+        return getDefaultPage(this);
+    }
+
+    @Nullable
+    public static Integer getDefaultPage(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(57);
     }
 
     @Nullable
     public Integer getAutosyncMinSteps() {
-        return (Integer) getFieldByNumber(58);
+        return getAutosyncMinSteps(this);
+    }
+
+    @Nullable
+    public static Integer getAutosyncMinSteps(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(58);
     }
 
     @Nullable
     public Integer getAutosyncMinTime() {
-        return (Integer) getFieldByNumber(59);
+        return getAutosyncMinTime(this);
+    }
+
+    @Nullable
+    public static Integer getAutosyncMinTime(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(59);
     }
 
     @Nullable
     public Integer getBleAutoUploadEnabled() {
-        return (Integer) getFieldByNumber(86);
+        return getBleAutoUploadEnabled(this);
+    }
+
+    @Nullable
+    public static Integer getBleAutoUploadEnabled(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(86);
     }
 
     @Nullable
     public Long getAutoActivityDetect() {
-        return (Long) getFieldByNumber(90);
+        return getAutoActivityDetect(this);
+    }
+
+    @Nullable
+    public static Long getAutoActivityDetect(final RecordFields record) {
+        return (Long) record.getFieldByNumber(90);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,26 +23,51 @@ public class FitEvent extends RecordData {
 
     @Nullable
     public Integer getEvent() {
-        return (Integer) getFieldByNumber(0);
+        return getEvent(this);
+    }
+
+    @Nullable
+    public static Integer getEvent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getEventType() {
-        return (Integer) getFieldByNumber(1);
+        return getEventType(this);
+    }
+
+    @Nullable
+    public static Integer getEventType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Long getData() {
-        return (Long) getFieldByNumber(3);
+        return getData(this);
+    }
+
+    @Nullable
+    public static Long getData(final RecordFields record) {
+        return (Long) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getEventGroup() {
-        return (Integer) getFieldByNumber(4);
+        return getEventGroup(this);
+    }
+
+    @Nullable
+    public static Integer getEventGroup(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
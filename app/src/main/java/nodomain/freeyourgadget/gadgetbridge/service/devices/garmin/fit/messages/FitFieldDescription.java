@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,26 +23,51 @@ public class FitFieldDescription extends RecordData {
 
     @Nullable
     public Integer getDeveloperDataIndex() {
-        return (Integer) getFieldByNumber(0);
+        return getDeveloperDataIndex(this);
+    }
+
+    @Nullable
+    public static Integer getDeveloperDataIndex(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getFieldDefinitionNumber() {
-        return (Integer) getFieldByNumber(1);
+        return getFieldDefinitionNumber(this);
+    }
+
+    @Nullable
+    public static Integer getFieldDefinitionNumber(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getFitBaseTypeId() {
-        return (Integer) getFieldByNumber(2);
+        return getFitBaseTypeId(this);
+    }
+
+    @Nullable
+    public static Integer getFitBaseTypeId(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public String getFieldName() {
-        return (String) getFieldByNumber(3);
+        return getFieldName(this);
+    }
+
+    @Nullable
+    public static String getFieldName(final RecordFields record) {
+        return (String) record.getFieldByNumber(3);
     }
 
     @Nullable
     public String getUnits() {
-        return (String) getFieldByNumber(8);
+        return getUnits(this);
+    }
+
+    @Nullable
+    public static String getUnits(final RecordFields record) {
+        return (String) record.getFieldByNumber(8);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitFileCreator extends RecordData {
 
     @Nullable
     public Integer getSoftwareVersion() {
-        return (Integer) getFieldByNumber(0);
+        return getSoftwareVersion(this);
+    }
+
+    @Nullable
+    public static Integer getSoftwareVersion(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getHardwareVersion() {
-        return (Integer) getFieldByNumber(1);
+        return getHardwareVersion(this);
+    }
+
+    @Nullable
+    public static Integer getHardwareVersion(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 }
@@ -5,6 +5,7 @@ import androidx.annotation.Nullable;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.FileType.FILETYPE;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -23,41 +24,81 @@ public class FitFileId extends RecordData {
 
     @Nullable
     public FILETYPE getType() {
-        return (FILETYPE) getFieldByNumber(0);
+        return getType(this);
+    }
+
+    @Nullable
+    public static FILETYPE getType(final RecordFields record) {
+        return (FILETYPE) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getManufacturer() {
-        return (Integer) getFieldByNumber(1);
+        return getManufacturer(this);
+    }
+
+    @Nullable
+    public static Integer getManufacturer(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getProduct() {
-        return (Integer) getFieldByNumber(2);
+        return getProduct(this);
+    }
+
+    @Nullable
+    public static Integer getProduct(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Long getSerialNumber() {
-        return (Long) getFieldByNumber(3);
+        return getSerialNumber(this);
+    }
+
+    @Nullable
+    public static Long getSerialNumber(final RecordFields record) {
+        return (Long) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Long getTimeCreated() {
-        return (Long) getFieldByNumber(4);
+        return getTimeCreated(this);
+    }
+
+    @Nullable
+    public static Long getTimeCreated(final RecordFields record) {
+        return (Long) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getNumber() {
-        return (Integer) getFieldByNumber(5);
+        return getNumber(this);
+    }
+
+    @Nullable
+    public static Integer getNumber(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getManufacturerPartner() {
-        return (Integer) getFieldByNumber(6);
+        return getManufacturerPartner(this);
+    }
+
+    @Nullable
+    public static Integer getManufacturerPartner(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public String getProductName() {
-        return (String) getFieldByNumber(8);
+        return getProductName(this);
+    }
+
+    @Nullable
+    public static String getProductName(final RecordFields record) {
+        return (String) record.getFieldByNumber(8);
     }
 }
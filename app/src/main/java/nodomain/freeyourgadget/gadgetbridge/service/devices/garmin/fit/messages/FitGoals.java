@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionGoalSource.Source;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionGoalType.Type;
@@ -24,16 +25,31 @@ public class FitGoals extends RecordData {
 
     @Nullable
     public Type getType() {
-        return (Type) getFieldByNumber(4);
+        return getType(this);
+    }
+
+    @Nullable
+    public static Type getType(final RecordFields record) {
+        return (Type) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Long getTargetValue() {
-        return (Long) getFieldByNumber(7);
+        return getTargetValue(this);
+    }
+
+    @Nullable
+    public static Long getTargetValue(final RecordFields record) {
+        return (Long) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Source getSource() {
-        return (Source) getFieldByNumber(11);
+        return getSource(this);
+    }
+
+    @Nullable
+    public static Source getSource(final RecordFields record) {
+        return (Source) record.getFieldByNumber(11);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitGpsMetadata extends RecordData {
 
     @Nullable
     public Long getEnhancedAltitude() {
-        return (Long) getFieldByNumber(3);
+        return getEnhancedAltitude(this);
+    }
+
+    @Nullable
+    public static Long getEnhancedAltitude(final RecordFields record) {
+        return (Long) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Long getEnhancedSpeed() {
-        return (Long) getFieldByNumber(4);
+        return getEnhancedSpeed(this);
+    }
+
+    @Nullable
+    public static Long getEnhancedSpeed(final RecordFields record) {
+        return (Long) record.getFieldByNumber(4);
     }
 }
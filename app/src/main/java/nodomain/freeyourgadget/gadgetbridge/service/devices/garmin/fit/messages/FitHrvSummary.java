@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionHrvStatus.HrvStatus;
 
@@ -23,41 +24,81 @@ public class FitHrvSummary extends RecordData {
 
     @Nullable
     public Float getWeeklyAverage() {
-        return (Float) getFieldByNumber(0);
+        return getWeeklyAverage(this);
+    }
+
+    @Nullable
+    public static Float getWeeklyAverage(final RecordFields record) {
+        return (Float) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Float getLastNightAverage() {
-        return (Float) getFieldByNumber(1);
+        return getLastNightAverage(this);
+    }
+
+    @Nullable
+    public static Float getLastNightAverage(final RecordFields record) {
+        return (Float) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Float getLastNight5MinHigh() {
-        return (Float) getFieldByNumber(2);
+        return getLastNight5MinHigh(this);
+    }
+
+    @Nullable
+    public static Float getLastNight5MinHigh(final RecordFields record) {
+        return (Float) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Float getBaselineLowUpper() {
-        return (Float) getFieldByNumber(3);
+        return getBaselineLowUpper(this);
+    }
+
+    @Nullable
+    public static Float getBaselineLowUpper(final RecordFields record) {
+        return (Float) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Float getBaselineBalancedLower() {
-        return (Float) getFieldByNumber(4);
+        return getBaselineBalancedLower(this);
+    }
+
+    @Nullable
+    public static Float getBaselineBalancedLower(final RecordFields record) {
+        return (Float) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Float getBaselineBalancedUpper() {
-        return (Float) getFieldByNumber(5);
+        return getBaselineBalancedUpper(this);
+    }
+
+    @Nullable
+    public static Float getBaselineBalancedUpper(final RecordFields record) {
+        return (Float) record.getFieldByNumber(5);
     }
 
     @Nullable
     public HrvStatus getStatus() {
-        return (HrvStatus) getFieldByNumber(6);
+        return getStatus(this);
+    }
+
+    @Nullable
+    public static HrvStatus getStatus(final RecordFields record) {
+        return (HrvStatus) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
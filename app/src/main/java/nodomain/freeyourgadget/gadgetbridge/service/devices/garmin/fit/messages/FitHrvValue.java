@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitHrvValue extends RecordData {
 
     @Nullable
     public Float getValue() {
-        return (Float) getFieldByNumber(0);
+        return getValue(this);
+    }
+
+    @Nullable
+    public static Float getValue(final RecordFields record) {
+        return (Float) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
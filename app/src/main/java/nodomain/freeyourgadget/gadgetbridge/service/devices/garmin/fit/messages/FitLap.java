@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,51 +23,101 @@ public class FitLap extends RecordData {
 
     @Nullable
     public Double getStartLat() {
-        return (Double) getFieldByNumber(3);
+        return getStartLat(this);
+    }
+
+    @Nullable
+    public static Double getStartLat(final RecordFields record) {
+        return (Double) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Double getStartLong() {
-        return (Double) getFieldByNumber(4);
+        return getStartLong(this);
+    }
+
+    @Nullable
+    public static Double getStartLong(final RecordFields record) {
+        return (Double) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Double getEndLat() {
-        return (Double) getFieldByNumber(5);
+        return getEndLat(this);
+    }
+
+    @Nullable
+    public static Double getEndLat(final RecordFields record) {
+        return (Double) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Double getEndLong() {
-        return (Double) getFieldByNumber(6);
+        return getEndLong(this);
+    }
+
+    @Nullable
+    public static Double getEndLong(final RecordFields record) {
+        return (Double) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Double getTotalElapsedTime() {
-        return (Double) getFieldByNumber(7);
+        return getTotalElapsedTime(this);
+    }
+
+    @Nullable
+    public static Double getTotalElapsedTime(final RecordFields record) {
+        return (Double) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Double getTotalTimerTime() {
-        return (Double) getFieldByNumber(8);
+        return getTotalTimerTime(this);
+    }
+
+    @Nullable
+    public static Double getTotalTimerTime(final RecordFields record) {
+        return (Double) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Double getTotalDistance() {
-        return (Double) getFieldByNumber(9);
+        return getTotalDistance(this);
+    }
+
+    @Nullable
+    public static Double getTotalDistance(final RecordFields record) {
+        return (Double) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Integer getTotalAscent() {
-        return (Integer) getFieldByNumber(21);
+        return getTotalAscent(this);
+    }
+
+    @Nullable
+    public static Integer getTotalAscent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(21);
     }
 
     @Nullable
     public Integer getTotalDescent() {
-        return (Integer) getFieldByNumber(22);
+        return getTotalDescent(this);
+    }
+
+    @Nullable
+    public static Integer getTotalDescent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(22);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
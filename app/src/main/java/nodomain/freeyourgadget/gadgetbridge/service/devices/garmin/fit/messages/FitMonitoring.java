@@ -7,6 +7,7 @@ import java.util.Optional;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.GarminTimeUtils;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -25,62 +26,122 @@ public class FitMonitoring extends RecordData {
 
     @Nullable
     public Long getDistance() {
-        return (Long) getFieldByNumber(2);
+        return getDistance(this);
+    }
+
+    @Nullable
+    public static Long getDistance(final RecordFields record) {
+        return (Long) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Long getCycles() {
-        return (Long) getFieldByNumber(3);
+        return getCycles(this);
+    }
+
+    @Nullable
+    public static Long getCycles(final RecordFields record) {
+        return (Long) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Long getActiveTime() {
-        return (Long) getFieldByNumber(4);
+        return getActiveTime(this);
+    }
+
+    @Nullable
+    public static Long getActiveTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getActivityType() {
-        return (Integer) getFieldByNumber(5);
+        return getActivityType(this);
+    }
+
+    @Nullable
+    public static Integer getActivityType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getActiveCalories() {
-        return (Integer) getFieldByNumber(19);
+        return getActiveCalories(this);
+    }
+
+    @Nullable
+    public static Integer getActiveCalories(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(19);
     }
 
     @Nullable
     public Integer getDurationMin() {
-        return (Integer) getFieldByNumber(29);
+        return getDurationMin(this);
+    }
+
+    @Nullable
+    public static Integer getDurationMin(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(29);
     }
 
     @Nullable
     public Integer getCurrentActivityTypeIntensity() {
-        return (Integer) getFieldByNumber(24);
+        return getCurrentActivityTypeIntensity(this);
+    }
+
+    @Nullable
+    public static Integer getCurrentActivityTypeIntensity(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(24);
     }
 
     @Nullable
     public Integer getTimestamp16() {
-        return (Integer) getFieldByNumber(26);
+        return getTimestamp16(this);
+    }
+
+    @Nullable
+    public static Integer getTimestamp16(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(26);
     }
 
     @Nullable
     public Integer getHeartRate() {
-        return (Integer) getFieldByNumber(27);
+        return getHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(27);
     }
 
     @Nullable
     public Integer getModerateActivityMinutes() {
-        return (Integer) getFieldByNumber(33);
+        return getModerateActivityMinutes(this);
+    }
+
+    @Nullable
+    public static Integer getModerateActivityMinutes(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(33);
     }
 
     @Nullable
     public Integer getVigorousActivityMinutes() {
-        return (Integer) getFieldByNumber(34);
+        return getVigorousActivityMinutes(this);
+    }
+
+    @Nullable
+    public static Integer getVigorousActivityMinutes(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(34);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 
     // manual changes below
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,16 +23,31 @@ public class FitMonitoringHrData extends RecordData {
 
     @Nullable
     public Integer getRestingHeartRate() {
-        return (Integer) getFieldByNumber(0);
+        return getRestingHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getRestingHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getCurrentDayRestingHeartRate() {
-        return (Integer) getFieldByNumber(1);
+        return getCurrentDayRestingHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getCurrentDayRestingHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
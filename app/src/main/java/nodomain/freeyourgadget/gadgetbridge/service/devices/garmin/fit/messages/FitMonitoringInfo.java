@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,12 +23,22 @@ public class FitMonitoringInfo extends RecordData {
 
     @Nullable
     public Long getLocalTimestamp() {
-        return (Long) getFieldByNumber(0);
+        return getLocalTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getLocalTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Number[] getActivityType() {
-        final Object[] objectsArray = (Object[]) getFieldByNumber(1);
+        return getActivityType(this);
+    }
+
+    @Nullable
+    public static Number[] getActivityType(final RecordFields record) {
+        final Object[] objectsArray = (Object[]) record.getFieldByNumber(1);
         final Number[] ret = new Number[objectsArray.length];
         for (int i = 0; i < objectsArray.length; i++) {
             ret[i] = (Number) objectsArray[i];
@@ -37,7 +48,12 @@ public class FitMonitoringInfo extends RecordData {
 
     @Nullable
     public Number[] getStepsToDistance() {
-        final Object[] objectsArray = (Object[]) getFieldByNumber(3);
+        return getStepsToDistance(this);
+    }
+
+    @Nullable
+    public static Number[] getStepsToDistance(final RecordFields record) {
+        final Object[] objectsArray = (Object[]) record.getFieldByNumber(3);
         final Number[] ret = new Number[objectsArray.length];
         for (int i = 0; i < objectsArray.length; i++) {
             ret[i] = (Number) objectsArray[i];
@@ -47,7 +63,12 @@ public class FitMonitoringInfo extends RecordData {
 
     @Nullable
     public Number[] getStepsToCalories() {
-        final Object[] objectsArray = (Object[]) getFieldByNumber(4);
+        return getStepsToCalories(this);
+    }
+
+    @Nullable
+    public static Number[] getStepsToCalories(final RecordFields record) {
+        final Object[] objectsArray = (Object[]) record.getFieldByNumber(4);
         final Number[] ret = new Number[objectsArray.length];
         for (int i = 0; i < objectsArray.length; i++) {
             ret[i] = (Number) objectsArray[i];
@@ -57,11 +78,21 @@ public class FitMonitoringInfo extends RecordData {
 
     @Nullable
     public Integer getRestingMetabolicRate() {
-        return (Integer) getFieldByNumber(5);
+        return getRestingMetabolicRate(this);
+    }
+
+    @Nullable
+    public static Integer getRestingMetabolicRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,31 +23,61 @@ public class FitPhysiologicalMetrics extends RecordData {
 
     @Nullable
     public Float getAerobicEffect() {
-        return (Float) getFieldByNumber(4);
+        return getAerobicEffect(this);
+    }
+
+    @Nullable
+    public static Float getAerobicEffect(final RecordFields record) {
+        return (Float) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Double getMetMax() {
-        return (Double) getFieldByNumber(7);
+        return getMetMax(this);
+    }
+
+    @Nullable
+    public static Double getMetMax(final RecordFields record) {
+        return (Double) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Integer getRecoveryTime() {
-        return (Integer) getFieldByNumber(9);
+        return getRecoveryTime(this);
+    }
+
+    @Nullable
+    public static Integer getRecoveryTime(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Integer getLactateThresholdHeartRate() {
-        return (Integer) getFieldByNumber(14);
+        return getLactateThresholdHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getLactateThresholdHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(14);
     }
 
     @Nullable
     public Float getAnaerobicEffect() {
-        return (Float) getFieldByNumber(20);
+        return getAnaerobicEffect(this);
+    }
+
+    @Nullable
+    public static Float getAnaerobicEffect(final RecordFields record) {
+        return (Float) record.getFieldByNumber(20);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -9,6 +9,7 @@ import nodomain.freeyourgadget.gadgetbridge.model.GPSCoordinate;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.GarminUtils;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -27,97 +28,192 @@ public class FitRecord extends RecordData {
 
     @Nullable
     public Double getLatitude() {
-        return (Double) getFieldByNumber(0);
+        return getLatitude(this);
+    }
+
+    @Nullable
+    public static Double getLatitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Double getLongitude() {
-        return (Double) getFieldByNumber(1);
+        return getLongitude(this);
+    }
+
+    @Nullable
+    public static Double getLongitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Float getAltitude() {
-        return (Float) getFieldByNumber(2);
+        return getAltitude(this);
+    }
+
+    @Nullable
+    public static Float getAltitude(final RecordFields record) {
+        return (Float) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getHeartRate() {
-        return (Integer) getFieldByNumber(3);
+        return getHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getCadence() {
-        return (Integer) getFieldByNumber(4);
+        return getCadence(this);
+    }
+
+    @Nullable
+    public static Integer getCadence(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Double getDistance() {
-        return (Double) getFieldByNumber(5);
+        return getDistance(this);
+    }
+
+    @Nullable
+    public static Double getDistance(final RecordFields record) {
+        return (Double) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Float getSpeed() {
-        return (Float) getFieldByNumber(6);
+        return getSpeed(this);
+    }
+
+    @Nullable
+    public static Float getSpeed(final RecordFields record) {
+        return (Float) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Integer getPower() {
-        return (Integer) getFieldByNumber(7);
+        return getPower(this);
+    }
+
+    @Nullable
+    public static Integer getPower(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Long getAccumulatedPower() {
-        return (Long) getFieldByNumber(29);
+        return getAccumulatedPower(this);
+    }
+
+    @Nullable
+    public static Long getAccumulatedPower(final RecordFields record) {
+        return (Long) record.getFieldByNumber(29);
     }
 
     @Nullable
     public Float getOscillation() {
-        return (Float) getFieldByNumber(39);
+        return getOscillation(this);
+    }
+
+    @Nullable
+    public static Float getOscillation(final RecordFields record) {
+        return (Float) record.getFieldByNumber(39);
     }
 
     @Nullable
     public Integer getActivity() {
-        return (Integer) getFieldByNumber(42);
+        return getActivity(this);
+    }
+
+    @Nullable
+    public static Integer getActivity(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(42);
     }
 
     @Nullable
     public Float getFractionalCadence() {
-        return (Float) getFieldByNumber(53);
+        return getFractionalCadence(this);
+    }
+
+    @Nullable
+    public static Float getFractionalCadence(final RecordFields record) {
+        return (Float) record.getFieldByNumber(53);
     }
 
     @Nullable
     public Double getEnhancedSpeed() {
-        return (Double) getFieldByNumber(73);
+        return getEnhancedSpeed(this);
+    }
+
+    @Nullable
+    public static Double getEnhancedSpeed(final RecordFields record) {
+        return (Double) record.getFieldByNumber(73);
     }
 
     @Nullable
     public Double getEnhancedAltitude() {
-        return (Double) getFieldByNumber(78);
+        return getEnhancedAltitude(this);
+    }
+
+    @Nullable
+    public static Double getEnhancedAltitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(78);
     }
 
     @Nullable
     public Float getVerticalRatio() {
-        return (Float) getFieldByNumber(83);
+        return getVerticalRatio(this);
+    }
+
+    @Nullable
+    public static Float getVerticalRatio(final RecordFields record) {
+        return (Float) record.getFieldByNumber(83);
     }
 
     @Nullable
     public Float getStepLength() {
-        return (Float) getFieldByNumber(85);
+        return getStepLength(this);
+    }
+
+    @Nullable
+    public static Float getStepLength(final RecordFields record) {
+        return (Float) record.getFieldByNumber(85);
     }
 
     @Nullable
     public Integer getWristHeartRate() {
-        return (Integer) getFieldByNumber(136);
+        return getWristHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getWristHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(136);
     }
 
     @Nullable
     public Integer getBodyBattery() {
-        return (Integer) getFieldByNumber(143);
+        return getBodyBattery(this);
+    }
+
+    @Nullable
+    public static Integer getBodyBattery(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(143);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 
     // manual changes below
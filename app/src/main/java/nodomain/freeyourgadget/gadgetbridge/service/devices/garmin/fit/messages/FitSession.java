@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,191 +23,381 @@ public class FitSession extends RecordData {
 
     @Nullable
     public Integer getEvent() {
-        return (Integer) getFieldByNumber(0);
+        return getEvent(this);
+    }
+
+    @Nullable
+    public static Integer getEvent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getEventType() {
-        return (Integer) getFieldByNumber(1);
+        return getEventType(this);
+    }
+
+    @Nullable
+    public static Integer getEventType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Long getStartTime() {
-        return (Long) getFieldByNumber(2);
+        return getStartTime(this);
+    }
+
+    @Nullable
+    public static Long getStartTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Double getStartLatitude() {
-        return (Double) getFieldByNumber(3);
+        return getStartLatitude(this);
+    }
+
+    @Nullable
+    public static Double getStartLatitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Double getStartLongitude() {
-        return (Double) getFieldByNumber(4);
+        return getStartLongitude(this);
+    }
+
+    @Nullable
+    public static Double getStartLongitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getSport() {
-        return (Integer) getFieldByNumber(5);
+        return getSport(this);
+    }
+
+    @Nullable
+    public static Integer getSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getSubSport() {
-        return (Integer) getFieldByNumber(6);
+        return getSubSport(this);
+    }
+
+    @Nullable
+    public static Integer getSubSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Long getTotalElapsedTime() {
-        return (Long) getFieldByNumber(7);
+        return getTotalElapsedTime(this);
+    }
+
+    @Nullable
+    public static Long getTotalElapsedTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Long getTotalTimerTime() {
-        return (Long) getFieldByNumber(8);
+        return getTotalTimerTime(this);
+    }
+
+    @Nullable
+    public static Long getTotalTimerTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Long getTotalDistance() {
-        return (Long) getFieldByNumber(9);
+        return getTotalDistance(this);
+    }
+
+    @Nullable
+    public static Long getTotalDistance(final RecordFields record) {
+        return (Long) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Long getTotalSteps() {
-        return (Long) getFieldByNumber(10);
+        return getTotalSteps(this);
+    }
+
+    @Nullable
+    public static Long getTotalSteps(final RecordFields record) {
+        return (Long) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Integer getTotalCalories() {
-        return (Integer) getFieldByNumber(11);
+        return getTotalCalories(this);
+    }
+
+    @Nullable
+    public static Integer getTotalCalories(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(11);
     }
 
     @Nullable
     public Integer getAverageHeartRate() {
-        return (Integer) getFieldByNumber(16);
+        return getAverageHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getAverageHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(16);
     }
 
     @Nullable
     public Integer getMaxHeartRate() {
-        return (Integer) getFieldByNumber(17);
+        return getMaxHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getMaxHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(17);
     }
 
     @Nullable
     public Integer getAverageCadence() {
-        return (Integer) getFieldByNumber(18);
+        return getAverageCadence(this);
+    }
+
+    @Nullable
+    public static Integer getAverageCadence(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(18);
     }
 
     @Nullable
     public Integer getMaxCadence() {
-        return (Integer) getFieldByNumber(19);
+        return getMaxCadence(this);
+    }
+
+    @Nullable
+    public static Integer getMaxCadence(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(19);
     }
 
     @Nullable
     public Integer getTotalAscent() {
-        return (Integer) getFieldByNumber(22);
+        return getTotalAscent(this);
+    }
+
+    @Nullable
+    public static Integer getTotalAscent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(22);
     }
 
     @Nullable
     public Integer getTotalDescent() {
-        return (Integer) getFieldByNumber(23);
+        return getTotalDescent(this);
+    }
+
+    @Nullable
+    public static Integer getTotalDescent(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(23);
     }
 
     @Nullable
     public Integer getFirstLapIndex() {
-        return (Integer) getFieldByNumber(25);
+        return getFirstLapIndex(this);
+    }
+
+    @Nullable
+    public static Integer getFirstLapIndex(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(25);
     }
 
     @Nullable
     public Integer getNumLaps() {
-        return (Integer) getFieldByNumber(26);
+        return getNumLaps(this);
+    }
+
+    @Nullable
+    public static Integer getNumLaps(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(26);
     }
 
     @Nullable
     public Double getNecLatitude() {
-        return (Double) getFieldByNumber(29);
+        return getNecLatitude(this);
+    }
+
+    @Nullable
+    public static Double getNecLatitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(29);
     }
 
     @Nullable
     public Double getNecLongitude() {
-        return (Double) getFieldByNumber(30);
+        return getNecLongitude(this);
+    }
+
+    @Nullable
+    public static Double getNecLongitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(30);
     }
 
     @Nullable
     public Double getSwcLatitude() {
-        return (Double) getFieldByNumber(31);
+        return getSwcLatitude(this);
+    }
+
+    @Nullable
+    public static Double getSwcLatitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(31);
     }
 
     @Nullable
     public Double getSwcLongitude() {
-        return (Double) getFieldByNumber(32);
+        return getSwcLongitude(this);
+    }
+
+    @Nullable
+    public static Double getSwcLongitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(32);
     }
 
     @Nullable
     public Double getEndLatitude() {
-        return (Double) getFieldByNumber(38);
+        return getEndLatitude(this);
+    }
+
+    @Nullable
+    public static Double getEndLatitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(38);
     }
 
     @Nullable
     public Double getEndLongitude() {
-        return (Double) getFieldByNumber(39);
+        return getEndLongitude(this);
+    }
+
+    @Nullable
+    public static Double getEndLongitude(final RecordFields record) {
+        return (Double) record.getFieldByNumber(39);
     }
 
     @Nullable
     public String getSportProfileName() {
-        return (String) getFieldByNumber(110);
+        return getSportProfileName(this);
+    }
+
+    @Nullable
+    public static String getSportProfileName(final RecordFields record) {
+        return (String) record.getFieldByNumber(110);
     }
 
     @Nullable
     public Double getEnhancedAvgSpeed() {
-        return (Double) getFieldByNumber(124);
+        return getEnhancedAvgSpeed(this);
+    }
+
+    @Nullable
+    public static Double getEnhancedAvgSpeed(final RecordFields record) {
+        return (Double) record.getFieldByNumber(124);
     }
 
     @Nullable
     public Double getEnhancedMaxSpeed() {
-        return (Double) getFieldByNumber(125);
+        return getEnhancedMaxSpeed(this);
+    }
+
+    @Nullable
+    public static Double getEnhancedMaxSpeed(final RecordFields record) {
+        return (Double) record.getFieldByNumber(125);
     }
 
     @Nullable
     public Float getEnhancedAvgRespirationRate() {
-        return (Float) getFieldByNumber(169);
+        return getEnhancedAvgRespirationRate(this);
+    }
+
+    @Nullable
+    public static Float getEnhancedAvgRespirationRate(final RecordFields record) {
+        return (Float) record.getFieldByNumber(169);
     }
 
     @Nullable
     public Float getEnhancedMaxRespirationRate() {
-        return (Float) getFieldByNumber(170);
+        return getEnhancedMaxRespirationRate(this);
+    }
+
+    @Nullable
+    public static Float getEnhancedMaxRespirationRate(final RecordFields record) {
+        return (Float) record.getFieldByNumber(170);
     }
 
     @Nullable
     public Integer getEstimatedSweatLoss() {
-        return (Integer) getFieldByNumber(178);
+        return getEstimatedSweatLoss(this);
+    }
+
+    @Nullable
+    public static Integer getEstimatedSweatLoss(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(178);
     }
 
     @Nullable
     public Float getEnhancedMinRespirationRate() {
-        return (Float) getFieldByNumber(180);
+        return getEnhancedMinRespirationRate(this);
+    }
+
+    @Nullable
+    public static Float getEnhancedMinRespirationRate(final RecordFields record) {
+        return (Float) record.getFieldByNumber(180);
     }
 
     @Nullable
     public Integer getAvgSpo2() {
-        return (Integer) getFieldByNumber(194);
+        return getAvgSpo2(this);
+    }
+
+    @Nullable
+    public static Integer getAvgSpo2(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(194);
     }
 
     @Nullable
     public Integer getAvgStress() {
-        return (Integer) getFieldByNumber(195);
+        return getAvgStress(this);
+    }
+
+    @Nullable
+    public static Integer getAvgStress(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(195);
     }
 
     @Nullable
     public Integer getHrvSdrr() {
-        return (Integer) getFieldByNumber(197);
+        return getHrvSdrr(this);
+    }
+
+    @Nullable
+    public static Integer getHrvSdrr(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(197);
     }
 
     @Nullable
     public Integer getHrvRmssd() {
-        return (Integer) getFieldByNumber(198);
+        return getHrvRmssd(this);
+    }
+
+    @Nullable
+    public static Integer getHrvRmssd(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(198);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,41 +23,81 @@ public class FitSet extends RecordData {
 
     @Nullable
     public Double getDuration() {
-        return (Double) getFieldByNumber(0);
+        return getDuration(this);
+    }
+
+    @Nullable
+    public static Double getDuration(final RecordFields record) {
+        return (Double) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getRepetitions() {
-        return (Integer) getFieldByNumber(3);
+        return getRepetitions(this);
+    }
+
+    @Nullable
+    public static Integer getRepetitions(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Float getWeight() {
-        return (Float) getFieldByNumber(4);
+        return getWeight(this);
+    }
+
+    @Nullable
+    public static Float getWeight(final RecordFields record) {
+        return (Float) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getSetType() {
-        return (Integer) getFieldByNumber(5);
+        return getSetType(this);
+    }
+
+    @Nullable
+    public static Integer getSetType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Long getStartTime() {
-        return (Long) getFieldByNumber(6);
+        return getStartTime(this);
+    }
+
+    @Nullable
+    public static Long getStartTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Integer getCategory() {
-        return (Integer) getFieldByNumber(7);
+        return getCategory(this);
+    }
+
+    @Nullable
+    public static Integer getCategory(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Integer getMessageIndex() {
-        return (Integer) getFieldByNumber(10);
+        return getMessageIndex(this);
+    }
+
+    @Nullable
+    public static Integer getMessageIndex(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(254);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(254);
     }
 }
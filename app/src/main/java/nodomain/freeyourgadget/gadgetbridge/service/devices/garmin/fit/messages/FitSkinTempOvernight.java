@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,26 +23,51 @@ public class FitSkinTempOvernight extends RecordData {
 
     @Nullable
     public Long getLocalTimestamp() {
-        return (Long) getFieldByNumber(0);
+        return getLocalTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getLocalTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Float getAverageDeviation() {
-        return (Float) getFieldByNumber(1);
+        return getAverageDeviation(this);
+    }
+
+    @Nullable
+    public static Float getAverageDeviation(final RecordFields record) {
+        return (Float) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Float getAverage7DayDeviation() {
-        return (Float) getFieldByNumber(2);
+        return getAverage7DayDeviation(this);
+    }
+
+    @Nullable
+    public static Float getAverage7DayDeviation(final RecordFields record) {
+        return (Float) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getUnk3() {
-        return (Integer) getFieldByNumber(3);
+        return getUnk3(this);
+    }
+
+    @Nullable
+    public static Integer getUnk3(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
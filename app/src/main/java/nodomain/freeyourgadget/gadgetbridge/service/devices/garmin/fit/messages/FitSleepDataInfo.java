@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,31 +23,61 @@ public class FitSleepDataInfo extends RecordData {
 
     @Nullable
     public Integer getUnk0() {
-        return (Integer) getFieldByNumber(0);
+        return getUnk0(this);
+    }
+
+    @Nullable
+    public static Integer getUnk0(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getSampleLength() {
-        return (Integer) getFieldByNumber(1);
+        return getSampleLength(this);
+    }
+
+    @Nullable
+    public static Integer getSampleLength(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Long getLocalTimestamp() {
-        return (Long) getFieldByNumber(2);
+        return getLocalTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getLocalTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getUnk3() {
-        return (Integer) getFieldByNumber(3);
+        return getUnk3(this);
+    }
+
+    @Nullable
+    public static Integer getUnk3(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public String getVersion() {
-        return (String) getFieldByNumber(4);
+        return getVersion(this);
+    }
+
+    @Nullable
+    public static String getVersion(final RecordFields record) {
+        return (String) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,6 +23,11 @@ public class FitSleepDataRaw extends RecordData {
 
     @Nullable
     public Integer getBytes() {
-        return (Integer) getFieldByNumber(0);
+        return getBytes(this);
+    }
+
+    @Nullable
+    public static Integer getBytes(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 }
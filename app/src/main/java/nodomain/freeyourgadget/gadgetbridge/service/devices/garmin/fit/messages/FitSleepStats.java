@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,86 +23,171 @@ public class FitSleepStats extends RecordData {
 
     @Nullable
     public Integer getCombinedAwakeScore() {
-        return (Integer) getFieldByNumber(0);
+        return getCombinedAwakeScore(this);
+    }
+
+    @Nullable
+    public static Integer getCombinedAwakeScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getAwakeTimeScore() {
-        return (Integer) getFieldByNumber(1);
+        return getAwakeTimeScore(this);
+    }
+
+    @Nullable
+    public static Integer getAwakeTimeScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getAwakeningsCountScore() {
-        return (Integer) getFieldByNumber(2);
+        return getAwakeningsCountScore(this);
+    }
+
+    @Nullable
+    public static Integer getAwakeningsCountScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getDeepSleepScore() {
-        return (Integer) getFieldByNumber(3);
+        return getDeepSleepScore(this);
+    }
+
+    @Nullable
+    public static Integer getDeepSleepScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getSleepDurationScore() {
-        return (Integer) getFieldByNumber(4);
+        return getSleepDurationScore(this);
+    }
+
+    @Nullable
+    public static Integer getSleepDurationScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getLightSleepScore() {
-        return (Integer) getFieldByNumber(5);
+        return getLightSleepScore(this);
+    }
+
+    @Nullable
+    public static Integer getLightSleepScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getOverallSleepScore() {
-        return (Integer) getFieldByNumber(6);
+        return getOverallSleepScore(this);
+    }
+
+    @Nullable
+    public static Integer getOverallSleepScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Integer getSleepQualityScore() {
-        return (Integer) getFieldByNumber(7);
+        return getSleepQualityScore(this);
+    }
+
+    @Nullable
+    public static Integer getSleepQualityScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Integer getSleepRecoveryScore() {
-        return (Integer) getFieldByNumber(8);
+        return getSleepRecoveryScore(this);
+    }
+
+    @Nullable
+    public static Integer getSleepRecoveryScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Integer getRemSleepScore() {
-        return (Integer) getFieldByNumber(9);
+        return getRemSleepScore(this);
+    }
+
+    @Nullable
+    public static Integer getRemSleepScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Integer getSleepRestlessnessScore() {
-        return (Integer) getFieldByNumber(10);
+        return getSleepRestlessnessScore(this);
+    }
+
+    @Nullable
+    public static Integer getSleepRestlessnessScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Integer getAwakeningsCount() {
-        return (Integer) getFieldByNumber(11);
+        return getAwakeningsCount(this);
+    }
+
+    @Nullable
+    public static Integer getAwakeningsCount(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(11);
     }
 
     @Nullable
     public Integer getUnk12() {
-        return (Integer) getFieldByNumber(12);
+        return getUnk12(this);
+    }
+
+    @Nullable
+    public static Integer getUnk12(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(12);
     }
 
     @Nullable
     public Integer getUnk13() {
-        return (Integer) getFieldByNumber(13);
+        return getUnk13(this);
+    }
+
+    @Nullable
+    public static Integer getUnk13(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(13);
     }
 
     @Nullable
     public Integer getInterruptionsScore() {
-        return (Integer) getFieldByNumber(14);
+        return getInterruptionsScore(this);
+    }
+
+    @Nullable
+    public static Integer getInterruptionsScore(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(14);
     }
 
     @Nullable
     public Float getAverageStressDuringSleep() {
-        return (Float) getFieldByNumber(15);
+        return getAverageStressDuringSleep(this);
+    }
+
+    @Nullable
+    public static Float getAverageStressDuringSleep(final RecordFields record) {
+        return (Float) record.getFieldByNumber(15);
     }
 
     @Nullable
     public Integer getUnk16() {
-        return (Integer) getFieldByNumber(16);
+        return getUnk16(this);
+    }
+
+    @Nullable
+    public static Integer getUnk16(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(16);
     }
 }
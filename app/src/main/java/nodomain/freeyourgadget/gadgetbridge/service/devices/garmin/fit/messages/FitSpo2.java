@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,21 +23,41 @@ public class FitSpo2 extends RecordData {
 
     @Nullable
     public Integer getReadingSpo2() {
-        return (Integer) getFieldByNumber(0);
+        return getReadingSpo2(this);
+    }
+
+    @Nullable
+    public static Integer getReadingSpo2(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getReadingConfidence() {
-        return (Integer) getFieldByNumber(1);
+        return getReadingConfidence(this);
+    }
+
+    @Nullable
+    public static Integer getReadingConfidence(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getMode() {
-        return (Integer) getFieldByNumber(2);
+        return getMode(this);
+    }
+
+    @Nullable
+    public static Integer getMode(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
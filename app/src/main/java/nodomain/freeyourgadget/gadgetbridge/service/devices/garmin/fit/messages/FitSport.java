@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,16 +23,31 @@ public class FitSport extends RecordData {
 
     @Nullable
     public Integer getSport() {
-        return (Integer) getFieldByNumber(0);
+        return getSport(this);
+    }
+
+    @Nullable
+    public static Integer getSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getSubSport() {
-        return (Integer) getFieldByNumber(1);
+        return getSubSport(this);
+    }
+
+    @Nullable
+    public static Integer getSubSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public String getName() {
-        return (String) getFieldByNumber(3);
+        return getName(this);
+    }
+
+    @Nullable
+    public static String getName(final RecordFields record) {
+        return (String) record.getFieldByNumber(3);
     }
 }
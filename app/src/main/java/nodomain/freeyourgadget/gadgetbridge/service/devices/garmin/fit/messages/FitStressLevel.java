@@ -20,6 +20,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -38,17 +39,32 @@ public class FitStressLevel extends RecordData {
 
     @Nullable
     public Integer getStressLevelValue() {
-        return (Integer) getFieldByNumber(0);
+        return getStressLevelValue(this);
+    }
+
+    @Nullable
+    public static Integer getStressLevelValue(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Long getStressLevelTime() {
-        return (Long) getFieldByNumber(1);
+        return getStressLevelTime(this);
+    }
+
+    @Nullable
+    public static Long getStressLevelTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getBodyEnergy() {
-        return (Integer) getFieldByNumber(3);
+        return getBodyEnergy(this);
+    }
+
+    @Nullable
+    public static Integer getBodyEnergy(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     // manual changes below
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,17 +23,32 @@ public class FitTimeInZone extends RecordData {
 
     @Nullable
     public Integer getReferenceMessage() {
-        return (Integer) getFieldByNumber(0);
+        return getReferenceMessage(this);
+    }
+
+    @Nullable
+    public static Integer getReferenceMessage(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getReferenceIndex() {
-        return (Integer) getFieldByNumber(1);
+        return getReferenceIndex(this);
+    }
+
+    @Nullable
+    public static Integer getReferenceIndex(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Double[] getTimeInZone() {
-        final Object[] objectsArray = (Object[]) getFieldByNumber(2);
+        return getTimeInZone(this);
+    }
+
+    @Nullable
+    public static Double[] getTimeInZone(final RecordFields record) {
+        final Object[] objectsArray = (Object[]) record.getFieldByNumber(2);
         final Double[] ret = new Double[objectsArray.length];
         for (int i = 0; i < objectsArray.length; i++) {
             ret[i] = (Double) objectsArray[i];
@@ -42,7 +58,12 @@ public class FitTimeInZone extends RecordData {
 
     @Nullable
     public Integer[] getHrZoneHighBoundary() {
-        final Object[] objectsArray = (Object[]) getFieldByNumber(6);
+        return getHrZoneHighBoundary(this);
+    }
+
+    @Nullable
+    public static Integer[] getHrZoneHighBoundary(final RecordFields record) {
+        final Object[] objectsArray = (Object[]) record.getFieldByNumber(6);
         final Integer[] ret = new Integer[objectsArray.length];
         for (int i = 0; i < objectsArray.length; i++) {
             ret[i] = (Integer) objectsArray[i];
@@ -52,26 +73,51 @@ public class FitTimeInZone extends RecordData {
 
     @Nullable
     public Integer getHrCalcType() {
-        return (Integer) getFieldByNumber(10);
+        return getHrCalcType(this);
+    }
+
+    @Nullable
+    public static Integer getHrCalcType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Integer getMaxHeartRate() {
-        return (Integer) getFieldByNumber(11);
+        return getMaxHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getMaxHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(11);
     }
 
     @Nullable
     public Integer getRestingHeartRate() {
-        return (Integer) getFieldByNumber(12);
+        return getRestingHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getRestingHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(12);
     }
 
     @Nullable
     public Integer getThresholdHeartRate() {
-        return (Integer) getFieldByNumber(13);
+        return getThresholdHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getThresholdHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(13);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionLanguage.Language;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionMeasurementSystem.Type;
@@ -24,116 +25,231 @@ public class FitUserProfile extends RecordData {
 
     @Nullable
     public String getFriendlyName() {
-        return (String) getFieldByNumber(0);
+        return getFriendlyName(this);
+    }
+
+    @Nullable
+    public static String getFriendlyName(final RecordFields record) {
+        return (String) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getGender() {
-        return (Integer) getFieldByNumber(1);
+        return getGender(this);
+    }
+
+    @Nullable
+    public static Integer getGender(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getAge() {
-        return (Integer) getFieldByNumber(2);
+        return getAge(this);
+    }
+
+    @Nullable
+    public static Integer getAge(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getHeight() {
-        return (Integer) getFieldByNumber(3);
+        return getHeight(this);
+    }
+
+    @Nullable
+    public static Integer getHeight(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Float getWeight() {
-        return (Float) getFieldByNumber(4);
+        return getWeight(this);
+    }
+
+    @Nullable
+    public static Float getWeight(final RecordFields record) {
+        return (Float) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Language getLanguage() {
-        return (Language) getFieldByNumber(5);
+        return getLanguage(this);
+    }
+
+    @Nullable
+    public static Language getLanguage(final RecordFields record) {
+        return (Language) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Type getElevSetting() {
-        return (Type) getFieldByNumber(6);
+        return getElevSetting(this);
+    }
+
+    @Nullable
+    public static Type getElevSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Type getWeightSetting() {
-        return (Type) getFieldByNumber(7);
+        return getWeightSetting(this);
+    }
+
+    @Nullable
+    public static Type getWeightSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(7);
     }
 
     @Nullable
     public Integer getRestingHeartRate() {
-        return (Integer) getFieldByNumber(8);
+        return getRestingHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getRestingHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Integer getDefaultMaxBikingHeartRate() {
-        return (Integer) getFieldByNumber(10);
+        return getDefaultMaxBikingHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getDefaultMaxBikingHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Integer getDefaultMaxHeartRate() {
-        return (Integer) getFieldByNumber(11);
+        return getDefaultMaxHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getDefaultMaxHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(11);
     }
 
     @Nullable
     public Integer getHrSetting() {
-        return (Integer) getFieldByNumber(12);
+        return getHrSetting(this);
+    }
+
+    @Nullable
+    public static Integer getHrSetting(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(12);
     }
 
     @Nullable
     public Type getSpeedSetting() {
-        return (Type) getFieldByNumber(13);
+        return getSpeedSetting(this);
+    }
+
+    @Nullable
+    public static Type getSpeedSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(13);
     }
 
     @Nullable
     public Type getDistSetting() {
-        return (Type) getFieldByNumber(14);
+        return getDistSetting(this);
+    }
+
+    @Nullable
+    public static Type getDistSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(14);
     }
 
     @Nullable
     public Integer getPowerSetting() {
-        return (Integer) getFieldByNumber(16);
+        return getPowerSetting(this);
+    }
+
+    @Nullable
+    public static Integer getPowerSetting(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(16);
     }
 
     @Nullable
     public Integer getActivityClass() {
-        return (Integer) getFieldByNumber(17);
+        return getActivityClass(this);
+    }
+
+    @Nullable
+    public static Integer getActivityClass(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(17);
     }
 
     @Nullable
     public Integer getPositionSetting() {
-        return (Integer) getFieldByNumber(18);
+        return getPositionSetting(this);
+    }
+
+    @Nullable
+    public static Integer getPositionSetting(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(18);
     }
 
     @Nullable
     public Type getTemperatureSetting() {
-        return (Type) getFieldByNumber(21);
+        return getTemperatureSetting(this);
+    }
+
+    @Nullable
+    public static Type getTemperatureSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(21);
     }
 
     @Nullable
     public Long getWakeTime() {
-        return (Long) getFieldByNumber(28);
+        return getWakeTime(this);
+    }
+
+    @Nullable
+    public static Long getWakeTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(28);
     }
 
     @Nullable
     public Long getSleepTime() {
-        return (Long) getFieldByNumber(29);
+        return getSleepTime(this);
+    }
+
+    @Nullable
+    public static Long getSleepTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(29);
     }
 
     @Nullable
     public Type getHeightSetting() {
-        return (Type) getFieldByNumber(30);
+        return getHeightSetting(this);
+    }
+
+    @Nullable
+    public static Type getHeightSetting(final RecordFields record) {
+        return (Type) record.getFieldByNumber(30);
     }
 
     @Nullable
     public Integer getUserRunningStepLength() {
-        return (Integer) getFieldByNumber(31);
+        return getUserRunningStepLength(this);
+    }
+
+    @Nullable
+    public static Integer getUserRunningStepLength(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(31);
     }
 
     @Nullable
     public Integer getUserWalkingStepLength() {
-        return (Integer) getFieldByNumber(32);
+        return getUserWalkingStepLength(this);
+    }
+
+    @Nullable
+    public static Integer getUserWalkingStepLength(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(32);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,11 +23,21 @@ public class FitWatchfaceSettings extends RecordData {
 
     @Nullable
     public Integer getMode() {
-        return (Integer) getFieldByNumber(0);
+        return getMode(this);
+    }
+
+    @Nullable
+    public static Integer getMode(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getLayout() {
-        return (Integer) getFieldByNumber(1);
+        return getLayout(this);
+    }
+
+    @Nullable
+    public static Integer getLayout(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 }
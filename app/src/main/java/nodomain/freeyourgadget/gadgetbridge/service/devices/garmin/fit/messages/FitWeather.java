@@ -6,6 +6,7 @@ import java.time.DayOfWeek;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionWeatherAqi.AQI_LEVELS;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.fieldDefinitions.FieldDefinitionWeatherCondition.Condition;
@@ -26,96 +27,191 @@ public class FitWeather extends RecordData {
 
     @Nullable
     public Integer getWeatherReport() {
-        return (Integer) getFieldByNumber(0);
+        return getWeatherReport(this);
+    }
+
+    @Nullable
+    public static Integer getWeatherReport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(0);
     }
 
     @Nullable
     public Integer getTemperature() {
-        return (Integer) getFieldByNumber(1);
+        return getTemperature(this);
+    }
+
+    @Nullable
+    public static Integer getTemperature(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Condition getCondition() {
-        return (Condition) getFieldByNumber(2);
+        return getCondition(this);
+    }
+
+    @Nullable
+    public static Condition getCondition(final RecordFields record) {
+        return (Condition) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getWindDirection() {
-        return (Integer) getFieldByNumber(3);
+        return getWindDirection(this);
+    }
+
+    @Nullable
+    public static Integer getWindDirection(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Float getWindSpeed() {
-        return (Float) getFieldByNumber(4);
+        return getWindSpeed(this);
+    }
+
+    @Nullable
+    public static Float getWindSpeed(final RecordFields record) {
+        return (Float) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Integer getPrecipitationProbability() {
-        return (Integer) getFieldByNumber(5);
+        return getPrecipitationProbability(this);
+    }
+
+    @Nullable
+    public static Integer getPrecipitationProbability(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getTemperatureFeelsLike() {
-        return (Integer) getFieldByNumber(6);
+        return getTemperatureFeelsLike(this);
+    }
+
+    @Nullable
+    public static Integer getTemperatureFeelsLike(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public Integer getRelativeHumidity() {
-        return (Integer) getFieldByNumber(7);
+        return getRelativeHumidity(this);
+    }
+
+    @Nullable
+    public static Integer getRelativeHumidity(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 
     @Nullable
     public String getLocation() {
-        return (String) getFieldByNumber(8);
+        return getLocation(this);
+    }
+
+    @Nullable
+    public static String getLocation(final RecordFields record) {
+        return (String) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Long getObservedAtTime() {
-        return (Long) getFieldByNumber(9);
+        return getObservedAtTime(this);
+    }
+
+    @Nullable
+    public static Long getObservedAtTime(final RecordFields record) {
+        return (Long) record.getFieldByNumber(9);
     }
 
     @Nullable
     public Long getObservedLocationLat() {
-        return (Long) getFieldByNumber(10);
+        return getObservedLocationLat(this);
+    }
+
+    @Nullable
+    public static Long getObservedLocationLat(final RecordFields record) {
+        return (Long) record.getFieldByNumber(10);
     }
 
     @Nullable
     public Long getObservedLocationLong() {
-        return (Long) getFieldByNumber(11);
+        return getObservedLocationLong(this);
+    }
+
+    @Nullable
+    public static Long getObservedLocationLong(final RecordFields record) {
+        return (Long) record.getFieldByNumber(11);
     }
 
     @Nullable
     public DayOfWeek getDayOfWeek() {
-        return (DayOfWeek) getFieldByNumber(12);
+        return getDayOfWeek(this);
+    }
+
+    @Nullable
+    public static DayOfWeek getDayOfWeek(final RecordFields record) {
+        return (DayOfWeek) record.getFieldByNumber(12);
     }
 
     @Nullable
     public Integer getHighTemperature() {
-        return (Integer) getFieldByNumber(13);
+        return getHighTemperature(this);
+    }
+
+    @Nullable
+    public static Integer getHighTemperature(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(13);
     }
 
     @Nullable
     public Integer getLowTemperature() {
-        return (Integer) getFieldByNumber(14);
+        return getLowTemperature(this);
+    }
+
+    @Nullable
+    public static Integer getLowTemperature(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(14);
     }
 
     @Nullable
     public Integer getDewPoint() {
-        return (Integer) getFieldByNumber(15);
+        return getDewPoint(this);
+    }
+
+    @Nullable
+    public static Integer getDewPoint(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(15);
     }
 
     @Nullable
     public Float getUvIndex() {
-        return (Float) getFieldByNumber(16);
+        return getUvIndex(this);
+    }
+
+    @Nullable
+    public static Float getUvIndex(final RecordFields record) {
+        return (Float) record.getFieldByNumber(16);
     }
 
     @Nullable
     public AQI_LEVELS getAirQuality() {
-        return (AQI_LEVELS) getFieldByNumber(17);
+        return getAirQuality(this);
+    }
+
+    @Nullable
+    public static AQI_LEVELS getAirQuality(final RecordFields record) {
+        return (AQI_LEVELS) record.getFieldByNumber(17);
     }
 
     @Nullable
     public Long getTimestamp() {
-        return (Long) getFieldByNumber(253);
+        return getTimestamp(this);
+    }
+
+    @Nullable
+    public static Long getTimestamp(final RecordFields record) {
+        return (Long) record.getFieldByNumber(253);
     }
 }
@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,31 +23,61 @@ public class FitWorkout extends RecordData {
 
     @Nullable
     public Integer getSport() {
-        return (Integer) getFieldByNumber(4);
+        return getSport(this);
+    }
+
+    @Nullable
+    public static Integer getSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(4);
     }
 
     @Nullable
     public Long getCapabilities() {
-        return (Long) getFieldByNumber(5);
+        return getCapabilities(this);
+    }
+
+    @Nullable
+    public static Long getCapabilities(final RecordFields record) {
+        return (Long) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getNumValidSteps() {
-        return (Integer) getFieldByNumber(6);
+        return getNumValidSteps(this);
+    }
+
+    @Nullable
+    public static Integer getNumValidSteps(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(6);
     }
 
     @Nullable
     public String getName() {
-        return (String) getFieldByNumber(8);
+        return getName(this);
+    }
+
+    @Nullable
+    public static String getName(final RecordFields record) {
+        return (String) record.getFieldByNumber(8);
     }
 
     @Nullable
     public Integer getSubSport() {
-        return (Integer) getFieldByNumber(11);
+        return getSubSport(this);
+    }
+
+    @Nullable
+    public static Integer getSubSport(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(11);
     }
 
     @Nullable
     public String getNotes() {
-        return (String) getFieldByNumber(17);
+        return getNotes(this);
+    }
+
+    @Nullable
+    public static String getNotes(final RecordFields record) {
+        return (String) record.getFieldByNumber(17);
     }
 }
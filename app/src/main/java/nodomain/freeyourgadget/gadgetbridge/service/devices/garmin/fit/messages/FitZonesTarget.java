@@ -4,6 +4,7 @@ import androidx.annotation.Nullable;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordFields;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 
 //
@@ -22,26 +23,51 @@ public class FitZonesTarget extends RecordData {
 
     @Nullable
     public Integer getFunctionalThresholdPower() {
-        return (Integer) getFieldByNumber(3);
+        return getFunctionalThresholdPower(this);
+    }
+
+    @Nullable
+    public static Integer getFunctionalThresholdPower(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(3);
     }
 
     @Nullable
     public Integer getMaxHeartRate() {
-        return (Integer) getFieldByNumber(1);
+        return getMaxHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getMaxHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(1);
     }
 
     @Nullable
     public Integer getThresholdHeartRate() {
-        return (Integer) getFieldByNumber(2);
+        return getThresholdHeartRate(this);
+    }
+
+    @Nullable
+    public static Integer getThresholdHeartRate(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(2);
     }
 
     @Nullable
     public Integer getHrCalcType() {
-        return (Integer) getFieldByNumber(5);
+        return getHrCalcType(this);
+    }
+
+    @Nullable
+    public static Integer getHrCalcType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(5);
     }
 
     @Nullable
     public Integer getPwrCalcType() {
-        return (Integer) getFieldByNumber(7);
+        return getPwrCalcType(this);
+    }
+
+    @Nullable
+    public static Integer getPwrCalcType(final RecordFields record) {
+        return (Integer) record.getFieldByNumber(7);
     }
 }
@@ -36,6 +36,7 @@ import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.GBException;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
+import nodomain.freeyourgadget.gadgetbridge.devices.ActivityRollupProvider;
 import nodomain.freeyourgadget.gadgetbridge.devices.hplus.HPlusConstants;
 import nodomain.freeyourgadget.gadgetbridge.devices.hplus.HPlusCoordinator;
 import nodomain.freeyourgadget.gadgetbridge.devices.hplus.HPlusHealthSampleProvider;
@@ -300,7 +301,7 @@ class HPlusHandlerThread extends GBDeviceIoThread {
                     }
                 }
 
-                provider.getSampleDao().insertOrReplaceInTx(samples);
+                provider.addGBActivitySamples(samples.toArray(new HPlusHealthActivitySample[0]));
                 mDaySlotRecords.clear();
 
                 //Create an overlay with unused slots
@@ -383,6 +384,7 @@ class HPlusHandlerThread extends GBDeviceIoThread {
             }
 
             overlayDao.insertOrReplaceInTx(overlayList);
+            ActivityRollupProvider.invalidate(session, deviceId, record.bedTimeStart, record.bedTimeEnd);
 
             //Store the data
             HPlusHealthActivitySample sample = createSample(dbHandler, record.timestamp);
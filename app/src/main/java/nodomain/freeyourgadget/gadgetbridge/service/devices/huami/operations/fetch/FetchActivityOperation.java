@@ -116,7 +116,7 @@ public class FetchActivityOperation extends AbstractRepeatingFetchOperation {
 
                 timestamp.add(Calendar.MINUTE, 1);
             }
-            sampleProvider.addGBActivitySamples(samples.toArray(new MiBandActivitySample[0]));
+            sampleProvider.addGBActivitySamplesBulk(samples, false);
 
             timestamp.add(Calendar.MINUTE, -1);
 
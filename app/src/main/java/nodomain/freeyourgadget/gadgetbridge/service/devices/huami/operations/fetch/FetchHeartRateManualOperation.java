@@ -102,7 +102,7 @@ public class FetchHeartRateManualOperation extends AbstractRepeatingFetchOperati
             }
 
             LOG.debug("Will persist {} heart rate manual samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving heart rate manual samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
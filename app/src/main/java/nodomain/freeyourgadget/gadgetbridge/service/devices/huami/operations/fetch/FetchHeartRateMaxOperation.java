@@ -102,7 +102,7 @@ public class FetchHeartRateMaxOperation extends AbstractRepeatingFetchOperation
             }
 
             LOG.debug("Will persist {} heart rate max samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving heart rate max samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
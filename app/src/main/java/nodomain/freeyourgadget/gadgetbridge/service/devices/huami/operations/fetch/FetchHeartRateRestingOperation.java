@@ -103,7 +103,7 @@ public class FetchHeartRateRestingOperation extends AbstractRepeatingFetchOperat
             }
 
             LOG.debug("Will persist {} heart rate resting samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving heart rate resting samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
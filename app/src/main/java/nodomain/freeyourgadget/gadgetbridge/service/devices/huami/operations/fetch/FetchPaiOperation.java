@@ -131,7 +131,7 @@ public class FetchPaiOperation extends AbstractRepeatingFetchOperation {
             }
 
             LOG.debug("Will persist {} pai samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving pai samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
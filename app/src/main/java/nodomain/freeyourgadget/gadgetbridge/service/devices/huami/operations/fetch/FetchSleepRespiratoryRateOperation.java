@@ -102,7 +102,7 @@ public class FetchSleepRespiratoryRateOperation extends AbstractRepeatingFetchOp
             }
 
             LOG.debug("Will persist {} sleep respiratory rate samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving sleep respiratory rate samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
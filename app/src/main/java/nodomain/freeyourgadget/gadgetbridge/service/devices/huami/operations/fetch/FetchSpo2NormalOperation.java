@@ -112,7 +112,7 @@ public class FetchSpo2NormalOperation extends AbstractRepeatingFetchOperation {
             }
 
             LOG.debug("Will persist {} normal spo2 samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving normal spo2 samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
@@ -138,6 +138,7 @@ public class FetchSportsDetailsOperation extends AbstractFetchOperation {
             try (DBHandler dbHandler = GBApplication.acquireDB()) {
                 if (exportGpxSuccess) {
                     summary.setGpxTrack(targetFile.getAbsolutePath());
+                    summary.setHasGps(true);
                 }
                 if (rawBytesPath != null) {
                     summary.setRawDetailsPath(rawBytesPath);
@@ -103,7 +103,7 @@ public class FetchStressAutoOperation extends AbstractRepeatingFetchOperation {
             }
 
             LOG.debug("Will persist {} auto stress samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving auto stress samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
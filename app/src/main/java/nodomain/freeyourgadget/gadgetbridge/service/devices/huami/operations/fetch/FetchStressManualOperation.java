@@ -107,7 +107,7 @@ public class FetchStressManualOperation extends AbstractRepeatingFetchOperation
             }
 
             LOG.debug("Will persist {} manual stress samples", samples.size());
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(getContext(), "Error saving manual stress samples", Toast.LENGTH_LONG, GB.ERROR, e);
             return false;
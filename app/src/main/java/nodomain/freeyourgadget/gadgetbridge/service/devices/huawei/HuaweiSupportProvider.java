@@ -35,6 +35,7 @@ import java.nio.charset.StandardCharsets;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
@@ -1527,61 +1528,72 @@ public class HuaweiSupportProvider {
         responseManager.addHandler(request);
     }
 
+    public static HuaweiActivitySample createSleepActivity(int timestamp_start, int timestamp_end, byte type, byte source) {
+        return new HuaweiActivitySample(
+                timestamp_start,
+                0,
+                0,
+                timestamp_end,
+                source,
+                type,
+                1,
+                ActivitySample.NOT_MEASURED,
+                ActivitySample.NOT_MEASURED,
+                ActivitySample.NOT_MEASURED,
+                ActivitySample.NOT_MEASURED,
+                ActivitySample.NOT_MEASURED
+        );
+    }
+
+    public static HuaweiActivitySample createStepData(int timestamp, short steps, short calories, short distance, byte spo, byte heartrate) {
+        return new HuaweiActivitySample(
+                timestamp,
+                0,
+                0,
+                timestamp + 60,
+                FitnessData.MessageData.stepId,
+                ActivitySample.NOT_MEASURED,
+                1,
+                steps,
+                calories,
+                distance,
+                spo,
+                heartrate
+        );
+    }
+
     public void addSleepActivity(int timestamp_start, int timestamp_end, byte type, byte source) {
         LOG.debug("Adding sleep activity between {} and {}", timestamp_start, timestamp_end);
+        addActivitySamples(Collections.singletonList(createSleepActivity(timestamp_start, timestamp_end, type, source)));
+    }
 
-        try (DBHandler db = GBApplication.acquireDB()) {
-            Long userId = DBHelper.getUser(db.getDaoSession()).getId();
-            Long deviceId = DBHelper.getDevice(gbDevice, db.getDaoSession()).getId();
-            HuaweiSampleProvider sampleProvider = new HuaweiSampleProvider(gbDevice, db.getDaoSession());
-
-            HuaweiActivitySample activitySample = new HuaweiActivitySample(
-                    timestamp_start,
-                    deviceId,
-                    userId,
-                    timestamp_end,
-                    source,
-                    type,
-                    1,
-                    ActivitySample.NOT_MEASURED,
-                    ActivitySample.NOT_MEASURED,
-                    ActivitySample.NOT_MEASURED,
-                    ActivitySample.NOT_MEASURED,
-                    ActivitySample.NOT_MEASURED
-            );
-            activitySample.setProvider(sampleProvider);
+    public void addStepData(int timestamp, short steps, short calories, short distance, byte spo, byte heartrate) {
+        addActivitySamples(Collections.singletonList(createStepData(timestamp, steps, calories, distance, spo, heartrate)));
+    }
 
-            sampleProvider.addGBActivitySample(activitySample);
-        } catch (Exception e) {
-            LOG.error("Failed to add sleep activity to database", e);
+    /**
+     * Adds the samples of a response at once, see {@link #createSleepActivity(int, int, byte, byte)}
+     * and {@link #createStepData(int, short, short, short, byte, byte)}.
+     */
+    public void addActivitySamples(List<HuaweiActivitySample> activitySamples) {
+        if (activitySamples.isEmpty()) {
+            return;
         }
-    }
 
-    public void addStepData(int timestamp, short steps, short calories, short distance, byte spo, byte heartrate) {
         try (DBHandler db = GBApplication.acquireDB()) {
             Long userId = DBHelper.getUser(db.getDaoSession()).getId();
             Long deviceId = DBHelper.getDevice(gbDevice, db.getDaoSession()).getId();
             HuaweiSampleProvider sampleProvider = new HuaweiSampleProvider(gbDevice, db.getDaoSession());
 
-            HuaweiActivitySample activitySample = new HuaweiActivitySample(
-                    timestamp,
-                    deviceId,
-                    userId,
-                    timestamp + 60,
-                    FitnessData.MessageData.stepId,
-                    ActivitySample.NOT_MEASURED,
-                    1,
-                    steps,
-                    calories,
-                    distance,
-                    spo,
-                    heartrate
-            );
-            activitySample.setProvider(sampleProvider);
+            for (HuaweiActivitySample activitySample : activitySamples) {
+                activitySample.setUserId(userId);
+                activitySample.setDeviceId(deviceId);
+                activitySample.setProvider(sampleProvider);
+            }
 
-            sampleProvider.addGBActivitySample(activitySample);
+            sampleProvider.addGBActivitySamplesBulk(activitySamples, false);
         } catch (Exception e) {
-            LOG.error("Failed to add step data to database", e);
+            LOG.error("Failed to add activity samples to database", e);
         }
     }
 
@@ -61,6 +61,7 @@ import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryData;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryEntries;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryParser;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityUser;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
@@ -369,6 +370,7 @@ public class HuaweiWorkoutGbParser implements ActivitySummaryParser {
         );
 
         updateBaseSummary(session, summary, baseSummary);
+        ActivitySummaryMetrics.update(baseSummary);
 
         session.getBaseActivitySummaryDao().insertOrReplace(baseSummary);
     }
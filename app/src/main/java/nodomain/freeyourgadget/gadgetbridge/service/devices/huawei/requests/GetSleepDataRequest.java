@@ -19,10 +19,12 @@ package nodomain.freeyourgadget.gadgetbridge.service.devices.huawei.requests;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import nodomain.freeyourgadget.gadgetbridge.devices.huawei.HuaweiPacket;
 import nodomain.freeyourgadget.gadgetbridge.devices.huawei.packets.FitnessData;
+import nodomain.freeyourgadget.gadgetbridge.entities.HuaweiActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.huawei.HuaweiSupportProvider;
 
 public class GetSleepDataRequest extends Request {
@@ -63,6 +65,7 @@ public class GetSleepDataRequest extends Request {
             LOG.warn("Counts do not match");
         }
 
+        List<HuaweiActivitySample> samples = new ArrayList<>(response.containers.size());
         for (FitnessData.MessageData.SleepResponse.SubContainer subContainer : response.containers) {
             // TODO: it might make more sense to convert the timestamp in the FitnessData class
             int[] timestampInts = new int[6];
@@ -85,8 +88,9 @@ public class GetSleepDataRequest extends Request {
                             (timestampInts[5]);
             short duration = (short) (durationInt * 60);
 
-            this.supportProvider.addSleepActivity(timestamp, timestamp + duration, subContainer.type, FitnessData.MessageData.sleepId);
+            samples.add(HuaweiSupportProvider.createSleepActivity(timestamp, timestamp + duration, subContainer.type, FitnessData.MessageData.sleepId));
         }
+        this.supportProvider.addActivitySamples(samples);
 
         if (count + 1 < maxCount) {
             GetSleepDataRequest nextRequest = new GetSleepDataRequest(supportProvider, this.maxCount, (short) (this.count + 1));
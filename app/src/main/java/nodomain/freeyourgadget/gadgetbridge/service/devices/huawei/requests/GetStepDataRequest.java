@@ -19,10 +19,12 @@ package nodomain.freeyourgadget.gadgetbridge.service.devices.huawei.requests;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import nodomain.freeyourgadget.gadgetbridge.devices.huawei.HuaweiPacket;
 import nodomain.freeyourgadget.gadgetbridge.devices.huawei.packets.FitnessData;
+import nodomain.freeyourgadget.gadgetbridge.entities.HuaweiActivitySample;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.huawei.HuaweiSupportProvider;
 
 public class GetStepDataRequest extends Request {
@@ -60,6 +62,7 @@ public class GetStepDataRequest extends Request {
             this.count = response.number; // This stops it from going into a loop
         }
 
+        List<HuaweiActivitySample> samples = new ArrayList<>(response.containers.size());
         for (FitnessData.MessageData.StepResponse.SubContainer subContainer : response.containers) {
             int dataTimestamp = subContainer.timestamp;
 
@@ -81,11 +84,12 @@ public class GetStepDataRequest extends Request {
                     LOG.warn("Unknown tag in step data: " + tv);
                 }
 
-                this.supportProvider.addStepData(dataTimestamp, steps, calories, distance, spo, heartrate);
+                samples.add(HuaweiSupportProvider.createStepData(dataTimestamp, steps, calories, distance, spo, heartrate));
             } else {
                 LOG.error(subContainer.parsedDataError);
             }
         }
+        this.supportProvider.addActivitySamples(samples);
 
         if (count + 1 < maxCount) {
             GetStepDataRequest nextRequest = new GetStepDataRequest(supportProvider, this.maxCount, (short) (this.count + 1));
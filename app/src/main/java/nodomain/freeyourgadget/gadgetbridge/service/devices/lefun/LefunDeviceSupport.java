@@ -46,6 +46,7 @@ import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
 import nodomain.freeyourgadget.gadgetbridge.deviceevents.GBDeviceEventFindPhone;
 import nodomain.freeyourgadget.gadgetbridge.devices.lefun.LefunConstants;
+import nodomain.freeyourgadget.gadgetbridge.devices.lefun.LefunSampleProvider;
 import nodomain.freeyourgadget.gadgetbridge.devices.lefun.commands.FeaturesCommand;
 import nodomain.freeyourgadget.gadgetbridge.devices.lefun.commands.FindPhoneCommand;
 import nodomain.freeyourgadget.gadgetbridge.devices.lefun.commands.GetActivityDataCommand;
@@ -877,7 +878,7 @@ public class LefunDeviceSupport extends AbstractBTLEDeviceSupport {
             sample.setCalories(command.getCalories());
             sample.setRawIntensity(LefunConstants.INTENSITY_AWAKE);
 
-            session.getLefunActivitySampleDao().insertOrReplace(sample);
+            new LefunSampleProvider(getDevice(), session).addGBActivitySample(sample);
         } catch (Exception e) {
             LOG.error("Error handling activity data", e);
         }
@@ -908,7 +909,7 @@ public class LefunDeviceSupport extends AbstractBTLEDeviceSupport {
 
                 sample.setHeartRate(ppgData0);
 
-                session.getLefunActivitySampleDao().insertOrReplace(sample);
+                new LefunSampleProvider(getDevice(), session).addGBActivitySample(sample);
 
                 final Intent intent = new Intent(DeviceService.ACTION_REALTIME_SAMPLES)
                         .putExtra(GBDevice.EXTRA_DEVICE, getDevice())
@@ -995,7 +996,7 @@ public class LefunDeviceSupport extends AbstractBTLEDeviceSupport {
             sample.setRawKind(rawKind);
             sample.setRawIntensity(intensity);
 
-            session.getLefunActivitySampleDao().insertOrReplace(sample);
+            new LefunSampleProvider(getDevice(), session).addGBActivitySample(sample);
 
             LefunSleepSample sleepSample = new LefunSleepSample(timestamp,
                     DBHelper.getDevice(getDevice(), session).getId());
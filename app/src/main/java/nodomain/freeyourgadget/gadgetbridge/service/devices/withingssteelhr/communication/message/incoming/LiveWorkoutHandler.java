@@ -32,6 +32,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
 import nodomain.freeyourgadget.gadgetbridge.entities.Device;
 import nodomain.freeyourgadget.gadgetbridge.entities.User;
 import nodomain.freeyourgadget.gadgetbridge.externalevents.opentracks.OpenTracksController;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.withingssteelhr.WithingsSteelHRDeviceSupport;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.withingssteelhr.activity.WithingsActivityType;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.withingssteelhr.communication.datastructures.LiveWorkoutEnd;
@@ -139,6 +140,7 @@ public class LiveWorkoutHandler implements IncomingMessageHandler {
             User user = DBHelper.getUser(session);
             baseActivitySummary.setDevice(device);
             baseActivitySummary.setUser(user);
+            ActivitySummaryMetrics.update(baseActivitySummary);
             session.getBaseActivitySummaryDao().insertOrReplace(baseActivitySummary);
         } catch (Exception ex) {
             GB.toast(support.getContext(), "Error saving activity summary", Toast.LENGTH_LONG, GB.ERROR, ex);
@@ -31,6 +31,8 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
@@ -41,23 +43,41 @@ import nodomain.freeyourgadget.gadgetbridge.service.devices.xiaomi.services.Xiao
 import nodomain.freeyourgadget.gadgetbridge.util.CheckSums;
 import nodomain.freeyourgadget.gadgetbridge.util.GB;
 
+/**
+ * Fetches activity files one at a time. Received files are parsed and persisted on a background
+ * worker, in the order they were received, while the next file is already being transferred.
+ * At most {@link #MAX_PENDING_FILES} files wait for the worker, after that the next transfer is
+ * only requested once the worker catches up.
+ */
 public class XiaomiActivityFileFetcher {
     private static final Logger LOG = LoggerFactory.getLogger(XiaomiActivityFileFetcher.class);
 
+    private static final int MAX_PENDING_FILES = 4;
+
     private final XiaomiHealthService mHealthService;
 
     private final Queue<XiaomiActivityFileId> mFetchQueue = new PriorityQueue<>();
     private ByteArrayOutputStream mBuffer = new ByteArrayOutputStream();
     private boolean isFetching = false;
 
+    /// Files that were received, but not parsed yet
+    private int mPendingFiles = 0;
+    /// Whether the next transfer is held back until the parser catches up
+    private boolean mWaitingForParser = false;
+    private boolean mDisposed = false;
+    private final ExecutorService mParserExecutor = Executors.newSingleThreadExecutor();
+
     private final Handler timeoutHandler = new Handler(Looper.getMainLooper());
 
     public XiaomiActivityFileFetcher(final XiaomiHealthService healthService) {
         this.mHealthService = healthService;
     }
 
-    public void dispose() {
+    public synchronized void dispose() {
         clearTimeout();
+        mDisposed = true;
+        // files that were already received and acked are still parsed
+        mParserExecutor.shutdown();
     }
 
     private void clearTimeout() {
@@ -72,7 +92,7 @@ public class XiaomiActivityFileFetcher {
         }, 5000L);
     }
 
-    public void addChunk(final byte[] chunk) {
+    public synchronized void addChunk(final byte[] chunk) {
         clearTimeout();
 
         final int total = BLETypeConversions.toUint16(chunk, 0);
@@ -141,6 +161,18 @@ public class XiaomiActivityFileFetcher {
             return;
         }
 
+        if (mDisposed) {
+            LOG.warn("Not parsing {}, fetcher was disposed", fileId);
+            return;
+        }
+
+        mPendingFiles++;
+        mParserExecutor.execute(() -> parse(activityParser, fileId, data));
+
+        triggerNextFetch();
+    }
+
+    private void parse(final XiaomiActivityParser activityParser, final XiaomiActivityFileId fileId, final byte[] data) {
         try {
             if (activityParser.parse(mHealthService.getSupport(), fileId, data)) {
                 LOG.info("Successfully parsed {}", fileId);
@@ -151,10 +183,21 @@ public class XiaomiActivityFileFetcher {
             LOG.error("Exception while parsing {}", fileId, ex);
         }
 
-        triggerNextFetch();
+        synchronized (this) {
+            mPendingFiles--;
+            if (mDisposed) {
+                return;
+            }
+            if (mWaitingForParser) {
+                mWaitingForParser = false;
+                timeoutHandler.post(this::triggerNextFetch);
+            } else if (!isFetching && mPendingFiles == 0) {
+                timeoutHandler.post(this::finishFetching);
+            }
+        }
     }
 
-    public void fetch(final List<XiaomiActivityFileId> fileIds) {
+    public synchronized void fetch(final List<XiaomiActivityFileId> fileIds) {
         // #4305 - ensure unique files
         for (final XiaomiActivityFileId fileId : fileIds) {
             if (!mFetchQueue.contains(fileId)) {
@@ -176,19 +219,22 @@ public class XiaomiActivityFileFetcher {
         }
     }
 
-    private void triggerNextFetch() {
+    private synchronized void triggerNextFetch() {
         clearTimeout();
         mBuffer = new ByteArrayOutputStream();
 
+        if (mPendingFiles >= MAX_PENDING_FILES && !mFetchQueue.isEmpty()) {
+            LOG.debug("Waiting for {} activity files to be parsed", mPendingFiles);
+            mWaitingForParser = true;
+            return;
+        }
+
         final XiaomiActivityFileId fileId = mFetchQueue.poll();
 
         if (fileId == null) {
             LOG.debug("Nothing more to fetch");
             isFetching = false;
-            mHealthService.getSupport().getDevice().unsetBusyTask();
-            GB.signalActivityDataFinish(mHealthService.getSupport().getDevice());
-            GB.updateTransferNotification(null, "", false, 100, mHealthService.getSupport().getContext());
-            mHealthService.getSupport().getDevice().sendDeviceUpdateIntent(mHealthService.getSupport().getContext());
+            finishFetching();
             return;
         }
 
@@ -199,6 +245,18 @@ public class XiaomiActivityFileFetcher {
         mHealthService.requestRecordedData(fileId);
     }
 
+    private synchronized void finishFetching() {
+        if (isFetching || mPendingFiles > 0) {
+            // still transferring or parsing, the last parsed file finishes
+            return;
+        }
+
+        mHealthService.getSupport().getDevice().unsetBusyTask();
+        GB.signalActivityDataFinish(mHealthService.getSupport().getDevice());
+        GB.updateTransferNotification(null, "", false, 100, mHealthService.getSupport().getContext());
+        mHealthService.getSupport().getDevice().sendDeviceUpdateIntent(mHealthService.getSupport().getContext());
+    }
+
     protected void dumpBytesToExternalStorage(final XiaomiActivityFileId fileId, final byte[] bytes) {
         try {
             final GBDevice device = mHealthService.getSupport().getDevice();
@@ -186,7 +186,7 @@ public class DailyDetailsParser extends XiaomiActivityParser {
                 sample.setUser(user);
                 sample.setProvider(sampleProvider);
             }
-            sampleProvider.addGBActivitySamples(samples.toArray(new XiaomiActivitySample[0]));
+            sampleProvider.addGBActivitySamplesBulk(samples, false);
 
             return true;
         } catch (final Exception e) {
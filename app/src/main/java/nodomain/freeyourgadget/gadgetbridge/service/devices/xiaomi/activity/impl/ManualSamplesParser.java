@@ -120,7 +120,7 @@ public class ManualSamplesParser extends XiaomiActivityParser {
             }
 
             final XiaomiManualSampleProvider sampleProvider = new XiaomiManualSampleProvider(gbDevice, session);
-            sampleProvider.addSamples(samples);
+            sampleProvider.addSamplesBulk(samples, false);
         } catch (final Exception e) {
             GB.toast(support.getContext(), "Error saving manual samples", Toast.LENGTH_LONG, GB.ERROR);
             LOG.error("Error saving manual samples", e);
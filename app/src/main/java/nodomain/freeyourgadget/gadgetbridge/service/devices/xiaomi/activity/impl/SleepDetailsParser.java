@@ -327,7 +327,7 @@ public class SleepDetailsParser extends XiaomiActivityParser {
                     stageSample.setUser(user);
                 }
 
-                sampleProvider.addSamples(stages);
+                sampleProvider.addSamplesBulk(stages, false);
             } catch (final Exception e) {
                 GB.toast(support.getContext(), "Error saving sleep stage samples", Toast.LENGTH_LONG, GB.ERROR);
                 LOG.error("Error saving sleep stage samples", e);
@@ -349,7 +349,7 @@ public class SleepDetailsParser extends XiaomiActivityParser {
                 stageSample.setUser(user);
             }
 
-            sampleProvider.addSamples(heartPulseSamples);
+            sampleProvider.addSamplesBulk(heartPulseSamples, false);
         } catch (final Exception e) {
             GB.toast(support.getContext(), "Error saving heart pulse samples", Toast.LENGTH_LONG, GB.ERROR);
             LOG.error("Error saving heart pulse samples", e);
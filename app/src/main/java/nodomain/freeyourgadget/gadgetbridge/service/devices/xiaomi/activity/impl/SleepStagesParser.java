@@ -164,7 +164,7 @@ public class SleepStagesParser extends XiaomiActivityParser {
                 stageSample.setUser(user);
             }
 
-            sampleProvider.addSamples(stages);
+            sampleProvider.addSamplesBulk(stages, false);
         } catch (final Exception e) {
             GB.toast(support.getContext(), "Error saving sleep stage samples", Toast.LENGTH_LONG, GB.ERROR);
             LOG.error("Error saving sleep stage samples", e);
@@ -147,6 +147,7 @@ public class WorkoutGpsParser extends XiaomiActivityParser {
 
             if (exportGpxSuccess) {
                 summary.setGpxTrack(gpxTargetFile.getAbsolutePath());
+                summary.setHasGps(true);
             }
             if (rawBytesPath != null) {
                 summary.setRawDetailsPath(rawBytesPath);
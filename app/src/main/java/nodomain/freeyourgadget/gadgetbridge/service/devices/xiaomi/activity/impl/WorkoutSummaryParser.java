@@ -94,6 +94,7 @@ import nodomain.freeyourgadget.gadgetbridge.entities.DaoSession;
 import nodomain.freeyourgadget.gadgetbridge.entities.Device;
 import nodomain.freeyourgadget.gadgetbridge.entities.User;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryMetrics;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivitySummaryParser;
 import nodomain.freeyourgadget.gadgetbridge.service.btle.BLETypeConversions;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.xiaomi.XiaomiSupport;
@@ -128,6 +129,7 @@ public class WorkoutSummaryParser extends XiaomiActivityParser implements Activi
             return false;
         }
 
+        final String summaryData = summary.getSummaryData();
         summary.setSummaryData(null); // remove json before saving to database
 
         try (DBHandler dbHandler = GBApplication.acquireDB()) {
@@ -140,6 +142,7 @@ public class WorkoutSummaryParser extends XiaomiActivityParser implements Activi
             existingSummary.setActivityKind(summary.getActivityKind());
             existingSummary.setRawSummaryData(summary.getRawSummaryData());
             existingSummary.setSummaryData(null);  // remove json before saving to database
+            ActivitySummaryMetrics.update(existingSummary, summaryData);
 
             session.getBaseActivitySummaryDao().insertOrReplace(existingSummary);
         } catch (final Exception e) {
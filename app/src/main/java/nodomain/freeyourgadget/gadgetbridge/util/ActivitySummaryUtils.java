@@ -1,12 +1,20 @@
 package nodomain.freeyourgadget.gadgetbridge.util;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -16,12 +24,18 @@ import nodomain.freeyourgadget.gadgetbridge.export.ActivityTrackExporter;
 import nodomain.freeyourgadget.gadgetbridge.export.GPXExporter;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityPoint;
 import nodomain.freeyourgadget.gadgetbridge.model.ActivityTrack;
+import nodomain.freeyourgadget.gadgetbridge.model.CompactTrack;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.FitFile;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecord;
+import nodomain.freeyourgadget.gadgetbridge.util.gpx.GpxParseException;
+import nodomain.freeyourgadget.gadgetbridge.util.gpx.GpxParser;
 
 public final class ActivitySummaryUtils {
     private static final Logger LOG = LoggerFactory.getLogger(ActivitySummaryUtils.class);
 
+    private static final int COMPACT_TRACK_VERSION = 1;
+
     private ActivitySummaryUtils() {
         // utility class
     }
@@ -84,4 +98,89 @@ public final class ActivitySummaryUtils {
 
         return gpxFile;
     }
+
+    /**
+     * Parses all points of a gpx or fit track file.
+     */
+    public static List<ActivityPoint> getActivityPoints(final File trackFile) {
+        final List<ActivityPoint> points = new ArrayList<>();
+        if (trackFile.getName().endsWith(".gpx")) {
+            try (FileInputStream inputStream = new FileInputStream(trackFile)) {
+                final GpxParser gpxParser = new GpxParser(inputStream);
+                points.addAll(gpxParser.getGpxFile().getActivityPoints());
+            } catch (final IOException e) {
+                LOG.error("Failed to open {}", trackFile, e);
+            } catch (final GpxParseException e) {
+                LOG.error("Failed to parse gpx file", e);
+            }
+        } else if (trackFile.getName().endsWith(".fit")) {
+            try {
+                FitFile fitFile = FitFile.parseIncoming(trackFile);
+                for (final RecordData record : fitFile.getRecords()) {
+                    if (record instanceof FitRecord) {
+                        points.add(((FitRecord) record).toActivityPoint());
+                    }
+                }
+            } catch (final IOException e) {
+                LOG.error("Failed to open {}", trackFile, e);
+            } catch (final Exception e) {
+                LOG.error("Failed to parse fit file", e);
+            }
+        } else {
+            LOG.warn("Unknown file type {}", trackFile.getName());
+        }
+
+        return points;
+    }
+
+    /**
+     * Same points as {@link #getActivityPoints(File)}, as a {@link CompactTrack}. The track is
+     * cached, so that the file is only parsed again after it changed. Should not be called on the
+     * main thread.
+     */
+    @NonNull
+    public static synchronized CompactTrack getCompactTrack(final File trackFile) {
+        final File cacheDir = new File(GBApplication.getContext().getCacheDir(), "tracks");
+        final String key = CheckSums.md5(trackFile.getAbsolutePath());
+        final File cacheFile = key != null ? new File(cacheDir, key + ".bin") : null;
+
+        if (cacheFile != null && cacheFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)))) {
+                if (in.readInt() == COMPACT_TRACK_VERSION
+                        && in.readLong() == trackFile.length()
+                        && in.readLong() == trackFile.lastModified()) {
+                    return CompactTrack.readFrom(in);
+                }
+            } catch (final IOException e) {
+                LOG.warn("Failed to read cached track {}", cacheFile, e);
+            }
+        }
+
+        final CompactTrack track = CompactTrack.fromActivityPoints(getActivityPoints(trackFile));
+        if (cacheFile == null || track.isEmpty()) {
+            // do not keep failures to parse the file
+            return track;
+        }
+
+        //noinspection ResultOfMethodCallIgnored
+        cacheDir.mkdirs();
+        final File tmpFile = new File(cacheDir, key + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+            out.writeInt(COMPACT_TRACK_VERSION);
+            out.writeLong(trackFile.length());
+            out.writeLong(trackFile.lastModified());
+            track.writeTo(out);
+        } catch (final IOException e) {
+            LOG.warn("Failed to cache track {}", trackFile, e);
+            //noinspection ResultOfMethodCallIgnored
+            tmpFile.delete();
+            return track;
+        }
+        if (!tmpFile.renameTo(cacheFile)) {
+            LOG.warn("Failed to rename {} to {}", tmpFile, cacheFile);
+            //noinspection ResultOfMethodCallIgnored
+            tmpFile.delete();
+        }
+        return track;
+    }
 }
@@ -0,0 +1,112 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.util;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import androidx.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Keeps bitmaps as png files in a directory, up to a maximum total size. When it is exceeded, the
+ * least recently used files are removed, going by their last modification time, which is updated
+ * when a file is read.
+ */
+public class BitmapDiskCache {
+    private static final Logger LOG = LoggerFactory.getLogger(BitmapDiskCache.class);
+
+    private final File directory;
+    private final long maxBytes;
+
+    public BitmapDiskCache(final File directory, final long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param key a valid file name
+     */
+    @Nullable
+    synchronized public Bitmap get(final String key) {
+        final File file = new File(directory, key + ".png");
+        if (!file.exists()) {
+            return null;
+        }
+        final Bitmap bitmap = BitmapFactory.decodeFile(file.getPath());
+        if (bitmap == null) {
+            LOG.warn("Failed to decode {}", file);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return null;
+        }
+        //noinspection ResultOfMethodCallIgnored
+        file.setLastModified(System.currentTimeMillis());
+        return bitmap;
+    }
+
+    /**
+     * @param key a valid file name
+     */
+    synchronized public void put(final String key, final Bitmap bitmap) {
+        //noinspection ResultOfMethodCallIgnored
+        directory.mkdirs();
+        final File file = new File(directory, key + ".png");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            bitmap.compress(Bitmap.CompressFormat.PNG, 100, out);
+        } catch (final IOException e) {
+            LOG.warn("Failed to write {}", file, e);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return;
+        }
+        trim();
+    }
+
+    private void trim() {
+        final File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        long totalBytes = 0;
+        for (final File file : files) {
+            totalBytes += file.length();
+        }
+        if (totalBytes <= maxBytes) {
+            return;
+        }
+
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (final File file : files) {
+            if (totalBytes <= maxBytes) {
+                break;
+            }
+            final long length = file.length();
+            if (file.delete()) {
+                totalBytes -= length;
+            }
+        }
+    }
+}
@@ -24,7 +24,6 @@ import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 
-import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.activities.DashboardFragment;
 import nodomain.freeyourgadget.gadgetbridge.activities.charts.StepAnalysis;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
@@ -48,56 +47,10 @@ public class DashboardUtils {
         return DailyTotals.getDailyTotalsForDevice(device, day, db);
     }
 
-    public static int getStepsTotal(DashboardFragment.DashboardData dashboardData) {
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        int totalSteps = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActivityTracking()) {
-                    totalSteps += (int) getDailyTotals(dev, dbHandler, dashboardData.timeTo).getSteps();
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total amount of steps: ", e);
-        }
-        return totalSteps;
-    }
-
-    public static int getActiveCaloriesTotal(DashboardFragment.DashboardData dashboardData) {
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        int totalActiveCalories = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActiveCalories()) {
-                    totalActiveCalories += (int) getDailyTotals(dev, dbHandler, dashboardData.timeTo).getActiveCalories();
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total amount of active calories: ", e);
-        }
-        // Convert calories to kcal
-        return totalActiveCalories / 1000;
-    }
-
-    public static int getRestingCaloriesTotal(DashboardFragment.DashboardData dashboardData) {
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        int totalRestingCalories = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActiveCalories()) {
-                    totalRestingCalories += (int) getDailyTotals(dev, dbHandler, dashboardData.timeTo).getRestingCalories();
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total amount of resting calories: ", e);
-        }
-        return totalRestingCalories;
-    }
-
     public static float getStepsGoalFactor(DashboardFragment.DashboardData dashboardData) {
         ActivityUser activityUser = new ActivityUser();
         float stepsGoal = activityUser.getStepsGoal();
-        float goalFactor = getStepsTotal(dashboardData) / stepsGoal;
+        float goalFactor = dashboardData.getStepsTotal() / stepsGoal;
         if (goalFactor > 1) goalFactor = 1;
 
         return goalFactor;
@@ -109,57 +62,19 @@ public class DashboardUtils {
         return DailyTotals.getDailyTotalsForDevice(device, day, db).getSleep();
     }
 
-    public static long getSleepMinutesTotal(DashboardFragment.DashboardData dashboardData) {
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        long totalSleepMinutes = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActivityTracking()) {
-                    totalSleepMinutes += getSleep(dev, dbHandler, dashboardData.timeTo);
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total amount of sleep: ", e);
-        }
-        return totalSleepMinutes;
-    }
-
     public static float getSleepMinutesGoalFactor(DashboardFragment.DashboardData dashboardData) {
         ActivityUser activityUser = new ActivityUser();
         int sleepMinutesGoal = activityUser.getSleepDurationGoal() * 60;
-        float goalFactor = (float) getSleepMinutesTotal(dashboardData) / sleepMinutesGoal;
+        float goalFactor = (float) dashboardData.getSleepMinutesTotal() / sleepMinutesGoal;
         if (goalFactor > 1) goalFactor = 1;
 
         return goalFactor;
     }
 
-    public static float getDistanceTotal(DashboardFragment.DashboardData dashboardData) {
-        ActivityUser activityUser = new ActivityUser();
-        int stepLength = activityUser.getStepLengthCm();
-
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        long totalDistanceCm = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActivityTracking()) {
-                    final DailyTotals dailyTotals = getDailyTotals(dev, dbHandler, dashboardData.timeTo);
-                    if (dailyTotals.getSteps() > 0 && dailyTotals.getDistance() > 0) {
-                        totalDistanceCm += dailyTotals.getDistance();
-                    } else {
-                        totalDistanceCm += dailyTotals.getSteps() * stepLength;
-                    }
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total distance: ", e);
-        }
-        return totalDistanceCm * 0.01f;
-    }
-
     public static float getDistanceGoalFactor(DashboardFragment.DashboardData dashboardData) {
         ActivityUser activityUser = new ActivityUser();
         int distanceGoal = activityUser.getDistanceGoalMeters();
-        float goalFactor = getDistanceTotal(dashboardData) / distanceGoal;
+        float goalFactor = dashboardData.getDistanceTotal() / distanceGoal;
         if (goalFactor > 1) goalFactor = 1;
 
         return goalFactor;
@@ -168,31 +83,16 @@ public class DashboardUtils {
     public static float getActiveCaloriesGoalFactor(DashboardFragment.DashboardData dashboardData) {
         ActivityUser activityUser = new ActivityUser();
         int caloriesGoal = activityUser.getCaloriesBurntGoal();
-        float goalFactor = (float) getActiveCaloriesTotal(dashboardData) / caloriesGoal;
+        float goalFactor = (float) dashboardData.getActiveCaloriesTotal() / caloriesGoal;
         if (goalFactor > 1) goalFactor = 1;
 
         return goalFactor;
     }
 
-    public static long getActiveMinutesTotal(DashboardFragment.DashboardData dashboardData) {
-        List<GBDevice> devices = GBApplication.app().getDeviceManager().getDevices();
-        long totalActiveMinutes = 0;
-        try (DBHandler dbHandler = GBApplication.acquireDB()) {
-            for (GBDevice dev : devices) {
-                if ((dashboardData.showAllDevices || dashboardData.showDeviceList.contains(dev.getAddress())) && dev.getDeviceCoordinator().supportsActivityTracking()) {
-                    totalActiveMinutes += getActiveMinutes(dev, dbHandler, dashboardData);
-                }
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not calculate total amount of activity: ", e);
-        }
-        return totalActiveMinutes;
-    }
-
     public static float getActiveMinutesGoalFactor(DashboardFragment.DashboardData dashboardData) {
         ActivityUser activityUser = new ActivityUser();
         int activeTimeGoal = activityUser.getActiveTimeGoalMinutes();
-        float goalFactor = (float) getActiveMinutesTotal(dashboardData) / activeTimeGoal;
+        float goalFactor = (float) dashboardData.getActiveMinutesTotal() / activeTimeGoal;
         if (goalFactor > 1) goalFactor = 1;
 
         return goalFactor;
@@ -201,12 +101,12 @@ public class DashboardUtils {
     public static long getActiveMinutes(GBDevice gbDevice, DBHandler db, DashboardFragment.DashboardData dashboardData) {
         ActivitySession stepSessionsSummary = new ActivitySession();
         List<ActivitySession> stepSessions;
-        List<? extends ActivitySample> activitySamples = getAllSamples(db, gbDevice, dashboardData);
+        SampleProvider<? extends ActivitySample> provider = getProvider(db, gbDevice);
         StepAnalysis stepAnalysis = new StepAnalysis();
 
         boolean isEmptySummary = false;
-        if (activitySamples != null) {
-            stepSessions = stepAnalysis.calculateStepSessions(activitySamples);
+        if (provider != null) {
+            stepSessions = stepAnalysis.calculateStepSessions(provider, dashboardData.timeFrom, dashboardData.timeTo);
             if (stepSessions.toArray().length == 0) {
                 isEmptySummary = true;
             }
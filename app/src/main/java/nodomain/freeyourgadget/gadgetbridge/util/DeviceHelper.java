@@ -31,6 +31,8 @@ import android.bluetooth.BluetoothDevice;
 import android.content.Context;
 import android.widget.Toast;
 
+import androidx.annotation.Nullable;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,10 +41,12 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import nodomain.freeyourgadget.gadgetbridge.GBApplication;
 import nodomain.freeyourgadget.gadgetbridge.GBException;
@@ -50,6 +54,7 @@ import nodomain.freeyourgadget.gadgetbridge.R;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHandler;
 import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
 import nodomain.freeyourgadget.gadgetbridge.devices.DeviceCoordinator;
+import nodomain.freeyourgadget.gadgetbridge.devices.DeviceTypeIndex;
 import nodomain.freeyourgadget.gadgetbridge.devices.miband.MiBandConst;
 import nodomain.freeyourgadget.gadgetbridge.entities.Device;
 import nodomain.freeyourgadget.gadgetbridge.entities.DeviceAttributes;
@@ -64,12 +69,14 @@ public class DeviceHelper {
     private static final DeviceHelper instance = new DeviceHelper();
 
     private DeviceType[] orderedDeviceTypes = null;
+    private volatile DeviceTypeIndex deviceTypeIndex = null;
+    private final AtomicBoolean deviceTypeIndexRequested = new AtomicBoolean(false);
 
     public static DeviceHelper getInstance() {
         return instance;
     }
 
-    private final HashMap<String, DeviceType> deviceTypeCache = new HashMap<>();
+    private final Map<String, DeviceType> deviceTypeCache = new ConcurrentHashMap<>();
 
     public GBDevice findAvailableDevice(String deviceAddress, Context context) {
         Set<GBDevice> availableDevices = getAvailableDevices(context);
@@ -116,7 +123,7 @@ public class DeviceHelper {
         return resolvedType.getDeviceCoordinator().createDevice(candidate, resolvedType);
     }
 
-    private DeviceType[] getOrderedDeviceTypes(){
+    private synchronized DeviceType[] getOrderedDeviceTypes(){
         if(orderedDeviceTypes == null){
             ArrayList<DeviceType> orderedDevices = new ArrayList<>(Arrays.asList(DeviceType.values()));
             Collections.sort(orderedDevices, Comparator.comparingInt(dc -> dc.getDeviceCoordinator().getOrderPriority()));
@@ -129,24 +136,48 @@ public class DeviceHelper {
         return resolveDeviceType(deviceCandidate, true);
     }
 
-    public DeviceType resolveDeviceType(GBDeviceCandidate deviceCandidate, boolean useCache){
-        synchronized (this) {
-            if(useCache) {
-                DeviceType cachedType =
-                        deviceTypeCache.get(deviceCandidate.getMacAddress().toLowerCase());
-                if (cachedType != null) {
-                    return cachedType;
+    /**
+     * The index is built in the background the first time it is needed. Until it is ready, all
+     * device types are checked in order.
+     */
+    @Nullable
+    private DeviceTypeIndex getDeviceTypeIndex() {
+        final DeviceTypeIndex index = deviceTypeIndex;
+        if (index == null && deviceTypeIndexRequested.compareAndSet(false, true)) {
+            new Thread(() -> {
+                try {
+                    deviceTypeIndex = new DeviceTypeIndex(getOrderedDeviceTypes());
+                } catch (final Exception e) {
+                    LOG.error("Failed to build device type index", e);
                 }
+            }, "DeviceTypeIndex").start();
+        }
+        return index;
+    }
+
+    public DeviceType resolveDeviceType(GBDeviceCandidate deviceCandidate, boolean useCache){
+        final String address = deviceCandidate.getMacAddress().toLowerCase();
+        if(useCache) {
+            DeviceType cachedType = deviceTypeCache.get(address);
+            if (cachedType != null) {
+                return cachedType;
             }
+        }
 
-            for (DeviceType type : getOrderedDeviceTypes()) {
-                if (type.getDeviceCoordinator().supports(deviceCandidate)) {
-                    deviceTypeCache.put(deviceCandidate.getMacAddress().toLowerCase(), type);
-                    return type;
-                }
+        final DeviceTypeIndex index = getDeviceTypeIndex();
+        if (index != null) {
+            final DeviceType type = index.resolve(deviceCandidate);
+            deviceTypeCache.put(address, type);
+            return type;
+        }
+
+        for (DeviceType type : getOrderedDeviceTypes()) {
+            if (type.getDeviceCoordinator().supports(deviceCandidate)) {
+                deviceTypeCache.put(address, type);
+                return type;
             }
-            deviceTypeCache.put(deviceCandidate.getMacAddress().toLowerCase(), DeviceType.UNKNOWN);
         }
+        deviceTypeCache.put(address, DeviceType.UNKNOWN);
         return DeviceType.UNKNOWN;
     }
 
@@ -0,0 +1,94 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.util;
+
+import androidx.annotation.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A map that forgets entries that were not written for longer than a maximum age, and the
+ * oldest entries once it grows over a maximum size.
+ */
+public class ExpiringCache<K, V> {
+    private final int maxSize;
+    private final long maxAgeNanos;
+    /// In the order the entries were written, so the eldest entries expire first
+    private final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>();
+
+    public ExpiringCache(final int maxSize, final long maxAge, final TimeUnit unit) {
+        this.maxSize = maxSize;
+        this.maxAgeNanos = unit.toNanos(maxAge);
+    }
+
+    synchronized public void put(final K key, final V value) {
+        final long now = System.nanoTime();
+        map.remove(key);
+        map.put(key, new Entry<>(value, now));
+        evict(now);
+    }
+
+    @Nullable
+    synchronized public V get(final K key) {
+        final Entry<V> entry = map.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.time > maxAgeNanos) {
+            map.remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    synchronized public void remove(final K key) {
+        map.remove(key);
+    }
+
+    synchronized public void clear() {
+        map.clear();
+    }
+
+    synchronized public int size() {
+        evict(System.nanoTime());
+        return map.size();
+    }
+
+    private void evict(final long now) {
+        final Iterator<Map.Entry<K, Entry<V>>> it = map.entrySet().iterator();
+        while (it.hasNext()) {
+            final Entry<V> eldest = it.next().getValue();
+            if (map.size() <= maxSize && now - eldest.time <= maxAgeNanos) {
+                break;
+            }
+            it.remove();
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long time;
+
+        private Entry(final V value, final long time) {
+            this.value = value;
+            this.time = time;
+        }
+    }
+}
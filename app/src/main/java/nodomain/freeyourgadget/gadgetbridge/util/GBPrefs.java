@@ -53,6 +53,8 @@ public class GBPrefs extends Prefs {
     public static final String AUTO_EXPORT_LOCATION = "auto_export_location";
     public static final String PING_TONE = "ping_tone";
     public static final String AUTO_EXPORT_INTERVAL = "auto_export_interval";
+    public static final String AUTO_EXPORT_INCREMENTAL = "auto_export_incremental";
+    public static final String AUTO_EXPORT_LAST_FINGERPRINT = "auto_export_last_fingerprint";
     private static final boolean AUTO_START_DEFAULT = true;
     public static final String RTL_SUPPORT = "rtl";
     public static final String RTL_CONTEXTUAL_ARABIC = "contextualArabic";
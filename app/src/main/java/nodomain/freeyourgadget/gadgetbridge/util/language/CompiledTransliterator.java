@@ -0,0 +1,149 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.util.language;
+
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A chain of {@link SimpleTransliterator}s, compiled into a single char-indexed table that is
+ * applied in one pass over the text.
+ * <p>
+ * Simple transliterators replace every char independently of its neighbours, so passing a text
+ * through all of them is the same as replacing each of its chars by the result of passing that
+ * char through all of them, which is what the table holds.
+ */
+public class CompiledTransliterator implements Transliterator {
+    private static final int PAGE_BITS = 8;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder();
+        }
+    };
+
+    /// Replacements by char, split in pages so that unmapped blocks take no memory
+    private final String[][] pages = new String[(Character.MAX_VALUE + 1) >> PAGE_BITS][];
+
+    public CompiledTransliterator(final List<SimpleTransliterator> transliterators) {
+        // Only chars that are a key of one of the maps, or that are lowercased to one, can change
+        final boolean[] keys = new boolean[Character.MAX_VALUE + 1];
+        boolean anyLowercase = false;
+        for (final SimpleTransliterator transliterator : transliterators) {
+            for (final Character key : transliterator.getTransliterateMap().keySet()) {
+                keys[key] = true;
+            }
+            anyLowercase |= transliterator.isConvertToLowercase();
+        }
+
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            final char c = (char) i;
+            if (!keys[c] && !(anyLowercase && keys[Character.toLowerCase(c)])) {
+                continue;
+            }
+            final String original = String.valueOf(c);
+            String replacement = original;
+            for (final SimpleTransliterator transliterator : transliterators) {
+                replacement = transliterator.transliterate(replacement);
+            }
+            if (!replacement.equals(original)) {
+                String[] page = pages[c >> PAGE_BITS];
+                if (page == null) {
+                    page = new String[PAGE_SIZE];
+                    pages[c >> PAGE_BITS] = page;
+                }
+                page[c & PAGE_MASK] = replacement;
+            }
+        }
+    }
+
+    /**
+     * Compiles all consecutive {@link SimpleTransliterator}s of the chain into a single
+     * {@link CompiledTransliterator}, keeping the others as they are.
+     */
+    public static Transliterator compile(final List<Transliterator> transliterators) {
+        final List<Transliterator> stages = new ArrayList<>();
+        List<SimpleTransliterator> run = new ArrayList<>();
+        for (final Transliterator transliterator : transliterators) {
+            if (transliterator instanceof SimpleTransliterator) {
+                run.add((SimpleTransliterator) transliterator);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                stages.add(new CompiledTransliterator(run));
+                run = new ArrayList<>();
+            }
+            stages.add(transliterator);
+        }
+        if (!run.isEmpty()) {
+            stages.add(new CompiledTransliterator(run));
+        }
+
+        if (stages.size() == 1) {
+            return stages.get(0);
+        }
+        return new MultiTransliterator(stages);
+    }
+
+    @Override
+    public String transliterate(final String txt) {
+        if (txt == null || txt.isEmpty()) {
+            return txt;
+        }
+
+        final int length = txt.length();
+        int i = 0;
+        while (i < length && lookup(txt.charAt(i)) == null) {
+            i++;
+        }
+        if (i == length) {
+            // nothing to replace
+            return txt;
+        }
+
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        sb.append(txt, 0, i);
+        for (; i < length; i++) {
+            final char c = txt.charAt(i);
+            final String replacement = lookup(c);
+            if (replacement != null) {
+                sb.append(replacement);
+            } else {
+                sb.append(c);
+            }
+        }
+
+        final String result = sb.toString();
+        if (sb.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    @Nullable
+    private String lookup(final char c) {
+        final String[] page = pages[c >> PAGE_BITS];
+        return page != null ? page[c & PAGE_MASK] : null;
+    }
+}
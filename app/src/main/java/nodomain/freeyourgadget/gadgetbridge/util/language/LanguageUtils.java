@@ -27,6 +27,7 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -92,6 +93,19 @@ public class LanguageUtils {
         put("armenian", new ArmenianTransliterator());
     }};
 
+    private static final int MAX_COMPILED_TRANSLITERATORS = 4;
+
+    /**
+     * Compiled transliterators by languages preference, so that they are only compiled again when
+     * the preference changes.
+     */
+    private static final Map<String, Transliterator> COMPILED_TRANSLITERATORS = new LinkedHashMap<String, Transliterator>(8, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Transliterator> eldest) {
+            return size() > MAX_COMPILED_TRANSLITERATORS;
+        }
+    };
+
     /**
      * Get a {@link Transliterator} for a specific language.
      *
@@ -123,6 +137,28 @@ public class LanguageUtils {
             return null;
         }
 
+        final boolean flattenToAscii = !coordinator.supportsUnicodeEmojis();
+        final String key = transliterateLanguagesPref + (flattenToAscii ? "|ascii" : "");
+
+        synchronized (COMPILED_TRANSLITERATORS) {
+            Transliterator transliterator = COMPILED_TRANSLITERATORS.get(key);
+            if (transliterator == null) {
+                final long start = System.nanoTime();
+                transliterator = CompiledTransliterator.compile(getTransliterators(transliterateLanguagesPref, flattenToAscii));
+                LOG.debug("Compiled transliterator for {} in {}ms", key, (System.nanoTime() - start) / 1000000);
+                COMPILED_TRANSLITERATORS.put(key, transliterator);
+            }
+            return transliterator;
+        }
+    }
+
+    /**
+     * Get the chain of transliterators for a languages preference, as applied one after the other.
+     *
+     * @param transliterateLanguagesPref comma-separated list of languages
+     * @param flattenToAscii             whether to flatten the result to ASCII
+     */
+    static List<Transliterator> getTransliterators(final String transliterateLanguagesPref, final boolean flattenToAscii) {
         final List<String> languages = Arrays.asList(transliterateLanguagesPref.split(","));
         final List<Transliterator> transliterators = new ArrayList<>(languages.size());
 
@@ -135,7 +171,7 @@ public class LanguageUtils {
             transliterators.add(TRANSLITERATORS_MAP.get(language));
         }
 
-        if (!coordinator.supportsUnicodeEmojis()) {
+        if (flattenToAscii) {
             // For now, assume that if the device does not support unicode emoji, it also doesn't
             // support utf, so flatten to ASCII. This allows for devices that support unicode
             // characters to still use transliterators for languages not supported by the device,
@@ -144,6 +180,6 @@ public class LanguageUtils {
             transliterators.add(new FlattenToAsciiTransliterator());
         }
 
-        return new MultiTransliterator(transliterators);
+        return transliterators;
     }
 }
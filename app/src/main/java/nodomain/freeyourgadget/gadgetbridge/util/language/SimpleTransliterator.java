@@ -33,6 +33,14 @@ public class SimpleTransliterator implements Transliterator {
         this(transliterateMap, true);
     }
 
+    Map<Character, String> getTransliterateMap() {
+        return transliterateMap;
+    }
+
+    boolean isConvertToLowercase() {
+        return convertToLowercase;
+    }
+
     @Override
     public String transliterate(String txt) {
         if (txt == null || txt.isEmpty()) {
@@ -0,0 +1,45 @@
+package nodomain.freeyourgadget.gadgetbridge.database;
+
+import android.database.sqlite.SQLiteDatabase;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import nodomain.freeyourgadget.gadgetbridge.entities.MiBandActivitySampleDao;
+import nodomain.freeyourgadget.gadgetbridge.test.TestBase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SampleIndexesTest extends TestBase {
+    @Test
+    public void testSampleTablesAreIndexed() {
+        final SQLiteDatabase db = dbHandler.getDatabase();
+        final List<String> tables = SampleIndexes.findSampleTables(db);
+        assertTrue(tables.contains(MiBandActivitySampleDao.TABLENAME));
+
+        for (final String table : tables) {
+            assertTrue(table, SampleIndexes.hasIndex(db, table));
+        }
+        assertEquals(0, SampleIndexes.auditQueryPlans(db));
+    }
+
+    @Test
+    public void testCreateIndexes() {
+        final SQLiteDatabase db = dbHandler.getDatabase();
+        // a sample table as it was created before the index existed
+        db.execSQL("CREATE TABLE \"TEST_SAMPLE\" (\"TIMESTAMP\" INTEGER NOT NULL, \"DEVICE_ID\" INTEGER NOT NULL, \"VALUE\" INTEGER, "
+                + "PRIMARY KEY (\"TIMESTAMP\", \"DEVICE_ID\") ON CONFLICT REPLACE) WITHOUT ROWID");
+        try {
+            assertTrue(SampleIndexes.findSampleTables(db).contains("TEST_SAMPLE"));
+            assertFalse(SampleIndexes.hasIndex(db, "TEST_SAMPLE"));
+
+            SampleIndexes.createIndexes(db);
+            assertTrue(SampleIndexes.hasIndex(db, "TEST_SAMPLE"));
+        } finally {
+            DBHelper.dropTable("TEST_SAMPLE", db);
+        }
+    }
+}
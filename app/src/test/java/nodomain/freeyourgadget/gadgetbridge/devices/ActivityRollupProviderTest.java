@@ -0,0 +1,203 @@
+package nodomain.freeyourgadget.gadgetbridge.devices;
+
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import nodomain.freeyourgadget.gadgetbridge.activities.charts.ActivityAnalysis;
+import nodomain.freeyourgadget.gadgetbridge.database.DBHelper;
+import nodomain.freeyourgadget.gadgetbridge.devices.miband.MiBandSampleProvider;
+import nodomain.freeyourgadget.gadgetbridge.entities.ActivityHourlyRollup;
+import nodomain.freeyourgadget.gadgetbridge.entities.Device;
+import nodomain.freeyourgadget.gadgetbridge.entities.MiBandActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.entities.User;
+import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmount;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmounts;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
+import nodomain.freeyourgadget.gadgetbridge.model.DeviceType;
+import nodomain.freeyourgadget.gadgetbridge.test.TestBase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ActivityRollupProviderTest extends TestBase {
+    @Test
+    public void testToRollupAddsUpActivityKinds() {
+        final Device device = new Device();
+        device.setId(42L);
+
+        final ActivityAmounts amounts = new ActivityAmounts();
+        amounts.addAmount(amount(ActivityKind.WALKING, 120, 200));
+        amounts.addAmount(amount(ActivityKind.RUNNING, 60, 300));
+        amounts.addAmount(amount(ActivityKind.ACTIVITY, 30, 0));
+        amounts.addAmount(amount(ActivityKind.LIGHT_SLEEP, 600, 0));
+
+        final ActivityHourlyRollup rollup = ActivityRollupProvider.toRollup(device, 3600, amounts, new ActivityAmounts());
+
+        assertEquals(3600, rollup.getTimestamp());
+        assertEquals(42L, rollup.getDeviceId());
+        assertEquals(210, rollup.getActivitySeconds());
+        assertEquals(600, rollup.getLightSleepSeconds());
+        assertEquals(0, rollup.getDeepSleepSeconds());
+        assertEquals(500, rollup.getSteps());
+    }
+
+    @Test
+    public void testPersistAndInvalidate() {
+        final GBDevice gbDevice = new GBDevice("00:00:00:00:20", "Mi Band", null, null, DeviceType.MIBAND);
+        final User user = DBHelper.getUser(daoSession);
+        final Device device = DBHelper.getDevice(gbDevice, daoSession);
+        final MiBandSampleProvider sampleProvider = new MiBandSampleProvider(gbDevice, daoSession);
+
+        final int hour = getStartOfHourDaysAgo(3);
+        for (int i = 1; i <= 10; i++) {
+            sampleProvider.addGBActivitySample(createSample(sampleProvider, hour + i * 60, 10, user, device));
+        }
+
+        final ActivityRollupProvider rollupProvider = new ActivityRollupProvider(gbDevice, daoSession);
+        assertEquals(100, getSteps(rollupProvider.getActivityAmounts(hour, hour + 3599)));
+
+        // The hour is settled, so it was persisted while holding the writer
+        List<ActivityHourlyRollup> persisted = daoSession.getActivityHourlyRollupDao().loadAll();
+        assertEquals(1, persisted.size());
+        assertEquals(hour, persisted.get(0).getTimestamp());
+        assertEquals(100, persisted.get(0).getSteps());
+
+        // Writing a sample in that hour drops the rollup, and it is recomputed
+        sampleProvider.addGBActivitySample(createSample(sampleProvider, hour + 30 * 60, 5, user, device));
+        assertTrue(daoSession.getActivityHourlyRollupDao().loadAll().isEmpty());
+        assertEquals(105, getSteps(rollupProvider.getActivityAmounts(hour, hour + 3599)));
+
+        persisted = daoSession.getActivityHourlyRollupDao().loadAll();
+        assertEquals(1, persisted.size());
+        assertEquals(105, persisted.get(0).getSteps());
+
+        ActivityRollupProvider.invalidateAll(daoSession, device.getId());
+        assertTrue(daoSession.getActivityHourlyRollupDao().loadAll().isEmpty());
+    }
+
+    @Test
+    public void testCurrentDayIsNotPersisted() {
+        final GBDevice gbDevice = new GBDevice("00:00:00:00:21", "Mi Band", null, null, DeviceType.MIBAND);
+        final User user = DBHelper.getUser(daoSession);
+        final Device device = DBHelper.getDevice(gbDevice, daoSession);
+        final MiBandSampleProvider sampleProvider = new MiBandSampleProvider(gbDevice, daoSession);
+
+        final int hour = getStartOfHourDaysAgo(0);
+        sampleProvider.addGBActivitySample(createSample(sampleProvider, hour + 60, 10, user, device));
+
+        final ActivityRollupProvider rollupProvider = new ActivityRollupProvider(gbDevice, daoSession);
+        assertEquals(10, getSteps(rollupProvider.getActivityAmounts(hour, hour + 3599)));
+        assertTrue(daoSession.getActivityHourlyRollupDao().loadAll().isEmpty());
+    }
+
+    @Test
+    public void testSameTotalsAsActivityAnalysis() {
+        final GBDevice gbDevice = new GBDevice("00:00:00:00:22", "Mi Band", null, null, DeviceType.MIBAND);
+        final User user = DBHelper.getUser(daoSession);
+        final Device device = DBHelper.getDevice(gbDevice, daoSession);
+        final MiBandSampleProvider sampleProvider = new MiBandSampleProvider(gbDevice, daoSession);
+
+        final int dayStart = getStartOfDayDaysAgo(3);
+        // Light sleep until 01:00 of the previous day, changing to deep sleep right at the hour
+        for (int ts = dayStart - 3 * 3600 + 7; ts < dayStart + 3600; ts += 60) {
+            sampleProvider.addGBActivitySample(createSample(sampleProvider, ts, 0, ts < dayStart ? MiBandSampleProvider.TYPE_LIGHT_SLEEP : MiBandSampleProvider.TYPE_DEEP_SLEEP, user, device));
+        }
+        // Activity from 01:00, then a gap from 03:40 until 06:20 across empty hours
+        for (int ts = dayStart + 3600; ts < dayStart + 3 * 3600 + 40 * 60; ts += 60) {
+            sampleProvider.addGBActivitySample(createSample(sampleProvider, ts, 7, MiBandSampleProvider.TYPE_ACTIVITY, user, device));
+        }
+        for (int ts = dayStart + 6 * 3600 + 20 * 60; ts < dayStart + 24 * 3600 + 2 * 3600; ts += 300) {
+            final int kind = (ts / 3600) % 2 == 0 ? MiBandSampleProvider.TYPE_ACTIVITY : MiBandSampleProvider.TYPE_NONWEAR;
+            sampleProvider.addGBActivitySample(createSample(sampleProvider, ts, 3, kind, user, device));
+        }
+
+        final ActivityRollupProvider rollupProvider = new ActivityRollupProvider(gbDevice, daoSession);
+        // Persist some hours first, so that persisted and computed hours are mixed
+        rollupProvider.getActivityAmounts(dayStart + 2 * 3600, dayStart + 8 * 3600 - 1);
+        assertTrue(daoSession.getActivityHourlyRollupDao().loadAll().size() > 0);
+
+        // Day totals, and sleep totals which are shifted by 12 hours
+        for (final int from : new int[]{dayStart, dayStart - 12 * 3600, dayStart + 2 * 3600, dayStart + 5 * 3600}) {
+            final int to = from + 24 * 3600 - 1;
+            final ActivityAmounts expected = new ActivityAnalysis().calculateActivityAmounts(sampleProvider.getAllActivitySamples(from, to));
+            final ActivityAmounts actual = rollupProvider.getActivityAmounts(from, to);
+            assertEquals(getSeconds(expected), getSeconds(actual));
+            assertEquals(getSteps(expected), getSteps(actual));
+        }
+    }
+
+    private static ActivityAmount amount(final ActivityKind kind, final long seconds, final long steps) {
+        final ActivityAmount amount = new ActivityAmount(kind);
+        amount.addSeconds(seconds);
+        amount.addSteps(steps);
+        return amount;
+    }
+
+    private static MiBandActivitySample createSample(final MiBandSampleProvider sampleProvider,
+                                                     final int timestamp,
+                                                     final int steps,
+                                                     final User user,
+                                                     final Device device) {
+        return createSample(sampleProvider, timestamp, steps, MiBandSampleProvider.TYPE_ACTIVITY, user, device);
+    }
+
+    private static MiBandActivitySample createSample(final MiBandSampleProvider sampleProvider,
+                                                     final int timestamp,
+                                                     final int steps,
+                                                     final int rawKind,
+                                                     final User user,
+                                                     final Device device) {
+        final MiBandActivitySample sample = sampleProvider.createActivitySample();
+        sample.setProvider(sampleProvider);
+        sample.setRawKind(rawKind);
+        sample.setTimestamp(timestamp);
+        sample.setRawIntensity(10);
+        sample.setHeartRate(70);
+        sample.setSteps(steps);
+        sample.setUserId(user.getId());
+        sample.setDeviceId(device.getId());
+        return sample;
+    }
+
+    private static long getSteps(final ActivityAmounts amounts) {
+        long steps = 0;
+        for (final ActivityAmount amount : amounts.getAmounts()) {
+            steps += amount.getTotalSteps();
+        }
+        return steps;
+    }
+
+    private static Map<ActivityKind, Long> getSeconds(final ActivityAmounts amounts) {
+        final Map<ActivityKind, Long> seconds = new EnumMap<>(ActivityKind.class);
+        for (final ActivityAmount amount : amounts.getAmounts()) {
+            if (amount.getTotalSeconds() > 0) {
+                seconds.put(amount.getActivityKind(), amount.getTotalSeconds());
+            }
+        }
+        return seconds;
+    }
+
+    private static int getStartOfDayDaysAgo(final int days) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, -days);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return (int) (calendar.getTimeInMillis() / 1000L);
+    }
+
+    private static int getStartOfHourDaysAgo(final int days) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.add(Calendar.DAY_OF_MONTH, -days);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return (int) (calendar.getTimeInMillis() / 1000L);
+    }
+}
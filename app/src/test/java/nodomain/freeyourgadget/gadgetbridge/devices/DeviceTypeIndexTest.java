@@ -0,0 +1,45 @@
+package nodomain.freeyourgadget.gadgetbridge.devices;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.regex.Pattern;
+
+public class DeviceTypeIndexTest {
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("vívosport", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("^vívosport$")));
+        assertEquals("nut", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("nut.*", Pattern.CASE_INSENSITIVE)));
+        assertEquals("Amazfit Band 7", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("^Amazfit Band 7.*")));
+        assertEquals("Mi Smart Band 4", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("^(?i)Mi Smart Band 4$")));
+        assertEquals("a.b", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("a\\.b")));
+        assertEquals("realme Buds T110", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("realme Buds T110", Pattern.LITERAL)));
+
+        // optional or repeated characters are not part of the prefix
+        assertEquals("ab", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("abc?")));
+        assertEquals("ab", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("abc{2}")));
+        assertEquals("Bip", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("Bip[ -]U.*")));
+    }
+
+    @Test
+    public void testNoLiteralPrefix() {
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("(A|B).*")));
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("a|b")));
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile(".*Watch")));
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("\\QWatch\\E")));
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("\\d+")));
+        assertEquals("", DeviceTypeIndex.getLiteralPrefix(Pattern.compile("band", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)));
+    }
+
+    @Test
+    public void testCaseInsensitive() {
+        assertTrue(DeviceTypeIndex.isCaseInsensitive(Pattern.compile("nut.*", Pattern.CASE_INSENSITIVE)));
+        assertTrue(DeviceTypeIndex.isCaseInsensitive(Pattern.compile("(?i)nut.*")));
+        assertTrue(DeviceTypeIndex.isCaseInsensitive(Pattern.compile("^(?i)nut.*")));
+        assertFalse(DeviceTypeIndex.isCaseInsensitive(Pattern.compile("nut.*")));
+        assertFalse(DeviceTypeIndex.isCaseInsensitive(Pattern.compile("(?i)nut", Pattern.LITERAL)));
+
+        assertEquals("amazfit gtr 4", DeviceTypeIndex.toAsciiLowerCase("Amazfit GTR 4"));
+    }
+}
@@ -313,6 +313,51 @@ public class TestHuaweiTLV {
         Assert.assertArrayEquals(expectedOutput, huaweiTLV.getBytes(tag));
     }
 
+    @Test
+    public void testGetIndexed() throws HuaweiPacket.MissingTagException {
+        HuaweiTLV huaweiTLV = new HuaweiTLV();
+        for (int i = 0; i < 20; i++)
+            huaweiTLV.put(0x01 + (i % 10), i);
+
+        // Duplicate tags resolve to the first element
+        Assert.assertEquals((Integer) 3, huaweiTLV.getInteger(0x04));
+        Assert.assertFalse(huaweiTLV.contains(0x20));
+
+        // Elements added after the first lookup are found as well
+        huaweiTLV.put(0x20, "test");
+        Assert.assertEquals("test", huaweiTLV.getString(0x20));
+
+        // Removing the last element with a tag keeps the first one
+        huaweiTLV.remove(0x03);
+        Assert.assertEquals((Integer) 2, huaweiTLV.getInteger(0x03));
+    }
+
+    @Test
+    public void testParseNested() throws HuaweiPacket.MissingTagException {
+        byte[] input = {0x01, 0x01, 0x42, (byte) 0x82, 0x06, 0x03, 0x02, 0x00, 0x07, 0x04, 0x00};
+        HuaweiTLV expectedObject = new HuaweiTLV()
+                .put(0x03, (short) 0x0007)
+                .put(0x04);
+
+        HuaweiTLV huaweiTLV = new HuaweiTLV().parse(input);
+
+        Assert.assertEquals((Byte) (byte) 0x42, huaweiTLV.getByte(0x01));
+        Assert.assertEquals(expectedObject, huaweiTLV.getObject(0x82));
+        Assert.assertEquals((Short) (short) 0x0007, huaweiTLV.getObject(0x82).getShort(0x03));
+        Assert.assertArrayEquals(input, huaweiTLV.serialize());
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testParseTruncatedNested() throws HuaweiPacket.MissingTagException {
+        // The nested element claims 5 bytes, but its parent only has room for 1
+        byte[] input = {0x01, 0x01, 0x42, (byte) 0x82, 0x03, 0x03, 0x05, 0x00, 0x04, 0x02, 0x00, 0x00};
+
+        HuaweiTLV huaweiTLV = new HuaweiTLV().parse(input);
+        Assert.assertEquals((Byte) (byte) 0x42, huaweiTLV.getByte(0x01));
+
+        huaweiTLV.getObject(0x82);
+    }
+
     @Test
     public void testGetByte() throws HuaweiPacket.MissingTagException {
         int tag = 0x01;
@@ -0,0 +1,73 @@
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class CompactTrackTest {
+    @Test
+    public void testRoundTrip() throws IOException {
+        final List<ActivityPoint> points = new ArrayList<>();
+        points.add(point(1700000000000L, 10.1234567, -170.7654321, 12.5, 90));
+        points.add(point(1700000001000L, 10.1234568, 179.9999999, GPSCoordinate.UNKNOWN_ALTITUDE, 0));
+        // heart rate only
+        final ActivityPoint noLocation = new ActivityPoint(new Date(1700000002500L));
+        noLocation.setHeartRate(95);
+        points.add(noLocation);
+        points.add(point(1700000003000L, -45.5, 0, -3.25, 100));
+
+        final CompactTrack track = CompactTrack.fromActivityPoints(points);
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        track.writeTo(new DataOutputStream(bytes));
+        final CompactTrack read = CompactTrack.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(4, read.size());
+        assertArrayEquals(track.getPreviewIndexes(), read.getPreviewIndexes());
+        final List<ActivityPoint> readPoints = read.toActivityPoints();
+        for (int i = 0; i < points.size(); i++) {
+            final ActivityPoint expected = points.get(i);
+            final ActivityPoint actual = readPoints.get(i);
+            assertEquals(expected.getTime(), actual.getTime());
+            assertEquals(Math.max(0, expected.getHeartRate()), actual.getHeartRate());
+            if (expected.getLocation() == null) {
+                assertNull(actual.getLocation());
+                assertFalse(read.hasLocation(i));
+            } else {
+                assertEquals(expected.getLocation().getLatitude(), actual.getLocation().getLatitude(), 1e-7);
+                assertEquals(expected.getLocation().getLongitude(), actual.getLocation().getLongitude(), 1e-7);
+                assertEquals(expected.getLocation().getAltitude(), actual.getLocation().getAltitude(), 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void testPreview() {
+        final List<ActivityPoint> points = new ArrayList<>();
+        // a straight line, then a sharp turn
+        for (int i = 0; i <= 100; i++) {
+            points.add(point(i * 1000L, 0, i * 0.0001, 0, 0));
+        }
+        for (int i = 1; i <= 100; i++) {
+            points.add(point((100 + i) * 1000L, i * 0.0001, 0.01, 0, 0));
+        }
+
+        final int[] preview = CompactTrack.fromActivityPoints(points).getPreviewIndexes();
+        assertArrayEquals(new int[]{0, 100, 200}, preview);
+    }
+
+    private static ActivityPoint point(final long time, final double lat, final double lon, final double alt, final int heartRate) {
+        final ActivityPoint point = new ActivityPoint(new Date(time));
+        point.setLocation(new GPSCoordinate(lon, lat, alt));
+        point.setHeartRate(heartRate);
+        return point;
+    }
+}
@@ -0,0 +1,93 @@
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class SparseActivitySamplesTest {
+    @Test
+    public void testGaps() {
+        final List<ActivitySample> samples = Arrays.asList(
+                new SparseActivitySamples.GapBound(1000 + 300),
+                new SparseActivitySamples.GapBound(1000 + 360),
+                new SparseActivitySamples.GapBound(1000 + 600),
+                new SparseActivitySamples.GapBound(1000 + 660)
+        );
+
+        final SparseActivitySamples<ActivitySample> sparse = SparseActivitySamples.withGaps(samples, 1000, 1000 + 900);
+        assertEquals(3, sparse.getGapCount());
+        // start of the range
+        assertEquals(1000, sparse.getGapStart(0));
+        assertEquals(1000 + 240, sparse.getGapEnd(0));
+        // between samples
+        assertEquals(1000 + 420, sparse.getGapStart(1));
+        assertEquals(1000 + 540, sparse.getGapEnd(1));
+        // end of the range
+        assertEquals(1000 + 720, sparse.getGapStart(2));
+        assertEquals(1000 + 900, sparse.getGapEnd(2));
+        assertEquals(5 + 3 + 4, sparse.getMissingSampleCount());
+
+        final SparseActivitySamples<ActivitySample> trimmed = sparse.trim(1000 + 120, 1000 + 480);
+        assertEquals(2, trimmed.getSamples().size());
+        assertEquals(2, trimmed.getGapCount());
+        assertEquals(1000 + 120, trimmed.getGapStart(0));
+        assertEquals(1000 + 240, trimmed.getGapEnd(0));
+        assertEquals(1000 + 420, trimmed.getGapStart(1));
+        assertEquals(1000 + 480, trimmed.getGapEnd(1));
+    }
+
+    @Test
+    public void testNoGaps() {
+        assertEquals(0, SparseActivitySamples.withGaps(Collections.<ActivitySample>emptyList(), 0, 3600).getGapCount());
+
+        final List<ActivitySample> samples = Arrays.asList(
+                new SparseActivitySamples.GapBound(0),
+                new SparseActivitySamples.GapBound(60),
+                new SparseActivitySamples.GapBound(120)
+        );
+        assertEquals(0, SparseActivitySamples.withGaps(samples, 0, 120).getGapCount());
+        assertEquals(0, SparseActivitySamples.withoutGaps(samples, 0, 3600).getGapCount());
+    }
+
+    @Test
+    public void testForEach() {
+        final List<ActivitySample> samples = Arrays.asList(
+                new SparseActivitySamples.GapBound(0),
+                new SparseActivitySamples.GapBound(300)
+        );
+        final SparseActivitySamples<ActivitySample> sparse = SparseActivitySamples.withGaps(samples, 0, 300);
+
+        final List<String> visited = new ArrayList<>();
+        sparse.forEach(new RecordingConsumer(visited));
+        assertEquals(Arrays.asList("0", "60-240", "300"), visited);
+
+        // plain consumers only get the samples
+        final List<Integer> timestamps = new ArrayList<>();
+        sparse.forEach((Consumer<ActivitySample>) sample -> timestamps.add(sample.getTimestamp()));
+        assertEquals(Arrays.asList(0, 300), timestamps);
+    }
+
+    private static class RecordingConsumer implements Consumer<ActivitySample>, SparseActivitySamples.GapConsumer {
+        private final List<String> visited;
+
+        private RecordingConsumer(final List<String> visited) {
+            this.visited = visited;
+        }
+
+        @Override
+        public void accept(final ActivitySample sample) {
+            visited.add(String.valueOf(sample.getTimestamp()));
+        }
+
+        @Override
+        public void acceptGap(final int gapStart, final int gapEnd) {
+            visited.add(gapStart + "-" + gapEnd);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class TimeSeriesTest {
+    @Test
+    public void testDecimateKeepsPeaks() {
+        final TimeSeries series = new TimeSeries(2);
+        for (int i = 0; i < 1000; i++) {
+            series.add(i, 60);
+        }
+        series.add(1000, 180);
+        for (int i = 1001; i < 2000; i++) {
+            series.add(i, 60);
+        }
+        series.add(2000, 40);
+
+        final TimeSeries decimated = series.decimate(100);
+        assertTrue(decimated.size() <= 100);
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int previousTimestamp = -1;
+        for (int i = 0; i < decimated.size(); i++) {
+            assertTrue(decimated.getTimestamp(i) > previousTimestamp);
+            previousTimestamp = decimated.getTimestamp(i);
+            min = Math.min(min, decimated.getValue(i));
+            max = Math.max(max, decimated.getValue(i));
+        }
+        assertEquals(40, min);
+        assertEquals(180, max);
+        assertEquals(0, decimated.getTimestamp(0));
+        assertEquals(2000, decimated.getTimestamp(decimated.size() - 1));
+    }
+
+    @Test
+    public void testDecimateKeepsGaps() {
+        // ten minutes of samples at both ends of a day
+        final TimeSeries series = new TimeSeries();
+        for (int i = 0; i < 600; i++) {
+            series.add(i, 70 + i % 10);
+        }
+        for (int i = 0; i < 600; i++) {
+            series.add(86400 - 600 + i, 70 + i % 10);
+        }
+
+        final TimeSeries decimated = series.decimate(200);
+        assertTrue(decimated.size() <= 200);
+        for (int i = 0; i < decimated.size(); i++) {
+            final int ts = decimated.getTimestamp(i);
+            assertTrue(ts < 600 || ts >= 86400 - 600);
+        }
+    }
+
+    @Test
+    public void testDecimateSmallSeries() {
+        final TimeSeries series = new TimeSeries();
+        series.add(0, 1);
+        series.add(60, 2);
+        assertSame(series, series.decimate(10));
+    }
+}
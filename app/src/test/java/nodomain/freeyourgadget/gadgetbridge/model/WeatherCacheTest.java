@@ -0,0 +1,150 @@
+package nodomain.freeyourgadget.gadgetbridge.model;
+
+import static org.junit.Assert.*;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class WeatherCacheTest {
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void roundTrip() throws IOException {
+        final WeatherSpec first = new WeatherSpec();
+        first.timestamp = 1700000000;
+        first.location = "Berlin";
+        first.currentTemp = 285;
+        first.currentConditionCode = 801;
+        first.currentCondition = "few clouds";
+        first.windSpeed = 12.5f;
+        first.latitude = 52.52f;
+        first.longitude = 13.405f;
+        first.isCurrentLocation = 1;
+        first.airQuality = new WeatherSpec.AirQuality();
+        first.airQuality.aqi = 42;
+        first.airQuality.pm25 = 7.5f;
+
+        final WeatherSpec.Daily daily = new WeatherSpec.Daily();
+        daily.minTemp = 280;
+        daily.maxTemp = 290;
+        daily.conditionCode = 500;
+        daily.moonPhase = 180;
+        first.forecasts.add(daily);
+
+        final WeatherSpec.Hourly hourly = new WeatherSpec.Hourly();
+        hourly.timestamp = 1700003600;
+        hourly.temp = 284;
+        hourly.uvIndex = 1.5f;
+        first.hourly.add(hourly);
+
+        final WeatherSpec second = new WeatherSpec();
+        second.location = null;
+        second.currentCondition = "\u00e9t\u00e9";
+
+        final List<WeatherSpec> decoded = WeatherCache.decode(WeatherCache.encode(Arrays.asList(first, second)));
+        assertEquals(2, decoded.size());
+
+        final WeatherSpec decodedFirst = decoded.get(0);
+        assertEquals(1700000000, decodedFirst.timestamp);
+        assertEquals("Berlin", decodedFirst.location);
+        assertEquals(285, decodedFirst.currentTemp);
+        assertEquals(801, decodedFirst.currentConditionCode);
+        assertEquals("few clouds", decodedFirst.currentCondition);
+        assertEquals(12.5f, decodedFirst.windSpeed, 0.0001f);
+        assertEquals(52.52f, decodedFirst.latitude, 0.0001f);
+        assertEquals(13.405f, decodedFirst.longitude, 0.0001f);
+        assertEquals(1, decodedFirst.isCurrentLocation);
+        assertEquals(42, decodedFirst.airQuality.aqi);
+        assertEquals(7.5f, decodedFirst.airQuality.pm25, 0.0001f);
+        assertEquals(-1, decodedFirst.airQuality.so2Aqi);
+
+        assertEquals(1, decodedFirst.forecasts.size());
+        assertEquals(280, decodedFirst.forecasts.get(0).minTemp);
+        assertEquals(290, decodedFirst.forecasts.get(0).maxTemp);
+        assertEquals(500, decodedFirst.forecasts.get(0).conditionCode);
+        assertEquals(180, decodedFirst.forecasts.get(0).moonPhase);
+        assertNull(decodedFirst.forecasts.get(0).airQuality);
+
+        assertEquals(1, decodedFirst.hourly.size());
+        assertEquals(1700003600, decodedFirst.hourly.get(0).timestamp);
+        assertEquals(284, decodedFirst.hourly.get(0).temp);
+        assertEquals(1.5f, decodedFirst.hourly.get(0).uvIndex, 0.0001f);
+
+        final WeatherSpec decodedSecond = decoded.get(1);
+        assertNull(decodedSecond.location);
+        assertEquals("\u00e9t\u00e9", decodedSecond.currentCondition);
+        assertEquals(3200, decodedSecond.currentConditionCode);
+        assertNull(decodedSecond.airQuality);
+        assertTrue(decodedSecond.forecasts.isEmpty());
+        assertTrue(decodedSecond.hourly.isEmpty());
+    }
+
+    @Test
+    public void empty() throws IOException {
+        assertTrue(WeatherCache.decode(WeatherCache.encode(Collections.emptyList())).isEmpty());
+    }
+
+    @Test
+    public void invalidData() throws IOException {
+        final byte[] valid = WeatherCache.encode(Collections.singletonList(new WeatherSpec()));
+
+        // truncated
+        assertDecodeFails(Arrays.copyOf(valid, valid.length - 1));
+        // not a weather cache, eg. a java serialization stream of older versions
+        assertDecodeFails(new byte[]{(byte) 0xac, (byte) 0xed, 0x00, 0x05, 0x73, 0x72});
+        // unsupported version
+        final byte[] newer = valid.clone();
+        newer[7] = (byte) (WeatherCache.VERSION + 1);
+        assertDecodeFails(newer);
+    }
+
+    @Test
+    public void migrateLegacyCache() throws IOException {
+        final File cacheDir = tmp.newFolder();
+        final File legacyCacheFile = new File(cacheDir, "weatherCache.bin");
+        final WeatherSpec spec = new WeatherSpec();
+        spec.location = "Berlin";
+        spec.currentTemp = 285;
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(legacyCacheFile))) {
+            out.writeObject(new ArrayList<>(Collections.singletonList(spec)));
+        }
+
+        final Weather weather = Weather.getInstance();
+        weather.setWeatherSpec(Collections.emptyList());
+        try {
+            weather.setCacheFile(cacheDir, true);
+
+            assertEquals("Berlin", weather.getWeatherSpec().location);
+            assertEquals(285, weather.getWeatherSpec().currentTemp);
+            assertFalse(legacyCacheFile.exists());
+
+            final List<WeatherSpec> migrated = WeatherCache.decode(Files.readAllBytes(new File(cacheDir, "weatherCache.dat").toPath()));
+            assertEquals(1, migrated.size());
+            assertEquals("Berlin", migrated.get(0).location);
+        } finally {
+            weather.setCacheFile(cacheDir, false);
+            weather.setWeatherSpec(Collections.emptyList());
+        }
+    }
+
+    private static void assertDecodeFails(final byte[] data) {
+        try {
+            WeatherCache.decode(data);
+            fail("Expected the weather cache to be rejected");
+        } catch (final IOException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package nodomain.freeyourgadget.gadgetbridge.service;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import nodomain.freeyourgadget.gadgetbridge.test.TestBase;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeviceCommandQueueTest extends TestBase {
+    @Test
+    public void testClearKeepsWaitingForPreviousQueue() throws InterruptedException {
+        final DeviceCommandQueue previous = new DeviceCommandQueue("test", null);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean previousDone = new AtomicBoolean();
+        previous.post(null, () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            previousDone.set(true);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        previous.stop(null);
+
+        final DeviceCommandQueue queue = new DeviceCommandQueue("test", previous);
+        queue.clear();
+        final AtomicBoolean ranAfterPrevious = new AtomicBoolean();
+        queue.post(null, () -> ranAfterPrevious.set(previousDone.get()));
+        assertFalse(queue.awaitIdle(100, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        assertTrue(queue.awaitIdle(5, TimeUnit.SECONDS));
+        assertTrue(ranAfterPrevious.get());
+        queue.stop(null);
+    }
+
+    @Test
+    public void testClearDropsPendingCommands() throws InterruptedException {
+        final DeviceCommandQueue queue = new DeviceCommandQueue("test", null);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicBoolean ran = new AtomicBoolean();
+        queue.post(null, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        queue.post(null, () -> ran.set(true));
+        queue.post("key", () -> ran.set(true));
+        queue.clear();
+
+        release.countDown();
+        assertTrue(queue.awaitIdle(5, TimeUnit.SECONDS));
+        assertFalse(ran.get());
+        queue.stop(null);
+    }
+}
@@ -8,6 +8,8 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.SharedPreferences;
 
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -83,16 +85,18 @@ public class DeviceCommunicationServiceTestCase extends TestBase {
     }
 
     @Test
-    public void ensureConnected() {
-        // connection goes synchronously here
-        mDeviceService.forDevice(getDevice()).connect();
+    public void ensureConnected() throws InterruptedException {
+        // connecting happens on the command queue of the device
+        final TestDeviceService deviceService = mDeviceService.forDevice(getDevice());
+        deviceService.connect();
+        assertTrue(deviceService.getService().awaitCommandQueue(getDevice().getAddress(), 5, TimeUnit.SECONDS));
         Mockito.verify(mockSupport, Mockito.times(1)).connect();
         assertTrue(getDevice().isInitialized());
     }
 
     @Ignore //FIXME, probably broken after adding multi-device support
     @Test
-    public void testFindDevice() {
+    public void testFindDevice() throws InterruptedException {
         ensureConnected();
 
         InOrder inOrder = Mockito.inOrder(mockSupport);
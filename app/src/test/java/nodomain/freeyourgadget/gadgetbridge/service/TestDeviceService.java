@@ -9,7 +9,6 @@ import org.robolectric.android.controller.ServiceController;
 
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDevice;
 import nodomain.freeyourgadget.gadgetbridge.impl.GBDeviceService;
-import nodomain.freeyourgadget.gadgetbridge.model.DeviceService;
 
 /**
  * Extends GBDeviceServer so that communication with the service works
@@ -31,7 +30,7 @@ class TestDeviceService extends GBDeviceService {
     }
 
     @Override
-    public DeviceService forDevice(final GBDevice device) {
+    public TestDeviceService forDevice(final GBDevice device) {
         return new TestDeviceService(mContext, device);
     }
 
@@ -53,6 +52,10 @@ class TestDeviceService extends GBDeviceService {
         serviceController.destroy();
     }
 
+    DeviceCommunicationService getService() {
+        return service;
+    }
+
     @Override
     public Intent createIntent() {
         return super.createIntent();
@@ -0,0 +1,134 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.service.devices.banglejs;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BangleJSUartFramerTest {
+    @Test
+    public void testLinesAcrossPackets() {
+        final BangleJSUartFramer framer = new BangleJSUartFramer();
+        final List<String> lines = new ArrayList<>();
+
+        framer.append(bytes("{\"t\":\"act\","), line -> lines.add(line.toString()));
+        framer.append(bytes("\"hrm\":80}\r\n>"), line -> lines.add(line.toString()));
+        framer.append(bytes("\r\n\r\nfoo\r\nba"), line -> lines.add(line.toString()));
+
+        assertEquals(Arrays.asList("{\"t\":\"act\",\"hrm\":80}", ">", "", "foo"), lines);
+        assertEquals(2, framer.getPendingLength());
+    }
+
+    @Test
+    public void testLongLine() {
+        final BangleJSUartFramer framer = new BangleJSUartFramer();
+        final List<String> lines = new ArrayList<>();
+
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            final String chunk = String.valueOf(i % 10);
+            expected.append(chunk);
+            framer.append(bytes(chunk), line -> lines.add(line.toString()));
+        }
+        framer.append(bytes("\r\n"), line -> lines.add(line.toString()));
+
+        assertEquals(1, lines.size());
+        assertEquals(expected.toString(), lines.get(0));
+    }
+
+    @Test
+    public void testTooLongLineIsDiscarded() {
+        final BangleJSUartFramer framer = new BangleJSUartFramer();
+        final List<String> lines = new ArrayList<>();
+
+        final byte[] chunk = new byte[4096];
+        Arrays.fill(chunk, (byte) 'a');
+        for (int i = 0; i <= BangleJSUartFramer.MAX_LINE_LENGTH / chunk.length; i++) {
+            framer.append(chunk, line -> lines.add(line.toString()));
+        }
+        framer.append(bytes("b\r\nok\r\n"), line -> lines.add(line.toString()));
+
+        assertEquals(Arrays.asList("ok"), lines);
+    }
+
+    @Test
+    public void testTokenizer() throws JSONException {
+        final JSONObject json = BangleJSJsonTokenizer.parseObject(
+                " {\"t\":\"actTrk\", \"n\":-12, \"big\":12345678901, \"f\":1.5e2, \"ok\":true, \"no\":false, " +
+                        "\"nil\":null, \"arr\":[1, \"a\\\"b\", {\"x\":[]}], \"esc\":\"line\\nnext\\u00e9\\/\", \"empty\":{}} "
+        );
+
+        assertEquals("actTrk", json.getString("t"));
+        assertEquals(-12, json.getInt("n"));
+        assertEquals(12345678901L, json.getLong("big"));
+        assertEquals(150.0, json.getDouble("f"), 0.0001);
+        assertTrue(json.getBoolean("ok"));
+        assertFalse(json.getBoolean("no"));
+        assertTrue(json.isNull("nil"));
+        final JSONArray arr = json.getJSONArray("arr");
+        assertEquals(3, arr.length());
+        assertEquals("a\"b", arr.getString(1));
+        assertEquals(0, arr.getJSONObject(2).getJSONArray("x").length());
+        assertEquals("line\nnext\u00e9/", json.getString("esc"));
+        assertEquals(0, json.getJSONObject("empty").length());
+    }
+
+    @Test
+    public void testTokenizerOnFramerLine() {
+        final BangleJSUartFramer framer = new BangleJSUartFramer();
+        final List<JSONObject> objects = new ArrayList<>();
+
+        framer.append(bytes("{\"t\":\"file\",\"n\":\"a.csv\",\"c\":\"1,2\\n3,4\\n\"}\r\n"), line -> {
+            try {
+                objects.add(BangleJSJsonTokenizer.parseObject(line));
+            } catch (final JSONException e) {
+                fail(e.getMessage());
+            }
+        });
+
+        assertEquals(1, objects.size());
+        assertEquals("1,2\n3,4\n", objects.get(0).optString("c"));
+    }
+
+    @Test
+    public void testTokenizerErrors() {
+        for (final String invalid : Arrays.asList("{\"t\":}", "{\"t\":\"a\"", "{t:1}", "{\"t\":1} x", "{\"t\":tru}", "[1]")) {
+            try {
+                BangleJSJsonTokenizer.parseObject(invalid);
+                fail("Expected failure for " + invalid);
+            } catch (final JSONException e) {
+                // expected
+            }
+        }
+    }
+
+    private static byte[] bytes(final String s) {
+        return s.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -3,9 +3,14 @@ package nodomain.freeyourgadget.gadgetbridge.service.devices.garmin;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.FieldDefinition;
@@ -16,7 +21,7 @@ import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDef
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
 import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.baseTypes.BaseType;
 import nodomain.freeyourgadget.gadgetbridge.test.TestBase;
-import nodomain.freeyourgadget.gadgetbridge.util.GB;
+import nodomain.freeyourgadget.gadgetbridge.util.FileUtils;
 
 public class GarminSupportTest extends TestBase {
     @Test
@@ -270,66 +275,9 @@ public class GarminSupportTest extends TestBase {
     }
 
     @Test
-    public void TestFitFileSettings2() {
+    public void TestFitFileSettings2() throws IOException {
 
-        byte[] fileContents = GB.hexStringToByteArray("0e101405b90600002e464954b18b40000000000603048c04048601028402" +
-                "028405028400010000ed2adce7ffffffff01001906ffff02410000310002" +
-                "000284010102015401ff4200000200160104860204860001020301000401" +
-                "000501010a01000b01000c01000d01020e01020f01021001001101001201" +
-                "001501001601001a01001b01001d01003401003501000200000000000000" +
-                "0000000000030002000032ffffff0100fe00000001430000030013000807" +
-                "0402840101000201020301020501000601000701000801020a01020b0102" +
-                "0c01000d01000e0100100100110100120100150100180102036564676535" +
-                "3130000c030129b70000003cb9b901000001a80200ff440000040004fe02" +
-                "8401028b00010203010a04000058c3010145000006002400040703048627" +
-                "040a290c0afe028404028b05028b06028b07028b0802840902840a02840b" +
-                "02842a028b0101000201000c01020d01020e01020f010210010211010212" +
-                "010213010214010215010a16010a17010a18010a23030224010025010226" +
-                "010a28010a2b010a2c01000545564f00849eb90227350000171513121110" +
-                "0f0e0d0c0b00000000000000000001ba300800005000f4010000ffff0101" +
-                "0000000001fe01000000050032ff04ff020b000046000006002400050703" +
-                "048627040a290c0afe028404028b05028b06028b07028b0802840902840a" +
-                "02840b02842a028b0101000201000c01020d01020e01020f010210010211" +
-                "010212010213010214010215010a16010a17010a18010a23030224010025" +
-                "010226010a28010a2b010a2c0100065032534c0000000000273500001715" +
-                "131211100f0e0d0c0b000100000000000000316e300800005a00f4010000" +
-                "ffff01010000000001fe01000000050076be04ff020b0000470000060024" +
-                "00090703048627040a290c0afe028404028b05028b06028b07028b080284" +
-                "0902840a02840b02842a028b0101000201000c01020d01020e01020f0102" +
-                "10010211010212010213010214010215010a16010a17010a18010a230302" +
-                "24010025010226010a28010a2b010a2c0100074c414e47535445520013cc" +
-                "1200273500001715131211100f0e0d0c0b000200000000000000632a3008" +
-                "00005f00f4010000ffff010100000000010001000000050032ff04ff020b" +
-                "000048000006002400020703048627040a290c0afe028404028b05028b06" +
-                "028b07028b0802840902840a02840b02842a028b0101000201000c01020d" +
-                "01020e01020f010210010211010212010213010214010215010a16010a17" +
-                "010a18010a23030224010025010226010a28010a2b010a2c0100084d0000" +
-                "000000352700001715131211100f0e0d0c0b000300000000000000697a30" +
-                "0800005f00f4010000ffff010100000000010001000000050032ff04ff02" +
-                "0b000049000006002400070703048627040a290c0afe028404028b05028b" +
-                "06028b07028b0802840902840a02840b02842a028b0101000201000c0102" +
-                "0d01020e01020f010210010211010212010213010214010215010a16010a" +
-                "17010a18010a23030224010025010226010a28010a2b010a2c0100094269" +
-                "6b6520350000000000273500001715131211100f0e0d0c0b000400000000" +
-                "0000000000300800005f00f4010000ffff01010000000000fe0000000000" +
-                "0032ff04ff020b00000942696b6520360000000000273500001715131211" +
-                "100f0e0d0c0b0005000000000000000000300800005f00f4010000ffff01" +
-                "010000000000fe00000000000032ff04ff020b00000942696b6520370000" +
-                "000000273500001715131211100f0e0d0c0b000600000000000000000030" +
-                "0800005f00f4010000ffff01010000000000fe00000000000032ff04ff02" +
-                "0b00000942696b6520380000000000273500001715131211100f0e0d0c0b" +
-                "0007000000000000000000300800005f00f4010000ffff01010000000000" +
-                "fe00000000000032ff04ff020b00000942696b6520390000000000273500" +
-                "001715131211100f0e0d0c0b0008000000000000000000300800005f00f4" +
-                "010000ffff01010000000000fe00000000000032ff04ff020b00004a0000" +
-                "06002400080703048627040a290c0afe028404028b05028b06028b07028b" +
-                "0802840902840a02840b02842a028b0101000201000c01020d01020e0102" +
-                "0f010210010211010212010213010214010215010a16010a17010a18010a" +
-                "23030224010025010226010a28010a2b010a2c01000a42696b6520313000" +
-                "00000000273500001715131211100f0e0d0c0b0009000000000000000000" +
-                "300800005f00f4010000ffff01010000000000fe00000000000032ff04ff" +
-                "020b00004b00007f00090309070001000401000501000601000701000801" +
-                "000901000a01000b45646765203531300000ffffffffffffff09ef");//https://github.com/polyvertex/fitdecode/blob/48b6554d8a3baf33f8b5b9b2fd079fcbe9ac8ce2/tests/files/Settings2.fit
+        byte[] fileContents = readFitFile("Settings2.fit"); // https://github.com/polyvertex/fitdecode/blob/48b6554d8a3baf33f8b5b9b2fd079fcbe9ac8ce2/tests/files/Settings2.fit
 
         String expectedOutput = "[" +
                 "FitFileId{serial_number=3889965805, manufacturer=1, product=1561, type=SETTINGS}, " +
@@ -356,8 +304,8 @@ public class GarminSupportTest extends TestBase {
     }
 
     @Test
-    public void TestFitFileDevelopersField() {
-        byte[] fileContents = GB.hexStringToByteArray("0e206806a20000002e464954bed040000100000401028400010002028403048c00000f042329000006a540000100cf0201100d030102000101020305080d1522375990e97962db0040000100ce05000102010102020102031107080a0700000001646f7567686e7574735f6561726e656400646f7567686e7574730060000100140403010204010205048606028401000100008c580000c738b98001008f5a00032c808e400200905c0005a9388a1003d39e");//https://github.com/polyvertex/fitdecode/blob/48b6554d8a3baf33f8b5b9b2fd079fcbe9ac8ce2/tests/files/DeveloperData.fit
+    public void TestFitFileDevelopersField() throws IOException {
+        byte[] fileContents = readFitFile("DeveloperData.fit"); // https://github.com/polyvertex/fitdecode/blob/48b6554d8a3baf33f8b5b9b2fd079fcbe9ac8ce2/tests/files/DeveloperData.fit
 
         String expectedOutput = "[" +
                 "FitFileId{manufacturer=15, type=ACTIVITY, product=9001, serial_number=1701}, " +
@@ -371,4 +319,35 @@ public class GarminSupportTest extends TestBase {
         FitFile fitFile = FitFile.parseIncoming(fileContents);
         Assert.assertEquals(expectedOutput, fitFile.toString());
     }
+
+    @Test
+    public void TestFitFileRepeatedDefinitions() {
+        final List<RecordData> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            // distinct but identical definitions, so that each one is written to the file
+            final RecordDefinition recordDefinition = new RecordDefinition(new RecordHeader(true, false, 0, null), ByteOrder.LITTLE_ENDIAN, GlobalFITMessage.WEATHER, null, null);
+            recordDefinition.setFieldDefinitions(Collections.singletonList(new FieldDefinition(200, 2, BaseType.UINT16, "")));
+            final RecordData recordData = new RecordData(recordDefinition, recordDefinition.getRecordHeader());
+            recordData.setFieldByNumber(200, 100 + i);
+            records.add(recordData);
+        }
+        final byte[] fileContents = new FitFile(records).getOutgoingMessage();
+
+        final FitFile fitFile = FitFile.parseIncoming(fileContents);
+        Assert.assertEquals(3, fitFile.getRecords().size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(100 + i, fitFile.getRecords().get(i).getFieldByNumber(200));
+        }
+        Assert.assertSame(fitFile.getRecords().get(0).getRecordDefinition(), fitFile.getRecords().get(2).getRecordDefinition());
+
+        final List<Object> visited = new ArrayList<>();
+        FitFile.visitIncoming(ByteBuffer.wrap(fileContents), record -> visited.add(record.getFieldByNumber(200)));
+        Assert.assertEquals(Arrays.asList(100, 101, 102), visited);
+    }
+
+    private byte[] readFitFile(final String name) throws IOException {
+        try (InputStream inputStream = getClass().getResourceAsStream("/fit/" + name)) {
+            return FileUtils.readAll(inputStream, 1024 * 1024);
+        }
+    }
 }
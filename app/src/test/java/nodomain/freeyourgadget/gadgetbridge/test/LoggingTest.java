@@ -79,4 +79,17 @@ public class LoggingTest extends TestBase {
         tempOut = Logging.formatBytes(new byte[] {0xa, 1, (byte) 255});
         assertEquals("0x0a 0x01 0xff", tempOut);
     }
+
+    @Test
+    public void testLazyBytes() {
+        final byte[] bytes = new byte[] {0xa, 1, (byte) 255};
+        final Object formatBytes = Logging.lazyFormatBytes(bytes);
+        final Object hexdump = Logging.lazyHexdump(bytes, 1, 2);
+
+        // formatted later, with the bytes as they were when logged
+        bytes[1] = 2;
+        assertEquals("0x0a 0x01 0xff", formatBytes.toString());
+        assertEquals("01FF", hexdump.toString());
+        assertEquals("(null)", Logging.lazyHexdump(null).toString());
+    }
 }
@@ -0,0 +1,35 @@
+package nodomain.freeyourgadget.gadgetbridge.util;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ExpiringCacheTest {
+    @Test
+    public void testMaxSize() {
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(2, 1, TimeUnit.HOURS);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.put("a", 3);
+        cache.put("c", 4);
+
+        // "b" is the eldest write, since "a" was written again
+        assertEquals(2, cache.size());
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("a").intValue());
+        assertEquals(4, cache.get("c").intValue());
+    }
+
+    @Test
+    public void testMaxAge() throws InterruptedException {
+        final ExpiringCache<String, Integer> cache = new ExpiringCache<>(10, 20, TimeUnit.MILLISECONDS);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a").intValue());
+
+        Thread.sleep(50);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -278,6 +278,27 @@ public class LanguageUtilsTest extends TestBase {
         assertEquals("300 Kc", multiTransliterator.transliterate("300\u00A0Kč"));
     }
 
+    @Test
+    public void testCompiledTransliterator() throws Exception {
+        final String languages = "extended_ascii,scandinavian,german,russian,hebrew,greek,ukranian,arabic,persian,lithuanian,polish,estonian,icelandic,czech,turkish,bengali,korean,georgian,croatian";
+        for (final boolean flattenToAscii : new boolean[]{false, true}) {
+            final MultiTransliterator expected = new MultiTransliterator(LanguageUtils.getTransliterators(languages, flattenToAscii));
+            final Transliterator compiled = CompiledTransliterator.compile(LanguageUtils.getTransliterators(languages, flattenToAscii));
+
+            for (final String input : Arrays.asList(
+                    "",
+                    "Plain ASCII text",
+                    "Žluťoučký kůň úpěl »ďábelské« „ódy“",
+                    "ПРИВЕТ, Щука и Ёж! Шалом שלום",
+                    "Γειά σου Κόσμε, Straße Øresund Ærø",
+                    "안녕하세요 মাছ ქართული",
+                    "Ölçü İstanbul ığ 300\u00A0Kč"
+            )) {
+                assertEquals("compiled transliteration differs for " + input, expected.transliterate(input), compiled.transliterate(input));
+            }
+        }
+    }
+
     @Test
     public void testTransliterateOption() throws Exception {
         enableTransliteration(false);
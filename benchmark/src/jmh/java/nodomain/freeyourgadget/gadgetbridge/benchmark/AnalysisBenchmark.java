@@ -0,0 +1,156 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.activities.charts.ActivityAnalysis;
+import nodomain.freeyourgadget.gadgetbridge.activities.charts.SleepAnalysis;
+import nodomain.freeyourgadget.gadgetbridge.activities.charts.StepAnalysis;
+import nodomain.freeyourgadget.gadgetbridge.devices.SampleProvider;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityAmounts;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityKind;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySample;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivitySession;
+
+/**
+ * Activity, sleep and step session analysis over a week of per-minute samples, as used by the
+ * charts and the dashboard. There are no activity sample fixtures in the unit tests, so the samples
+ * are synthetic: six hours of alternating light and deep sleep per night, and activity during the
+ * day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AnalysisBenchmark {
+    private static final int NUM_SAMPLES = 7 * 24 * 60;
+
+    private final List<ActivitySample> samples = new ArrayList<>(NUM_SAMPLES);
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        // The step analysis reads its thresholds from the preferences
+        BenchmarkFixtures.installDefaultPrefs();
+
+        final int start = 1700000000;
+        for (int i = 0; i < NUM_SAMPLES; i++) {
+            final int minuteOfDay = i % (24 * 60);
+            final ActivityKind kind;
+            if (minuteOfDay < 6 * 60) {
+                kind = (minuteOfDay / 90) % 2 == 0 ? ActivityKind.LIGHT_SLEEP : ActivityKind.DEEP_SLEEP;
+            } else {
+                kind = ActivityKind.ACTIVITY;
+            }
+            final int steps = kind == ActivityKind.ACTIVITY ? (minuteOfDay * 7) % 120 : 0;
+            samples.add(new Sample(start + i * 60, kind, steps, 60 + (i % 50)));
+        }
+    }
+
+    @Benchmark
+    public ActivityAmounts calculateActivityAmounts() {
+        return new ActivityAnalysis().calculateActivityAmounts(samples);
+    }
+
+    @Benchmark
+    public List<SleepAnalysis.SleepSession> calculateSleepSessions() {
+        return new SleepAnalysis().calculateSleepSessions(samples);
+    }
+
+    @Benchmark
+    public List<ActivitySession> calculateStepSessions() {
+        return new StepAnalysis().calculateStepSessions(samples);
+    }
+
+    private static class Sample implements ActivitySample {
+        private final int timestamp;
+        private final ActivityKind kind;
+        private final int steps;
+        private int heartRate;
+
+        private Sample(final int timestamp, final ActivityKind kind, final int steps, final int heartRate) {
+            this.timestamp = timestamp;
+            this.kind = kind;
+            this.steps = steps;
+            this.heartRate = heartRate;
+        }
+
+        @Override
+        public SampleProvider<?> getProvider() {
+            return null;
+        }
+
+        @Override
+        public int getRawKind() {
+            return kind.getCode();
+        }
+
+        @Override
+        public ActivityKind getKind() {
+            return kind;
+        }
+
+        @Override
+        public int getRawIntensity() {
+            return steps;
+        }
+
+        @Override
+        public float getIntensity() {
+            return steps / 120f;
+        }
+
+        @Override
+        public int getSteps() {
+            return steps;
+        }
+
+        @Override
+        public int getDistanceCm() {
+            return steps * 70;
+        }
+
+        @Override
+        public int getActiveCalories() {
+            return steps / 20;
+        }
+
+        @Override
+        public int getHeartRate() {
+            return heartRate;
+        }
+
+        @Override
+        public void setHeartRate(final int value) {
+            heartRate = value;
+        }
+
+        @Override
+        public int getTimestamp() {
+            return timestamp;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import android.content.SharedPreferences;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+import nodomain.freeyourgadget.gadgetbridge.GBApplication;
+import nodomain.freeyourgadget.gadgetbridge.util.GBPrefs;
+
+/**
+ * Access to the unit test fixtures of the app, and to the state that the app would otherwise set
+ * up on start.
+ */
+final class BenchmarkFixtures {
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * @param name path relative to the unit test resources of the app
+     */
+    static byte[] readTestResource(final String name) throws IOException {
+        final String testResources = System.getProperty("gadgetbridge.testResources");
+        if (testResources == null) {
+            throw new IllegalStateException("gadgetbridge.testResources is not set");
+        }
+        return Files.readAllBytes(new File(testResources, name).toPath());
+    }
+
+    /**
+     * Makes {@link GBApplication#getPrefs()} return the default of every preference, as on a fresh
+     * install. Must be called before anything caches the preferences.
+     */
+    static void installDefaultPrefs() throws ReflectiveOperationException {
+        final Field prefs = GBApplication.class.getDeclaredField("prefs");
+        prefs.setAccessible(true);
+        prefs.set(null, new GBPrefs(new EmptySharedPreferences()));
+    }
+
+    private static class EmptySharedPreferences implements SharedPreferences {
+        @Override
+        public Map<String, ?> getAll() {
+            return Collections.emptyMap();
+        }
+
+        @Override
+        public String getString(final String key, final String defValue) {
+            return defValue;
+        }
+
+        @Override
+        public Set<String> getStringSet(final String key, final Set<String> defValues) {
+            return defValues;
+        }
+
+        @Override
+        public int getInt(final String key, final int defValue) {
+            return defValue;
+        }
+
+        @Override
+        public long getLong(final String key, final long defValue) {
+            return defValue;
+        }
+
+        @Override
+        public float getFloat(final String key, final float defValue) {
+            return defValue;
+        }
+
+        @Override
+        public boolean getBoolean(final String key, final boolean defValue) {
+            return defValue;
+        }
+
+        @Override
+        public boolean contains(final String key) {
+            return false;
+        }
+
+        @Override
+        public Editor edit() {
+            throw new UnsupportedOperationException("The benchmark preferences are read-only");
+        }
+
+        @Override
+        public void registerOnSharedPreferenceChangeListener(final OnSharedPreferenceChangeListener listener) {
+        }
+
+        @Override
+        public void unregisterOnSharedPreferenceChangeListener(final OnSharedPreferenceChangeListener listener) {
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.FitFile;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.GlobalFITMessage;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordData;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordDefinition;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.RecordHeader;
+import nodomain.freeyourgadget.gadgetbridge.service.devices.garmin.fit.messages.FitRecordDataFactory;
+
+/**
+ * Decoding of the fit files of the unit tests, and of a synthetic activity with one track point per
+ * second for eight hours.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FitFileBenchmark {
+    private static final String SYNTHETIC = "synthetic";
+    private static final int SYNTHETIC_RECORDS = 28800;
+
+    @Param({"Settings2.fit", "DeveloperData.fit", SYNTHETIC})
+    public String fitFile;
+
+    private byte[] fitBytes;
+
+    @Setup
+    public void setup() throws IOException {
+        if (SYNTHETIC.equals(fitFile)) {
+            fitBytes = createSyntheticActivity();
+        } else {
+            fitBytes = BenchmarkFixtures.readTestResource("fit/" + fitFile);
+        }
+    }
+
+    private static byte[] createSyntheticActivity() {
+        final RecordDefinition definition = new RecordDefinition(
+                new RecordHeader((byte) 0x45),
+                ByteOrder.BIG_ENDIAN,
+                GlobalFITMessage.RECORD,
+                GlobalFITMessage.RECORD.getFieldDefinitions(0, 1, 2, 3, 5, 253),
+                null
+        );
+        final RecordHeader header = new RecordHeader((byte) 0x05);
+
+        final List<RecordData> records = new ArrayList<>(SYNTHETIC_RECORDS);
+        final long start = 1700000000L;
+        for (int i = 0; i < SYNTHETIC_RECORDS; i++) {
+            final RecordData record = FitRecordDataFactory.create(definition, header);
+            record.setFieldByName("latitude", 48.0 + i * 0.00001);
+            record.setFieldByName("longitude", 11.0 + i * 0.00001);
+            record.setFieldByName("altitude", 500.0 + (i % 100));
+            record.setFieldByName("heart_rate", 80 + (i % 60));
+            record.setFieldByName("distance", i * 2.5);
+            record.setFieldByName("timestamp", start + i);
+            records.add(record);
+        }
+
+        return new FitFile(records).getOutgoingMessage();
+    }
+
+    @Benchmark
+    public FitFile parseIncoming() {
+        return FitFile.parseIncoming(fitBytes);
+    }
+
+    @Benchmark
+    public void visitIncoming(final Blackhole blackhole) {
+        FitFile.visitIncoming(ByteBuffer.wrap(fitBytes), record -> blackhole.consume(record.getComputedTimestamp()));
+    }
+}
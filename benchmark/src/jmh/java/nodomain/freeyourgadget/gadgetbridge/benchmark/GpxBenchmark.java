@@ -0,0 +1,92 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.kxml2.io.KXmlSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.entities.Device;
+import nodomain.freeyourgadget.gadgetbridge.entities.User;
+import nodomain.freeyourgadget.gadgetbridge.export.ActivityTrackExporter;
+import nodomain.freeyourgadget.gadgetbridge.export.GPXExporter;
+import nodomain.freeyourgadget.gadgetbridge.model.ActivityTrack;
+import nodomain.freeyourgadget.gadgetbridge.util.gpx.GpxParser;
+import nodomain.freeyourgadget.gadgetbridge.util.gpx.model.GpxFile;
+
+/**
+ * Parsing the gpx files of the unit tests, and exporting their tracks again.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GpxBenchmark {
+    @Param({"gpx-exporter-test-SampleTrack.gpx", "gpx-parser-test-multiple-segments.gpx", "gpx-parser-test-order.gpx"})
+    public String gpxFile;
+
+    private byte[] gpxBytes;
+    private ActivityTrack track;
+
+    @Setup
+    public void setup() throws IOException, ReflectiveOperationException {
+        // The exporter checks heart rates against the chart settings
+        BenchmarkFixtures.installDefaultPrefs();
+
+        gpxBytes = BenchmarkFixtures.readTestResource(gpxFile);
+        final GpxFile parsed = GpxParser.parseGpx(gpxBytes);
+        if (parsed == null) {
+            throw new IllegalStateException("Failed to parse " + gpxFile);
+        }
+
+        final User user = new User();
+        user.setName("Benchmark User");
+        final Device device = new Device();
+        device.setName("Benchmark Device");
+
+        track = new ActivityTrack();
+        track.setName(parsed.getName());
+        track.setBaseTime(new Date());
+        track.setUser(user);
+        track.setDevice(device);
+        track.addTrackPoints(parsed.getActivityPoints());
+    }
+
+    @Benchmark
+    public GpxFile parse() {
+        return GpxParser.parseGpx(gpxBytes);
+    }
+
+    @Benchmark
+    public byte[] export() throws IOException, ActivityTrackExporter.GPXTrackEmptyException {
+        final GPXExporter exporter = new GPXExporter();
+        exporter.setCreator("Gadgetbridge Benchmark");
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(gpxBytes.length * 2);
+        exporter.performExport(track, out, new KXmlSerializer());
+        return out.toByteArray();
+    }
+}
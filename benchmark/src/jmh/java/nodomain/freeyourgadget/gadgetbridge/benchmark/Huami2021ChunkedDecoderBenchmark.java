@@ -0,0 +1,93 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.service.devices.huami.Huami2021ChunkedDecoder;
+
+/**
+ * Reassembly of a plaintext chunked Zepp OS payload from MTU-sized chunks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class Huami2021ChunkedDecoderBenchmark {
+    private static final int CHUNK_PAYLOAD_SIZE = 244 - 4;
+
+    @Param({"512", "65536"})
+    public int payloadSize;
+
+    private final List<byte[]> chunks = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        final byte[] payload = new byte[payloadSize];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = (byte) i;
+        }
+
+        final int type = 0x0016;
+        int offset = 0;
+        byte count = 0;
+        while (offset < payload.length) {
+            final boolean first = offset == 0;
+            final int headerSize = first ? 10 : 4;
+            final int size = Math.min(CHUNK_PAYLOAD_SIZE - (headerSize - 4), payload.length - offset);
+            final boolean last = offset + size == payload.length;
+
+            final ByteArrayOutputStream chunk = new ByteArrayOutputStream(headerSize + size);
+            chunk.write(0x03);
+            chunk.write((first ? 0x01 : 0) | (last ? 0x02 : 0));
+            chunk.write(0x01); // handle
+            chunk.write(count++);
+            if (first) {
+                chunk.write(payload.length & 0xff);
+                chunk.write((payload.length >> 8) & 0xff);
+                chunk.write((payload.length >> 16) & 0xff);
+                chunk.write((payload.length >> 24) & 0xff);
+                chunk.write(type & 0xff);
+                chunk.write((type >> 8) & 0xff);
+            }
+            chunk.write(payload, offset, size);
+            chunks.add(chunk.toByteArray());
+
+            offset += size;
+        }
+    }
+
+    @Benchmark
+    public void decode(final Blackhole blackhole) {
+        final Huami2021ChunkedDecoder decoder = new Huami2021ChunkedDecoder((type, payload) -> blackhole.consume(payload), false);
+        for (final byte[] chunk : chunks) {
+            blackhole.consume(decoder.decode(chunk));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.devices.huawei.HuaweiPacket;
+import nodomain.freeyourgadget.gadgetbridge.devices.huawei.HuaweiTLV;
+
+/**
+ * Parsing of Huawei TLVs and packets, with and without encryption.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HuaweiBenchmark {
+    // Same packets as in TestHuaweiPacket
+    private static final byte[] UNENCRYPTED_PACKET = {0x5a, 0x00, 0x07, 0x00, 0x7f, 0x7f, 0x01, 0x02, 0x03, 0x04, 0x40, (byte) 0xb6};
+    private static final byte[] ENCRYPTED_PACKET = {(byte) 0x5a, (byte) 0x00, (byte) 0x2a, (byte) 0x00, (byte) 0x0b, (byte) 0x01, (byte) 0x7c, (byte) 0x01, (byte) 0x01, (byte) 0x7d, (byte) 0x10, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x00, (byte) 0x7e, (byte) 0x10, (byte) 0x28, (byte) 0x00, (byte) 0x99, (byte) 0x6f, (byte) 0x2a, (byte) 0xcb, (byte) 0x62, (byte) 0x3a, (byte) 0xe6, (byte) 0x54, (byte) 0x28, (byte) 0x54, (byte) 0xf8, (byte) 0xab, (byte) 0x54, (byte) 0x83, (byte) 0xf4, (byte) 0xf4};
+
+    private final HuaweiPacket.ParamsProvider paramsProvider = new HuaweiPacket.ParamsProvider() {
+        @Override
+        public byte getDeviceSupportType() {
+            return 0;
+        }
+
+        @Override
+        public byte[] getSecretKey() {
+            return new byte[16];
+        }
+
+        @Override
+        public byte[] getIv() {
+            return new byte[16];
+        }
+
+        @Override
+        public boolean areTransactionsCrypted() {
+            return false;
+        }
+
+        @Override
+        public int getMtu() {
+            return 0;
+        }
+
+        @Override
+        public int getSliceSize() {
+            return 0xF4;
+        }
+    };
+
+    private byte[] largeTlv;
+
+    @Setup
+    public void setup() {
+        // Roughly the shape of a workout data response: many small numeric tags and a few blobs
+        final HuaweiTLV tlv = new HuaweiTLV();
+        for (int i = 0; i < 100; i++) {
+            tlv.put(0x01 + (i % 0x70), i * 1000);
+        }
+        for (int i = 0; i < 8; i++) {
+            tlv.put(0x71 + i, new byte[200]);
+        }
+        largeTlv = tlv.serialize();
+    }
+
+    @Benchmark
+    public HuaweiTLV parseTlv() {
+        return new HuaweiTLV().parse(largeTlv);
+    }
+
+    @Benchmark
+    public HuaweiPacket parseUnencryptedPacket() throws HuaweiPacket.ParseException {
+        return new HuaweiPacket(paramsProvider).parse(UNENCRYPTED_PACKET);
+    }
+
+    @Benchmark
+    public HuaweiPacket parseEncryptedPacket() throws HuaweiPacket.ParseException {
+        return new HuaweiPacket(paramsProvider).parse(ENCRYPTED_PACKET);
+    }
+}
@@ -0,0 +1,108 @@
+/*  Copyright (C) 2024 Gadgetbridge contributors
+
+    This file is part of Gadgetbridge.
+
+    Gadgetbridge is free software: you can redistribute it and/or modify
+    it under the terms of the GNU Affero General Public License as published
+    by the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    Gadgetbridge is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU Affero General Public License for more details.
+
+    You should have received a copy of the GNU Affero General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>. */
+package nodomain.freeyourgadget.gadgetbridge.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nodomain.freeyourgadget.gadgetbridge.util.language.CompiledTransliterator;
+import nodomain.freeyourgadget.gadgetbridge.util.language.LanguageUtils;
+import nodomain.freeyourgadget.gadgetbridge.util.language.MultiTransliterator;
+import nodomain.freeyourgadget.gadgetbridge.util.language.Transliterator;
+import nodomain.freeyourgadget.gadgetbridge.util.language.impl.FlattenToAsciiTransliterator;
+
+/**
+ * Transliteration of a batch of notification texts with many languages enabled, for a device
+ * without unicode support, through the chain of transliterators and the compiled one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransliterationBenchmark {
+    private static final String[] LANGUAGES = {
+            "extended_ascii", "common_symbols", "scandinavian", "german", "french", "russian", "ukranian",
+            "greek", "polish", "czech", "turkish", "croatian", "hungarian", "lithuanian", "latvian", "estonian",
+    };
+
+    private static final String[] TEXTS = {
+            "Anna: Are we still on for lunch tomorrow? I can be there at 12:30",
+            "Новое сообщение от Дмитрия: Привет! Когда ты будешь дома?",
+            "Ελένη: Καλημέρα, τα λέμε το απόγευμα στο γραφείο",
+            "Paweł Żółkiewski: Dzięki za wczoraj, było świetnie",
+            "Jürgen: Die Besprechung wurde auf Donnerstag verschoben. Grüße",
+            "Ayşe: Yarın sabah İstanbul'a gidiyorum, görüşürüz",
+            "Calendar: Réunion «Budget 2025» — salle Ørsted, 14:00–15:30",
+            "Your order #48213 has shipped and will arrive on Monday",
+            "Petr Novák: Přijdu asi o čtvrt hodiny později, omlouvám se",
+            "Оксана: Добрий вечір! Ти вже бачила нові фото?",
+    };
+
+    private final List<String> notifications = new ArrayList<>();
+    private Transliterator chained;
+    private Transliterator compiled;
+
+    @Setup
+    public void setup() {
+        final List<Transliterator> transliterators = new ArrayList<>();
+        for (final String language : LANGUAGES) {
+            transliterators.add(LanguageUtils.getTransliterator(language));
+        }
+        transliterators.add(new FlattenToAsciiTransliterator());
+
+        chained = new MultiTransliterator(transliterators);
+        compiled = CompiledTransliterator.compile(transliterators);
+
+        for (int i = 0; i < 10; i++) {
+            for (final String text : TEXTS) {
+                notifications.add(text);
+            }
+        }
+    }
+
+    @Benchmark
+    public void chained(final Blackhole blackhole) {
+        for (final String notification : notifications) {
+            blackhole.consume(chained.transliterate(notification));
+        }
+    }
+
+    @Benchmark
+    public void compiled(final Blackhole blackhole) {
+        for (final String notification : notifications) {
+            blackhole.consume(compiled.transliterate(notification));
+        }
+    }
+
+    @Benchmark
+    public Transliterator compile() {
+        final List<Transliterator> transliterators = new ArrayList<>();
+        for (final String language : LANGUAGES) {
+            transliterators.add(LanguageUtils.getTransliterator(language));
+        }
+        return CompiledTransliterator.compile(transliterators);
+    }
+}